@@ -32,6 +32,7 @@ import io.advantageous.conekt.spi.IoActorFactory;
 import io.netty.channel.EventLoopGroup;
 import io.advantageous.conekt.datagram.DatagramSocket;
 import io.advantageous.conekt.dns.DnsClient;
+import io.advantageous.conekt.dns.DnsClientOptions;
 import io.advantageous.conekt.eventbus.EventBus;
 import io.advantageous.conekt.file.FileSystem;
 import io.advantageous.conekt.http.HttpClient;
@@ -220,6 +221,14 @@ public interface Conekt extends Measured {
      */
     DnsClient createDnsClient(int port, String host);
 
+    /**
+     * Create a DNS client sending its queries to the servers of the specified options
+     *
+     * @param options the client options
+     * @return the DNS client
+     */
+    DnsClient createDnsClient(DnsClientOptions options);
+
 
     /**
      * Set a one-shot timer to fire after {@code delay} milliseconds, at which point {@code handler} will be called with
@@ -458,4 +467,9 @@ public interface Conekt extends Measured {
      * @return the EventLoopGroup
      */
     EventLoopGroup nettyEventLoopGroup();
+
+    /**
+     * @return whether the native transport is used, see {@link ConektOptions#setPreferNativeTransport(boolean)}
+     */
+    boolean isNativeTransportEnabled();
 }
@@ -25,6 +25,8 @@
 
 package io.advantageous.conekt;
 
+import io.advantageous.conekt.buffer.BufferPooling;
+import io.advantageous.conekt.dns.AddressResolverOptions;
 import io.advantageous.conekt.metrics.MetricsOptions;
 
 import java.util.Objects;
@@ -111,6 +113,61 @@ public class ConektOptions {
      */
     public static final String DEFAULT_HA_GROUP = "__DEFAULT__";
 
+    /**
+     * The default maximum number of entries of the DNS cache = 0 (disabled)
+     */
+    public static final int DEFAULT_DNS_CACHE_MAX_SIZE = 0;
+
+    /**
+     * The default value of prefer native transport = false
+     */
+    public static final boolean DEFAULT_PREFER_NATIVE_TRANSPORT = false;
+
+    /**
+     * The default maximum number of tasks an ordered executor runs before giving its pool thread back = 0 (no limit)
+     */
+    public static final int DEFAULT_ORDERED_TASK_BATCH_SIZE = 0;
+
+    /**
+     * The default tick duration in ms of the timer wheels = 0 (timers use the event loop scheduler)
+     */
+    public static final long DEFAULT_TIMER_WHEEL_TICK_DURATION = 0;
+
+    /**
+     * The default number of buckets of a timer wheel = 512
+     */
+    public static final int DEFAULT_TIMER_WHEEL_SIZE = 512;
+
+    /**
+     * The default maximum number of event bus messages delivered to a context in one task = 1
+     */
+    public static final int DEFAULT_EVENT_BUS_DELIVERY_BATCH_SIZE = 1;
+
+    /**
+     * The default buffer pooling = PARTIALLY_POOLED (only direct buffers are pooled)
+     */
+    public static final BufferPooling DEFAULT_BUFFER_POOLING = BufferPooling.PARTIALLY_POOLED;
+
+    /**
+     * The default number of arenas of the buffer pool = 2 * number of cores on the machine
+     */
+    public static final int DEFAULT_BUFFER_POOL_ARENAS = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The default size of the chunks of the buffer pool arenas = 16777216 (16MB)
+     */
+    public static final int DEFAULT_BUFFER_POOL_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The default maximum number of bytes held by the file content cache = 0 (disabled)
+     */
+    public static final long DEFAULT_FILE_CACHE_MAX_SIZE = 0;
+
+    /**
+     * The default maximum size of a file held by the file content cache = 65536 (64KB)
+     */
+    public static final int DEFAULT_FILE_CACHE_MAX_FILE_SIZE = 64 * 1024;
+
     /**
      * The default value of warning exception time 5000000000 ns (5 seconds)
      * If a thread is blocked longer than this threshold, the warning log
@@ -135,6 +192,18 @@ public class ConektOptions {
     private String haGroup = DEFAULT_HA_GROUP;
     private MetricsOptions metrics = new MetricsOptions();
     private long warningExceptionTime = DEFAULT_WARNING_EXECPTION_TIME;
+    private AddressResolverOptions addressResolverOptions = new AddressResolverOptions();
+    private int dnsCacheMaxSize = DEFAULT_DNS_CACHE_MAX_SIZE;
+    private boolean preferNativeTransport = DEFAULT_PREFER_NATIVE_TRANSPORT;
+    private int orderedTaskBatchSize = DEFAULT_ORDERED_TASK_BATCH_SIZE;
+    private long timerWheelTickDuration = DEFAULT_TIMER_WHEEL_TICK_DURATION;
+    private int timerWheelSize = DEFAULT_TIMER_WHEEL_SIZE;
+    private int eventBusDeliveryBatchSize = DEFAULT_EVENT_BUS_DELIVERY_BATCH_SIZE;
+    private BufferPooling bufferPooling = DEFAULT_BUFFER_POOLING;
+    private int bufferPoolArenas = DEFAULT_BUFFER_POOL_ARENAS;
+    private int bufferPoolChunkSize = DEFAULT_BUFFER_POOL_CHUNK_SIZE;
+    private long fileCacheMaxSize = DEFAULT_FILE_CACHE_MAX_SIZE;
+    private int fileCacheMaxFileSize = DEFAULT_FILE_CACHE_MAX_FILE_SIZE;
 
     /**
      * Default constructor
@@ -165,6 +234,18 @@ public class ConektOptions {
         this.haGroup = other.getHAGroup();
         this.metrics = other.getMetricsOptions() != null ? new MetricsOptions(other.getMetricsOptions()) : null;
         this.warningExceptionTime = other.warningExceptionTime;
+        this.addressResolverOptions = other.addressResolverOptions != null ? new AddressResolverOptions(other.getAddressResolverOptions()) : null;
+        this.dnsCacheMaxSize = other.getDnsCacheMaxSize();
+        this.preferNativeTransport = other.getPreferNativeTransport();
+        this.orderedTaskBatchSize = other.getOrderedTaskBatchSize();
+        this.timerWheelTickDuration = other.getTimerWheelTickDuration();
+        this.timerWheelSize = other.getTimerWheelSize();
+        this.eventBusDeliveryBatchSize = other.getEventBusDeliveryBatchSize();
+        this.bufferPooling = other.getBufferPooling();
+        this.bufferPoolArenas = other.getBufferPoolArenas();
+        this.bufferPoolChunkSize = other.getBufferPoolChunkSize();
+        this.fileCacheMaxSize = other.getFileCacheMaxSize();
+        this.fileCacheMaxFileSize = other.getFileCacheMaxFileSize();
     }
 
 
@@ -569,6 +650,290 @@ public class ConektOptions {
         return this;
     }
 
+    /**
+     * @return the address resolver options to configure resolving DNS servers, cache TTL, etc...
+     */
+    public AddressResolverOptions getAddressResolverOptions() {
+        return addressResolverOptions;
+    }
+
+    /**
+     * Sets the address resolver configuration to configure resolving DNS servers, cache TTL, etc...
+     *
+     * @param addressResolverOptions the address resolver options
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setAddressResolverOptions(AddressResolverOptions addressResolverOptions) {
+        this.addressResolverOptions = addressResolverOptions;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of entries of the DNS cache
+     */
+    public int getDnsCacheMaxSize() {
+        return dnsCacheMaxSize;
+    }
+
+    /**
+     * Set the maximum number of answers kept by the DNS cache shared by the DNS clients of this Vert.x instance.
+     * <p>
+     * Answers are cached for the smallest TTL of their records and the least recently used entries are evicted first.
+     * While the cache is enabled, identical queries in flight at the same time are coalesced into a single query.
+     * A value of {@code 0} disables the cache.
+     *
+     * @param dnsCacheMaxSize the maximum number of entries
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setDnsCacheMaxSize(int dnsCacheMaxSize) {
+        if (dnsCacheMaxSize < 0) {
+            throw new IllegalArgumentException("dnsCacheMaxSize must be >= 0");
+        }
+        this.dnsCacheMaxSize = dnsCacheMaxSize;
+        return this;
+    }
+
+    /**
+     * @return whether to prefer the native transport to the JDK transport
+     */
+    public boolean getPreferNativeTransport() {
+        return preferNativeTransport;
+    }
+
+    /**
+     * Set whether to prefer the native transport to the JDK transport. The native transport is the Linux epoll
+     * transport, it requires the {@code netty-transport-native-epoll} jar on the classpath. When it is not available
+     * the JDK transport is used, see {@link io.advantageous.conekt.Conekt#isNativeTransportEnabled()}.
+     * <p>
+     * The native transport supports the {@code reusePort}, {@code tcpFastOpen} and {@code tcpQuickAck} options of
+     * the servers and clients, it does not support multicast datagram sockets.
+     *
+     * @param preferNativeTransport {@code true} to prefer the native transport
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setPreferNativeTransport(boolean preferNativeTransport) {
+        this.preferNativeTransport = preferNativeTransport;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of tasks an ordered executor runs before giving its pool thread back
+     */
+    public int getOrderedTaskBatchSize() {
+        return orderedTaskBatchSize;
+    }
+
+    /**
+     * Set the maximum number of tasks an ordered executor runs before giving its pool thread back.
+     * <p>
+     * The tasks of a worker context, and the blocking tasks of any context, run in order on the worker pool or on the
+     * internal blocking pool. When a context queues tasks faster than they run, its executor keeps the pool thread
+     * until its queue is empty. A batch size makes the executor resubmit itself to the pool after that many tasks, so
+     * the other contexts sharing the pool are not starved. A value of {@code 0} means no limit.
+     *
+     * @param orderedTaskBatchSize the maximum number of tasks
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setOrderedTaskBatchSize(int orderedTaskBatchSize) {
+        if (orderedTaskBatchSize < 0) {
+            throw new IllegalArgumentException("orderedTaskBatchSize must be >= 0");
+        }
+        this.orderedTaskBatchSize = orderedTaskBatchSize;
+        return this;
+    }
+
+    /**
+     * @return the tick duration in ms of the timer wheels
+     */
+    public long getTimerWheelTickDuration() {
+        return timerWheelTickDuration;
+    }
+
+    /**
+     * Set the tick duration in ms of the timer wheels.
+     * <p>
+     * When set, each event loop drives its timers, including the reply timeouts of the event bus, with a hashed timing
+     * wheel: setting and cancelling a timer costs the same whatever the number of pending timers, and timers expire
+     * with the granularity of a tick. A value of {@code 0} schedules each timer on the event loop scheduler.
+     *
+     * @param timerWheelTickDuration the tick duration in ms
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setTimerWheelTickDuration(long timerWheelTickDuration) {
+        if (timerWheelTickDuration < 0) {
+            throw new IllegalArgumentException("timerWheelTickDuration must be >= 0");
+        }
+        this.timerWheelTickDuration = timerWheelTickDuration;
+        return this;
+    }
+
+    /**
+     * @return the number of buckets of a timer wheel
+     */
+    public int getTimerWheelSize() {
+        return timerWheelSize;
+    }
+
+    /**
+     * Set the number of buckets of a timer wheel, it is rounded up to a power of two. A timer further than one
+     * revolution of the wheel is kept in its bucket with the number of remaining revolutions.
+     *
+     * @param timerWheelSize the number of buckets
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setTimerWheelSize(int timerWheelSize) {
+        if (timerWheelSize < 1) {
+            throw new IllegalArgumentException("timerWheelSize must be > 0");
+        }
+        this.timerWheelSize = timerWheelSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of event bus messages delivered to a context in one task
+     */
+    public int getEventBusDeliveryBatchSize() {
+        return eventBusDeliveryBatchSize;
+    }
+
+    /**
+     * Set the maximum number of event bus messages delivered to a context in one task.
+     * <p>
+     * With the default value of {@code 1} each message is delivered by its own task of the consumer context. A
+     * greater value queues the messages of a context in an inbox drained by a single task, so a burst of messages
+     * wakes the context up once, and the consecutive messages of a consumer with a
+     * {@link io.advantageous.conekt.eventbus.MessageConsumer#batchHandler batch handler} are handed to it together.
+     * The drain task gives the context back to its other tasks after that many messages.
+     *
+     * @param eventBusDeliveryBatchSize the maximum number of messages
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setEventBusDeliveryBatchSize(int eventBusDeliveryBatchSize) {
+        if (eventBusDeliveryBatchSize < 1) {
+            throw new IllegalArgumentException("eventBusDeliveryBatchSize must be > 0");
+        }
+        this.eventBusDeliveryBatchSize = eventBusDeliveryBatchSize;
+        return this;
+    }
+
+    /**
+     * @return how the buffers of the network layer are allocated
+     */
+    public BufferPooling getBufferPooling() {
+        return bufferPooling;
+    }
+
+    /**
+     * Set how the buffers of the network layer are allocated.
+     * <p>
+     * Pooling all buffers lowers the garbage collection pressure of many connections at the cost of memory
+     * retained by the arenas, not pooling them lets the garbage collector reclaim the memory of idle connections.
+     * The statistics of the pool are provided to the metrics SPI.
+     *
+     * @param bufferPooling the buffer pooling
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setBufferPooling(BufferPooling bufferPooling) {
+        if (bufferPooling == null) {
+            throw new IllegalArgumentException("bufferPooling must not be null");
+        }
+        this.bufferPooling = bufferPooling;
+        return this;
+    }
+
+    /**
+     * @return the number of arenas of the buffer pool
+     */
+    public int getBufferPoolArenas() {
+        return bufferPoolArenas;
+    }
+
+    /**
+     * Set the number of arenas of the buffer pool, for each of heap and direct buffers. The threads are spread
+     * over the arenas, so fewer arenas than event loops means contention when allocating.
+     *
+     * @param bufferPoolArenas the number of arenas
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setBufferPoolArenas(int bufferPoolArenas) {
+        if (bufferPoolArenas < 1) {
+            throw new IllegalArgumentException("bufferPoolArenas must be > 0");
+        }
+        this.bufferPoolArenas = bufferPoolArenas;
+        return this;
+    }
+
+    /**
+     * @return the size in bytes of the chunks of the buffer pool arenas
+     */
+    public int getBufferPoolChunkSize() {
+        return bufferPoolChunkSize;
+    }
+
+    /**
+     * Set the size in bytes of the chunks an arena of the buffer pool allocates memory from. It must be a power of
+     * two between {@code 8192} and {@code 134217728}, buffers larger than a chunk are not pooled.
+     *
+     * @param bufferPoolChunkSize the chunk size
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setBufferPoolChunkSize(int bufferPoolChunkSize) {
+        if (bufferPoolChunkSize < 8192 || bufferPoolChunkSize > 134217728 || Integer.bitCount(bufferPoolChunkSize) != 1) {
+            throw new IllegalArgumentException("bufferPoolChunkSize must be a power of two between 8192 and 134217728");
+        }
+        this.bufferPoolChunkSize = bufferPoolChunkSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes held by the file content cache, {@code 0} when the cache is disabled
+     */
+    public long getFileCacheMaxSize() {
+        return fileCacheMaxSize;
+    }
+
+    /**
+     * Set the maximum number of bytes held by the file content cache. Files sent with
+     * {@link io.advantageous.conekt.http.HttpServerResponse#sendFile} or
+     * {@link io.advantageous.conekt.net.NetSocket#sendFile} that are small enough are kept in memory, keyed by path
+     * and modification time, and sent with a single buffer write, the least recently used files are evicted when
+     * the cache is full. Unlike a zero-copy file region, a cached file is also sent in one write over TLS.
+     * <p>
+     * The default value {@code 0} disables the cache.
+     *
+     * @param fileCacheMaxSize the maximum size in bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setFileCacheMaxSize(long fileCacheMaxSize) {
+        if (fileCacheMaxSize < 0) {
+            throw new IllegalArgumentException("fileCacheMaxSize must be >= 0");
+        }
+        this.fileCacheMaxSize = fileCacheMaxSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum size in bytes of a file held by the file content cache
+     */
+    public int getFileCacheMaxFileSize() {
+        return fileCacheMaxFileSize;
+    }
+
+    /**
+     * Set the maximum size in bytes of a file held by the file content cache, larger files are always sent from
+     * the disk.
+     *
+     * @param fileCacheMaxFileSize the maximum file size in bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public ConektOptions setFileCacheMaxFileSize(int fileCacheMaxFileSize) {
+        if (fileCacheMaxFileSize < 1) {
+            throw new IllegalArgumentException("fileCacheMaxFileSize must be > 0");
+        }
+        this.fileCacheMaxFileSize = fileCacheMaxFileSize;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -589,10 +954,23 @@ public class ConektOptions {
         if (maxWorkerExecuteTime != that.maxWorkerExecuteTime) return false;
         if (quorumSize != that.quorumSize) return false;
         if (warningExceptionTime != that.warningExceptionTime) return false;
+        if (dnsCacheMaxSize != that.dnsCacheMaxSize) return false;
+        if (preferNativeTransport != that.preferNativeTransport) return false;
+        if (orderedTaskBatchSize != that.orderedTaskBatchSize) return false;
+        if (timerWheelTickDuration != that.timerWheelTickDuration) return false;
+        if (timerWheelSize != that.timerWheelSize) return false;
+        if (eventBusDeliveryBatchSize != that.eventBusDeliveryBatchSize) return false;
+        if (bufferPooling != that.bufferPooling) return false;
+        if (bufferPoolArenas != that.bufferPoolArenas) return false;
+        if (bufferPoolChunkSize != that.bufferPoolChunkSize) return false;
+        if (fileCacheMaxSize != that.fileCacheMaxSize) return false;
+        if (fileCacheMaxFileSize != that.fileCacheMaxFileSize) return false;
         if (clusterHost != null ? !clusterHost.equals(that.clusterHost) : that.clusterHost != null) return false;
         if (clusterPublicHost != null ? !clusterPublicHost.equals(that.clusterPublicHost) : that.clusterPublicHost != null)
             return false;
         if (haGroup != null ? !haGroup.equals(that.haGroup) : that.haGroup != null) return false;
+        if (addressResolverOptions != null ? !addressResolverOptions.equals(that.addressResolverOptions) : that.addressResolverOptions != null)
+            return false;
         return !(metrics != null ? !metrics.equals(that.metrics) : that.metrics != null);
 
     }
@@ -616,6 +994,18 @@ public class ConektOptions {
         result = 31 * result + (haGroup != null ? haGroup.hashCode() : 0);
         result = 31 * result + (metrics != null ? metrics.hashCode() : 0);
         result = 31 * result + (int) (warningExceptionTime ^ (warningExceptionTime >>> 32));
+        result = 31 * result + (addressResolverOptions != null ? addressResolverOptions.hashCode() : 0);
+        result = 31 * result + dnsCacheMaxSize;
+        result = 31 * result + (preferNativeTransport ? 1 : 0);
+        result = 31 * result + orderedTaskBatchSize;
+        result = 31 * result + (int) (timerWheelTickDuration ^ (timerWheelTickDuration >>> 32));
+        result = 31 * result + timerWheelSize;
+        result = 31 * result + eventBusDeliveryBatchSize;
+        result = 31 * result + bufferPooling.hashCode();
+        result = 31 * result + bufferPoolArenas;
+        result = 31 * result + bufferPoolChunkSize;
+        result = 31 * result + (int) (fileCacheMaxSize ^ (fileCacheMaxSize >>> 32));
+        result = 31 * result + fileCacheMaxFileSize;
         return result;
     }
 
@@ -639,6 +1029,18 @@ public class ConektOptions {
                 ", haGroup='" + haGroup + '\'' +
                 ", metrics=" + metrics +
                 ", warningExceptionTime=" + warningExceptionTime +
+                ", addressResolverOptions=" + addressResolverOptions +
+                ", dnsCacheMaxSize=" + dnsCacheMaxSize +
+                ", preferNativeTransport=" + preferNativeTransport +
+                ", orderedTaskBatchSize=" + orderedTaskBatchSize +
+                ", timerWheelTickDuration=" + timerWheelTickDuration +
+                ", timerWheelSize=" + timerWheelSize +
+                ", eventBusDeliveryBatchSize=" + eventBusDeliveryBatchSize +
+                ", bufferPooling=" + bufferPooling +
+                ", bufferPoolArenas=" + bufferPoolArenas +
+                ", bufferPoolChunkSize=" + bufferPoolChunkSize +
+                ", fileCacheMaxSize=" + fileCacheMaxSize +
+                ", fileCacheMaxFileSize=" + fileCacheMaxFileSize +
                 '}';
     }
 }
@@ -25,7 +25,7 @@
 
 package io.advantageous.conekt;
 
-import io.advantageous.conekt.http.CaseInsensitiveHeaders;
+import io.advantageous.conekt.http.CompactHeaders;
 
 import java.util.List;
 import java.util.Map;
@@ -48,7 +48,7 @@ public interface MultiMap extends Iterable<Map.Entry<String, String>> {
      * @return the multi-map
      */
     static MultiMap caseInsensitiveMultiMap() {
-        return new CaseInsensitiveHeaders();
+        return new CompactHeaders();
     }
 
     String get(CharSequence name);
@@ -99,6 +99,31 @@ public interface Buffer {
         return factory.buffer(bytes);
     }
 
+    /**
+     * Create a new, empty pooled buffer.
+     *
+     * @return the buffer
+     * @see #pooled(int)
+     */
+    static Buffer pooled() {
+        return factory.pooledBuffer(0);
+    }
+
+    /**
+     * Create a new pooled buffer given the initial size hint.
+     * <p>
+     * A pooled buffer is a direct buffer allocated from the arena of the current thread, building a response in it
+     * does not allocate in the heap. The buffer returns to the pool when it is {@link #release() released}, writing
+     * it to a {@code NetSocket}, an {@code HttpServerResponse} or an {@code AsyncFile} transfers it without copy: it is
+     * released once written, so it must not be used or released after the write.
+     *
+     * @param initialSizeHint the hint, in bytes
+     * @return the buffer
+     */
+    static Buffer pooled(int initialSizeHint) {
+        return factory.pooledBuffer(initialSizeHint);
+    }
+
     /**
      * Create a new buffer from a Netty {@code ByteBuf}.
      *
@@ -109,6 +134,21 @@ public interface Buffer {
         return factory.buffer(byteBuf);
     }
 
+    /**
+     * Create a new buffer borrowing a Netty {@code ByteBuf} that its owner releases once the buffer has been handled,
+     * e.g. the pooled buffer of a zero copy read.
+     * <p>
+     * Writing the buffer, or a slice of it, to a {@code NetSocket}, an HTTP message, a {@code WebSocket} or an
+     * {@code AsyncFile} retains the {@code ByteBuf} until it is written, so the data stays valid after its owner
+     * released it. Appending it to another buffer copies it.
+     *
+     * @param byteBuf the Netty ByteBuf
+     * @return the buffer
+     */
+    static Buffer borrowed(ByteBuf byteBuf) {
+        return factory.borrowedBuffer(byteBuf);
+    }
+
     /**
      * Returns a {@code String} representation of the Buffer with the {@code UTF-8 }encoding
      */
@@ -264,6 +304,16 @@ public interface Buffer {
      */
     Buffer appendBuffer(Buffer buff, int offset, int len);
 
+    /**
+     * Appends the specified {@code Buffer} to the end of this Buffer without copying its bytes, the content is
+     * shared and this Buffer becomes a composite of the appended buffers. This avoids re-copying the aggregated
+     * content when many buffers are appended, e.g. when collecting a large request body.<p>
+     * The appended buffer must not be modified afterwards. A pooled buffer is copied instead, since its memory
+     * can be released by its owner.<p>
+     * Returns a reference to {@code this} so multiple operations can be appended together.
+     */
+    Buffer appendBufferNoCopy(Buffer buff);
+
     /**
      * Appends the specified {@code byte[]} to the end of the Buffer. The buffer will expand as necessary to accommodate any bytes written.<p>
      * Returns a reference to {@code this} so multiple operations can be appended together.
@@ -466,6 +516,13 @@ public interface Buffer {
      */
     Buffer slice(int start, int end);
 
+    /**
+     * Returns a read-only slice of this buffer starting at position {@code start} and ending at position
+     * {@code end - 1}. The slice shares the content of this buffer without copying it, modifying the slice throws
+     * a {@link java.nio.ReadOnlyBufferException}.
+     */
+    Buffer readOnlySlice(int start, int end);
+
     /**
      * Returns the Buffer as a Netty {@code ByteBuf}.<p>
      * The returned buffer is a duplicate.<p>
@@ -473,4 +530,29 @@ public interface Buffer {
      */
     ByteBuf getByteBuf();
 
+    /**
+     * Returns the Buffer as a Netty {@code ByteBuf} to be written to a channel or a file, which releases it once
+     * written. A pooled buffer is transferred and a borrowed buffer is retained.<p>
+     * This method is meant for internal use only.
+     */
+    default ByteBuf getByteBufForWrite() {
+        return getByteBuf();
+    }
+
+    /**
+     * @return true if this buffer was created with {@link #pooled(int)}
+     */
+    default boolean isPooled() {
+        return false;
+    }
+
+    /**
+     * Return a pooled buffer to the pool, it must not be used afterwards, slices included. This method does nothing
+     * for a buffer that is not pooled.
+     *
+     * @return true if the buffer was returned to the pool
+     */
+    default boolean release() {
+        return false;
+    }
 }
@@ -27,6 +27,7 @@ package io.advantageous.conekt.buffer.impl;
 
 import io.netty.buffer.ByteBuf;
 import io.advantageous.conekt.buffer.Buffer;
+import io.advantageous.conekt.net.impl.PartialPooledByteBufAllocator;
 import io.advantageous.conekt.spi.BufferFactory;
 
 /**
@@ -63,4 +64,14 @@ public class BufferFactoryImpl implements BufferFactory {
     public Buffer buffer(ByteBuf byteBuffer) {
         return new BufferImpl(byteBuffer);
     }
+
+    @Override
+    public Buffer borrowedBuffer(ByteBuf byteBuf) {
+        return BufferImpl.borrowed(byteBuf);
+    }
+
+    @Override
+    public Buffer pooledBuffer(int initialSizeHint) {
+        return new BufferImpl(PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialSizeHint, Integer.MAX_VALUE), true);
+    }
 }
@@ -27,6 +27,7 @@ package io.advantageous.conekt.buffer.impl;
 
 import io.advantageous.conekt.impl.Arguments;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
 import io.advantageous.conekt.buffer.Buffer;
@@ -44,6 +45,10 @@ import java.util.Objects;
 public class BufferImpl implements Buffer {
 
     private ByteBuf buffer;
+    private boolean pooled;
+    // The buffer released by its owner once this one has been handled, retained by the writes
+    private ByteBuf borrowed;
+    private CompositeByteBuf composite;
 
     BufferImpl() {
         this(0);
@@ -73,6 +78,18 @@ public class BufferImpl implements Buffer {
         this.buffer = Unpooled.unreleasableBuffer(buffer);
     }
 
+    BufferImpl(ByteBuf buffer, boolean pooled) {
+        // A pooled buffer keeps its reference count, it is released explicitly or by the channel it is written to
+        this.buffer = pooled ? buffer : Unpooled.unreleasableBuffer(buffer);
+        this.pooled = pooled;
+    }
+
+    static BufferImpl borrowed(ByteBuf buffer) {
+        BufferImpl buff = new BufferImpl(buffer);
+        buff.borrowed = buffer;
+        return buff;
+    }
+
     public String toString() {
         return buffer.toString(StandardCharsets.UTF_8);
     }
@@ -183,6 +200,26 @@ public class BufferImpl implements Buffer {
         return this;
     }
 
+    public Buffer appendBufferNoCopy(Buffer buff) {
+        if (pooled || borrowed != null || buff.isPooled() || isBorrowed(buff)) {
+            return appendBuffer(buff);
+        }
+        ByteBuf cb = buff.getByteBuf();
+        int len = cb.readableBytes();
+        if (len > 0) {
+            CompositeByteBuf composite = composite();
+            int writerIndex = composite.writerIndex();
+            if (composite.capacity() > writerIndex) {
+                // A copying append may have grown the composite with a padding component, the new component must
+                // start at the writer index and not after the padding
+                composite.capacity(writerIndex);
+            }
+            composite.addComponent(cb.slice());
+            composite.writerIndex(writerIndex + len);
+        }
+        return this;
+    }
+
     public Buffer appendBytes(byte[] bytes) {
         buffer.writeBytes(bytes);
         return this;
@@ -343,23 +380,77 @@ public class BufferImpl implements Buffer {
     }
 
     public Buffer copy() {
+        if (pooled || borrowed != null) {
+            // A copy allocated by the pool would never be released
+            return new BufferImpl(Unpooled.copiedBuffer(buffer));
+        }
         return new BufferImpl(buffer.copy());
     }
 
     public Buffer slice() {
+        if (borrowed != null) {
+            return borrowed(borrowed.slice());
+        }
         return new BufferImpl(buffer.slice());
     }
 
     public Buffer slice(int start, int end) {
+        if (borrowed != null) {
+            return borrowed(borrowed.slice(start, end - start));
+        }
         return new BufferImpl(buffer.slice(start, end - start));
     }
 
+    public Buffer readOnlySlice(int start, int end) {
+        if (borrowed != null) {
+            return borrowed(Unpooled.unmodifiableBuffer(borrowed.slice(start, end - start)));
+        }
+        return new BufferImpl(Unpooled.unmodifiableBuffer(buffer.slice(start, end - start)));
+    }
+
     public ByteBuf getByteBuf() {
         // Return a duplicate so the Buffer can be written multiple times.
         // See #648
         return buffer.duplicate();
     }
 
+    @Override
+    public ByteBuf getByteBufForWrite() {
+        if (borrowed != null) {
+            // The duplicate shares the reference count of the borrowed buffer, the write releases it
+            return borrowed.duplicate().retain();
+        }
+        return buffer.duplicate();
+    }
+
+    @Override
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    @Override
+    public boolean release() {
+        return pooled && buffer.release();
+    }
+
+    private static boolean isBorrowed(Buffer buff) {
+        return buff instanceof BufferImpl && ((BufferImpl) buff).borrowed != null;
+    }
+
+    private CompositeByteBuf composite() {
+        if (composite == null) {
+            // Never consolidate, that would copy all the components again
+            composite = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+            int len = buffer.writerIndex();
+            if (len > 0) {
+                composite.addComponent(buffer.slice(0, len));
+                composite.writerIndex(len);
+            }
+            buffer = Unpooled.unreleasableBuffer(composite);
+        }
+        return composite;
+    }
+
     private Buffer append(String str, Charset charset) {
         byte[] bytes = str.getBytes(charset);
         buffer.writeBytes(bytes);
@@ -131,6 +131,12 @@ public class DatagramSocketOptions extends NetworkOptions {
         return this;
     }
 
+    @Override
+    public DatagramSocketOptions setReusePort(boolean reusePort) {
+        super.setReusePort(reusePort);
+        return this;
+    }
+
     @Override
     public int getTrafficClass() {
         return super.getTrafficClass();
@@ -30,7 +30,6 @@ import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.channel.socket.InternetProtocolFamily;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.advantageous.conekt.AsyncResult;
 import io.advantageous.conekt.Future;
 import io.advantageous.conekt.Handler;
@@ -44,6 +43,7 @@ import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.net.NetworkOptions;
 import io.advantageous.conekt.net.impl.ConnectionBase;
 import io.advantageous.conekt.net.impl.SocketAddressImpl;
+import io.advantageous.conekt.net.impl.transport.Transport;
 import io.advantageous.conekt.spi.metrics.DatagramSocketMetrics;
 import io.advantageous.conekt.spi.metrics.Metrics;
 import io.advantageous.conekt.spi.metrics.MetricsProvider;
@@ -60,7 +60,7 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
     private Handler<io.advantageous.conekt.datagram.DatagramPacket> packetHandler;
 
     public DatagramSocketImpl(ConektInternal vertx, DatagramSocketOptions options) {
-        super(vertx, createChannel(options.isIpV6() ? io.advantageous.conekt.datagram.impl.InternetProtocolFamily.IPv6 : io.advantageous.conekt.datagram.impl.InternetProtocolFamily.IPv4,
+        super(vertx, createChannel(vertx.transport(), options.isIpV6() ? io.advantageous.conekt.datagram.impl.InternetProtocolFamily.IPv6 : io.advantageous.conekt.datagram.impl.InternetProtocolFamily.IPv4,
                 new DatagramSocketOptions(options)), vertx.getOrCreateContext(), options);
         ContextImpl creatingContext = vertx.getContext();
         if (creatingContext != null && creatingContext.isMultiThreadedWorkerContext()) {
@@ -72,23 +72,23 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
         channel().config().setMaxMessagesPerRead(1);
     }
 
-    private static NioDatagramChannel createChannel(io.advantageous.conekt.datagram.impl.InternetProtocolFamily family,
-                                                    DatagramSocketOptions options) {
-        NioDatagramChannel channel;
-        if (family == null) {
-            channel = new NioDatagramChannel();
-        } else {
+    private static DatagramChannel createChannel(Transport transport,
+                                                 io.advantageous.conekt.datagram.impl.InternetProtocolFamily family,
+                                                 DatagramSocketOptions options) {
+        InternetProtocolFamily nettyFamily = null;
+        if (family != null) {
             switch (family) {
                 case IPv4:
-                    channel = new NioDatagramChannel(InternetProtocolFamily.IPv4);
+                    nettyFamily = InternetProtocolFamily.IPv4;
                     break;
                 case IPv6:
-                    channel = new NioDatagramChannel(InternetProtocolFamily.IPv6);
+                    nettyFamily = InternetProtocolFamily.IPv6;
                     break;
-                default:
-                    channel = new NioDatagramChannel();
             }
         }
+        // The channel and its options are handled by the same transport
+        transport = transport.datagramTransport(nettyFamily, options);
+        DatagramChannel channel = nettyFamily != null ? transport.datagramChannel(nettyFamily) : transport.datagramChannel();
         if (options.getSendBufferSize() != -1) {
             channel.config().setSendBufferSize(options.getSendBufferSize());
         }
@@ -101,17 +101,8 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
             channel.config().setTrafficClass(options.getTrafficClass());
         }
         channel.config().setBroadcast(options.isBroadcast());
-        channel.config().setLoopbackModeDisabled(options.isLoopbackModeDisabled());
-        if (options.getMulticastTimeToLive() != -1) {
-            channel.config().setTimeToLive(options.getMulticastTimeToLive());
-        }
-        if (options.getMulticastNetworkInterface() != null) {
-            try {
-                channel.config().setNetworkInterface(NetworkInterface.getByName(options.getMulticastNetworkInterface()));
-            } catch (SocketException e) {
-                throw new IllegalArgumentException("Could not find network interface with name " + options.getMulticastNetworkInterface());
-            }
-        }
+        // Multicast options are applied by the transport
+        transport.configure(channel, options);
         return channel;
     }
 
@@ -265,7 +256,7 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
     @SuppressWarnings("unchecked")
     public DatagramSocket send(Buffer packet, int port, String host, Handler<AsyncResult<DatagramSocket>> handler) {
         Objects.requireNonNull(host, "no null host accepted");
-        ChannelFuture future = channel().writeAndFlush(new DatagramPacket(packet.getByteBuf(), new InetSocketAddress(host, port)));
+        ChannelFuture future = channel().writeAndFlush(new DatagramPacket(packet.getByteBufForWrite(), new InetSocketAddress(host, port)));
         addListener(future, handler);
         if (metrics.isEnabled()) {
             metrics.bytesWritten(null, new SocketAddressImpl(port, host), packet.length());
@@ -312,7 +303,8 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
         return metrics;
     }
 
-    protected DatagramChannel channel() {
+    @Override
+    public DatagramChannel channel() {
         return (DatagramChannel) channel;
     }
 
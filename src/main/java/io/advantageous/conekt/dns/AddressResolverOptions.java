@@ -0,0 +1,310 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.dns;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration options for the hostname resolver used by the {@link io.advantageous.conekt.net.NetClient} and the
+ * {@link io.advantageous.conekt.http.HttpClient} when they connect to a host name.
+ * <p>
+ * When no DNS servers are configured, host names are resolved with the JDK resolver on the internal blocking pool,
+ * otherwise they are resolved asynchronously with the configured servers. In both cases the event loop never
+ * performs a blocking lookup.
+ */
+public class AddressResolverOptions {
+
+    /**
+     * The default list of DNS servers = null (uses the JDK resolver)
+     */
+    public static final List<String> DEFAULT_SERVERS = null;
+
+    /**
+     * The default minimum time to live in seconds of a cached resolution = 0
+     */
+    public static final int DEFAULT_CACHE_MIN_TIME_TO_LIVE = 0;
+
+    /**
+     * The default maximum time to live in seconds of a cached resolution = Integer.MAX_VALUE
+     */
+    public static final int DEFAULT_CACHE_MAX_TIME_TO_LIVE = Integer.MAX_VALUE;
+
+    /**
+     * The default time to live in seconds of a cached failed resolution = 0
+     */
+    public static final int DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE = 0;
+
+    /**
+     * The default time to live in seconds of an address resolved by the JDK resolver, the value of the
+     * {@code networkaddress.cache.ttl} security property when it is set, otherwise 30
+     */
+    public static final int DEFAULT_JDK_CACHE_TIME_TO_LIVE = jdkCacheTimeToLive();
+
+    /**
+     * The default maximum number of cached resolutions = 1024
+     */
+    public static final int DEFAULT_CACHE_MAX_SIZE = 1024;
+
+    private List<String> servers;
+    private int cacheMinTimeToLive;
+    private int cacheMaxTimeToLive;
+    private int cacheNegativeTimeToLive;
+    private int jdkCacheTimeToLive;
+    private int cacheMaxSize;
+
+    /**
+     * Default constructor
+     */
+    public AddressResolverOptions() {
+        servers = DEFAULT_SERVERS;
+        cacheMinTimeToLive = DEFAULT_CACHE_MIN_TIME_TO_LIVE;
+        cacheMaxTimeToLive = DEFAULT_CACHE_MAX_TIME_TO_LIVE;
+        cacheNegativeTimeToLive = DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE;
+        jdkCacheTimeToLive = DEFAULT_JDK_CACHE_TIME_TO_LIVE;
+        cacheMaxSize = DEFAULT_CACHE_MAX_SIZE;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other The other {@code AddressResolverOptions} to copy when creating this
+     */
+    public AddressResolverOptions(AddressResolverOptions other) {
+        this.servers = other.servers != null ? new ArrayList<>(other.servers) : null;
+        this.cacheMinTimeToLive = other.cacheMinTimeToLive;
+        this.cacheMaxTimeToLive = other.cacheMaxTimeToLive;
+        this.cacheNegativeTimeToLive = other.cacheNegativeTimeToLive;
+        this.jdkCacheTimeToLive = other.jdkCacheTimeToLive;
+        this.cacheMaxSize = other.cacheMaxSize;
+    }
+
+    /**
+     * @return the list of DNS servers addresses, or null when the JDK resolver is used
+     */
+    public List<String> getServers() {
+        return servers;
+    }
+
+    /**
+     * Set the list of DNS servers addresses, an address is an IP address optionally followed by a port, e.g
+     * {@code 8.8.8.8} or {@code 192.168.0.1:40000}. When no port is specified, the port {@code 53} is used.
+     * <p>
+     * The servers are tried in order, when none of them is able to resolve a name the JDK resolver is used as a
+     * last resort, so names only known to the hosts file keep working.
+     *
+     * @param servers the list of DNS servers
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setServers(List<String> servers) {
+        this.servers = servers;
+        return this;
+    }
+
+    /**
+     * Add a DNS server address.
+     *
+     * @param server the server to add
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions addServer(String server) {
+        Objects.requireNonNull(server, "no null server accepted");
+        if (servers == null) {
+            servers = new ArrayList<>();
+        }
+        servers.add(server);
+        return this;
+    }
+
+    /**
+     * @return the cache min TTL in seconds
+     */
+    public int getCacheMinTimeToLive() {
+        return cacheMinTimeToLive;
+    }
+
+    /**
+     * Set the cache minimum TTL value in seconds. After resolution successful IP addresses are cached with their DNS
+     * response TTL, use this to set a minimum value to all responses TTL.
+     * <p>
+     * Addresses resolved by the JDK resolver carry no TTL, they are cached for the
+     * {@link #setJdkCacheTimeToLive JDK cache TTL} bounded by the min and max TTL.
+     *
+     * @param cacheMinTimeToLive the cache min TTL in seconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setCacheMinTimeToLive(int cacheMinTimeToLive) {
+        if (cacheMinTimeToLive < 0) {
+            throw new IllegalArgumentException("cacheMinTimeToLive must be >= 0");
+        }
+        this.cacheMinTimeToLive = cacheMinTimeToLive;
+        return this;
+    }
+
+    /**
+     * @return the cache max TTL in seconds
+     */
+    public int getCacheMaxTimeToLive() {
+        return cacheMaxTimeToLive;
+    }
+
+    /**
+     * Set the cache maximum TTL value in seconds. After successful resolution IP addresses are cached with their DNS
+     * response TTL, use this to set a maximum value to all responses TTL.
+     *
+     * @param cacheMaxTimeToLive the cache max TTL in seconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setCacheMaxTimeToLive(int cacheMaxTimeToLive) {
+        if (cacheMaxTimeToLive < 0) {
+            throw new IllegalArgumentException("cacheMaxTimeToLive must be >= 0");
+        }
+        this.cacheMaxTimeToLive = cacheMaxTimeToLive;
+        return this;
+    }
+
+    /**
+     * @return the cache negative TTL in seconds
+     */
+    public int getCacheNegativeTimeToLive() {
+        return cacheNegativeTimeToLive;
+    }
+
+    /**
+     * Set the negative cache TTL value in seconds. After a failed hostname resolution, DNS queries won't be retried
+     * for a period of time equals to the negative TTL. This allows to reduce the response time of negative replies
+     * and reduce the amount of messages to DNS servers.
+     *
+     * @param cacheNegativeTimeToLive the cache negative TTL in seconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setCacheNegativeTimeToLive(int cacheNegativeTimeToLive) {
+        if (cacheNegativeTimeToLive < 0) {
+            throw new IllegalArgumentException("cacheNegativeTimeToLive must be >= 0");
+        }
+        this.cacheNegativeTimeToLive = cacheNegativeTimeToLive;
+        return this;
+    }
+
+    /**
+     * @return the TTL in seconds of an address resolved by the JDK resolver
+     */
+    public int getJdkCacheTimeToLive() {
+        return jdkCacheTimeToLive;
+    }
+
+    /**
+     * Set the TTL value in seconds of an address resolved by the JDK resolver, such addresses carry no TTL of their
+     * own. A value of {@code 0} disables the caching of these addresses, a blocking lookup is then performed for
+     * each connection.
+     *
+     * @param jdkCacheTimeToLive the TTL in seconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setJdkCacheTimeToLive(int jdkCacheTimeToLive) {
+        if (jdkCacheTimeToLive < 0) {
+            throw new IllegalArgumentException("jdkCacheTimeToLive must be >= 0");
+        }
+        this.jdkCacheTimeToLive = jdkCacheTimeToLive;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of cached resolutions
+     */
+    public int getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    /**
+     * Set the maximum number of cached resolutions, the least recently used resolution is evicted when a new one
+     * would exceed it. A value of {@code 0} disables the cache.
+     *
+     * @param cacheMaxSize the maximum number of cached resolutions
+     * @return a reference to this, so the API can be used fluently
+     */
+    public AddressResolverOptions setCacheMaxSize(int cacheMaxSize) {
+        if (cacheMaxSize < 0) {
+            throw new IllegalArgumentException("cacheMaxSize must be >= 0");
+        }
+        this.cacheMaxSize = cacheMaxSize;
+        return this;
+    }
+
+    private static int jdkCacheTimeToLive() {
+        String ttl = Security.getProperty("networkaddress.cache.ttl");
+        if (ttl != null) {
+            try {
+                int value = Integer.parseInt(ttl.trim());
+                // A negative value means forever
+                return value < 0 ? Integer.MAX_VALUE : value;
+            } catch (NumberFormatException ignore) {
+                // Use the JDK default
+            }
+        }
+        return 30;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AddressResolverOptions that = (AddressResolverOptions) o;
+
+        if (cacheMinTimeToLive != that.cacheMinTimeToLive) return false;
+        if (cacheMaxTimeToLive != that.cacheMaxTimeToLive) return false;
+        if (cacheNegativeTimeToLive != that.cacheNegativeTimeToLive) return false;
+        if (jdkCacheTimeToLive != that.jdkCacheTimeToLive) return false;
+        if (cacheMaxSize != that.cacheMaxSize) return false;
+        return !(servers != null ? !servers.equals(that.servers) : that.servers != null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = servers != null ? servers.hashCode() : 0;
+        result = 31 * result + cacheMinTimeToLive;
+        result = 31 * result + cacheMaxTimeToLive;
+        result = 31 * result + cacheNegativeTimeToLive;
+        result = 31 * result + jdkCacheTimeToLive;
+        result = 31 * result + cacheMaxSize;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AddressResolverOptions{" +
+                "servers=" + servers +
+                ", cacheMinTimeToLive=" + cacheMinTimeToLive +
+                ", cacheMaxTimeToLive=" + cacheMaxTimeToLive +
+                ", cacheNegativeTimeToLive=" + cacheNegativeTimeToLive +
+                ", jdkCacheTimeToLive=" + jdkCacheTimeToLive +
+                ", cacheMaxSize=" + cacheMaxSize +
+                '}';
+    }
+}
@@ -174,4 +174,9 @@ public interface DnsClient {
      * @return a reference to this, so the API can be used fluently.
      */
     DnsClient reverseLookup(String ipaddress, Handler<AsyncResult<String>> handler);
+
+    /**
+     * Close the client, the queries in flight are failed.
+     */
+    void close();
 }
@@ -0,0 +1,182 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.dns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration options for a {@link DnsClient}.
+ * <p>
+ * A client sends all its queries over a single datagram socket. A query that is not answered within the
+ * {@link #setQueryTimeout query timeout} is sent again to the same server up to {@link #setMaxRetransmits} times and
+ * then to the next server of the list.
+ */
+public class DnsClientOptions {
+
+    /**
+     * The default query timeout in milliseconds = 5000
+     */
+    public static final long DEFAULT_QUERY_TIMEOUT = 5000;
+
+    /**
+     * The default number of times a query is sent again to a server that does not answer in time = 1
+     */
+    public static final int DEFAULT_MAX_RETRANSMITS = 1;
+
+    private List<String> servers;
+    private long queryTimeout;
+    private int maxRetransmits;
+
+    /**
+     * Default constructor
+     */
+    public DnsClientOptions() {
+        servers = new ArrayList<>();
+        queryTimeout = DEFAULT_QUERY_TIMEOUT;
+        maxRetransmits = DEFAULT_MAX_RETRANSMITS;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other The other {@code DnsClientOptions} to copy when creating this
+     */
+    public DnsClientOptions(DnsClientOptions other) {
+        this.servers = new ArrayList<>(other.servers);
+        this.queryTimeout = other.queryTimeout;
+        this.maxRetransmits = other.maxRetransmits;
+    }
+
+    /**
+     * @return the list of DNS servers addresses
+     */
+    public List<String> getServers() {
+        return servers;
+    }
+
+    /**
+     * Set the list of DNS servers addresses, an address is an IP address optionally followed by a port, e.g
+     * {@code 8.8.8.8}, {@code 192.168.0.1:40000} or {@code [::1]:40000}. When no port is specified, the port {@code 53}
+     * is used.
+     * <p>
+     * Queries are sent to the first server, the next servers are only used when the previous ones do not answer or
+     * report a failure.
+     *
+     * @param servers the list of DNS servers
+     * @return a reference to this, so the API can be used fluently
+     */
+    public DnsClientOptions setServers(List<String> servers) {
+        Objects.requireNonNull(servers, "no null servers accepted");
+        this.servers = servers;
+        return this;
+    }
+
+    /**
+     * Add a DNS server address.
+     *
+     * @param server the server to add
+     * @return a reference to this, so the API can be used fluently
+     */
+    public DnsClientOptions addServer(String server) {
+        Objects.requireNonNull(server, "no null server accepted");
+        servers.add(server);
+        return this;
+    }
+
+    /**
+     * @return the query timeout in milliseconds
+     */
+    public long getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Set the time in milliseconds to wait for the answer of a server before sending the query again.
+     *
+     * @param queryTimeout the query timeout in milliseconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public DnsClientOptions setQueryTimeout(long queryTimeout) {
+        if (queryTimeout < 1) {
+            throw new IllegalArgumentException("queryTimeout must be > 0");
+        }
+        this.queryTimeout = queryTimeout;
+        return this;
+    }
+
+    /**
+     * @return the number of times a query is sent again to a server
+     */
+    public int getMaxRetransmits() {
+        return maxRetransmits;
+    }
+
+    /**
+     * Set the number of times a query is sent again to a server that does not answer in time before trying the next
+     * server.
+     *
+     * @param maxRetransmits the number of retransmissions per server
+     * @return a reference to this, so the API can be used fluently
+     */
+    public DnsClientOptions setMaxRetransmits(int maxRetransmits) {
+        if (maxRetransmits < 0) {
+            throw new IllegalArgumentException("maxRetransmits must be >= 0");
+        }
+        this.maxRetransmits = maxRetransmits;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DnsClientOptions that = (DnsClientOptions) o;
+
+        if (queryTimeout != that.queryTimeout) return false;
+        if (maxRetransmits != that.maxRetransmits) return false;
+        return servers.equals(that.servers);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = servers.hashCode();
+        result = 31 * result + (int) (queryTimeout ^ (queryTimeout >>> 32));
+        result = 31 * result + maxRetransmits;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DnsClientOptions{" +
+                "servers=" + servers +
+                ", queryTimeout=" + queryTimeout +
+                ", maxRetransmits=" + maxRetransmits +
+                '}';
+    }
+}
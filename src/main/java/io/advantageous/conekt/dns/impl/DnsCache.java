@@ -0,0 +1,193 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.dns.impl;
+
+import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.spi.metrics.DnsCacheMetrics;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded LRU cache of DNS answers shared by all the {@link DnsClientImpl} of a Vert.x instance.
+ * <p>
+ * Entries are keyed by servers, name and record types and expire after the smallest TTL of the answer records.
+ * Identical queries issued while one is in flight are coalesced: they wait for the outstanding query instead of
+ * sending their own.
+ * <p>
+ * This class is thread-safe.
+ */
+public class DnsCache {
+
+    private final int maxSize;
+    private final DnsCacheMetrics metrics;
+    private final Map<Key, Entry> entries;
+    private final Map<Key, List<Handler<AsyncResult<Object>>>> inflight = new HashMap<>();
+
+    public DnsCache(int maxSize, DnsCacheMetrics metrics) {
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > DnsCache.this.maxSize) {
+                    DnsCache.this.metrics.entryEvicted(eldest.getKey().name);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Lookup a cached answer.
+     *
+     * @param key the query key
+     * @return the cached answer or {@code null} when missing or expired
+     */
+    public synchronized Object get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt - System.nanoTime() > 0) {
+                metrics.cacheHit(key.name);
+                return entry.value;
+            }
+            entries.remove(key);
+        }
+        metrics.cacheMiss(key.name);
+        return null;
+    }
+
+    /**
+     * Register a waiter for the answer of a query.
+     *
+     * @param key    the query key
+     * @param waiter the handler to call with the answer
+     * @return {@code true} when no identical query is in flight and the caller must send it, {@code false} when the
+     * waiter joined an outstanding query
+     */
+    public synchronized boolean join(Key key, Handler<AsyncResult<Object>> waiter) {
+        List<Handler<AsyncResult<Object>>> waiters = inflight.get(key);
+        if (waiters != null) {
+            waiters.add(waiter);
+            metrics.queryCoalesced(key.name);
+            return false;
+        }
+        waiters = new ArrayList<>(1);
+        waiters.add(waiter);
+        inflight.put(key, waiters);
+        return true;
+    }
+
+    /**
+     * Complete a query, caching a successful answer for {@code ttl} seconds and notifying all its waiters.
+     *
+     * @param key    the query key
+     * @param result the answer
+     * @param ttl    the time to live of the answer in seconds, the answer is not cached when {@code <= 0}
+     */
+    public void complete(Key key, AsyncResult<Object> result, long ttl) {
+        List<Handler<AsyncResult<Object>>> waiters;
+        synchronized (this) {
+            waiters = inflight.remove(key);
+            if (result.succeeded() && ttl > 0) {
+                long now = System.nanoTime();
+                long ttlNanos = TimeUnit.SECONDS.toNanos(ttl);
+                entries.put(key, new Entry(result.result(), now + ttlNanos > now ? now + ttlNanos : Long.MAX_VALUE));
+            }
+        }
+        if (waiters != null) {
+            for (Handler<AsyncResult<Object>> waiter : waiters) {
+                waiter.handle(result);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public void close() {
+        metrics.close();
+    }
+
+    /**
+     * The key of a query, {@code decoder} tells apart queries for the same records decoded differently.
+     */
+    public static final class Key {
+
+        private final List<InetSocketAddress> servers;
+        private final String name;
+        private final int[] types;
+        private final Object decoder;
+        private final int hashCode;
+
+        public Key(List<InetSocketAddress> servers, String name, int[] types, Object decoder) {
+            this.servers = servers;
+            this.name = name;
+            this.types = types;
+            this.decoder = decoder;
+            int result = servers.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + Arrays.hashCode(types);
+            result = 31 * result + System.identityHashCode(decoder);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            return decoder == that.decoder && name.equals(that.name) && Arrays.equals(types, that.types)
+                    && servers.equals(that.servers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
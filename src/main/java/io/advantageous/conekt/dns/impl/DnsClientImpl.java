@@ -34,12 +34,15 @@ import io.advantageous.conekt.impl.ContextImpl;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
 import io.netty.channel.socket.DatagramChannel;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.Closeable;
+import io.advantageous.conekt.ConektException;
 import io.advantageous.conekt.Future;
 import io.advantageous.conekt.Handler;
 import io.advantageous.conekt.dns.impl.netty.decoder.record.ServiceRecord;
-import io.advantageous.conekt.net.impl.PartialPooledByteBufAllocator;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.Inet4Address;
 import java.net.InetAddress;
@@ -47,6 +50,8 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
@@ -55,32 +60,133 @@ public final class DnsClientImpl implements DnsClient {
 
     private static final char[] HEX_TABLE = "0123456789abcdef".toCharArray();
 
+    private static final Function<DnsResponse, Object> RECORDS = DnsClientImpl::decodeRecords;
+    private static final Function<DnsResponse, Object> ADDRESSES = DnsClientImpl::decodeAddresses;
+
+    private static final Logger log = LoggerFactory.getLogger(DnsClientImpl.class);
+
+    private static final int DEFAULT_DNS_PORT = 53;
+
+    /**
+     * A DNS message id is an unsigned 16 bits integer
+     */
+    private static final int MAX_QUERY_ID = 0xFFFF;
+
     private final Bootstrap bootstrap;
-    private final InetSocketAddress dnsServer;
+    private final List<InetSocketAddress> servers;
+    private final long queryTimeout;
+    private final int maxRetransmits;
+    private final ContextImpl creatingContext;
     private final ContextImpl actualCtx;
+    private final DnsCache cache;
+    private final Closeable closeHook;
+
+    // Only accessed from the event loop of the client
+    private final Map<Integer, Query> inflight = new HashMap<>();
+    private ChannelFuture channelFuture;
+    private boolean closed;
 
     public DnsClientImpl(ConektInternal vertx, int port, String host) {
+        this(vertx, new DnsClientOptions().addServer(host.indexOf(':') >= 0 ? "[" + host + "]:" + port : host + ":" + port));
+    }
+
+    public DnsClientImpl(ConektInternal vertx, DnsClientOptions options) {
 
-        ContextImpl creatingContext = vertx.getContext();
+        creatingContext = vertx.getContext();
         if (creatingContext != null && creatingContext.isMultiThreadedWorkerContext()) {
             throw new IllegalStateException("Cannot use DnsClient in a multi-threaded worker verticle");
         }
+        if (options.getServers().isEmpty()) {
+            throw new IllegalArgumentException("At least one DNS server is required");
+        }
 
-        this.dnsServer = new InetSocketAddress(host, port);
+        List<InetSocketAddress> servers = new ArrayList<>(options.getServers().size());
+        for (String server : options.getServers()) {
+            servers.add(parseServer(server));
+        }
+        this.servers = Collections.unmodifiableList(servers);
+        this.queryTimeout = options.getQueryTimeout();
+        this.maxRetransmits = options.getMaxRetransmits();
+        this.cache = vertx.dnsCache();
 
         actualCtx = vertx.getOrCreateContext();
         bootstrap = new Bootstrap();
         bootstrap.group(actualCtx.nettyEventLoop());
-        bootstrap.channel(NioDatagramChannel.class);
-        bootstrap.option(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
+        bootstrap.channelFactory(vertx.transport()::datagramChannel);
+        bootstrap.option(ChannelOption.ALLOCATOR, vertx.byteBufAllocator());
         bootstrap.handler(new ChannelInitializer<DatagramChannel>() {
             @Override
             protected void initChannel(DatagramChannel ch) throws Exception {
                 ChannelPipeline pipeline = ch.pipeline();
-                pipeline.addLast(new DnsQueryEncoder());
+                pipeline.addLast(new DatagramDnsQueryEncoder());
                 pipeline.addLast(new DnsResponseDecoder());
+                pipeline.addLast(new SimpleChannelInboundHandler<DnsResponse>() {
+                    @Override
+                    protected void channelRead0(ChannelHandlerContext ctx, DnsResponse msg) throws Exception {
+                        Query query = inflight.get(msg.getHeader().getId());
+                        if (query != null && query.matches(msg)) {
+                            query.handle(msg);
+                        } else if (log.isDebugEnabled()) {
+                            log.debug("Dropping unexpected DNS response {} from {}", msg.getHeader().getId(), msg.sender());
+                        }
+                    }
+
+                    @Override
+                    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+                        channelClosed(ctx.channel());
+                    }
+
+                    @Override
+                    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+                        // A malformed or unexpected datagram must not fail the other queries of the channel
+                        log.debug("Dropping DNS response", cause);
+                    }
+                });
             }
         });
+
+        this.closeHook = completionHandler -> {
+            DnsClientImpl.this.close();
+            completionHandler.handle(Future.succeededFuture());
+        };
+        if (creatingContext != null) {
+            creatingContext.addCloseHook(closeHook);
+        }
+    }
+
+    /**
+     * Parse a server address given as {@code ip}, {@code ip:port} or {@code [ipv6]:port}.
+     */
+    static InetSocketAddress parseServer(String server) {
+        String host = server;
+        int port = DEFAULT_DNS_PORT;
+        if (server.startsWith("[")) {
+            int end = server.indexOf(']');
+            host = server.substring(1, end);
+            if (end + 1 < server.length() && server.charAt(end + 1) == ':') {
+                port = Integer.parseInt(server.substring(end + 2));
+            }
+        } else {
+            int sep = server.lastIndexOf(':');
+            // A bare IPv6 address contains colons as well, only treat the suffix as a port for host:port
+            if (sep > 0 && server.indexOf(':') == sep) {
+                host = server.substring(0, sep);
+                port = Integer.parseInt(server.substring(sep + 1));
+            }
+        }
+        return new InetSocketAddress(host, port);
+    }
+
+    /**
+     * Compare two domain names, ignoring the case and a trailing dot.
+     */
+    static boolean sameName(String name, String other) {
+        if (name == null || other == null) {
+            return name == other;
+        }
+        int len = name.endsWith(".") ? name.length() - 1 : name.length();
+        int otherLen = other.endsWith(".") ? other.length() - 1 : other.length();
+        return len == otherLen && name.regionMatches(true, 0, other, 0, len);
     }
 
     @Override
@@ -219,6 +325,49 @@ public final class DnsClientImpl implements DnsClient {
         return this;
     }
 
+    /**
+     * Resolve the address records of the given type for {@code name}, the result keeps the smallest TTL of the answers
+     * so callers can cache it.
+     *
+     * @param name    the name to resolve
+     * @param type    either {@link DnsEntry#TYPE_A} or {@link DnsEntry#TYPE_AAAA}
+     * @param handler the handler notified with the resolved addresses
+     */
+    @SuppressWarnings("unchecked")
+    public void resolveAddresses(String name, int type, Handler<AsyncResult<ResolvedAddresses>> handler) {
+        Future result = Future.future();
+        result.setHandler(handler);
+        query(name, result, ADDRESSES, type);
+    }
+
+    private static List<Object> decodeRecords(DnsResponse msg) {
+        List<DnsResource> resources = msg.getAnswers();
+        List<Object> records = new ArrayList<>(resources.size());
+        for (DnsResource resource : resources) {
+            Object record = RecordDecoderFactory.getFactory().decode(resource.type(), msg, resource);
+            if (record instanceof InetAddress) {
+                record = ((InetAddress) record).getHostAddress();
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static ResolvedAddresses decodeAddresses(DnsResponse msg) {
+        List<InetAddress> addresses = new ArrayList<>();
+        long ttl = Long.MAX_VALUE;
+        for (DnsResource resource : msg.getAnswers()) {
+            if (resource.type() == DnsEntry.TYPE_A || resource.type() == DnsEntry.TYPE_AAAA) {
+                InetAddress address = RecordDecoderFactory.getFactory().decode(resource.type(), msg, resource);
+                if (address != null) {
+                    addresses.add(address);
+                    ttl = Math.min(ttl, resource.timeToLive());
+                }
+            }
+        }
+        return new ResolvedAddresses(addresses, addresses.isEmpty() ? 0 : ttl);
+    }
+
     @SuppressWarnings("unchecked")
     private void lookup(String name, Handler handler, int... types) {
         Future result = Future.future();
@@ -226,66 +375,154 @@ public final class DnsClientImpl implements DnsClient {
         lookup(name, result, types);
     }
 
-    @SuppressWarnings("unchecked")
     private void lookup(String name, Future result, int... types) {
+        query(name, result, RECORDS, types);
+    }
+
+    private void query(String name, Future result, Function<DnsResponse, Object> decoder, int... types) {
         Objects.requireNonNull(name, "no null name accepted");
-        bootstrap.connect(dnsServer).addListener(new RetryChannelFutureListener(result) {
-            @Override
-            public void onSuccess(ChannelFuture future) throws Exception {
-                DnsQuery query = new DnsQuery(ThreadLocalRandom.current().nextInt());
-                for (int type : types) {
-                    query.addQuestion(new DnsQuestion(name, type));
+        if (cache == null) {
+            send(name, decoder, types, (answer, ttl) -> setResult(result, answer));
+            return;
+        }
+        DnsCache.Key key = new DnsCache.Key(servers, name, types, decoder);
+        Object cached = cache.get(key);
+        if (cached != null) {
+            actualCtx.runOnContext(v -> setResult(result, copy(cached)));
+            return;
+        }
+        boolean send = cache.join(key, ar -> setResult(result, ar.succeeded() ? copy(ar.result()) : ar.cause()));
+        if (send) {
+            send(name, decoder, types, (answer, ttl) -> {
+                if (answer instanceof Throwable) {
+                    cache.complete(key, Future.failedFuture((Throwable) answer), 0);
+                } else {
+                    cache.complete(key, Future.succeededFuture(answer), ttl);
                 }
-                future.channel().writeAndFlush(query).addListener(new RetryChannelFutureListener(result) {
-                    @Override
-                    public void onSuccess(ChannelFuture future) throws Exception {
-                        future.channel().pipeline().addLast(new SimpleChannelInboundHandler<DnsResponse>() {
-                            @Override
-                            protected void channelRead0(ChannelHandlerContext ctx, DnsResponse msg) throws Exception {
-                                DnsResponseCode code = DnsResponseCode.valueOf(msg.getHeader().getResponseCode());
-
-                                if (code == DnsResponseCode.NOERROR) {
-                                    List<DnsResource> resources = msg.getAnswers();
-                                    List<Object> records = new ArrayList<>(resources.size());
-                                    for (DnsResource resource : msg.getAnswers()) {
-                                        Object record = RecordDecoderFactory.getFactory().decode(resource.type(), msg, resource);
-                                        if (record instanceof InetAddress) {
-                                            record = ((InetAddress) record).getHostAddress();
-                                        }
-                                        records.add(record);
-                                    }
-
-                                    setResult(result, records);
-                                } else {
-                                    setResult(result, new DnsException(code));
-                                }
-                                ctx.close();
-                            }
-
-                            @Override
-                            public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
-                                setResult(result, cause);
-                                ctx.close();
-                            }
-                        });
-                    }
-                });
+            });
+        }
+    }
+
+    private void send(String name, Function<DnsResponse, Object> decoder, int[] types, Answer answer) {
+        EventLoop loop = actualCtx.nettyEventLoop();
+        if (loop.inEventLoop()) {
+            doSend(name, decoder, types, answer);
+        } else {
+            loop.execute(() -> doSend(name, decoder, types, answer));
+        }
+    }
+
+    private void doSend(String name, Function<DnsResponse, Object> decoder, int[] types, Answer answer) {
+        if (closed) {
+            answer.handle(new IllegalStateException("Client is closed"), 0);
+            return;
+        }
+        if (inflight.size() > MAX_QUERY_ID) {
+            answer.handle(new ConektException("Too many DNS queries in flight"), 0);
+            return;
+        }
+        if (channelFuture == null) {
+            channelFuture = bootstrap.bind(0);
+        }
+        int id;
+        do {
+            id = ThreadLocalRandom.current().nextInt(MAX_QUERY_ID + 1);
+        } while (inflight.containsKey(id));
+        DnsQuery msg = new DnsQuery(id);
+        for (int type : types) {
+            msg.addQuestion(new DnsQuestion(name, type));
+        }
+        Query query = new Query(msg, decoder, answer);
+        inflight.put(id, query);
+        channelFuture.addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+                query.send();
+            } else {
+                query.fail(future.cause());
             }
         });
     }
 
+    private void channelClosed(Channel channel) {
+        if (channelFuture != null && channelFuture.channel() == channel) {
+            channelFuture = null;
+            // The next query binds a new channel
+            for (Query query : new ArrayList<>(inflight.values())) {
+                query.fail(new ConektException("DNS channel closed"));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        EventLoop loop = actualCtx.nettyEventLoop();
+        if (!loop.inEventLoop()) {
+            loop.execute(this::close);
+            return;
+        }
+        if (!closed) {
+            closed = true;
+            if (creatingContext != null) {
+                creatingContext.removeCloseHook(closeHook);
+            }
+            if (channelFuture != null) {
+                channelFuture.channel().close();
+            }
+        }
+    }
+
+    /**
+     * @return the smallest TTL in seconds of the answers, or {@code 0} when there is none
+     */
+    private static long timeToLive(DnsResponse msg) {
+        List<DnsResource> answers = msg.getAnswers();
+        if (answers.isEmpty()) {
+            return 0;
+        }
+        long ttl = Long.MAX_VALUE;
+        for (DnsResource answer : answers) {
+            ttl = Math.min(ttl, answer.timeToLive());
+        }
+        return ttl;
+    }
+
+    /**
+     * Decoded record lists are converted in place by the handlers, each caller of a shared answer gets its own copy.
+     */
+    private static Object copy(Object answer) {
+        if (answer instanceof List) {
+            return new ArrayList<>((List<?>) answer);
+        }
+        return answer;
+    }
+
     @SuppressWarnings("unchecked")
     private void setResult(Future r, Object result) {
         if (r.isComplete()) {
             return;
         }
-        actualCtx.executeFromIO(() -> {
+        Runnable completion = () -> {
             if (result instanceof Throwable) {
                 r.fail((Throwable) result);
             } else {
                 r.complete(result);
             }
-        });
+        };
+        if (actualCtx.nettyEventLoop().inEventLoop()) {
+            actualCtx.executeFromIO(completion::run);
+        } else {
+            // a coalesced answer may arrive on the event loop of another client
+            actualCtx.runOnContext(v -> completion.run());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Answer {
+        /**
+         * @param answer the decoded answer or the failure cause
+         * @param ttl    the time to live in seconds of the answer
+         */
+        void handle(Object answer, long ttl);
     }
 
     private static class HandlerAdapter<T> implements Handler<AsyncResult<List<T>>> {
@@ -340,25 +577,106 @@ public final class DnsClientImpl implements DnsClient {
         protected abstract T convert(F entry);
     }
 
-    private abstract class RetryChannelFutureListener implements ChannelFutureListener {
-        private final Future result;
+    /**
+     * A query in flight, it is sent to each server in turn until one of them answers.
+     */
+    private class Query {
+
+        private final DnsQuery msg;
+        private final Function<DnsResponse, Object> decoder;
+        private final Answer answer;
+        private int serverIndex;
+        private int transmissions;
+        private ScheduledFuture<?> timeout;
+
+        Query(DnsQuery msg, Function<DnsResponse, Object> decoder, Answer answer) {
+            this.msg = msg;
+            this.decoder = decoder;
+            this.answer = answer;
+        }
 
-        RetryChannelFutureListener(final Future result) {
-            this.result = result;
+        void send() {
+            if (inflight.get(msg.getHeader().getId()) != this) {
+                return;
+            }
+            transmissions++;
+            InetSocketAddress server = servers.get(serverIndex);
+            timeout = actualCtx.nettyEventLoop().schedule(() -> retry(
+                    new ConektException("DNS query timeout for " + msg.getQuestions().get(0).name() + " on " + server)),
+                    queryTimeout, TimeUnit.MILLISECONDS);
+            channelFuture.channel().writeAndFlush(new DefaultAddressedEnvelope<>(msg, server)).addListener(future -> {
+                if (!future.isSuccess()) {
+                    timeout.cancel(false);
+                    retry(future.cause());
+                }
+            });
         }
 
-        @Override
-        public final void operationComplete(ChannelFuture future) throws Exception {
-            if (!future.isSuccess()) {
-                if (!result.isComplete()) {
-                    result.fail(future.cause());
+        void retry(Throwable cause) {
+            if (inflight.get(msg.getHeader().getId()) != this) {
+                return;
+            }
+            if (transmissions > maxRetransmits) {
+                if (serverIndex + 1 >= servers.size()) {
+                    fail(cause);
+                    return;
+                }
+                serverIndex++;
+                transmissions = 0;
+            }
+            send();
+        }
+
+        /**
+         * The transaction id alone is too easily guessed, a response is only accepted when it comes from one of the
+         * servers and carries the questions of the query.
+         */
+        boolean matches(DnsResponse response) {
+            if (response.sender() == null || !servers.contains(response.sender())) {
+                return false;
+            }
+            List<DnsQuestion> expected = msg.getQuestions();
+            List<DnsQuestion> actual = response.getQuestions();
+            if (expected.size() != actual.size()) {
+                return false;
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                DnsQuestion question = expected.get(i);
+                DnsQuestion other = actual.get(i);
+                if (question.type() != other.type() || question.dnsClass() != other.dnsClass()
+                        || !sameName(question.name(), other.name())) {
+                    return false;
                 }
+            }
+            return true;
+        }
+
+        void handle(DnsResponse response) {
+            DnsResponseCode code = DnsResponseCode.valueOf(response.getHeader().getResponseCode());
+            timeout.cancel(false);
+            if (code == DnsResponseCode.NOERROR) {
+                inflight.remove(msg.getHeader().getId());
+                answer.handle(decoder.apply(response), timeToLive(response));
+            } else if ((code == DnsResponseCode.SERVFAIL || code == DnsResponseCode.REFUSED)
+                    && serverIndex + 1 < servers.size()) {
+                // This server cannot answer, another one may
+                serverIndex++;
+                transmissions = 0;
+                send();
             } else {
-                onSuccess(future);
+                inflight.remove(msg.getHeader().getId());
+                answer.handle(new DnsException(code), 0);
             }
         }
 
-        protected abstract void onSuccess(ChannelFuture future) throws Exception;
+        void fail(Throwable cause) {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (inflight.remove(msg.getHeader().getId()) == this) {
+                answer.handle(cause, 0);
+            }
+        }
     }
 
 }
@@ -0,0 +1,62 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.dns.impl;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * The addresses of a host name along with the time to live of the answers they were decoded from.
+ */
+public final class ResolvedAddresses {
+
+    private final List<InetAddress> addresses;
+    private final long timeToLive;
+
+    ResolvedAddresses(List<InetAddress> addresses, long timeToLive) {
+        this.addresses = addresses;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @return the resolved addresses, empty when the name has no address record
+     */
+    public List<InetAddress> addresses() {
+        return addresses;
+    }
+
+    /**
+     * @return the smallest time to live in seconds of the answers
+     */
+    public long timeToLive() {
+        return timeToLive;
+    }
+
+    @Override
+    public String toString() {
+        return addresses + " ttl=" + timeToLive;
+    }
+}
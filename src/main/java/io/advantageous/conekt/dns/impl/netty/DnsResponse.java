@@ -27,6 +27,8 @@ package io.advantageous.conekt.dns.impl.netty;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
 
+import java.net.InetSocketAddress;
+
 /**
  * A DNS response packet which is sent to a client after a server receives a
  * query.
@@ -35,6 +37,7 @@ public class DnsResponse extends DnsMessage<DnsResponseHeader> implements ByteBu
 
     private final ByteBuf rawPacket;
     private final int originalIndex;
+    private InetSocketAddress sender;
 
     public DnsResponse(ByteBuf rawPacket) {
         this.rawPacket = rawPacket;
@@ -92,6 +95,21 @@ public class DnsResponse extends DnsMessage<DnsResponseHeader> implements ByteBu
         return rawPacket.release(decrement);
     }
 
+    /**
+     * Returns the address of the server which sent this response, or {@code null} when unknown.
+     */
+    public InetSocketAddress sender() {
+        return sender;
+    }
+
+    /**
+     * Sets the address of the server which sent this response.
+     */
+    public DnsResponse sender(InetSocketAddress sender) {
+        this.sender = sender;
+        return this;
+    }
+
     /**
      * Returns the original index at which the DNS response packet starts for the {@link io.netty.buffer.ByteBuf}
      * stored in this {@link io.netty.buffer.ByteBufHolder}.
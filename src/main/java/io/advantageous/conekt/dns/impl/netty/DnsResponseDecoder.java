@@ -26,6 +26,7 @@ package io.advantageous.conekt.dns.impl.netty;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -201,7 +202,8 @@ public class DnsResponseDecoder extends MessageToMessageDecoder<DatagramPacket>
      */
     @Override
     protected void decode(ChannelHandlerContext ctx, DatagramPacket packet, List<Object> out) throws Exception {
-        out.add(decodeResponse(packet.content(), ctx.alloc()).retain());
+        // Resource data is never released by the resolver, so it must not come from a pooled channel allocator
+        out.add(decodeResponse(packet.content(), UnpooledByteBufAllocator.DEFAULT).sender(packet.sender()).retain());
     }
 
 }
@@ -27,7 +27,7 @@ package io.advantageous.conekt.eventbus;
 
 import io.advantageous.conekt.impl.Arguments;
 import io.advantageous.conekt.MultiMap;
-import io.advantageous.conekt.http.CaseInsensitiveHeaders;
+import io.advantageous.conekt.http.CompactHeaders;
 
 import java.util.Objects;
 
@@ -49,6 +49,7 @@ public class DeliveryOptions {
     private long timeout = DEFAULT_TIMEOUT;
     private String codecName;
     private MultiMap headers;
+    private boolean zeroCopy;
 
     /**
      * Default constructor
@@ -65,6 +66,7 @@ public class DeliveryOptions {
         this.timeout = other.getSendTimeout();
         this.codecName = other.getCodecName();
         this.headers = other.getHeaders();
+        this.zeroCopy = other.isZeroCopy();
     }
 
 
@@ -153,9 +155,36 @@ public class DeliveryOptions {
         return this;
     }
 
+    /**
+     * Get whether the message is delivered locally without copies.
+     * <p>
+     * By default each local consumer receives its own copy of the message headers and body. With zero copy delivery
+     * the consumers share the headers and a read-only view of the body: a {@link io.advantageous.conekt.buffer.Buffer}
+     * body is not copied and cannot be written, headers are only copied by a consumer modifying them. Codecs provide
+     * the shared body with {@link MessageCodec#view}.
+     * <p>
+     * The sender must not modify the body or the headers once the message is sent.
+     *
+     * @return true when the message is delivered without copies
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    /**
+     * Set whether the message is delivered locally without copies.
+     *
+     * @param zeroCopy true to deliver the message without copies
+     * @return a reference to this, so the API can be used fluently
+     */
+    public DeliveryOptions setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+        return this;
+    }
+
     private void checkHeaders() {
         if (headers == null) {
-            headers = new CaseInsensitiveHeaders();
+            headers = new CompactHeaders();
         }
     }
 }
@@ -74,6 +74,20 @@ public interface MessageCodec<S, R> {
      */
     R transform(S s);
 
+    /**
+     * If a message is sent <i>locally</i> with {@link DeliveryOptions#setZeroCopy zero copy} delivery, this method is
+     * called once to create the message received by all the consumers, so it must not be modified by them.
+     * <p>
+     * The default implementation calls {@link #transform}, codecs of mutable types should return a read-only view of
+     * the sent message instead of a copy.
+     *
+     * @param s the sent message
+     * @return the message shared by the consumers
+     */
+    default R view(S s) {
+        return transform(s);
+    }
+
     /**
      * The codec name. Each codec must have a unique name. This is used to identify a codec when sending a message and
      * for unregistering codecs.
@@ -29,6 +29,8 @@ import io.advantageous.conekt.AsyncResult;
 import io.advantageous.conekt.streams.ReadStream;
 import io.advantageous.conekt.Handler;
 
+import java.util.List;
+
 /**
  * An event bus consumer object representing a stream of message to an {@link EventBus} address that can
  * be read from.
@@ -50,6 +52,21 @@ public interface MessageConsumer<T> extends ReadStream<Message<T>> {
     @Override
     MessageConsumer<T> handler(Handler<Message<T>> handler);
 
+    /**
+     * Set a handler receiving the messages of this consumer in batches, instead of the {@link #handler(Handler)}.
+     * <p>
+     * When the event bus delivers the messages of a context in batches, see
+     * {@link io.advantageous.conekt.ConektOptions#setEventBusDeliveryBatchSize}, the consecutive messages of a batch
+     * bound to this consumer are handed to the handler in one list. Otherwise, and when messages buffered by a paused
+     * consumer are delivered, the handler receives lists of a single message.
+     * <p>
+     * Like {@link #handler(Handler)}, setting a handler registers the consumer and setting null unregisters it.
+     *
+     * @param batchHandler the batch handler
+     * @return a reference to this, so the API can be used fluently
+     */
+    MessageConsumer<T> batchHandler(Handler<List<Message<T>>> batchHandler);
+
     @Override
     MessageConsumer<T> pause();
 
@@ -0,0 +1,189 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.eventbus.impl;
+
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.eventbus.Message;
+import io.advantageous.conekt.impl.ContextImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The messages delivered to the consumers of a context, drained in batches by a single task of the context.
+ * <p>
+ * Senders queue the messages in a lock-free multi-producer single-consumer linked queue and only the sender finding
+ * the inbox idle schedules the drain task, so a burst of messages costs one task and one wakeup of the context. The
+ * drain task delivers at most {@code batchSize} messages then schedules itself again, giving the other tasks of the
+ * context a chance to run. Consecutive messages of a consumer with a batch handler are handed to it in one list.
+ */
+final class ContextInbox {
+
+    static final String CONTEXT_KEY = ContextInbox.class.getName();
+
+    private static final Logger log = LoggerFactory.getLogger(ContextInbox.class);
+
+    private static final AtomicReferenceFieldUpdater<ContextInbox, Delivery> TAIL_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(ContextInbox.class, Delivery.class, "tail");
+    private static final AtomicIntegerFieldUpdater<ContextInbox> SCHEDULED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ContextInbox.class, "scheduled");
+
+    private final EventBusImpl eventBus;
+    private final ContextImpl context;
+    private final int batchSize;
+    private final Handler<Void> drainTask;
+    // Only accessed by the drain task
+    private Delivery head;
+    private volatile Delivery tail;
+    private volatile int scheduled;
+
+    private ContextInbox(EventBusImpl eventBus, ContextImpl context, int batchSize) {
+        this.eventBus = eventBus;
+        this.context = context;
+        this.batchSize = batchSize;
+        this.head = this.tail = new Delivery(null, null);
+        this.drainTask = v -> drain();
+    }
+
+    /**
+     * @return the inbox of the context, created on first use
+     */
+    static ContextInbox of(EventBusImpl eventBus, ContextImpl context, int batchSize) {
+        ContextInbox inbox = context.get(CONTEXT_KEY);
+        if (inbox == null) {
+            // Senders on different threads must agree on the inbox to keep the order of the messages
+            synchronized (context) {
+                inbox = context.get(CONTEXT_KEY);
+                if (inbox == null) {
+                    inbox = new ContextInbox(eventBus, context, batchSize);
+                    context.put(CONTEXT_KEY, inbox);
+                }
+            }
+        }
+        return inbox;
+    }
+
+    <T> void deliver(HandlerHolder<T> holder, Message<T> message) {
+        Delivery delivery = new Delivery(holder, message);
+        TAIL_UPDATER.getAndSet(this, delivery).next = delivery;
+        // Read before the CAS so senders do not contend on the state while the drain task is pending
+        if (scheduled == 0 && SCHEDULED_UPDATER.compareAndSet(this, 0, 1)) {
+            context.runOnContext(drainTask);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        HandlerHolder batchHolder = null;
+        List<Message> batch = null;
+        int count = 0;
+        while (true) {
+            Delivery delivery = poll();
+            if (delivery == null) {
+                receive(batchHolder, batch);
+                batchHolder = null;
+                batch = null;
+                scheduled = 0;
+                // A sender may have queued a message after the poll but failed to CAS the scheduled state
+                if (tail == head || !SCHEDULED_UPDATER.compareAndSet(this, 0, 1)) {
+                    return;
+                }
+                continue;
+            }
+            HandlerHolder holder = delivery.holder;
+            if (holder != batchHolder) {
+                receive(batchHolder, batch);
+                batchHolder = null;
+                batch = null;
+                if (holder.getHandler().hasBatchHandler()) {
+                    batchHolder = holder;
+                    batch = new ArrayList<>();
+                }
+            }
+            if (batch != null) {
+                batch.add(delivery.message);
+            } else {
+                try {
+                    eventBus.receive(holder, delivery.message);
+                } catch (Throwable t) {
+                    log.error("Unhandled exception", t);
+                }
+            }
+            if (++count == batchSize) {
+                receive(batchHolder, batch);
+                scheduled = 0;
+                if (tail != head && SCHEDULED_UPDATER.compareAndSet(this, 0, 1)) {
+                    context.runOnContext(drainTask);
+                }
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void receive(HandlerHolder holder, List<Message> batch) {
+        if (holder != null) {
+            try {
+                eventBus.receive(holder, (List) batch);
+            } catch (Throwable t) {
+                log.error("Unhandled exception", t);
+            }
+        }
+    }
+
+    private Delivery poll() {
+        Delivery next = head.next;
+        if (next == null) {
+            if (tail == head) {
+                return null;
+            }
+            // A sender swapped the tail but did not link the delivery yet
+            while ((next = head.next) == null) {
+                Thread.yield();
+            }
+        }
+        head.holder = null;
+        head.message = null;
+        head = next;
+        return next;
+    }
+
+    private static final class Delivery {
+
+        HandlerHolder holder;
+        Message message;
+        volatile Delivery next;
+
+        Delivery(HandlerHolder holder, Message message) {
+            this.holder = holder;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.eventbus.impl;
+
+import io.advantageous.conekt.MultiMap;
+import io.advantageous.conekt.http.CompactHeaders;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The headers of a received message: reads go to the headers shared by all the receivers of the message, the first
+ * write copies them so the other receivers never see it.
+ */
+final class CopyOnWriteHeaders implements MultiMap {
+
+    private MultiMap headers;
+    private boolean shared = true;
+
+    CopyOnWriteHeaders(MultiMap headers) {
+        this.headers = headers;
+    }
+
+    private MultiMap writable() {
+        if (shared) {
+            MultiMap copy = new CompactHeaders();
+            copy.addAll(headers);
+            headers = copy;
+            shared = false;
+        }
+        return headers;
+    }
+
+    @Override
+    public String get(CharSequence name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public String get(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public List<String> getAll(String name) {
+        return headers.getAll(name);
+    }
+
+    @Override
+    public List<String> getAll(CharSequence name) {
+        return headers.getAll(name);
+    }
+
+    @Override
+    public List<Map.Entry<String, String>> entries() {
+        List<Map.Entry<String, String>> entries = headers.entries();
+        if (!shared) {
+            return entries;
+        }
+        // The entries of the shared headers must not be modified with setValue
+        List<Map.Entry<String, String>> copy = new ArrayList<>(entries.size());
+        for (Map.Entry<String, String> entry : entries) {
+            copy.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return headers.contains(name);
+    }
+
+    @Override
+    public boolean contains(CharSequence name) {
+        return headers.contains(name);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return headers.isEmpty();
+    }
+
+    @Override
+    public Set<String> names() {
+        return shared ? Collections.unmodifiableSet(headers.names()) : headers.names();
+    }
+
+    @Override
+    public MultiMap add(String name, String value) {
+        writable().add(name, value);
+        return this;
+    }
+
+    @Override
+    public MultiMap add(CharSequence name, CharSequence value) {
+        writable().add(name, value);
+        return this;
+    }
+
+    @Override
+    public MultiMap add(String name, Iterable<String> values) {
+        writable().add(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap add(CharSequence name, Iterable<CharSequence> values) {
+        writable().add(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap addAll(MultiMap map) {
+        writable().addAll(map);
+        return this;
+    }
+
+    @Override
+    public MultiMap addAll(Map<String, String> headers) {
+        writable().addAll(headers);
+        return this;
+    }
+
+    @Override
+    public MultiMap set(String name, String value) {
+        writable().set(name, value);
+        return this;
+    }
+
+    @Override
+    public MultiMap set(CharSequence name, CharSequence value) {
+        writable().set(name, value);
+        return this;
+    }
+
+    @Override
+    public MultiMap set(String name, Iterable<String> values) {
+        writable().set(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap set(CharSequence name, Iterable<CharSequence> values) {
+        writable().set(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap setAll(MultiMap map) {
+        writable().setAll(map);
+        return this;
+    }
+
+    @Override
+    public MultiMap setAll(Map<String, String> headers) {
+        writable().setAll(headers);
+        return this;
+    }
+
+    @Override
+    public MultiMap remove(String name) {
+        if (headers.contains(name)) {
+            writable().remove(name);
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap remove(CharSequence name) {
+        if (headers.contains(name)) {
+            writable().remove(name);
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap clear() {
+        if (shared) {
+            headers = new CompactHeaders();
+            shared = false;
+        } else {
+            headers.clear();
+        }
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return headers.size();
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return entries().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return headers.toString();
+    }
+}
@@ -28,6 +28,7 @@ package io.advantageous.conekt.eventbus.impl;
 import io.advantageous.conekt.*;
 import io.advantageous.conekt.eventbus.*;
 import io.advantageous.conekt.impl.ConektInternal;
+import io.advantageous.conekt.impl.ContextImpl;
 import io.advantageous.conekt.spi.metrics.EventBusMetrics;
 import io.advantageous.conekt.spi.metrics.MetricsProvider;
 import org.slf4j.Logger;
@@ -39,7 +40,7 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A local event bus implementation
@@ -55,12 +56,19 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     protected final ConcurrentMap<String, Handlers> handlerMap = new ConcurrentHashMap<>();
     protected final CodecManager codecManager = new CodecManager();
     private final List<Handler<SendContext>> interceptors = new CopyOnWriteArrayList<>();
-    private final AtomicLong replySequence = new AtomicLong(0);
+    private final ConcurrentMap<Integer, ReplyTable> replyTables = new ConcurrentHashMap<>();
+    private final AtomicInteger replyTableCounter = new AtomicInteger();
+    private final int deliveryBatchSize;
     protected volatile boolean started;
 
     public EventBusImpl(ConektInternal vertx) {
+        this(vertx, ConektOptions.DEFAULT_EVENT_BUS_DELIVERY_BATCH_SIZE);
+    }
+
+    public EventBusImpl(ConektInternal vertx, int deliveryBatchSize) {
         this.vertx = vertx;
         this.metrics = vertx.metricsSPI().createMetrics(this);
+        this.deliveryBatchSize = deliveryBatchSize;
     }
 
     @Override
@@ -313,8 +321,9 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         if (replyMessage.address() == null) {
             throw new IllegalStateException("address not specified");
         } else {
-            HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(replyMessage, options, replyHandler);
-            new ReplySendContextImpl<>(replyMessage, options, replyHandlerRegistration, replierMessage).next();
+            replyMessage.replyTarget = replierMessage.pendingReply;
+            ReplyHandler<T> pendingReply = createReplyHandler(replyMessage, options, replyHandler);
+            new ReplySendContextImpl<>(replyMessage, options, pendingReply, replierMessage).next();
         }
     }
 
@@ -328,21 +337,6 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         deliverMessageLocally(sendContext);
     }
 
-    protected <T> Handler<Message<T>> convertHandler(Handler<AsyncResult<Message<T>>> handler) {
-        return reply -> {
-            Future<Message<T>> result;
-            if (reply.body() instanceof ReplyException) {
-                // This is kind of clunky - but hey-ho
-                ReplyException exception = (ReplyException) reply.body();
-                metrics.replyFailure(reply.address(), exception.failureType());
-                result = Future.failedFuture(exception);
-            } else {
-                result = Future.succeededFuture(reply);
-            }
-            handler.handle(result);
-        };
-    }
-
     protected void callCompletionHandlerAsync(Handler<AsyncResult<Void>> completionHandler) {
         if (completionHandler != null) {
             vertx.runOnContext(v -> completionHandler.handle(Future.succeededFuture()));
@@ -353,8 +347,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         if (!deliverMessageLocally(sendContext.message)) {
             // no handlers
             metrics.replyFailure(sendContext.message.address, ReplyFailure.NO_HANDLERS);
-            if (sendContext.handlerRegistration != null) {
-                sendContext.handlerRegistration.sendAsyncResultFailure(ReplyFailure.NO_HANDLERS, "No handlers for address "
+            if (sendContext.pendingReply != null) {
+                sendContext.pendingReply.fail(ReplyFailure.NO_HANDLERS, "No handlers for address "
                         + sendContext.message.address);
             }
         }
@@ -366,6 +360,9 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     protected <T> boolean deliverMessageLocally(MessageImpl msg) {
         msg.setBus(this);
+        if (msg.replyTarget != null) {
+            return deliverReply(msg, msg.replyTarget);
+        }
         Handlers handlers = handlerMap.get(msg.address());
         if (handlers != null) {
             if (msg.send()) {
@@ -384,9 +381,47 @@ public class EventBusImpl implements EventBus, MetricsProvider {
             }
             return true;
         } else {
+            // A message sent explicitly to a reply address
+            ReplyHandler<?> pendingReply = lookupReply(msg.address());
+            if (pendingReply != null) {
+                return deliverReply(msg, pendingReply);
+            }
+            metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), 0);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean deliverReply(MessageImpl msg, ReplyHandler pendingReply) {
+        if (!pendingReply.isPending()) {
+            // Timed out, or already replied
             metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), 0);
             return false;
         }
+        metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), 1);
+        pendingReply.deliver(msg.copyBeforeReceive());
+        return true;
+    }
+
+    private ReplyHandler<?> lookupReply(String address) {
+        int length = address.length();
+        if (length == 0 || length > 19) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = address.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        long id;
+        try {
+            id = Long.parseLong(address);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        ReplyTable table = replyTables.get(ReplyTable.index(id));
+        return table != null ? table.get(id) : null;
     }
 
     protected void checkStarted() {
@@ -395,22 +430,21 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         }
     }
 
-    protected String generateReplyAddress() {
-        return Long.toString(replySequence.incrementAndGet());
-    }
-
-    private <T> HandlerRegistration<T> createReplyHandlerRegistration(MessageImpl message,
-                                                                      DeliveryOptions options,
-                                                                      Handler<AsyncResult<Message<T>>> replyHandler) {
+    private <T> ReplyHandler<T> createReplyHandler(MessageImpl message, DeliveryOptions options,
+                                                   Handler<AsyncResult<Message<T>>> replyHandler) {
         if (replyHandler != null) {
-            long timeout = options.getSendTimeout();
-            String replyAddress = generateReplyAddress();
-            message.setReplyAddress(replyAddress);
-            Handler<Message<T>> simpleReplyHandler = convertHandler(replyHandler);
-            HandlerRegistration<T> registration =
-                    new HandlerRegistration<>(vertx, metrics, this, replyAddress, message.address, true, replyHandler, timeout);
-            registration.handler(simpleReplyHandler);
-            return registration;
+            // Replies are correlated in a table of the sending context, they bypass the handler map and the reply
+            // address is only created if the replier asks for it
+            ContextImpl context = vertx.getOrCreateContext();
+            ReplyTable table = context.get(ReplyTable.CONTEXT_KEY);
+            if (table == null) {
+                table = new ReplyTable(context, replyTableCounter.getAndIncrement(), replyTables);
+                context.put(ReplyTable.CONTEXT_KEY, table);
+            }
+            ReplyHandler<T> pendingReply = new ReplyHandler<>(metrics, table, message.address, replyHandler,
+                    options.getSendTimeout());
+            message.pendingReply = pendingReply;
+            return pendingReply;
         } else {
             return null;
         }
@@ -419,8 +453,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     private <T> void sendOrPubInternal(MessageImpl message, DeliveryOptions options,
                                        Handler<AsyncResult<Message<T>>> replyHandler) {
         checkStarted();
-        HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(message, options, replyHandler);
-        SendContextImpl<T> sendContext = new SendContextImpl<>(message, options, replyHandlerRegistration);
+        ReplyHandler<T> pendingReply = createReplyHandler(message, options, replyHandler);
+        SendContextImpl<T> sendContext = new SendContextImpl<>(message, options, pendingReply);
         sendContext.next();
     }
 
@@ -438,19 +472,37 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         @SuppressWarnings("unchecked")
         Message<T> copied = msg.copyBeforeReceive();
 
-        holder.getContext().runOnContext((v) -> {
-            // Need to check handler is still there - the handler might have been removed after the message were sent but
-            // before it was received
-            try {
-                if (!holder.isRemoved()) {
-                    holder.getHandler().handle(copied);
-                }
-            } finally {
-                if (holder.isReplyHandler()) {
-                    holder.getHandler().unregister();
-                }
+        if (deliveryBatchSize > 1) {
+            ContextInbox.of(this, (ContextImpl) holder.getContext(), deliveryBatchSize).deliver(holder, copied);
+        } else {
+            holder.getContext().runOnContext(v -> receive(holder, copied));
+        }
+    }
+
+    <T> void receive(HandlerHolder<T> holder, Message<T> message) {
+        // Need to check handler is still there - the handler might have been removed after the message were sent but
+        // before it was received
+        try {
+            if (!holder.isRemoved()) {
+                holder.getHandler().handle(message);
             }
-        });
+        } finally {
+            if (holder.isReplyHandler()) {
+                holder.getHandler().unregister();
+            }
+        }
+    }
+
+    <T> void receive(HandlerHolder<T> holder, List<Message<T>> messages) {
+        try {
+            if (!holder.isRemoved()) {
+                holder.getHandler().handleBatch(messages);
+            }
+        } finally {
+            if (holder.isReplyHandler()) {
+                holder.getHandler().unregister();
+            }
+        }
     }
 
     @Override
@@ -467,14 +519,15 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
         public final MessageImpl message;
         public final DeliveryOptions options;
-        public final HandlerRegistration<T> handlerRegistration;
+        final ReplyHandler<T> pendingReply;
         public final Iterator<Handler<SendContext>> iter;
 
-        public SendContextImpl(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration) {
+        SendContextImpl(MessageImpl message, DeliveryOptions options, ReplyHandler<T> pendingReply) {
             this.message = message;
             this.options = options;
-            this.handlerRegistration = handlerRegistration;
+            this.pendingReply = pendingReply;
             this.iter = interceptors.iterator();
+            message.zeroCopy = options != null && options.isZeroCopy();
         }
 
         @Override
@@ -506,9 +559,9 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
         private final MessageImpl replierMessage;
 
-        public ReplySendContextImpl(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration,
-                                    MessageImpl replierMessage) {
-            super(message, options, handlerRegistration);
+        ReplySendContextImpl(MessageImpl message, DeliveryOptions options, ReplyHandler<T> pendingReply,
+                             MessageImpl replierMessage) {
+            super(message, options, pendingReply);
             this.replierMessage = replierMessage;
         }
 
@@ -37,6 +37,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 
@@ -62,6 +64,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     private long timeoutID = -1;
     private boolean registered;
     private Handler<Message<T>> handler;
+    private Handler<List<Message<T>>> batchHandler;
     private AsyncResult<Void> result;
     private Handler<AsyncResult<Void>> completionHandler;
     private Handler<Void> endHandler;
@@ -212,6 +215,48 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
         }
     }
 
+    /**
+     * Handle messages delivered together, they are handed to the batch handler in one call when the consumer is not
+     * paused.
+     */
+    public void handleBatch(List<Message<T>> messages) {
+        Handler<List<Message<T>>> theHandler;
+        synchronized (this) {
+            theHandler = paused ? null : batchHandler;
+            if (theHandler != null) {
+                checkNextTick();
+            }
+        }
+        if (theHandler == null) {
+            for (Message<T> message : messages) {
+                handle(message);
+            }
+            return;
+        }
+        for (Message<T> message : messages) {
+            String creditsAddress = message.headers().get(MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
+            if (creditsAddress != null) {
+                eventBus.send(creditsAddress, 1);
+            }
+        }
+        try {
+            theHandler.handle(messages);
+            for (int i = 0; i < messages.size(); i++) {
+                metrics.endHandleMessage(metric, null);
+            }
+        } catch (Exception e) {
+            log.error("Failed to handleMessage", e);
+            for (int i = 0; i < messages.size(); i++) {
+                metrics.endHandleMessage(metric, e);
+            }
+            throw e;
+        }
+    }
+
+    public synchronized boolean hasBatchHandler() {
+        return batchHandler != null;
+    }
+
     private void handleMessage(Handler<Message<T>> theHandler, Message<T> message) {
         try {
             theHandler.handle(message);
@@ -232,6 +277,18 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
 
     @Override
     public synchronized MessageConsumer<T> handler(Handler<Message<T>> handler) {
+        this.batchHandler = null;
+        return setHandler(handler);
+    }
+
+    @Override
+    public synchronized MessageConsumer<T> batchHandler(Handler<List<Message<T>>> batchHandler) {
+        this.batchHandler = batchHandler;
+        // Messages delivered one by one are handed to the batch handler as singleton lists
+        return setHandler(batchHandler != null ? message -> batchHandler.handle(Collections.singletonList(message)) : null);
+    }
+
+    private MessageConsumer<T> setHandler(Handler<Message<T>> handler) {
         this.handler = handler;
         if (this.handler != null && !registered) {
             registered = true;
@@ -29,13 +29,10 @@ import io.advantageous.conekt.AsyncResult;
 import io.advantageous.conekt.eventbus.*;
 import io.advantageous.conekt.Handler;
 import io.advantageous.conekt.MultiMap;
-import io.advantageous.conekt.http.CaseInsensitiveHeaders;
+import io.advantageous.conekt.http.CompactHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -52,6 +49,15 @@ public class MessageImpl<U, V> implements Message<V> {
     protected U sentBody;
     protected V receivedBody;
     protected boolean send;
+    // The reply the sender waits for, the reply address is created from its id on demand
+    protected ReplyHandler<?> pendingReply;
+    // The reply this message answers
+    protected ReplyHandler<?> replyTarget;
+    // Whether the receivers share the sent headers and a read-only view of the body
+    protected boolean zeroCopy;
+    // Created once by the first copy, then shared by the copies handed to the receivers
+    private MultiMap sharedHeaders;
+    private V sharedBody;
 
     public MessageImpl() {
     }
@@ -72,17 +78,18 @@ public class MessageImpl<U, V> implements Message<V> {
         this.bus = other.bus;
         this.address = other.address;
         this.replyAddress = other.replyAddress;
+        this.pendingReply = other.pendingReply;
         this.messageCodec = other.messageCodec;
-        if (other.headers != null) {
-            List<Map.Entry<String, String>> entries = other.headers.entries();
-            this.headers = new CaseInsensitiveHeaders();
-            for (Map.Entry<String, String> entry : entries) {
-                this.headers.add(entry.getKey(), entry.getValue());
-            }
+        this.zeroCopy = other.zeroCopy;
+        // Copies are created by the sending thread, one per receiver: the headers and, in zero copy mode, the body are
+        // prepared once and shared, a receiver writing the headers only copies them for itself
+        MultiMap shared = other.sharedHeaders();
+        if (shared != null) {
+            this.headers = new CopyOnWriteHeaders(shared);
         }
         if (other.sentBody != null) {
             this.sentBody = other.sentBody;
-            this.receivedBody = messageCodec.transform(other.sentBody);
+            this.receivedBody = zeroCopy ? other.sharedBody() : messageCodec.transform(other.sentBody);
         }
         this.send = other.send;
     }
@@ -91,6 +98,25 @@ public class MessageImpl<U, V> implements Message<V> {
         return new MessageImpl<>(this);
     }
 
+    private MultiMap sharedHeaders() {
+        if (sharedHeaders == null && headers != null) {
+            if (zeroCopy) {
+                sharedHeaders = headers;
+            } else {
+                sharedHeaders = new CompactHeaders();
+                sharedHeaders.addAll(headers);
+            }
+        }
+        return sharedHeaders;
+    }
+
+    private V sharedBody() {
+        if (sharedBody == null) {
+            sharedBody = messageCodec.view(sentBody);
+        }
+        return sharedBody;
+    }
+
     @Override
     public String address() {
         return address;
@@ -100,7 +126,7 @@ public class MessageImpl<U, V> implements Message<V> {
     public MultiMap headers() {
         // Lazily decode headers
         if (headers == null) {
-            headers = new CaseInsensitiveHeaders();
+            headers = new CompactHeaders();
         }
         return headers;
     }
@@ -115,12 +141,15 @@ public class MessageImpl<U, V> implements Message<V> {
 
     @Override
     public String replyAddress() {
+        if (replyAddress == null && pendingReply != null) {
+            replyAddress = Long.toString(pendingReply.id());
+        }
         return replyAddress;
     }
 
     @Override
     public void fail(int failureCode, String message) {
-        if (replyAddress != null) {
+        if (replyAddress() != null) {
             sendReply(bus.createMessage(true, replyAddress, null,
                     new ReplyException(ReplyFailure.RECIPIENT_FAILURE, failureCode, message), null), null, null);
         }
@@ -143,7 +172,7 @@ public class MessageImpl<U, V> implements Message<V> {
 
     @Override
     public <R> void reply(Object message, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
-        if (replyAddress != null) {
+        if (replyAddress() != null) {
             sendReply(bus.createMessage(true, replyAddress, options.getHeaders(), message, options.getCodecName()), options, replyHandler);
         }
     }
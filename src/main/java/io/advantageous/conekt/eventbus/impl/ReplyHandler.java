@@ -0,0 +1,149 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.eventbus.impl;
+
+import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.Future;
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.eventbus.Message;
+import io.advantageous.conekt.eventbus.ReplyException;
+import io.advantageous.conekt.eventbus.ReplyFailure;
+import io.advantageous.conekt.spi.metrics.EventBusMetrics;
+
+/**
+ * A reply a context is waiting for. It is registered in the {@link ReplyTable} of the context rather than in the
+ * handler map of the event bus, whoever removes it from the table completes it: the reply, the timeout swept by the
+ * table, a delivery failure or the close of the context.
+ * <p>
+ * The handler is called on the context that sent the message, as the handler of a reply consumer was.
+ */
+public final class ReplyHandler<T> {
+
+    private final EventBusMetrics metrics;
+    private final ReplyTable table;
+    private final String repliedAddress;
+    private final Handler<AsyncResult<Message<T>>> handler;
+    private final long id;
+    private final Object metric;
+
+    /**
+     * Create a reply and add it to the table.
+     *
+     * @param metrics        the event bus metrics
+     * @param table          the table of the sending context
+     * @param repliedAddress the address of the message waiting for the reply
+     * @param handler        the reply handler
+     * @param timeout        the timeout in ms, or {@code -1}
+     */
+    public ReplyHandler(EventBusMetrics metrics, ReplyTable table, String repliedAddress,
+                        Handler<AsyncResult<Message<T>>> handler, long timeout) {
+        this.metrics = metrics;
+        this.table = table;
+        this.repliedAddress = repliedAddress;
+        this.handler = handler;
+        this.id = table.add(this, timeout);
+        // The reply address is only materialized for metrics implementations that want it
+        this.metric = metrics.isEnabled() ? metrics.handlerRegistered(Long.toString(id), repliedAddress) : null;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    /**
+     * @return whether the reply is still expected
+     */
+    public boolean isPending() {
+        return table.get(id) == this;
+    }
+
+    /**
+     * Deliver the reply on the context waiting for it.
+     */
+    void deliver(Message<T> reply) {
+        table.context().runOnContext(v -> {
+            if (complete()) {
+                Future<Message<T>> result;
+                if (reply.body() instanceof ReplyException) {
+                    ReplyException exception = (ReplyException) reply.body();
+                    metrics.replyFailure(reply.address(), exception.failureType());
+                    result = Future.failedFuture(exception);
+                } else {
+                    result = Future.succeededFuture(reply);
+                }
+                try {
+                    handler.handle(result);
+                    if (metric != null) {
+                        metrics.endHandleMessage(metric, null);
+                    }
+                } catch (RuntimeException e) {
+                    if (metric != null) {
+                        metrics.endHandleMessage(metric, e);
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Fail the reply on the calling thread.
+     */
+    public void fail(ReplyFailure failure, String message) {
+        if (complete()) {
+            handler.handle(Future.failedFuture(new ReplyException(failure, message)));
+        }
+    }
+
+    /**
+     * Called on the context by the table sweep once it removed the expired reply.
+     */
+    void timedOut() {
+        unregistered();
+        metrics.replyFailure(repliedAddress, ReplyFailure.TIMEOUT);
+        handler.handle(Future.failedFuture(new ReplyException(ReplyFailure.TIMEOUT, "Timed out waiting for a reply")));
+    }
+
+    /**
+     * Called when the context is closed, the reply handler is not called.
+     */
+    void cancel() {
+        unregistered();
+    }
+
+    private boolean complete() {
+        if (table.remove(id) != this) {
+            return false;
+        }
+        unregistered();
+        return true;
+    }
+
+    private void unregistered() {
+        if (metric != null) {
+            metrics.handlerUnregistered(metric);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.eventbus.impl;
+
+import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.Closeable;
+import io.advantageous.conekt.Future;
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.impl.ContextImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The replies a context is waiting for, keyed by reply id.
+ * <p>
+ * An open addressing table with primitive long keys, so registering and completing a reply allocates nothing. The
+ * high 32 bits of a reply id are the index of the table: a message sent explicitly to a reply address finds the
+ * table in the {@code registry} of the event bus. The table is only registered, and only holds the close hook of its
+ * context, while it has pending replies.
+ * <p>
+ * The table also keeps the deadline of each reply, a single sweep task scheduled on the event loop of the context for
+ * the earliest deadline times out the expired replies, so sending a message with a timeout schedules no timer. Sweeps
+ * run on a tick of {@link #SWEEP_TICK}: the deadlines falling in the same tick share a sweep, so a burst of timeouts
+ * (e.g. when the recipients are gone) costs a sweep per tick rather than one per message, and a reply may time out up
+ * to a tick late, never early. When the replies arrive in time, the sweep mostly finds nothing to expire and is
+ * rescheduled for the oldest pending reply.
+ * <p>
+ * The internal state is protected using the synchronized keyword. If always used on the same event loop, then
+ * we benefit from biased locking which makes the overhead of synchronized near zero.
+ */
+public final class ReplyTable implements Closeable {
+
+    static final String CONTEXT_KEY = ReplyTable.class.getName();
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    // The granularity of the sweeps in ns
+    private static final long SWEEP_TICK = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ContextImpl context;
+    private final int index;
+    private final ConcurrentMap<Integer, ReplyTable> registry;
+    private final long startTime = System.nanoTime();
+    private final Handler<Void> sweeper = v -> sweep();
+    private final Runnable sweepTask = () -> context().runOnContext(sweeper);
+    private long[] keys = new long[16];
+    private long[] deadlines = new long[16];
+    private ReplyHandler<?>[] values = new ReplyHandler<?>[16];
+    private int size;
+    private int sequence;
+    // The deadline of the earliest scheduled sweep
+    private long sweepAt = NO_DEADLINE;
+    private ScheduledFuture<?> sweepFuture;
+
+    public ReplyTable(ContextImpl context, int index, ConcurrentMap<Integer, ReplyTable> registry) {
+        this.context = context;
+        this.index = index & 0x7FFFFFFF;
+        this.registry = registry;
+    }
+
+    /**
+     * @param id the reply id
+     * @return the index of the table owning the reply
+     */
+    public static int index(long id) {
+        return (int) (id >>> 32);
+    }
+
+    public ContextImpl context() {
+        return context;
+    }
+
+    /**
+     * Add a pending reply.
+     *
+     * @param handler the reply
+     * @param timeout the timeout in ms, or {@code -1}
+     * @return the reply id
+     */
+    synchronized long add(ReplyHandler<?> handler, long timeout) {
+        if (size == 0) {
+            registry.put(index, this);
+            context.addCloseHook(this);
+        } else if (size >= values.length >> 1) {
+            resize();
+        }
+        long id;
+        do {
+            id = ((long) index << 32) | (sequence++ & 0xFFFFFFFFL);
+        } while (slot(id) >= 0);
+        long deadline = NO_DEADLINE;
+        if (timeout != -1) {
+            long now = now();
+            long delay = TimeUnit.MILLISECONDS.toNanos(timeout);
+            // A timeout too long to be represented never expires
+            deadline = delay < NO_DEADLINE - now ? now + delay : NO_DEADLINE;
+        }
+        insert(id, handler, deadline);
+        size++;
+        long tick = tick(deadline);
+        if (tick < sweepAt) {
+            scheduleSweep(tick, now());
+        }
+        return id;
+    }
+
+    public synchronized ReplyHandler<?> get(long id) {
+        int slot = slot(id);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Remove a pending reply, the caller removing it completes the reply.
+     *
+     * @return the removed reply or null
+     */
+    public synchronized ReplyHandler<?> remove(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return null;
+        }
+        ReplyHandler<?> handler = values[slot];
+        removeSlot(slot);
+        return handler;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void removeSlot(int slot) {
+        delete(slot);
+        if (--size == 0) {
+            registry.remove(index, this);
+            context.removeCloseHook(this);
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * @return the deadline rounded up to the next sweep tick, a deadline in the last tick is never swept
+     */
+    private static long tick(long deadline) {
+        long tick = (deadline / SWEEP_TICK) * SWEEP_TICK;
+        if (tick == deadline) {
+            return tick;
+        }
+        return tick > NO_DEADLINE - SWEEP_TICK ? NO_DEADLINE : tick + SWEEP_TICK;
+    }
+
+    private void scheduleSweep(long tick, long now) {
+        // The sweep it replaces is later, this one reschedules for the replies it would have expired
+        if (sweepFuture != null) {
+            sweepFuture.cancel(false);
+        }
+        sweepAt = tick;
+        sweepFuture = context.nettyEventLoop().schedule(sweepTask, Math.max(0, tick - now), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time out the expired replies and schedule the next sweep.
+     */
+    private void sweep() {
+        List<ReplyHandler<?>> expired = null;
+        synchronized (this) {
+            long now = now();
+            long next = NO_DEADLINE;
+            int slot = 0;
+            // A single pass expires the replies and finds the next deadline: the deletion only shifts back entries
+            // that are not visited yet into the slot, which is checked again, or visited ones across the wrap around
+            while (slot < values.length) {
+                if (values[slot] == null) {
+                    slot++;
+                } else if (deadlines[slot] <= now) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(values[slot]);
+                    removeSlot(slot);
+                } else {
+                    next = Math.min(next, deadlines[slot]);
+                    slot++;
+                }
+            }
+            if (sweepAt <= now) {
+                // This was the earliest scheduled sweep
+                sweepAt = NO_DEADLINE;
+                sweepFuture = null;
+            }
+            next = tick(next);
+            if (next < sweepAt) {
+                scheduleSweep(next, now);
+            }
+        }
+        if (expired != null) {
+            expired.forEach(ReplyHandler::timedOut);
+        }
+    }
+
+    // Called via Context close hook when IoActor is undeployed
+    @Override
+    public void close(Handler<AsyncResult<Void>> completionHandler) {
+        List<ReplyHandler<?>> pending = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    pending.add(values[i]);
+                    values[i] = null;
+                }
+            }
+            size = 0;
+            registry.remove(index, this);
+            if (sweepFuture != null) {
+                sweepFuture.cancel(false);
+                sweepFuture = null;
+            }
+            sweepAt = NO_DEADLINE;
+        }
+        pending.forEach(ReplyHandler::cancel);
+        completionHandler.handle(Future.succeededFuture());
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int slot(long id) {
+        int mask = values.length - 1;
+        for (int i = hash(id) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long id, ReplyHandler<?> handler, long deadline) {
+        int mask = values.length - 1;
+        int i = hash(id) & mask;
+        while (values[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        deadlines[i] = deadline;
+        values[i] = handler;
+    }
+
+    private void delete(int slot) {
+        // Shift back the following entries of the probe sequence so lookups never stop on the hole
+        int mask = values.length - 1;
+        int hole = slot;
+        values[hole] = null;
+        for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            boolean between = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+            if (!between) {
+                keys[hole] = keys[i];
+                deadlines[hole] = deadlines[i];
+                values[hole] = values[i];
+                values[i] = null;
+                hole = i;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldDeadlines = deadlines;
+        ReplyHandler<?>[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        deadlines = new long[oldKeys.length << 1];
+        values = new ReplyHandler<?>[oldValues.length << 1];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i], oldDeadlines[i]);
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ package io.advantageous.conekt.eventbus.impl.codecs;
 
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.MessageCodec;
+import io.netty.buffer.Unpooled;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -51,6 +52,12 @@ public class BufferMessageCodec implements MessageCodec<Buffer, Buffer> {
         return b.copy();
     }
 
+    @Override
+    public Buffer view(Buffer b) {
+        // The consumers share the sent bytes, any write fails
+        return Buffer.buffer(Unpooled.unmodifiableBuffer(b.getByteBuf()));
+    }
+
     @Override
     public String name() {
         return "buffer";
@@ -151,7 +151,10 @@ public class AsyncFileImpl implements AsyncFile {
         Objects.requireNonNull(buffer, "buffer");
         Arguments.require(position >= 0, "position must be >= 0");
         check();
+        // A pooled buffer is transferred to the file and a borrowed one is retained, until the write completes
+        ByteBuf buf = buffer.getByteBufForWrite();
         Handler<AsyncResult<Void>> wrapped = ar -> {
+            buf.release();
             if (ar.succeeded()) {
                 checkContext();
                 checkDrained();
@@ -169,7 +172,6 @@ public class AsyncFileImpl implements AsyncFile {
                 }
             }
         };
-        ByteBuf buf = buffer.getByteBuf();
         if (buf.nioBufferCount() > 1) {
             doWrite(buf.nioBuffers(), position, wrapped);
         } else {
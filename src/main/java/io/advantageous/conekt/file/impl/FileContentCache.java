@@ -0,0 +1,239 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.file.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * A byte bounded LRU cache of the content of small files, shared by all the connections of a Vert.x instance.
+ * <p>
+ * The content of a file is read once in a read-only direct buffer, entries are keyed by the file path and are
+ * replaced when the file modification time or size changes. A file is then sent by writing a retained slice of its
+ * buffer, so concurrent sends share the same memory and an evicted buffer is only freed once the writes using it
+ * are done.
+ * <p>
+ * This class is thread-safe.
+ */
+public class FileContentCache {
+
+    private final long maxSize;
+    private final int maxFileSize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // The files being loaded in the background
+    private final Set<String> loading = new HashSet<>();
+    private long size;
+
+    public FileContentCache(long maxSize, int maxFileSize) {
+        this.maxSize = maxSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Get a region of the content of a file, the file is read and cached when it is not already.
+     *
+     * @param file   the file
+     * @param offset the offset of the region
+     * @param length the length of the region
+     * @return a retained slice of the cached content that the caller must write or release, or {@code null} when the
+     * file cannot be cached
+     */
+    public ByteBuf get(File file, long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > maxFileSize) {
+            return null;
+        }
+        ByteBuf content = get(file);
+        if (content == null) {
+            return null;
+        }
+        if (offset + length > content.readableBytes()) {
+            content.release();
+            return null;
+        }
+        // The slice shares the reference count of the content
+        return content.slice((int) offset, (int) length);
+    }
+
+    /**
+     * Get the whole content of a file, the file is loaded and cached when it is not already.
+     *
+     * @param file the file
+     * @return a retained duplicate of the cached content that the caller must write or release, or {@code null} when
+     * the file cannot be cached
+     */
+    public ByteBuf get(File file) {
+        return get(file, null);
+    }
+
+    /**
+     * Get the whole content of a file when it is cached, otherwise load it with the {@code loader} so a later call
+     * finds it. Concurrent misses on a file share a single load.
+     *
+     * @param file   the file
+     * @param loader the executor loading the file, or null to load it in the calling thread
+     * @return a retained duplicate of the cached content that the caller must write or release, or {@code null} when
+     * the file is being loaded or cannot be cached
+     */
+    public ByteBuf get(File file, Executor loader) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        long fileSize = attrs.size();
+        if (!attrs.isRegularFile() || fileSize > maxFileSize) {
+            return null;
+        }
+        String key = file.getAbsolutePath();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified && entry.fileSize == fileSize) {
+                return entry.content.duplicate().retain();
+            }
+            if (loader != null && !loading.add(key)) {
+                return null;
+            }
+        }
+        if (loader != null) {
+            loader.execute(() -> {
+                try {
+                    ByteBuf content = load(file, (int) fileSize);
+                    if (content != null) {
+                        put(key, content, lastModified, fileSize).release();
+                    }
+                } finally {
+                    synchronized (this) {
+                        loading.remove(key);
+                    }
+                }
+            });
+            return null;
+        }
+        ByteBuf content = load(file, (int) fileSize);
+        if (content == null) {
+            return null;
+        }
+        return put(key, content, lastModified, fileSize);
+    }
+
+    private ByteBuf put(String key, ByteBuf content, long lastModified, long fileSize) {
+        if (content.capacity() > maxSize) {
+            // Never fits, use it once
+            return content;
+        }
+        synchronized (this) {
+            Entry entry = new Entry(content, lastModified, fileSize);
+            Entry previous = entries.put(key, entry);
+            size += content.capacity();
+            if (previous != null) {
+                size -= previous.content.capacity();
+                previous.content.release();
+            }
+            ByteBuf result = content.duplicate().retain();
+            // The new entry is the most recently used one, so it is evicted last
+            evict();
+            return result;
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            size -= eldest.content.capacity();
+            eldest.content.release();
+        }
+    }
+
+    /**
+     * Load the content to cache for a file, the default implementation reads the file in a direct buffer.
+     *
+     * @param file     the file
+     * @param fileSize the size of the file
+     * @return the content to cache, read-only, or {@code null} when the file cannot be read
+     */
+    protected ByteBuf load(File file, int fileSize) {
+        ByteBuf buf = Unpooled.directBuffer(fileSize, fileSize);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buf.isWritable()) {
+                if (buf.writeBytes(channel, buf.writableBytes()) < 0) {
+                    // The file shrank since its size was read
+                    buf.release();
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            buf.release();
+            return null;
+        }
+        return Unpooled.unmodifiableBuffer(buf);
+    }
+
+    /**
+     * @return the number of bytes held by the cache
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Release all the cached buffers.
+     */
+    public synchronized void close() {
+        for (Entry entry : entries.values()) {
+            entry.content.release();
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    private static final class Entry {
+        final ByteBuf content;
+        final long lastModified;
+        final long fileSize;
+
+        Entry(ByteBuf content, long lastModified, long fileSize) {
+            this.content = content;
+            this.lastModified = lastModified;
+            this.fileSize = fileSize;
+        }
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http;
+
+import io.advantageous.conekt.MultiMap;
+
+import java.util.*;
+
+/**
+ * A multi-map with case insensitive keys holding HTTP headers or any other small multi-map, with a lower footprint
+ * than {@link CaseInsensitiveHeaders}.
+ * <p>
+ * The entries are stored in insertion order in parallel arrays together with the case insensitive hash of their name,
+ * computed once when the entry is added. An open addressing table with linear probing indexes the first entry of each
+ * name, the entries with the same name are chained through their array index. Adding or looking up an entry does not
+ * allocate, apart from the occasional growth of the arrays.
+ */
+public final class CompactHeaders implements MultiMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Name and value of each entry, interleaved
+    private String[] strings;
+    // Hash, index of the next entry with the same name (or -1) and, for the first entry of a name, index of the last
+    // entry with that name, interleaved
+    private int[] links;
+    // The index + 1 of the first entry of a name, 0 for a free slot
+    private int[] table;
+    private int capacity;
+    // The number of used entries, removed ones included
+    private int count;
+    private int removed;
+    private int distinct;
+
+    public CompactHeaders() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of entries the map holds before growing
+     */
+    public CompactHeaders(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        strings = new String[capacity * 2];
+        links = new int[capacity * 3];
+        // Keep the table at most half full
+        table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+    }
+
+    private String name(int e) {
+        return strings[e << 1];
+    }
+
+    private String value(int e) {
+        return strings[(e << 1) + 1];
+    }
+
+    private int hash(int e) {
+        return links[e * 3];
+    }
+
+    private int next(int e) {
+        return links[e * 3 + 1];
+    }
+
+    private int last(int e) {
+        return links[e * 3 + 2];
+    }
+
+    private static int hash(String name) {
+        int h = 0;
+        for (int i = name.length() - 1; i >= 0; i--) {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 32;
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean eq(String name1, String name2) {
+        if (name1 == name2) {
+            return true;
+        }
+        int nameLen = name1.length();
+        if (nameLen != name2.length()) {
+            return false;
+        }
+        for (int i = nameLen - 1; i >= 0; i--) {
+            char c1 = name1.charAt(i);
+            char c2 = name2.charAt(i);
+            if (c1 != c2) {
+                if (c1 >= 'A' && c1 <= 'Z') {
+                    c1 += 32;
+                }
+                if (c2 >= 'A' && c2 <= 'Z') {
+                    c2 += 32;
+                }
+                if (c1 != c2) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the slot of the name in the table when present, otherwise {@code -(slot + 1)} of the free slot where
+     * the name would be inserted
+     */
+    private int find(String name, int h) {
+        int mask = table.length - 1;
+        int slot = h & mask;
+        while (true) {
+            int e = table[slot] - 1;
+            if (e < 0) {
+                return -(slot + 1);
+            }
+            if (links[e * 3] == h && eq(name, strings[e << 1])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void add0(String name, int h, String value) {
+        if (count == capacity) {
+            // Reclaim the removed entries before growing
+            compact(removed > count / 2 ? capacity : capacity * 2);
+        }
+        int slot = find(name, h);
+        int e = count++;
+        strings[e << 1] = name;
+        strings[(e << 1) + 1] = value;
+        links[e * 3] = h;
+        links[e * 3 + 1] = -1;
+        if (slot >= 0) {
+            int first = table[slot] - 1;
+            links[last(first) * 3 + 1] = e;
+            links[first * 3 + 2] = e;
+        } else {
+            table[-slot - 1] = e + 1;
+            links[e * 3 + 2] = e;
+            distinct++;
+        }
+    }
+
+    private void compact(int newCapacity) {
+        String[] oldStrings = strings;
+        int[] oldLinks = links;
+        int oldCount = count;
+        allocate(newCapacity);
+        count = 0;
+        removed = 0;
+        distinct = 0;
+        for (int i = 0; i < oldCount; i++) {
+            if (oldStrings[i << 1] != null) {
+                add0(oldStrings[i << 1], oldLinks[i * 3], oldStrings[(i << 1) + 1]);
+            }
+        }
+    }
+
+    private void remove0(String name, int h) {
+        int slot = find(name, h);
+        if (slot < 0) {
+            return;
+        }
+        for (int e = table[slot] - 1; e >= 0; e = next(e)) {
+            strings[e << 1] = null;
+            strings[(e << 1) + 1] = null;
+            removed++;
+        }
+        if (--distinct == 0) {
+            clear();
+        } else {
+            deleteSlot(slot);
+        }
+    }
+
+    private void deleteSlot(int slot) {
+        // Shift back the following entries of the probe sequence instead of leaving a tombstone
+        int mask = table.length - 1;
+        int free = slot;
+        table[free] = 0;
+        int i = free;
+        while (true) {
+            i = (i + 1) & mask;
+            int e = table[i] - 1;
+            if (e < 0) {
+                return;
+            }
+            int home = hash(e) & mask;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                table[free] = table[i];
+                table[i] = 0;
+                free = i;
+            }
+        }
+    }
+
+    @Override
+    public MultiMap setAll(MultiMap headers) {
+        clear();
+        return addAll(headers);
+    }
+
+    @Override
+    public MultiMap setAll(Map<String, String> headers) {
+        clear();
+        return addAll(headers);
+    }
+
+    @Override
+    public int size() {
+        return distinct;
+    }
+
+    @Override
+    public MultiMap add(final String name, final String strVal) {
+        add0(name, hash(name), strVal);
+        return this;
+    }
+
+    @Override
+    public MultiMap add(String name, Iterable<String> values) {
+        int h = hash(name);
+        for (String vstr : values) {
+            add0(name, h, vstr);
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap addAll(MultiMap headers) {
+        if (headers instanceof CompactHeaders) {
+            // Reuse the hashes computed by the other map
+            CompactHeaders other = (CompactHeaders) headers;
+            int otherCount = other.count;
+            for (int i = 0; i < otherCount; i++) {
+                String name = other.name(i);
+                if (name != null) {
+                    add0(name, other.hash(i), other.value(i));
+                }
+            }
+        } else {
+            for (Map.Entry<String, String> entry : headers.entries()) {
+                add(entry.getKey(), entry.getValue());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap addAll(Map<String, String> map) {
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap remove(final String name) {
+        Objects.requireNonNull(name, "name");
+        remove0(name, hash(name));
+        return this;
+    }
+
+    @Override
+    public MultiMap set(final String name, final String strVal) {
+        int h = hash(name);
+        remove0(name, h);
+        add0(name, h, strVal);
+        return this;
+    }
+
+    @Override
+    public MultiMap set(final String name, final Iterable<String> values) {
+        Objects.requireNonNull(values, "values");
+        int h = hash(name);
+        remove0(name, h);
+        for (String v : values) {
+            if (v == null) {
+                break;
+            }
+            add0(name, h, v);
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap clear() {
+        Arrays.fill(strings, 0, count * 2, null);
+        Arrays.fill(table, 0);
+        count = 0;
+        removed = 0;
+        distinct = 0;
+        return this;
+    }
+
+    @Override
+    public String get(final String name) {
+        Objects.requireNonNull(name, "name");
+        int slot = find(name, hash(name));
+        return slot >= 0 ? value(table[slot] - 1) : null;
+    }
+
+    @Override
+    public List<String> getAll(final String name) {
+        Objects.requireNonNull(name, "name");
+        List<String> all = new ArrayList<>();
+        int slot = find(name, hash(name));
+        if (slot >= 0) {
+            for (int e = table[slot] - 1; e >= 0; e = next(e)) {
+                all.add(value(e));
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public List<Map.Entry<String, String>> entries() {
+        List<Map.Entry<String, String>> all = new ArrayList<>(count - removed);
+        for (int i = 0; i < count; i++) {
+            String name = name(i);
+            if (name != null) {
+                all.add(new EntryView(i, name));
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return entries().iterator();
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return distinct == 0;
+    }
+
+    @Override
+    public Set<String> names() {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < count; i++) {
+            String name = name(i);
+            if (name != null) {
+                set.add(name);
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public String get(CharSequence name) {
+        return get(name.toString());
+    }
+
+    @Override
+    public List<String> getAll(CharSequence name) {
+        return getAll(name.toString());
+    }
+
+    @Override
+    public boolean contains(CharSequence name) {
+        return contains(name.toString());
+    }
+
+    @Override
+    public MultiMap add(CharSequence name, CharSequence value) {
+        return add(name.toString(), value.toString());
+    }
+
+    @Override
+    public MultiMap add(CharSequence name, Iterable<CharSequence> values) {
+        String n = name.toString();
+        int h = hash(n);
+        for (CharSequence seq : values) {
+            add0(n, h, seq.toString());
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap set(CharSequence name, CharSequence value) {
+        return set(name.toString(), value.toString());
+    }
+
+    @Override
+    public MultiMap set(CharSequence name, Iterable<CharSequence> values) {
+        String n = name.toString();
+        int h = hash(n);
+        remove0(n, h);
+        for (CharSequence seq : values) {
+            add0(n, h, seq.toString());
+        }
+        return this;
+    }
+
+    @Override
+    public MultiMap remove(CharSequence name) {
+        return remove(name.toString());
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String name = name(i);
+            if (name != null) {
+                sb.append(name).append(": ").append(value(i)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private final class EntryView implements Map.Entry<String, String> {
+        final int index;
+        final String key;
+        String value;
+
+        EntryView(int index, String key) {
+            this.index = index;
+            this.key = key;
+            this.value = value(index);
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String setValue(String value) {
+            Objects.requireNonNull(value, "value");
+            String oldValue = this.value;
+            this.value = value;
+            // The entry may have been removed or moved by a compaction since the view was created
+            if (index < count && name(index) == key) {
+                strings[(index << 1) + 1] = value;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + ": " + getValue();
+        }
+    }
+}
@@ -50,6 +50,11 @@ public class HttpClientOptions extends ClientOptionsBase {
      */
     public static final boolean DEFAULT_PIPELINING = false;
 
+    /**
+     * Default maximum number of requests in flight on a pipe-lined connection = 10, see {@link #setPipelining}
+     */
+    public static final int DEFAULT_PIPELINING_LIMIT = 10;
+
     /**
      * Default value of whether the client will attempt to use compression = false
      */
@@ -94,6 +99,7 @@ public class HttpClientOptions extends ClientOptionsBase {
     private int maxPoolSize;
     private boolean keepAlive;
     private boolean pipelining;
+    private int pipeliningLimit;
     private boolean tryUseCompression;
     private int maxWebsocketFrameSize;
     private String defaultHost;
@@ -121,6 +127,7 @@ public class HttpClientOptions extends ClientOptionsBase {
         this.maxPoolSize = other.getMaxPoolSize();
         this.keepAlive = other.isKeepAlive();
         this.pipelining = other.isPipelining();
+        this.pipeliningLimit = other.getPipeliningLimit();
         this.tryUseCompression = other.isTryUseCompression();
         this.maxWebsocketFrameSize = other.maxWebsocketFrameSize;
         this.defaultHost = other.defaultHost;
@@ -136,6 +143,7 @@ public class HttpClientOptions extends ClientOptionsBase {
         maxPoolSize = DEFAULT_MAX_POOL_SIZE;
         keepAlive = DEFAULT_KEEP_ALIVE;
         pipelining = DEFAULT_PIPELINING;
+        pipeliningLimit = DEFAULT_PIPELINING_LIMIT;
         tryUseCompression = DEFAULT_TRY_USE_COMPRESSION;
         maxWebsocketFrameSize = DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
         defaultHost = DEFAULT_DEFAULT_HOST;
@@ -163,6 +171,36 @@ public class HttpClientOptions extends ClientOptionsBase {
         return this;
     }
 
+    @Override
+    public HttpClientOptions setReusePort(boolean reusePort) {
+        super.setReusePort(reusePort);
+        return this;
+    }
+
+    @Override
+    public HttpClientOptions setTcpFastOpen(boolean tcpFastOpen) {
+        super.setTcpFastOpen(tcpFastOpen);
+        return this;
+    }
+
+    @Override
+    public HttpClientOptions setTcpQuickAck(boolean tcpQuickAck) {
+        super.setTcpQuickAck(tcpQuickAck);
+        return this;
+    }
+
+    @Override
+    public HttpClientOptions setZeroCopyInbound(boolean zeroCopyInbound) {
+        super.setZeroCopyInbound(zeroCopyInbound);
+        return this;
+    }
+
+    @Override
+    public HttpClientOptions setMaxWritesPerFlush(int maxWritesPerFlush) {
+        super.setMaxWritesPerFlush(maxWritesPerFlush);
+        return this;
+    }
+
     @Override
     public HttpClientOptions setTrafficClass(int trafficClass) {
         super.setTrafficClass(trafficClass);
@@ -319,6 +357,11 @@ public class HttpClientOptions extends ClientOptionsBase {
 
     /**
      * Set whether pipe-lining is enabled on the client
+     * <p>
+     * A pipe-lined connection is reused as soon as its request has been sent, up to {@link #setPipeliningLimit}
+     * requests in flight, before a new connection of the pool is opened. This changes the behaviour of earlier
+     * versions, which only pipe-lined the requests waiting for a full pool and did not bound the requests in flight on
+     * a connection: the default limit is {@link #DEFAULT_PIPELINING_LIMIT}.
      *
      * @param pipelining true if enabled
      * @return a reference to this, so the API can be used fluently
@@ -328,6 +371,32 @@ public class HttpClientOptions extends ClientOptionsBase {
         return this;
     }
 
+    /**
+     * @return the maximum number of requests in flight on a pipe-lined connection
+     */
+    public int getPipeliningLimit() {
+        return pipeliningLimit;
+    }
+
+    /**
+     * Set the maximum number of requests in flight on a pipe-lined connection, i.e sent and waiting for their
+     * response.
+     * <p>
+     * When pipe-lining is enabled, a request is sent on a connection of the pool that is below this limit before a
+     * new connection is opened, so concurrent requests share a few connections. A lower limit spreads the requests
+     * over more connections and reduces the head of line blocking of a slow response.
+     *
+     * @param pipeliningLimit the maximum number of requests in flight
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpClientOptions setPipeliningLimit(int pipeliningLimit) {
+        if (pipeliningLimit < 1) {
+            throw new IllegalArgumentException("pipeliningLimit must be > 0");
+        }
+        this.pipeliningLimit = pipeliningLimit;
+        return this;
+    }
+
     /**
      * Is hostname verification (for SSL/TLS) enabled?
      *
@@ -503,6 +572,7 @@ public class HttpClientOptions extends ClientOptionsBase {
         if (maxPoolSize != that.maxPoolSize) return false;
         if (maxWebsocketFrameSize != that.maxWebsocketFrameSize) return false;
         if (pipelining != that.pipelining) return false;
+        if (pipeliningLimit != that.pipeliningLimit) return false;
         if (tryUseCompression != that.tryUseCompression) return false;
         if (verifyHost != that.verifyHost) return false;
         if (!defaultHost.equals(that.defaultHost)) return false;
@@ -520,6 +590,7 @@ public class HttpClientOptions extends ClientOptionsBase {
         result = 31 * result + maxPoolSize;
         result = 31 * result + (keepAlive ? 1 : 0);
         result = 31 * result + (pipelining ? 1 : 0);
+        result = 31 * result + pipeliningLimit;
         result = 31 * result + (tryUseCompression ? 1 : 0);
         result = 31 * result + maxWebsocketFrameSize;
         result = 31 * result + defaultHost.hashCode();
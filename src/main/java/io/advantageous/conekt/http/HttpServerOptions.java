@@ -28,6 +28,10 @@ package io.advantageous.conekt.http;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.net.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Represents options used by an {@link HttpServer} instance
  *
@@ -70,6 +74,61 @@ public class HttpServerOptions extends NetServerOptions {
      */
     public static final boolean DEFAULT_HANDLE_100_CONTINE_AUTOMATICALLY = false;
 
+    /**
+     * Default maximum number of pipe-lined requests processed in one event loop task = 1
+     */
+    public static final int DEFAULT_PIPELINING_BATCH_SIZE = 1;
+
+    /**
+     * Default value of whether a {@code Date} header is added to the responses = false
+     */
+    public static final boolean DEFAULT_DATE_HEADER = false;
+
+    /**
+     * Default value of the {@code Server} header added to the responses = null (no header)
+     */
+    public static final String DEFAULT_SERVER_HEADER = null;
+
+    /**
+     * Default compression level = 6
+     */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+    /**
+     * Default minimum size of a compressed response = 0 (all responses are compressed)
+     */
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 0;
+
+    /**
+     * Default compressible content types = null (all content types are compressed)
+     */
+    public static final List<String> DEFAULT_COMPRESSIBLE_CONTENT_TYPES = null;
+
+    /**
+     * Default maximum number of idle deflaters kept by the server = 0 (deflaters are not pooled)
+     */
+    public static final int DEFAULT_DEFLATER_POOL_SIZE = 0;
+
+    /**
+     * Default maximum number of bytes of the compressed file cache = 0 (disabled)
+     */
+    public static final long DEFAULT_COMPRESSED_FILE_CACHE_SIZE = 0;
+
+    /**
+     * Default maximum size of the body of a request decoding uploads = 0 (no limit)
+     */
+    public static final long DEFAULT_MAX_UPLOAD_SIZE = 0;
+
+    /**
+     * Default maximum number of bytes of an upload being written to the file system = 131072 (128KB)
+     */
+    public static final int DEFAULT_UPLOAD_WRITE_QUEUE_MAX_SIZE = 128 * 1024;
+
+    /**
+     * Default value of whether HTTP/2 prior knowledge clients are rejected = false
+     */
+    public static final boolean DEFAULT_REJECT_HTTP2_PRIOR_KNOWLEDGE = false;
+
     private boolean compressionSupported;
     private int maxWebsocketFrameSize;
     private String websocketSubProtocols;
@@ -77,6 +136,17 @@ public class HttpServerOptions extends NetServerOptions {
     private int maxChunkSize;
     private int maxInitialLineLength;
     private int maxHeaderSize;
+    private int pipeliningBatchSize;
+    private boolean dateHeader;
+    private String serverHeader;
+    private int compressionLevel;
+    private int compressionMinSize;
+    private List<String> compressibleContentTypes;
+    private int deflaterPoolSize;
+    private long compressedFileCacheSize;
+    private long maxUploadSize;
+    private int uploadWriteQueueMaxSize;
+    private boolean rejectHttp2PriorKnowledge;
 
     /**
      * Default constructor
@@ -101,6 +171,17 @@ public class HttpServerOptions extends NetServerOptions {
         this.maxChunkSize = other.getMaxChunkSize();
         this.maxInitialLineLength = other.getMaxInitialLineLength();
         this.maxHeaderSize = other.getMaxHeaderSize();
+        this.pipeliningBatchSize = other.getPipeliningBatchSize();
+        this.dateHeader = other.isDateHeader();
+        this.serverHeader = other.getServerHeader();
+        this.compressionLevel = other.getCompressionLevel();
+        this.compressionMinSize = other.getCompressionMinSize();
+        this.compressibleContentTypes = other.compressibleContentTypes != null ? new ArrayList<>(other.compressibleContentTypes) : null;
+        this.deflaterPoolSize = other.getDeflaterPoolSize();
+        this.compressedFileCacheSize = other.getCompressedFileCacheSize();
+        this.maxUploadSize = other.getMaxUploadSize();
+        this.uploadWriteQueueMaxSize = other.getUploadWriteQueueMaxSize();
+        this.rejectHttp2PriorKnowledge = other.isRejectHttp2PriorKnowledge();
     }
 
 
@@ -111,6 +192,17 @@ public class HttpServerOptions extends NetServerOptions {
         maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
         maxInitialLineLength = DEFAULT_MAX_INITIAL_LINE_LENGTH;
         maxHeaderSize = DEFAULT_MAX_HEADER_SIZE;
+        pipeliningBatchSize = DEFAULT_PIPELINING_BATCH_SIZE;
+        dateHeader = DEFAULT_DATE_HEADER;
+        serverHeader = DEFAULT_SERVER_HEADER;
+        compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+        compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+        compressibleContentTypes = DEFAULT_COMPRESSIBLE_CONTENT_TYPES;
+        deflaterPoolSize = DEFAULT_DEFLATER_POOL_SIZE;
+        compressedFileCacheSize = DEFAULT_COMPRESSED_FILE_CACHE_SIZE;
+        maxUploadSize = DEFAULT_MAX_UPLOAD_SIZE;
+        uploadWriteQueueMaxSize = DEFAULT_UPLOAD_WRITE_QUEUE_MAX_SIZE;
+        rejectHttp2PriorKnowledge = DEFAULT_REJECT_HTTP2_PRIOR_KNOWLEDGE;
     }
 
     @Override
@@ -131,6 +223,36 @@ public class HttpServerOptions extends NetServerOptions {
         return this;
     }
 
+    @Override
+    public HttpServerOptions setReusePort(boolean reusePort) {
+        super.setReusePort(reusePort);
+        return this;
+    }
+
+    @Override
+    public HttpServerOptions setTcpFastOpen(boolean tcpFastOpen) {
+        super.setTcpFastOpen(tcpFastOpen);
+        return this;
+    }
+
+    @Override
+    public HttpServerOptions setTcpQuickAck(boolean tcpQuickAck) {
+        super.setTcpQuickAck(tcpQuickAck);
+        return this;
+    }
+
+    @Override
+    public HttpServerOptions setZeroCopyInbound(boolean zeroCopyInbound) {
+        super.setZeroCopyInbound(zeroCopyInbound);
+        return this;
+    }
+
+    @Override
+    public HttpServerOptions setMaxWritesPerFlush(int maxWritesPerFlush) {
+        super.setMaxWritesPerFlush(maxWritesPerFlush);
+        return this;
+    }
+
     @Override
     public HttpServerOptions setTrafficClass(int trafficClass) {
         super.setTrafficClass(trafficClass);
@@ -384,6 +506,272 @@ public class HttpServerOptions extends NetServerOptions {
         return this;
     }
 
+    /**
+     * @return the maximum number of pipe-lined requests processed in one event loop task
+     */
+    public int getPipeliningBatchSize() {
+        return pipeliningBatchSize;
+    }
+
+    /**
+     * Set the maximum number of pipe-lined requests of a connection processed in one event loop task.
+     * <p>
+     * Requests received while a response is in progress are queued and processed in order once the response has
+     * ended. With the default value of {@code 1} each queued request is processed by its own task. A greater value
+     * processes the queued requests whose previous response ended synchronously in the same task, and their
+     * responses are flushed together at the end of the task.
+     *
+     * @param pipeliningBatchSize the maximum number of requests
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setPipeliningBatchSize(int pipeliningBatchSize) {
+        if (pipeliningBatchSize < 1) {
+            throw new IllegalArgumentException("pipeliningBatchSize must be > 0");
+        }
+        this.pipeliningBatchSize = pipeliningBatchSize;
+        return this;
+    }
+
+    /**
+     * @return whether a {@code Date} header is added to the responses
+     */
+    public boolean isDateHeader() {
+        return dateHeader;
+    }
+
+    /**
+     * Set whether a {@code Date} header is added to the responses that don't set one. The header value is formatted
+     * at most once per second and shared by all the responses sent during that second.
+     *
+     * @param dateHeader true to add the header
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setDateHeader(boolean dateHeader) {
+        this.dateHeader = dateHeader;
+        return this;
+    }
+
+    /**
+     * @return the {@code Server} header added to the responses, or null when no header is added
+     */
+    public String getServerHeader() {
+        return serverHeader;
+    }
+
+    /**
+     * Set the {@code Server} header added to the responses that don't set one, or null to add no header. The value is
+     * encoded once when the server is created.
+     *
+     * @param serverHeader the header value
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setServerHeader(String serverHeader) {
+        this.serverHeader = serverHeader;
+        return this;
+    }
+
+    /**
+     * @return the compression level
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Set the level used to compress the responses, from {@code 1} (fastest) to {@code 9} (smallest output), or
+     * {@code 0} for no compression.
+     *
+     * @param compressionLevel the compression level
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between 0 and 9");
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * @return the minimum size of a compressed response
+     */
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    /**
+     * Set the minimum size in bytes of a compressed response, a response with a smaller {@code Content-Length} is
+     * sent as is since compressing it would save little or nothing. Chunked responses are always compressed.
+     *
+     * @param compressionMinSize the minimum size in bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setCompressionMinSize(int compressionMinSize) {
+        if (compressionMinSize < 0) {
+            throw new IllegalArgumentException("compressionMinSize must be >= 0");
+        }
+        this.compressionMinSize = compressionMinSize;
+        return this;
+    }
+
+    /**
+     * @return the compressible content types, or null when all content types are compressed
+     */
+    public List<String> getCompressibleContentTypes() {
+        return compressibleContentTypes;
+    }
+
+    /**
+     * Set the content types of the responses to compress, e.g {@code application/json} or {@code text/*}. A response
+     * with another {@code Content-Type} is sent as is, so already compressed content such as images is not
+     * compressed again. Responses without a {@code Content-Type} are compressed.
+     * <p>
+     * The default value null compresses all content types.
+     *
+     * @param compressibleContentTypes the content types
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setCompressibleContentTypes(List<String> compressibleContentTypes) {
+        this.compressibleContentTypes = compressibleContentTypes;
+        return this;
+    }
+
+    /**
+     * Add a compressible content type.
+     *
+     * @param contentType the content type to add
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions addCompressibleContentType(String contentType) {
+        Objects.requireNonNull(contentType, "no null content type accepted");
+        if (compressibleContentTypes == null) {
+            compressibleContentTypes = new ArrayList<>();
+        }
+        compressibleContentTypes.add(contentType);
+        return this;
+    }
+
+    /**
+     * @return the maximum number of idle deflaters kept by the server
+     */
+    public int getDeflaterPoolSize() {
+        return deflaterPoolSize;
+    }
+
+    /**
+     * Set the maximum number of idle deflaters of each kind ({@code gzip} and {@code deflate}) the server keeps for
+     * its connections. Every compressed response otherwise allocates and frees its own native zlib state.
+     * <p>
+     * The default value {@code 0} disables pooling.
+     *
+     * @param deflaterPoolSize the maximum number of idle deflaters
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setDeflaterPoolSize(int deflaterPoolSize) {
+        if (deflaterPoolSize < 0) {
+            throw new IllegalArgumentException("deflaterPoolSize must be >= 0");
+        }
+        this.deflaterPoolSize = deflaterPoolSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes of the compressed file cache
+     */
+    public long getCompressedFileCacheSize() {
+        return compressedFileCacheSize;
+    }
+
+    /**
+     * Set the maximum number of bytes of the cache of compressed files. When compression is supported, a whole file
+     * sent with {@link HttpServerResponse#sendFile} to a client accepting {@code gzip} is compressed once and its
+     * compressed content is cached, keyed by path and modification time. A file is compressed on the internal blocking
+     * pool the first time it is sent and compressed on the fly until then, files larger than 1MB are always compressed
+     * on the fly.
+     * <p>
+     * The default value {@code 0} disables the cache.
+     *
+     * @param compressedFileCacheSize the maximum size in bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setCompressedFileCacheSize(long compressedFileCacheSize) {
+        if (compressedFileCacheSize < 0) {
+            throw new IllegalArgumentException("compressedFileCacheSize must be >= 0");
+        }
+        this.compressedFileCacheSize = compressedFileCacheSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum size of the body of a request decoding uploads, {@code 0} when there is no limit
+     */
+    public long getMaxUploadSize() {
+        return maxUploadSize;
+    }
+
+    /**
+     * Set the maximum size in bytes of the body of a request decoding a form or uploads, see
+     * {@link HttpServerRequest#setExpectMultipart}. When a request body exceeds it, the request and its current upload
+     * are failed, a {@code 413} response is sent and the connection is closed.
+     * <p>
+     * The default value {@code 0} sets no limit.
+     *
+     * @param maxUploadSize the maximum size in bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setMaxUploadSize(long maxUploadSize) {
+        if (maxUploadSize < 0) {
+            throw new IllegalArgumentException("maxUploadSize must be >= 0");
+        }
+        this.maxUploadSize = maxUploadSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes of an upload being written to the file system
+     */
+    public int getUploadWriteQueueMaxSize() {
+        return uploadWriteQueueMaxSize;
+    }
+
+    /**
+     * Set the maximum number of bytes of an upload streamed with {@link HttpServerFileUpload#streamToFileSystem} that
+     * are being written to the file system. Once reached, the connection stops reading from the socket until half of
+     * them have been written, so a slow disk bounds the memory used by an upload.
+     *
+     * @param uploadWriteQueueMaxSize the maximum number of bytes
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setUploadWriteQueueMaxSize(int uploadWriteQueueMaxSize) {
+        if (uploadWriteQueueMaxSize < 1) {
+            throw new IllegalArgumentException("uploadWriteQueueMaxSize must be > 0");
+        }
+        this.uploadWriteQueueMaxSize = uploadWriteQueueMaxSize;
+        return this;
+    }
+
+    /**
+     * @return true if HTTP/2 prior knowledge clients are rejected
+     */
+    public boolean isRejectHttp2PriorKnowledge() {
+        return rejectHttp2PriorKnowledge;
+    }
+
+    /**
+     * Set whether the cleartext connections starting with the HTTP/2 connection preface are answered with a
+     * {@code GOAWAY} frame with the {@code HTTP_1_1_REQUIRED} error code and closed, so a client with prior knowledge
+     * of HTTP/2 falls back to HTTP/1.1 instead of waiting for a reply it cannot parse. The server only speaks HTTP/1.x.
+     * <p>
+     * It adds a handler looking at the first bytes of each cleartext connection, so it is disabled by default.
+     *
+     * @param rejectHttp2PriorKnowledge true to reject HTTP/2 prior knowledge clients
+     * @return a reference to this, so the API can be used fluently
+     */
+    public HttpServerOptions setRejectHttp2PriorKnowledge(boolean rejectHttp2PriorKnowledge) {
+        this.rejectHttp2PriorKnowledge = rejectHttp2PriorKnowledge;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -398,6 +786,18 @@ public class HttpServerOptions extends NetServerOptions {
         if (maxChunkSize != that.maxChunkSize) return false;
         if (maxInitialLineLength != that.maxInitialLineLength) return false;
         if (maxHeaderSize != that.maxHeaderSize) return false;
+        if (pipeliningBatchSize != that.pipeliningBatchSize) return false;
+        if (dateHeader != that.dateHeader) return false;
+        if (serverHeader != null ? !serverHeader.equals(that.serverHeader) : that.serverHeader != null) return false;
+        if (compressionLevel != that.compressionLevel) return false;
+        if (compressionMinSize != that.compressionMinSize) return false;
+        if (compressibleContentTypes != null ? !compressibleContentTypes.equals(that.compressibleContentTypes) : that.compressibleContentTypes != null)
+            return false;
+        if (deflaterPoolSize != that.deflaterPoolSize) return false;
+        if (compressedFileCacheSize != that.compressedFileCacheSize) return false;
+        if (maxUploadSize != that.maxUploadSize) return false;
+        if (uploadWriteQueueMaxSize != that.uploadWriteQueueMaxSize) return false;
+        if (rejectHttp2PriorKnowledge != that.rejectHttp2PriorKnowledge) return false;
         return !(websocketSubProtocols != null ? !websocketSubProtocols.equals(that.websocketSubProtocols) : that.websocketSubProtocols != null);
 
     }
@@ -412,6 +812,17 @@ public class HttpServerOptions extends NetServerOptions {
         result = 31 * result + maxChunkSize;
         result = 31 * result + maxInitialLineLength;
         result = 31 * result + maxHeaderSize;
+        result = 31 * result + pipeliningBatchSize;
+        result = 31 * result + (dateHeader ? 1 : 0);
+        result = 31 * result + (serverHeader != null ? serverHeader.hashCode() : 0);
+        result = 31 * result + compressionLevel;
+        result = 31 * result + compressionMinSize;
+        result = 31 * result + (compressibleContentTypes != null ? compressibleContentTypes.hashCode() : 0);
+        result = 31 * result + deflaterPoolSize;
+        result = 31 * result + (int) (compressedFileCacheSize ^ (compressedFileCacheSize >>> 32));
+        result = 31 * result + (int) (maxUploadSize ^ (maxUploadSize >>> 32));
+        result = 31 * result + uploadWriteQueueMaxSize;
+        result = 31 * result + (rejectHttp2PriorKnowledge ? 1 : 0);
         return result;
     }
 }
@@ -68,6 +68,23 @@ public interface HttpServerResponse extends WriteStream<Buffer> {
     @Override
     HttpServerResponse drainHandler(Handler<Void> handler);
 
+    /**
+     * Cork the underlying connection: the data written from now on is buffered and only sent when {@link #uncork()}
+     * is called, so many small chunks go out together. The buffered data is sent anyway once the write queue is full,
+     * so that the drain handler is called. The connection stays corked after the response has ended, until it is
+     * uncorked or closed.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    HttpServerResponse cork();
+
+    /**
+     * Uncork the underlying connection, the data written since {@link #cork()} was called is sent.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    HttpServerResponse uncork();
+
     /**
      * @return the HTTP status code of the response. The default is {@code 200} representing {@code OK}.
      */
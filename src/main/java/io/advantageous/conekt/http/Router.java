@@ -0,0 +1,108 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http;
+
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.http.impl.RouterImpl;
+
+/**
+ * A request handler dispatching requests to other handlers by method and path, it can be set as the request handler
+ * of a {@link HttpServer}.
+ * <p>
+ * A route path is made of static text, path parameters and an optional trailing wildcard:
+ * <ul>
+ * <li>{@code /users} only matches the {@code /users} path</li>
+ * <li>{@code /users/:id} matches {@code /users/123}, the segment value is added to the request
+ * {@link HttpServerRequest#params() params} under the {@code id} name</li>
+ * <li>{@code /static/*path} matches {@code /static/} and any path below it, the remainder is added to the request
+ * params under the {@code path} name, or {@code *} when the wildcard is not named</li>
+ * </ul>
+ * Parameters and wildcards must start a path segment and a wildcard must be the last one. When several routes match a
+ * path, static text is preferred to a parameter and a parameter is preferred to a wildcard.
+ * <p>
+ * Routes are compiled into a radix tree, a lookup walks the request path once without splitting it and a static
+ * route is found without allocating. Requests matching no route are handed to the {@link #notFoundHandler}, requests
+ * matching a path but not its methods are answered with a {@code 405} listing the allowed methods.
+ * <p>
+ * Routes must be added before the router handles its first request.
+ */
+public interface Router extends Handler<HttpServerRequest> {
+
+    /**
+     * @return a new router without routes
+     */
+    static Router router() {
+        return new RouterImpl();
+    }
+
+    /**
+     * Add a route for the given method and path.
+     *
+     * @param method  the method
+     * @param path    the route path
+     * @param handler the handler called with the matching requests
+     * @return a reference to this, so the API can be used fluently
+     * @throws IllegalArgumentException when the path is malformed or the route is already registered
+     */
+    Router route(HttpMethod method, String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Add a route for the given path, matching any method without a route of its own.
+     *
+     * @param path    the route path
+     * @param handler the handler called with the matching requests
+     * @return a reference to this, so the API can be used fluently
+     */
+    Router route(String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Like {@link #route(HttpMethod, String, Handler)} with {@link HttpMethod#GET}.
+     */
+    Router get(String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Like {@link #route(HttpMethod, String, Handler)} with {@link HttpMethod#POST}.
+     */
+    Router post(String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Like {@link #route(HttpMethod, String, Handler)} with {@link HttpMethod#PUT}.
+     */
+    Router put(String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Like {@link #route(HttpMethod, String, Handler)} with {@link HttpMethod#DELETE}.
+     */
+    Router delete(String path, Handler<HttpServerRequest> handler);
+
+    /**
+     * Set the handler called with the requests matching no route, by default they are answered with a {@code 404}.
+     *
+     * @param handler the handler
+     * @return a reference to this, so the API can be used fluently
+     */
+    Router notFoundHandler(Handler<HttpServerRequest> handler);
+}
@@ -66,6 +66,12 @@ public interface ServerWebSocket extends WebSocketBase {
     @Override
     ServerWebSocket drainHandler(Handler<Void> handler);
 
+    @Override
+    ServerWebSocket cork();
+
+    @Override
+    ServerWebSocket uncork();
+
     @Override
     ServerWebSocket writeFrame(WebSocketFrame frame);
 
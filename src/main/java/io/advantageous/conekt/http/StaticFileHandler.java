@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http;
+
+import io.advantageous.conekt.Conekt;
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.http.impl.StaticFileHandlerImpl;
+import io.advantageous.conekt.impl.ConektInternal;
+
+/**
+ * A request handler serving the files of a directory, it can be set as the request handler of a {@link HttpServer}.
+ * <p>
+ * Files are looked up, checked and opened on the internal blocking pool, the event loop never waits on the disk. Open
+ * files and their metadata are kept in a bounded cache for a configurable time, so the requests for popular files are
+ * answered straight from the event loop.
+ * <p>
+ * Responses carry {@code ETag}, {@code Last-Modified} and {@code Cache-Control} headers. Conditional requests with
+ * {@code If-None-Match} or {@code If-Modified-Since} are answered with a {@code 304}, and a single byte {@code Range}
+ * with a {@code 206}. Only {@code GET} and {@code HEAD} requests are accepted.
+ */
+public interface StaticFileHandler extends Handler<HttpServerRequest> {
+
+    /**
+     * Create a handler serving the files of the {@code webroot} directory.
+     *
+     * @param conekt the Conekt instance
+     * @return the handler
+     */
+    static StaticFileHandler create(Conekt conekt) {
+        return create(conekt, new StaticFileOptions());
+    }
+
+    /**
+     * Create a handler with the given options.
+     *
+     * @param conekt  the Conekt instance
+     * @param options the options
+     * @return the handler
+     */
+    static StaticFileHandler create(Conekt conekt, StaticFileOptions options) {
+        return new StaticFileHandlerImpl((ConektInternal) conekt, options);
+    }
+
+    /**
+     * Close the files kept open by the cache. Files still being sent are closed once sent.
+     */
+    void close();
+}
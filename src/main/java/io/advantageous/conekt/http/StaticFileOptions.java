@@ -0,0 +1,258 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http;
+
+import java.util.Objects;
+
+/**
+ * Configuration options for a {@link StaticFileHandler}.
+ */
+public class StaticFileOptions {
+
+    /**
+     * The default directory the files are served from = webroot
+     */
+    public static final String DEFAULT_WEB_ROOT = "webroot";
+
+    /**
+     * The default page served for a directory = index.html
+     */
+    public static final String DEFAULT_INDEX_PAGE = "index.html";
+
+    /**
+     * The default maximum number of files kept open in the cache = 1000
+     */
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1000;
+
+    /**
+     * The default time in milliseconds a cached file is served before it is checked again = 30000
+     */
+    public static final long DEFAULT_CACHE_ENTRY_TIMEOUT = 30000;
+
+    /**
+     * The default max age in seconds of the {@code Cache-Control} header = 86400 (one day)
+     */
+    public static final long DEFAULT_MAX_AGE_SECONDS = 86400;
+
+    /**
+     * The default value of whether pre-compressed {@code .gz} variants are served = false
+     */
+    public static final boolean DEFAULT_SEND_PRECOMPRESSED = false;
+
+    private String webRoot;
+    private String indexPage;
+    private int maxCacheSize;
+    private long cacheEntryTimeout;
+    private long maxAgeSeconds;
+    private boolean sendPrecompressed;
+
+    /**
+     * Default constructor
+     */
+    public StaticFileOptions() {
+        webRoot = DEFAULT_WEB_ROOT;
+        indexPage = DEFAULT_INDEX_PAGE;
+        maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+        cacheEntryTimeout = DEFAULT_CACHE_ENTRY_TIMEOUT;
+        maxAgeSeconds = DEFAULT_MAX_AGE_SECONDS;
+        sendPrecompressed = DEFAULT_SEND_PRECOMPRESSED;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other The other {@code StaticFileOptions} to copy when creating this
+     */
+    public StaticFileOptions(StaticFileOptions other) {
+        this.webRoot = other.webRoot;
+        this.indexPage = other.indexPage;
+        this.maxCacheSize = other.maxCacheSize;
+        this.cacheEntryTimeout = other.cacheEntryTimeout;
+        this.maxAgeSeconds = other.maxAgeSeconds;
+        this.sendPrecompressed = other.sendPrecompressed;
+    }
+
+    /**
+     * @return the directory the files are served from
+     */
+    public String getWebRoot() {
+        return webRoot;
+    }
+
+    /**
+     * Set the directory the files are served from. A relative directory is resolved like the files sent by
+     * {@link HttpServerResponse#sendFile(String)}, so it can also be found on the classpath.
+     *
+     * @param webRoot the directory
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setWebRoot(String webRoot) {
+        Objects.requireNonNull(webRoot, "no null web root accepted");
+        this.webRoot = webRoot;
+        return this;
+    }
+
+    /**
+     * @return the page served for a directory
+     */
+    public String getIndexPage() {
+        return indexPage;
+    }
+
+    /**
+     * Set the page served when a directory is requested, or null to answer such requests with a 404.
+     *
+     * @param indexPage the page name
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setIndexPage(String indexPage) {
+        this.indexPage = indexPage;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of files kept open in the cache
+     */
+    public int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    /**
+     * Set the maximum number of files kept in the cache, open and with their metadata. The least recently used file
+     * is closed when a new one would exceed this number. Missing files are cached too, so repeated requests for them
+     * don't hit the disk.
+     *
+     * @param maxCacheSize the maximum number of files
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setMaxCacheSize(int maxCacheSize) {
+        if (maxCacheSize < 1) {
+            throw new IllegalArgumentException("maxCacheSize must be >= 1");
+        }
+        this.maxCacheSize = maxCacheSize;
+        return this;
+    }
+
+    /**
+     * @return the time in milliseconds a cached file is served before it is checked again
+     */
+    public long getCacheEntryTimeout() {
+        return cacheEntryTimeout;
+    }
+
+    /**
+     * Set the time in milliseconds a cached file is served before the disk is checked again for changes. With
+     * {@code 0} every request checks the disk, the file is still opened in the background.
+     *
+     * @param cacheEntryTimeout the timeout in milliseconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setCacheEntryTimeout(long cacheEntryTimeout) {
+        if (cacheEntryTimeout < 0) {
+            throw new IllegalArgumentException("cacheEntryTimeout must be >= 0");
+        }
+        this.cacheEntryTimeout = cacheEntryTimeout;
+        return this;
+    }
+
+    /**
+     * @return the max age in seconds of the {@code Cache-Control} header
+     */
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Set the max age in seconds of the {@code Cache-Control} header sent with the files.
+     *
+     * @param maxAgeSeconds the max age in seconds
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setMaxAgeSeconds(long maxAgeSeconds) {
+        if (maxAgeSeconds < 0) {
+            throw new IllegalArgumentException("maxAgeSeconds must be >= 0");
+        }
+        this.maxAgeSeconds = maxAgeSeconds;
+        return this;
+    }
+
+    /**
+     * @return whether pre-compressed variants are served
+     */
+    public boolean isSendPrecompressed() {
+        return sendPrecompressed;
+    }
+
+    /**
+     * Set whether the {@code .gz} variant of a file, when it exists next to the file, is served with a
+     * {@code Content-Encoding: gzip} header to the clients accepting gzip.
+     *
+     * @param sendPrecompressed true to serve the pre-compressed variants
+     * @return a reference to this, so the API can be used fluently
+     */
+    public StaticFileOptions setSendPrecompressed(boolean sendPrecompressed) {
+        this.sendPrecompressed = sendPrecompressed;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StaticFileOptions that = (StaticFileOptions) o;
+
+        if (maxCacheSize != that.maxCacheSize) return false;
+        if (cacheEntryTimeout != that.cacheEntryTimeout) return false;
+        if (maxAgeSeconds != that.maxAgeSeconds) return false;
+        if (sendPrecompressed != that.sendPrecompressed) return false;
+        if (!webRoot.equals(that.webRoot)) return false;
+        return !(indexPage != null ? !indexPage.equals(that.indexPage) : that.indexPage != null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = webRoot.hashCode();
+        result = 31 * result + (indexPage != null ? indexPage.hashCode() : 0);
+        result = 31 * result + maxCacheSize;
+        result = 31 * result + (int) (cacheEntryTimeout ^ (cacheEntryTimeout >>> 32));
+        result = 31 * result + (int) (maxAgeSeconds ^ (maxAgeSeconds >>> 32));
+        result = 31 * result + (sendPrecompressed ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StaticFileOptions{" +
+                "webRoot='" + webRoot + '\'' +
+                ", indexPage='" + indexPage + '\'' +
+                ", maxCacheSize=" + maxCacheSize +
+                ", cacheEntryTimeout=" + cacheEntryTimeout +
+                ", maxAgeSeconds=" + maxAgeSeconds +
+                ", sendPrecompressed=" + sendPrecompressed +
+                '}';
+    }
+}
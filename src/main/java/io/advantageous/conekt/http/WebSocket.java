@@ -59,6 +59,12 @@ public interface WebSocket extends WebSocketBase {
     @Override
     WebSocket drainHandler(Handler<Void> handler);
 
+    @Override
+    WebSocket cork();
+
+    @Override
+    WebSocket uncork();
+
     @Override
     WebSocket writeFrame(WebSocketFrame frame);
 
@@ -66,6 +66,22 @@ public interface WebSocketBase extends ReadStream<Buffer>, WriteStream<Buffer> {
     @Override
     WebSocketBase drainHandler(Handler<Void> handler);
 
+    /**
+     * Cork the WebSocket: the frames written from now on are buffered and only sent when {@link #uncork()} is called,
+     * so many small frames go out together. The buffered frames are sent anyway once the write queue is full, so that
+     * the drain handler is called. Closing the WebSocket uncorks it.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    WebSocketBase cork();
+
+    /**
+     * Uncork the WebSocket, the frames written since {@link #cork()} was called are sent.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    WebSocketBase uncork();
+
     /**
      * When a {@code Websocket} is created it automatically registers an event handler with the event bus - the ID of that
      * handler is given by this method.
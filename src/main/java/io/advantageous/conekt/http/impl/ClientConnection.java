@@ -99,6 +99,7 @@ class ClientConnection extends ConnectionBase {
         this.exceptionHandler = exceptionHandler;
         this.metrics = metrics;
         this.metric = metrics.connected(remoteAddress(), remoteName());
+        setMaxWritesPerFlush(client.getOptions().getMaxWritesPerFlush());
     }
 
     @Override
@@ -292,6 +293,7 @@ class ClientConnection extends ConnectionBase {
     NetSocket createNetSocket() {
         // connection was upgraded to raw TCP socket
         NetSocketImpl socket = new NetSocketImpl(vertx, channel, context, client.getSslHelper(), true, metrics, metric);
+        socket.setMaxWritesPerFlush(client.getOptions().getMaxWritesPerFlush());
         Map<Channel, NetSocketImpl> connectionMap = new HashMap<>(1);
         connectionMap.put(channel, socket);
 
@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.advantageous.conekt.file.impl.FileContentCache;
+import io.advantageous.conekt.impl.ContextImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.File;
+
+/**
+ * A {@link FileContentCache} of the {@code gzip} representation of the files sent by a server with compression
+ * enabled, so a hot file is compressed once instead of for every response.
+ * <p>
+ * A file missing from the cache is compressed on the internal blocking pool of the sending context, concurrent misses
+ * share a single compression, and its responses are compressed on the fly until it is cached.
+ */
+final class CompressedFileCache extends FileContentCache {
+
+    /**
+     * Files are compressed in the background the first time they are sent, larger files are compressed on the fly
+     */
+    static final int MAX_FILE_SIZE = 1024 * 1024;
+
+    private final DeflaterPool deflaterPool;
+
+    CompressedFileCache(long maxSize, DeflaterPool deflaterPool) {
+        super(maxSize, MAX_FILE_SIZE);
+        this.deflaterPool = deflaterPool;
+    }
+
+    /**
+     * @return the cached {@code gzip} content of the file, or null when it is not cached yet
+     */
+    ByteBuf get(File file, ContextImpl context) {
+        return get(file, task -> context.executeBlocking(() -> {
+            task.run();
+            return null;
+        }, null));
+    }
+
+    @Override
+    protected ByteBuf load(File file, int fileSize) {
+        ByteBuf content = super.load(file, fileSize);
+        if (content == null) {
+            return null;
+        }
+        ByteBuf compressed = Unpooled.buffer((int) Math.ceil(fileSize * 1.001) + 32);
+        try {
+            PooledZlibEncoder.gzip(deflaterPool, content, compressed);
+            ByteBuf result = Unpooled.directBuffer(compressed.readableBytes(), compressed.readableBytes());
+            result.writeBytes(compressed);
+            return Unpooled.unmodifiableBuffer(result);
+        } finally {
+            content.release();
+            compressed.release();
+        }
+    }
+}
@@ -37,6 +37,7 @@ import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.websocketx.*;
+import io.netty.util.ReferenceCountUtil;
 import io.advantageous.conekt.http.impl.ws.WebSocketFrameImpl;
 import io.advantageous.conekt.http.impl.ws.WebSocketFrameInternal;
 import io.advantageous.conekt.net.impl.ConnectionBase;
@@ -49,9 +50,15 @@ import java.util.Map;
 public abstract class ConektHttpHandler<C extends ConnectionBase> extends ConektHandler<C> {
 
     protected Map<Channel, C> connectionMap;
+    protected final boolean zeroCopyInbound;
 
     protected ConektHttpHandler(Map<Channel, C> connectionMap) {
+        this(connectionMap, false);
+    }
+
+    protected ConektHttpHandler(Map<Channel, C> connectionMap, boolean zeroCopyInbound) {
         this.connectionMap = connectionMap;
+        this.zeroCopyInbound = zeroCopyInbound;
     }
 
     private static ByteBuf safeBuffer(ByteBufHolder holder, ByteBufAllocator allocator) {
@@ -60,6 +67,10 @@ public abstract class ConektHttpHandler<C extends ConnectionBase> extends Conekt
 
     @Override
     protected C getConnection(Channel channel) {
+        if (!(channel instanceof VertxNioSocketChannel)) {
+            // Native transport channels cannot hold the connection
+            return connectionMap.get(channel);
+        }
         @SuppressWarnings("unchecked")
         VertxNioSocketChannel<C> vch = (VertxNioSocketChannel<C>) channel;
         // As an optimisation we store the connection on the channel - this prevents a lookup every time
@@ -77,9 +88,11 @@ public abstract class ConektHttpHandler<C extends ConnectionBase> extends Conekt
 
     @Override
     protected C removeConnection(Channel channel) {
-        @SuppressWarnings("unchecked")
-        VertxNioSocketChannel<C> vch = (VertxNioSocketChannel<C>) channel;
-        vch.conn = null;
+        if (channel instanceof VertxNioSocketChannel) {
+            @SuppressWarnings("unchecked")
+            VertxNioSocketChannel<C> vch = (VertxNioSocketChannel<C>) channel;
+            vch.conn = null;
+        }
         return connectionMap.remove(channel);
     }
 
@@ -103,7 +116,7 @@ public abstract class ConektHttpHandler<C extends ConnectionBase> extends Conekt
         if (msg instanceof HttpContent) {
             HttpContent content = (HttpContent) msg;
             ByteBuf buf = content.content();
-            if (buf != Unpooled.EMPTY_BUFFER && buf.isDirect()) {
+            if (buf != Unpooled.EMPTY_BUFFER && buf.isDirect() && !zeroCopyInbound) {
                 ByteBuf newBuf = safeBuffer(content, allocator);
                 if (msg instanceof LastHttpContent) {
                     LastHttpContent last = (LastHttpContent) msg;
@@ -171,6 +184,15 @@ public abstract class ConektHttpHandler<C extends ConnectionBase> extends Conekt
         ctx.write(msg, promise);
     }
 
+    /**
+     * Release a received message that is not handed to a connection, in zero copy mode it holds a pooled buffer.
+     */
+    protected void releaseInbound(Object msg) {
+        if (zeroCopyInbound) {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
     protected abstract void doMessageReceived(C connection, ChannelHandlerContext ctx, Object msg) throws Exception;
 
 }
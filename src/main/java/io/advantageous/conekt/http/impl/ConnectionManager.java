@@ -46,13 +46,15 @@ public abstract class ConnectionManager {
     private final int maxSockets;
     private final boolean keepAlive;
     private final boolean pipelining;
+    private final int pipeliningLimit;
     private final int maxWaitQueueSize;
     private final Map<TargetAddress, ConnQueue> connQueues = new ConcurrentHashMap<>();
 
-    ConnectionManager(int maxSockets, boolean keepAlive, boolean pipelining, int maxWaitQueueSize) {
+    ConnectionManager(int maxSockets, boolean keepAlive, boolean pipelining, int pipeliningLimit, int maxWaitQueueSize) {
         this.maxSockets = maxSockets;
         this.keepAlive = keepAlive;
         this.pipelining = pipelining;
+        this.pipeliningLimit = pipeliningLimit;
         this.maxWaitQueueSize = maxWaitQueueSize;
     }
 
@@ -141,6 +143,10 @@ public abstract class ConnectionManager {
         public synchronized void getConnection(Handler<ClientConnection> handler, Handler<Throwable> connectionExceptionHandler,
                                                ContextImpl context, BooleanSupplier canceled) {
             ClientConnection conn = availableConnections.poll();
+            while (conn != null && pipelining && conn.getOutstandingRequestCount() >= pipeliningLimit) {
+                // The connection is made available again when enough of its responses have ended
+                conn = availableConnections.poll();
+            }
             if (conn != null && !conn.isClosed()) {
                 if (context == null) {
                     context = conn.getContext();
@@ -163,15 +169,13 @@ public abstract class ConnectionManager {
 
         // Called when the request has ended
         public synchronized void requestEnded(ClientConnection conn) {
-            if (pipelining) {
-                // Maybe the connection can be reused
+            if (pipelining && conn.getOutstandingRequestCount() < pipeliningLimit) {
+                // The connection can be reused while the response is pending
                 Waiter waiter = getNextWaiter();
                 if (waiter != null) {
-                    Context context = waiter.context;
-                    if (context == null) {
-                        context = conn.getContext();
-                    }
-                    context.runOnContext(v -> waiter.handler.handle(conn));
+                    deliver(conn, waiter);
+                } else {
+                    makeAvailable(conn);
                 }
             }
         }
@@ -182,14 +186,11 @@ public abstract class ConnectionManager {
                 if (conn.getCurrentRequest() == null) {
                     Waiter waiter = getNextWaiter();
                     if (waiter != null) {
-                        Context context = waiter.context;
-                        if (context == null) {
-                            context = conn.getContext();
-                        }
-                        context.runOnContext(v -> waiter.handler.handle(conn));
-                    } else if (conn.getOutstandingRequestCount() == 0) {
+                        deliver(conn, waiter);
+                    } else if (conn.getOutstandingRequestCount() == 0 ||
+                            (pipelining && conn.getOutstandingRequestCount() < pipeliningLimit)) {
                         // Return to set of available from here to not return it several times
-                        availableConnections.add(conn);
+                        makeAvailable(conn);
                     }
                 }
             } else {
@@ -198,6 +199,24 @@ public abstract class ConnectionManager {
             }
         }
 
+        private void deliver(ClientConnection conn, Waiter waiter) {
+            // A pipe-lined connection can be available since its previous request has ended, it is not handed out
+            // again before the request of the waiter has been sent
+            availableConnections.remove(conn);
+            Context context = waiter.context;
+            if (context == null) {
+                context = conn.getContext();
+            }
+            context.runOnContext(v -> waiter.handler.handle(conn));
+        }
+
+        private void makeAvailable(ClientConnection conn) {
+            // A pipe-lined connection can already be available since its request has ended
+            if (!availableConnections.contains(conn)) {
+                availableConnections.add(conn);
+            }
+        }
+
         void closeAllConnections() {
             Set<ClientConnection> copy;
             synchronized (this) {
@@ -0,0 +1,85 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import java.util.ArrayDeque;
+import java.util.zip.Deflater;
+
+/**
+ * A pool of {@link Deflater} shared by the connections of a server, so a compressed response reuses the native
+ * zlib state of a previous one instead of allocating and freeing it.
+ * <p>
+ * Raw deflaters, used for {@code gzip}, and zlib deflaters, used for {@code deflate}, are pooled separately. At most
+ * {@code maxSize} idle deflaters of each kind are kept, extra ones are ended when released.
+ * <p>
+ * This class is thread-safe.
+ */
+final class DeflaterPool {
+
+    private final int level;
+    private final int maxSize;
+    private final ArrayDeque<Deflater> raw = new ArrayDeque<>();
+    private final ArrayDeque<Deflater> zlib = new ArrayDeque<>();
+
+    DeflaterPool(int level, int maxSize) {
+        this.level = level;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param nowrap {@code true} for a raw deflater without the zlib header and checksum
+     */
+    Deflater acquire(boolean nowrap) {
+        Deflater deflater;
+        synchronized (this) {
+            deflater = (nowrap ? raw : zlib).pollLast();
+        }
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    void release(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        synchronized (this) {
+            ArrayDeque<Deflater> idle = nowrap ? raw : zlib;
+            if (idle.size() < maxSize) {
+                idle.addLast(deflater);
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    synchronized void close() {
+        for (Deflater deflater : raw) {
+            deflater.end();
+        }
+        for (Deflater deflater : zlib) {
+            deflater.end();
+        }
+        raw.clear();
+        zlib.clear();
+    }
+}
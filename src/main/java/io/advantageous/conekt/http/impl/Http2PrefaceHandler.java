@@ -0,0 +1,84 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.CharsetUtil;
+
+import java.util.List;
+
+/**
+ * Looks at the first bytes of a cleartext connection for the HTTP/2 client connection preface, the server only
+ * speaks HTTP/1.x.
+ * <p>
+ * A client with prior knowledge of HTTP/2 gets a {@code GOAWAY} frame with the {@code HTTP_1_1_REQUIRED} error
+ * code, preceded by the empty {@code SETTINGS} frame a server must start with, so it falls back to HTTP/1.1
+ * instead of waiting for a reply it cannot parse. The handler removes itself as soon as the first bytes differ
+ * from the preface, which is on the first read of an HTTP/1.x connection.
+ * <p>
+ * It is only installed when {@link io.advantageous.conekt.http.HttpServerOptions#setRejectHttp2PriorKnowledge} is set.
+ */
+final class Http2PrefaceHandler extends ByteToMessageDecoder {
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(CharsetUtil.US_ASCII);
+
+    private static final byte[] SETTINGS_AND_GOAWAY = {
+            // SETTINGS, length 0, stream 0
+            0, 0, 0, 0x4, 0, 0, 0, 0, 0,
+            // GOAWAY, length 8, stream 0, last stream id 0, error code HTTP_1_1_REQUIRED
+            0, 0, 8, 0x7, 0, 0, 0, 0, 0,
+            0, 0, 0, 0,
+            0, 0, 0, 0xd
+    };
+
+    private boolean rejected;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (rejected) {
+            in.skipBytes(in.readableBytes());
+            return;
+        }
+        int len = Math.min(in.readableBytes(), PREFACE.length);
+        int index = in.readerIndex();
+        for (int i = 0; i < len; i++) {
+            if (in.getByte(index + i) != PREFACE[i]) {
+                // HTTP/1.x, the decoder hands the bytes read so far to the next handler when removed
+                ctx.pipeline().remove(this);
+                return;
+            }
+        }
+        if (len == PREFACE.length) {
+            rejected = true;
+            in.skipBytes(in.readableBytes());
+            ctx.writeAndFlush(ctx.alloc().buffer(SETTINGS_AND_GOAWAY.length).writeBytes(SETTINGS_AND_GOAWAY))
+                    .addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+}
@@ -24,17 +24,42 @@
  */
 package io.advantageous.conekt.http.impl;
 
+import io.advantageous.conekt.http.HttpServerOptions;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+
+import java.util.List;
 
 /**
+ * Compresses the responses of a connection.
+ * <p>
+ * A response is only compressed when its size is at least the configured minimum and its content type is
+ * compressible. When a {@link DeflaterPool} is provided, the deflaters are borrowed from it instead of being
+ * allocated for every response.
+ *
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
  */
 final class HttpChunkContentCompressor extends HttpContentCompressor {
 
+    private final int minSize;
+    private final String[] contentTypes;
+    private final DeflaterPool deflaterPool;
+
+    HttpChunkContentCompressor(HttpServerOptions options, DeflaterPool deflaterPool) {
+        super(options.getCompressionLevel());
+        this.minSize = options.getCompressionMinSize();
+        List<String> types = options.getCompressibleContentTypes();
+        this.contentTypes = types != null ? types.toArray(new String[types.size()]) : null;
+        this.deflaterPool = deflaterPool;
+    }
+
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         if (msg instanceof ByteBuf) {
@@ -44,4 +69,70 @@ final class HttpChunkContentCompressor extends HttpContentCompressor {
         }
         super.write(ctx, msg, promise);
     }
+
+    @Override
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+        HttpHeaders headers = response.headers();
+        if (!isCompressible(headers.get(HttpHeaders.Names.CONTENT_TYPE), contentLength(headers))) {
+            return null;
+        }
+        if (deflaterPool == null) {
+            return super.beginEncode(response, acceptEncoding);
+        }
+        String contentEncoding = headers.get(HttpHeaders.Names.CONTENT_ENCODING);
+        if (contentEncoding != null && !HttpHeaders.Values.IDENTITY.equalsIgnoreCase(contentEncoding)) {
+            return null;
+        }
+        ZlibWrapper wrapper = determineWrapper(acceptEncoding);
+        if (wrapper == null) {
+            return null;
+        }
+        boolean gzip = wrapper == ZlibWrapper.GZIP;
+        return new Result(gzip ? HttpHeaders.Values.GZIP : HttpHeaders.Values.DEFLATE,
+                new EmbeddedChannel(new PooledZlibEncoder(deflaterPool, gzip)));
+    }
+
+    /**
+     * @return true when a client sending this {@code Accept-Encoding} header prefers {@code gzip}
+     */
+    boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && determineWrapper(acceptEncoding) == ZlibWrapper.GZIP;
+    }
+
+    /**
+     * @param contentType   the response content type, or null
+     * @param contentLength the response content length, or {@code -1} when unknown
+     * @return true when a response should be compressed
+     */
+    boolean isCompressible(String contentType, long contentLength) {
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+        if (contentTypes == null || contentType == null) {
+            return true;
+        }
+        int semi = contentType.indexOf(';');
+        String mimeType = (semi == -1 ? contentType : contentType.substring(0, semi)).trim();
+        for (String type : contentTypes) {
+            if (type.endsWith("/*")) {
+                if (mimeType.regionMatches(true, 0, type, 0, type.length() - 1)) {
+                    return true;
+                }
+            } else if (mimeType.equalsIgnoreCase(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long contentLength(HttpHeaders headers) {
+        String value = headers.get(HttpHeaders.Names.CONTENT_LENGTH);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return -1;
+    }
 }
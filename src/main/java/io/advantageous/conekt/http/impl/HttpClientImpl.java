@@ -31,12 +31,12 @@ import io.advantageous.conekt.http.impl.ws.WebSocketFrameImpl;
 import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.impl.ContextImpl;
 import io.advantageous.conekt.net.impl.KeyStoreHelper;
-import io.advantageous.conekt.net.impl.PartialPooledByteBufAllocator;
 import io.advantageous.conekt.net.impl.SSLHelper;
 import io.advantageous.conekt.spi.metrics.HttpClientMetrics;
 import io.advantageous.conekt.spi.metrics.Metrics;
 import io.advantageous.conekt.spi.metrics.MetricsProvider;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslHandler;
@@ -91,7 +91,8 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
             }
             creatingContext.addCloseHook(closeHook);
         }
-        pool = new ConnectionManager(options.getMaxPoolSize(), options.isKeepAlive(), options.isPipelining(), options.getMaxWaitQueueSize()) {
+        pool = new ConnectionManager(options.getMaxPoolSize(), options.isKeepAlive(), options.isPipelining(),
+                options.getPipeliningLimit(), options.getMaxWaitQueueSize()) {
             protected void connect(String host, int port, Handler<ClientConnection> connectHandler, Handler<Throwable> connectErrorHandler, ContextImpl context,
                                    ConnectionLifeCycleListener listener) {
                 internalConnect(context, port, host, connectHandler, connectErrorHandler, listener);
@@ -714,9 +715,10 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
             bootstrap.option(ChannelOption.IP_TOS, options.getTrafficClass());
         }
         bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, options.getConnectTimeout());
-        bootstrap.option(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
+        bootstrap.option(ChannelOption.ALLOCATOR, vertx.byteBufAllocator());
         bootstrap.option(ChannelOption.SO_KEEPALIVE, options.isTcpKeepAlive());
         bootstrap.option(ChannelOption.SO_REUSEADDR, options.isReuseAddress());
+        vertx.transport().configure(options, bootstrap);
     }
 
     private void internalConnect(ContextImpl clientContext, int port, String host, Handler<ClientConnection> connectHandler,
@@ -730,7 +732,7 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
         }
         Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(context.nettyEventLoop());
-        bootstrap.channelFactory(new VertxNioSocketChannelFactory());
+        bootstrap.channelFactory(vertx.transport().channelFactory());
         sslHelper.validate(vertx);
         bootstrap.handler(new ChannelInitializer<Channel>() {
             @Override
@@ -751,7 +753,21 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
             }
         });
         applyConnectionOptions(bootstrap);
-        ChannelFuture future = bootstrap.connect(new InetSocketAddress(host, port));
+        // Resolve the host before connecting, otherwise Netty would do a blocking lookup on the event loop
+        vertx.resolveAddress(host, res -> {
+            if (res.succeeded()) {
+                doConnect(bootstrap, new InetSocketAddress(res.result(), port), context, port, host, connectHandler,
+                        connectErrorHandler, listener);
+            } else {
+                context.runOnContext(v -> connectionFailed(context, null, connectErrorHandler, res.cause(), listener));
+            }
+        });
+    }
+
+    private void doConnect(Bootstrap bootstrap, InetSocketAddress address, ContextImpl context, int port, String host,
+                           Handler<ClientConnection> connectHandler, Handler<Throwable> connectErrorHandler,
+                           ConnectionLifeCycleListener listener) {
+        ChannelFuture future = bootstrap.connect(address);
         future.addListener((ChannelFuture channelFuture) -> {
             Channel ch = channelFuture.channel();
             if (channelFuture.isSuccess()) {
@@ -839,9 +855,11 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
 
         context.executeFromIO(() -> {
             listener.connectionClosed(null);
-            try {
-                ch.close();
-            } catch (Exception ignore) {
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (Exception ignore) {
+                }
             }
             if (exHandler != null) {
                 exHandler.handle(t);
@@ -865,7 +883,7 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
         private ContextImpl context;
 
         public ClientHandler(ConektInternal vertx, ContextImpl context) {
-            super(HttpClientImpl.this.connectionMap);
+            super(HttpClientImpl.this.connectionMap, options.isZeroCopyInbound());
             this.context = context;
         }
 
@@ -877,6 +895,7 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
         @Override
         protected void doMessageReceived(ClientConnection conn, ChannelHandlerContext ctx, Object msg) {
             if (conn == null) {
+                releaseInbound(msg);
                 return;
             }
             boolean valid = false;
@@ -887,12 +906,18 @@ public class HttpClientImpl implements HttpClient, MetricsProvider {
             }
             if (msg instanceof HttpContent) {
                 HttpContent chunk = (HttpContent) msg;
-                if (chunk.content().isReadable()) {
-                    Buffer buff = Buffer.buffer(chunk.content().slice());
-                    conn.handleResponseChunk(buff);
-                }
-                if (chunk instanceof LastHttpContent) {
-                    conn.handleResponseEnd((LastHttpContent) chunk);
+                try {
+                    if (chunk.content().isReadable()) {
+                        ByteBuf content = chunk.content().slice();
+                        Buffer buff = zeroCopyInbound ? Buffer.borrowed(content) : Buffer.buffer(content);
+                        conn.handleResponseChunk(buff);
+                    }
+                    if (chunk instanceof LastHttpContent) {
+                        conn.handleResponseEnd((LastHttpContent) chunk);
+                    }
+                } finally {
+                    // The response copies the data it keeps
+                    releaseInbound(msg);
                 }
                 valid = true;
             } else if (msg instanceof WebSocketFrameInternal) {
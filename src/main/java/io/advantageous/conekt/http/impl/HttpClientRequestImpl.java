@@ -196,7 +196,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
         synchronized (getLock()) {
             checkComplete();
             checkResponseHandler();
-            ByteBuf buf = chunk.getByteBuf();
+            ByteBuf buf = chunk.getByteBufForWrite();
             write(buf, false);
             return this;
         }
@@ -319,7 +319,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
             if (!chunked && !contentLengthSet()) {
                 headers().set(io.advantageous.conekt.http.HttpHeaders.CONTENT_LENGTH, String.valueOf(chunk.length()));
             }
-            write(chunk.getByteBuf(), true);
+            write(chunk.getByteBufForWrite(), true);
         }
     }
 
@@ -708,6 +708,7 @@ public class HttpClientRequestImpl implements HttpClientRequest {
         int readableBytes = buff.readableBytes();
         if (readableBytes == 0 && !end) {
             // nothing to write to the connection just return
+            buff.release();
             return;
         }
 
@@ -0,0 +1,97 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.advantageous.conekt.http.HttpHeaders;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Cache of the {@code Date} response header value.
+ * <p>
+ * The value only changes once per second, so it is formatted and encoded once and then shared by all the responses
+ * sent during that second, whatever their event loop. It also formats and parses the other HTTP date headers.
+ */
+final class HttpDateCache {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    private static volatile Entry current = new Entry(-1, null);
+
+    private HttpDateCache() {
+    }
+
+    static CharSequence date() {
+        return date(System.currentTimeMillis());
+    }
+
+    static CharSequence date(long now) {
+        long second = now / 1000;
+        Entry entry = current;
+        if (entry.second != second) {
+            // Racing threads may both format the value, they compute the same one
+            entry = new Entry(second, HttpHeaders.createOptimized(FORMATTER.format(Instant.ofEpochSecond(second))));
+            current = entry;
+        }
+        return entry.value;
+    }
+
+    /**
+     * @return the HTTP date of the given time
+     */
+    static String format(long millis) {
+        return FORMATTER.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * @return the time in milliseconds of the given HTTP date, or -1 when it cannot be parsed
+     */
+    static long parse(String date) {
+        try {
+            return ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static final class Entry {
+
+        final long second;
+        final CharSequence value;
+
+        Entry(long second, CharSequence value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import io.advantageous.conekt.file.AsyncFile;
 import io.advantageous.conekt.file.OpenOptions;
 
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 
 /**
  * This class is optimised for performance when used on the same event loop that is was passed to the handler with.
@@ -40,6 +41,10 @@ import java.nio.charset.Charset;
  * <p>
  * The internal state is protected using the synchronized keyword. If always used on the same event loop, then
  * we benefit from biased locking which makes the overhead of synchronized near zero.
+ * <p>
+ * Pausing an upload stops reading from the socket right away, so only the data already decoded from the current
+ * chunk is queued. When streamed to the file system, the upload is paused while the bytes being written exceed
+ * {@link io.advantageous.conekt.http.HttpServerOptions#getUploadWriteQueueMaxSize()}.
  *
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
  */
@@ -60,8 +65,10 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
 
     private long size;
     private boolean paused;
-    private Buffer pauseBuff;
+    private ArrayDeque<Buffer> pauseQueue;
     private boolean complete;
+    private boolean failed;
+    private boolean ended;
     private boolean lazyCalculateSize;
 
     HttpServerFileUploadImpl(Conekt conekt, HttpServerRequestImpl req, String name, String filename, String contentType,
@@ -118,7 +125,7 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
 
     @Override
     public synchronized HttpServerFileUpload pause() {
-        req.pause();
+        req.pauseInbound();
         paused = true;
         return this;
     }
@@ -128,11 +135,16 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
         if (paused) {
             req.resume();
             paused = false;
-            if (pauseBuff != null) {
-                doReceiveData(pauseBuff);
-                pauseBuff = null;
+            if (pauseQueue != null) {
+                Buffer data;
+                while (!paused && (data = pauseQueue.poll()) != null) {
+                    doReceiveData(data);
+                }
+                if (!paused) {
+                    pauseQueue = null;
+                }
             }
-            if (complete) {
+            if (complete && !paused) {
                 handleComplete();
             }
         }
@@ -156,7 +168,14 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
         pause();
         conekt.fileSystem().open(filename, new OpenOptions(), ar -> {
             if (ar.succeeded()) {
-                file = ar.result();
+                synchronized (this) {
+                    file = ar.result();
+                    if (failed) {
+                        file.close();
+                        return;
+                    }
+                }
+                file.setWriteQueueMaxSize(req.uploadWriteQueueMaxSize());
                 Pump p = Pump.pump(HttpServerFileUploadImpl.this, ar.result());
                 p.start();
                 resume();
@@ -173,7 +192,7 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
     }
 
     synchronized void receiveData(Buffer data) {
-        if (data.length() != 0) {
+        if (data.length() != 0 && !failed) {
             // Can sometimes receive zero length packets from Netty!
             if (lazyCalculateSize) {
                 size += data.length();
@@ -188,11 +207,27 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
                 dataHandler.handle(data);
             }
         } else {
-            if (pauseBuff == null) {
-                pauseBuff = Buffer.buffer();
+            if (pauseQueue == null) {
+                pauseQueue = new ArrayDeque<>();
             }
-            pauseBuff.appendBuffer(data);
+            pauseQueue.add(data);
+        }
+    }
+
+    /**
+     * Fail the upload when the request is aborted before it is complete.
+     */
+    synchronized void fail(Throwable cause) {
+        if (failed || ended) {
+            return;
+        }
+        failed = true;
+        pauseQueue = null;
+        dataHandler = null;
+        if (file != null) {
+            file.close();
         }
+        notifyExceptionHandler(cause);
     }
 
     synchronized void complete() {
@@ -204,6 +239,7 @@ class HttpServerFileUploadImpl implements HttpServerFileUpload {
     }
 
     private void handleComplete() {
+        ended = true;
         lazyCalculateSize = false;
         if (file == null) {
             notifyEndHandler();
@@ -29,6 +29,7 @@ import io.advantageous.conekt.*;
 import io.advantageous.conekt.http.*;
 import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.net.impl.*;
+import io.advantageous.conekt.net.impl.transport.Transport;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
 import io.netty.channel.group.ChannelGroup;
@@ -58,8 +59,12 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -90,6 +95,9 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
     private final ServerWebSocketStreamImpl wsStream = new ServerWebSocketStreamImpl();
     private final HttpServerRequestStreamImpl requestStream = new HttpServerRequestStreamImpl();
     private final String subProtocols;
+    private final CharSequence serverHeader;
+    private final DeflaterPool deflaterPool;
+    private final CompressedFileCache compressedFileCache;
     private String serverOrigin;
 
     private ChannelGroup serverChannelGroup;
@@ -112,6 +120,16 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         }
         this.sslHelper = new SSLHelper(options, KeyStoreHelper.create(vertx, options.getKeyCertOptions()), KeyStoreHelper.create(vertx, options.getTrustOptions()));
         this.subProtocols = options.getWebsocketSubProtocols();
+        this.serverHeader = options.getServerHeader() != null ?
+                io.advantageous.conekt.http.HttpHeaders.createOptimized(options.getServerHeader()) : null;
+        if (options.isCompressionSupported()) {
+            this.deflaterPool = new DeflaterPool(options.getCompressionLevel(), options.getDeflaterPoolSize());
+            this.compressedFileCache = options.getCompressedFileCacheSize() > 0 ?
+                    new CompressedFileCache(options.getCompressedFileCacheSize(), deflaterPool) : null;
+        } else {
+            this.deflaterPool = null;
+            this.compressedFileCache = null;
+        }
     }
 
     @Override
@@ -187,9 +205,12 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
             HttpServerImpl shared = vertx.sharedHttpServers().get(id);
             if (shared == null) {
                 serverChannelGroup = new DefaultChannelGroup("conekt-acceptor-channels", GlobalEventExecutor.INSTANCE);
+                // The groups are set on the copy used by each bind
                 ServerBootstrap bootstrap = new ServerBootstrap();
-                bootstrap.group(vertx.getAcceptorEventLoopGroup(), availableWorkers);
-                bootstrap.channelFactory(new VertxNioServerChannelFactory());
+                int acceptors = vertx.transport().acceptorCount(options, vertx.getEventLoopGroup());
+                // With SO_REUSEPORT every event loop accepts on its own socket rather than the single acceptor thread
+                List<EventLoop> acceptorLoops = acceptors > 1 ? Transport.eventLoops(vertx.getEventLoopGroup()) : null;
+                bootstrap.channelFactory(vertx.transport().serverChannelFactory());
                 applyConnectionOptions(bootstrap);
                 sslHelper.validate(vertx);
                 bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -202,12 +223,15 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
                         ChannelPipeline pipeline = ch.pipeline();
                         if (sslHelper.isSSL()) {
                             pipeline.addLast("ssl", sslHelper.createSslHandler(vertx, false));
+                        } else if (options.isRejectHttp2PriorKnowledge()) {
+                            pipeline.addLast("h2Preface", new Http2PrefaceHandler());
                         }
                         pipeline.addLast("httpDecoder", new HttpRequestDecoder(options.getMaxInitialLineLength()
                                 , options.getMaxHeaderSize(), options.getMaxChunkSize(), false));
                         pipeline.addLast("httpEncoder", new VertxHttpResponseEncoder());
                         if (options.isCompressionSupported()) {
-                            pipeline.addLast("deflater", new HttpChunkContentCompressor());
+                            pipeline.addLast("deflater", new HttpChunkContentCompressor(options,
+                                    options.getDeflaterPoolSize() > 0 ? deflaterPool : null));
                         }
                         if (sslHelper.isSSL() || options.isCompressionSupported()) {
                             // only add ChunkedWriteHandler when SSL is enabled otherwise it is not needed as FileRegion is used.
@@ -222,7 +246,9 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
 
                 addHandlers(this, listenContext);
                 try {
-                    bindFuture = bootstrap.bind(new InetSocketAddress(InetAddress.getByName(host), port));
+                    EventLoopGroup acceptorGroup = acceptorLoops != null ? acceptorLoops.get(0) : vertx.getAcceptorEventLoopGroup();
+                    bindFuture = bootstrap.clone().group(acceptorGroup, availableWorkers)
+                            .bind(new InetSocketAddress(InetAddress.getByName(host), port));
                     Channel serverChannel = bindFuture.channel();
                     serverChannelGroup.add(serverChannel);
                     bindFuture.addListener(channelFuture -> {
@@ -230,6 +256,10 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
                             vertx.sharedHttpServers().remove(id);
                         } else {
                             metrics = vertx.metricsSPI().createMetrics(this, new SocketAddressImpl(port, host), options);
+                            if (acceptorLoops != null) {
+                                bindAcceptors(bootstrap, serverChannel.localAddress(),
+                                        acceptorLoops.subList(1, acceptorLoops.size()));
+                            }
                         }
                     });
                 } catch (final Throwable t) {
@@ -271,6 +301,34 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         return this;
     }
 
+    /**
+     * Bind a listening socket on each of the other event loops to the address of the first one.
+     */
+    private void bindAcceptors(ServerBootstrap bootstrap, SocketAddress localAddress, List<EventLoop> loops) {
+        synchronized (vertx.sharedHttpServers()) {
+            if (vertx.sharedHttpServers().get(id) != this) {
+                // Closed in the meantime
+                return;
+            }
+            for (EventLoop loop : loops) {
+                ChannelFuture future = bootstrap.clone().group(loop, availableWorkers).bind(localAddress);
+                serverChannelGroup.add(future.channel());
+                future.addListener(f -> {
+                    if (!f.isSuccess()) {
+                        log.warn("Failed to bind an acceptor on " + localAddress, f.cause());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the listening channels of this server, one per event loop when each event loop accepts on its own socket
+     */
+    public synchronized List<Channel> listeningChannels() {
+        return serverChannelGroup != null ? new ArrayList<>(serverChannelGroup) : Collections.emptyList();
+    }
+
     @Override
     public void close() {
         close(null);
@@ -372,7 +430,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         if (options.getTrafficClass() != -1) {
             bootstrap.childOption(ChannelOption.IP_TOS, options.getTrafficClass());
         }
-        bootstrap.childOption(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, vertx.byteBufAllocator());
 
         bootstrap.childOption(ChannelOption.SO_KEEPALIVE, options.isTcpKeepAlive());
 
@@ -380,6 +438,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         if (options.getAcceptBacklog() != -1) {
             bootstrap.option(ChannelOption.SO_BACKLOG, options.getAcceptBacklog());
         }
+        vertx.transport().configure(options, bootstrap);
     }
 
 
@@ -412,6 +471,13 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
             metrics.close();
         }
 
+        if (compressedFileCache != null) {
+            compressedFileCache.close();
+        }
+        if (deflaterPool != null) {
+            deflaterPool.close();
+        }
+
         ChannelGroupFuture fut = serverChannelGroup.close();
         fut.addListener(cgf -> executeCloseDone(closeContext, done, fut.cause()));
     }
@@ -501,6 +567,14 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         return options;
     }
 
+    CharSequence serverHeader() {
+        return serverHeader;
+    }
+
+    CompressedFileCache compressedFileCache() {
+        return compressedFileCache;
+    }
+
     Map<Channel, ServerConnection> connectionMap() {
         return connectionMap;
     }
@@ -510,7 +584,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         private boolean closeFrameSent;
 
         public ServerHandler() {
-            super(HttpServerImpl.this.connectionMap);
+            super(HttpServerImpl.this.connectionMap, options.isZeroCopyInbound());
         }
 
         @Override
@@ -591,6 +665,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
                     if (wsRequest != null) {
                         wsRequest.content().writeBytes(((HttpContent) msg).content());
                         if (msg instanceof LastHttpContent) {
+                            releaseInbound(msg);
                             FullHttpRequest req = wsRequest;
                             wsRequest = null;
                             handshake(req, ch, ctx);
@@ -599,6 +674,8 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
                     }
                     if (conn != null) {
                         conn.handleMessage(msg);
+                    } else {
+                        releaseInbound(msg);
                     }
                 } else {
                     throw new IllegalStateException("Invalid message " + msg);
@@ -623,6 +700,8 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
                     conn.setMetric(metrics.connected(conn.remoteAddress(), conn.remoteName()));
                     conn.handleMessage(msg);
                 });
+            } else {
+                releaseInbound(msg);
             }
         }
 
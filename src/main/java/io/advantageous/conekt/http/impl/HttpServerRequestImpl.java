@@ -25,6 +25,7 @@
 
 package io.advantageous.conekt.http.impl;
 
+import io.advantageous.conekt.ConektException;
 import io.advantageous.conekt.Handler;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.http.*;
@@ -66,6 +67,10 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
     private static final Logger log = LoggerFactory.getLogger(HttpServerRequestImpl.class);
 
+    // Upper bound of the body buffer pre-sized from the Content-Length header, a larger body grows as data arrives.
+    // The header is sent by the client, it must not make the server allocate much before any byte of the body
+    private static final int MAX_BODY_SIZE_HINT = 64 * 1024;
+
     private final ServerConnection conn;
     private final HttpRequest request;
     private final HttpServerResponse response;
@@ -89,6 +94,8 @@ public class HttpServerRequestImpl implements HttpServerRequest {
     private Handler<Void> endHandler;
     private MultiMap attributes;
     private HttpPostRequestDecoder decoder;
+    private long decodedBytes;
+    private HttpServerFileUploadImpl currentUpload;
     private boolean ended;
 
 
@@ -186,7 +193,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
         if (params == null) {
             QueryStringDecoder queryStringDecoder = new QueryStringDecoder(uri());
             Map<String, List<String>> prms = queryStringDecoder.parameters();
-            params = new CaseInsensitiveHeaders();
+            params = new CompactHeaders();
             if (!prms.isEmpty()) {
                 for (Map.Entry<String, List<String>> entry : prms.entrySet()) {
                     params.add(entry.getKey(), entry.getValue());
@@ -234,6 +241,16 @@ public class HttpServerRequestImpl implements HttpServerRequest {
         }
     }
 
+    void pauseInbound() {
+        synchronized (conn) {
+            conn.pauseInbound();
+        }
+    }
+
+    int uploadWriteQueueMaxSize() {
+        return conn.uploadWriteQueueMaxSize();
+    }
+
     @Override
     public HttpServerRequest endHandler(Handler<Void> handler) {
         synchronized (conn) {
@@ -284,8 +301,17 @@ public class HttpServerRequestImpl implements HttpServerRequest {
 
     @Override
     public HttpServerRequest bodyHandler(final Handler<Buffer> bodyHandler) {
-        Buffer body = Buffer.buffer();
-        handler(body::appendBuffer);
+        long contentLength = HttpHeaders.getContentLength(request, -1);
+        Buffer body;
+        if (contentLength >= 0) {
+            // Each chunk is copied once into a buffer of the final size, up to the hint
+            body = Buffer.buffer((int) Math.min(contentLength, MAX_BODY_SIZE_HINT));
+            handler(body::appendBuffer);
+        } else {
+            body = Buffer.buffer();
+            // Zero-copy chunks are borrowed, they are copied instead of shared
+            handler(body::appendBufferNoCopy);
+        }
         endHandler(v -> bodyHandler.handle(body));
         return this;
     }
@@ -369,10 +395,16 @@ public class HttpServerRequestImpl implements HttpServerRequest {
     void handleData(Buffer data) {
         synchronized (conn) {
             if (decoder != null) {
-                try {
-                    decoder.offer(new DefaultHttpContent(data.getByteBuf()));
-                } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
-                    handleException(e);
+                decodedBytes += data.length();
+                long maxUploadSize = conn.maxUploadSize();
+                if (maxUploadSize > 0 && decodedBytes > maxUploadSize) {
+                    uploadTooLarge(maxUploadSize);
+                } else {
+                    try {
+                        decoder.offer(new DefaultHttpContent(data.getByteBuf()));
+                    } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
+                        handleException(e);
+                    }
                 }
             }
             if (dataHandler != null) {
@@ -422,6 +454,24 @@ public class HttpServerRequestImpl implements HttpServerRequest {
         }
     }
 
+    /**
+     * Stop decoding the body, fail the upload in progress and reject the request.
+     */
+    private void uploadTooLarge(long maxUploadSize) {
+        decoder.destroy();
+        decoder = null;
+        ConektException cause = new ConektException("Request body exceeds the maximum upload size of " + maxUploadSize + " bytes");
+        if (currentUpload != null) {
+            currentUpload.fail(cause);
+            currentUpload = null;
+        }
+        handleException(cause);
+        if (!response.headWritten()) {
+            response.setStatusCode(413).end();
+        }
+        response.close();
+    }
+
     private void sendNotImplementedAndClose() {
         response().setStatusCode(501).end();
         response().close();
@@ -436,7 +486,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
     private MultiMap attributes() {
         // Create it lazily
         if (attributes == null) {
-            attributes = new CaseInsensitiveHeaders();
+            attributes = new CompactHeaders();
         }
         return attributes;
     }
@@ -647,6 +697,7 @@ public class HttpServerRequestImpl implements HttpServerRequest {
         public FileUpload createFileUpload(HttpRequest httpRequest, String name, String filename, String contentType, String contentTransferEncoding, Charset charset, long size) {
             HttpServerFileUploadImpl upload = new HttpServerFileUploadImpl(conn.vertx(), HttpServerRequestImpl.this, name, filename, contentType, contentTransferEncoding, charset,
                     size);
+            currentUpload = upload;
             NettyFileUpload nettyUpload = new NettyFileUpload(upload, name, filename, contentType,
                     contentTransferEncoding, charset);
             if (uploadHandler != null) {
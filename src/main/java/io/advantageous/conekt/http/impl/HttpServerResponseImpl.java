@@ -27,6 +27,7 @@ package io.advantageous.conekt.http.impl;
 
 import io.advantageous.conekt.AsyncResult;
 import io.advantageous.conekt.Future;
+import io.advantageous.conekt.file.impl.FileContentCache;
 import io.advantageous.conekt.http.HttpHeaders;
 import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.impl.ContextImpl;
@@ -46,6 +47,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * This class is optimised for performance when used on the same event loop that is was passed to the handler with.
@@ -63,11 +65,15 @@ public class HttpServerResponseImpl implements HttpServerResponse {
 
     private static final Logger log = LoggerFactory.getLogger(HttpServerResponseImpl.class);
 
+    private static final CharSequence ZERO = HttpHeaders.createOptimized("0");
+    private static final CharSequence GZIP = HttpHeaders.createOptimized("gzip");
+
     private final ConektInternal vertx;
     private final ServerConnection conn;
     private final HttpResponse response;
     private final HttpVersion version;
     private final boolean keepAlive;
+    private final String acceptEncoding;
 
     private boolean headWritten;
     private boolean written;
@@ -92,6 +98,7 @@ public class HttpServerResponseImpl implements HttpServerResponse {
         this.response = new DefaultHttpResponse(version, HttpResponseStatus.OK, false);
         this.keepAlive = (version == HttpVersion.HTTP_1_1 && !request.headers().contains(io.advantageous.conekt.http.HttpHeaders.CONNECTION, HttpHeaders.CLOSE, true))
                 || (version == HttpVersion.HTTP_1_0 && request.headers().contains(HttpHeaders.CONNECTION, HttpHeaders.KEEP_ALIVE, true));
+        this.acceptEncoding = conn.compressedFileCache() != null ? request.headers().get(HttpHeaders.ACCEPT_ENCODING) : null;
     }
 
     @Override
@@ -239,6 +246,21 @@ public class HttpServerResponseImpl implements HttpServerResponse {
         }
     }
 
+    @Override
+    public HttpServerResponse cork() {
+        synchronized (conn) {
+            checkWritten();
+            conn.doCork();
+            return this;
+        }
+    }
+
+    @Override
+    public HttpServerResponse uncork() {
+        conn.doUncork();
+        return this;
+    }
+
     @Override
     public boolean writeQueueFull() {
         synchronized (conn) {
@@ -277,7 +299,7 @@ public class HttpServerResponseImpl implements HttpServerResponse {
 
     @Override
     public HttpServerResponseImpl write(Buffer chunk) {
-        ByteBuf buf = chunk.getByteBuf();
+        ByteBuf buf = chunk.getByteBufForWrite();
         return write(buf);
     }
 
@@ -313,7 +335,7 @@ public class HttpServerResponseImpl implements HttpServerResponse {
             if (!chunked && !contentLengthSet()) {
                 headers().set(HttpHeaders.CONTENT_LENGTH, String.valueOf(chunk.length()));
             }
-            ByteBuf buf = chunk.getByteBuf();
+            ByteBuf buf = chunk.getByteBufForWrite();
             end0(buf);
         }
     }
@@ -457,10 +479,6 @@ public class HttpServerResponseImpl implements HttpServerResponse {
             }
 
             long contentLength = Math.min(length, file.length() - offset);
-            bytesWritten = contentLength;
-            if (!contentLengthSet()) {
-                putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
-            }
             if (!contentTypeSet()) {
                 int li = filename.lastIndexOf('.');
                 if (li != -1 && li != filename.length() - 1) {
@@ -471,8 +489,30 @@ public class HttpServerResponseImpl implements HttpServerResponse {
                     }
                 }
             }
+            ByteBuf compressed = compressedFile(file, offset, contentLength);
+            if (compressed != null) {
+                // The compressor lets the response through as its content is already encoded
+                bytesWritten = compressed.readableBytes();
+                putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bytesWritten));
+                putHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                prepareHeaders();
+                fileSent(new AssembledFullHttpResponse(response, compressed), resultHandler);
+                return;
+            }
+            bytesWritten = contentLength;
+            if (!contentLengthSet()) {
+                putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+            }
             prepareHeaders();
 
+            FileContentCache cache = vertx.fileContentCache();
+            ByteBuf content = cache != null ? cache.get(file, Math.min(offset, file.length()), contentLength) : null;
+            if (content != null) {
+                // The head and the cached content go out in a single write
+                fileSent(new AssembledFullHttpResponse(response, content), resultHandler);
+                return;
+            }
+
             RandomAccessFile raf = null;
             try {
                 raf = new RandomAccessFile(file, "r");
@@ -494,12 +534,74 @@ public class HttpServerResponseImpl implements HttpServerResponse {
                 return;
             }
 
-            // write an empty last content to let the http encoder know the response is complete
-            channelFuture = conn.writeToChannel(LastHttpContent.EMPTY_LAST_CONTENT);
-            written = true;
+            fileSent(LastHttpContent.EMPTY_LAST_CONTENT, resultHandler);
+        }
+    }
 
-            if (resultHandler != null) {
-                ContextImpl ctx = vertx.getOrCreateContext();
+    /**
+     * Send a region of a file channel kept open by the caller, e.g. by a cache of open files. The caller sets the
+     * headers and the status, the content length is set when it is not already.
+     */
+    void sendFile(FileChannel fileChannel, long offset, long length, Handler<AsyncResult<Void>> resultHandler) {
+        synchronized (conn) {
+            if (headWritten) {
+                throw new IllegalStateException("Head already written");
+            }
+            checkWritten();
+            bytesWritten = length;
+            if (!contentLengthSet()) {
+                putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+            }
+            prepareHeaders();
+            try {
+                conn.queueForWrite(response);
+                conn.sendFile(fileChannel, offset, length);
+            } catch (IOException e) {
+                // The head is queued, the connection cannot be reused
+                written = true;
+                conn.close();
+                if (resultHandler != null) {
+                    ContextImpl ctx = vertx.getOrCreateContext();
+                    ctx.runOnContext((v) -> resultHandler.handle(Future.failedFuture(e)));
+                } else {
+                    log.error("Failed to send file", e);
+                }
+                return;
+            }
+            fileSent(LastHttpContent.EMPTY_LAST_CONTENT, resultHandler);
+        }
+    }
+
+    /**
+     * @return the cached {@code gzip} content of the whole file when the client accepts it, or null
+     */
+    private ByteBuf compressedFile(File file, long offset, long contentLength) {
+        CompressedFileCache cache = conn.compressedFileCache();
+        if (cache == null || offset != 0 || contentLength != file.length() || contentLengthSet()
+                || response.headers().contains(HttpHeaders.CONTENT_ENCODING)) {
+            return null;
+        }
+        HttpChunkContentCompressor compressor = conn.compressor();
+        if (compressor == null || !compressor.acceptsGzip(acceptEncoding)
+                || !compressor.isCompressible(response.headers().get(HttpHeaders.CONTENT_TYPE), contentLength)) {
+            return null;
+        }
+        return cache.get(file, vertx.getOrCreateContext());
+    }
+
+    private void fileSent(LastHttpContent last, Handler<AsyncResult<Void>> resultHandler) {
+        // write the last content to let the http encoder know the response is complete
+        channelFuture = conn.writeToChannel(last);
+        if (channelFuture == null) {
+            last.release();
+        }
+        written = true;
+
+        if (resultHandler != null) {
+            ContextImpl ctx = vertx.getOrCreateContext();
+            if (channelFuture == null) {
+                ctx.runOnContext((v) -> resultHandler.handle(Future.failedFuture(new IllegalStateException("Connection closed"))));
+            } else {
                 channelFuture.addListener(future -> {
                     AsyncResult<Void> res;
                     if (future.isSuccess()) {
@@ -510,15 +612,15 @@ public class HttpServerResponseImpl implements HttpServerResponse {
                     ctx.runOnContext((v) -> resultHandler.handle(res));
                 });
             }
+        }
 
-            if (!keepAlive) {
-                closeConnAfterWrite();
-            }
-            conn.responseComplete();
+        if (!keepAlive) {
+            closeConnAfterWrite();
+        }
+        conn.responseComplete();
 
-            if (bodyEndHandler != null) {
-                bodyEndHandler.handle(null);
-            }
+        if (bodyEndHandler != null) {
+            bodyEndHandler.handle(null);
         }
     }
 
@@ -581,7 +683,14 @@ public class HttpServerResponseImpl implements HttpServerResponse {
         if (chunked) {
             response.headers().set(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CHUNKED);
         } else if (keepAlive && !contentLengthSet()) {
-            response.headers().set(HttpHeaders.CONTENT_LENGTH, "0");
+            response.headers().set(HttpHeaders.CONTENT_LENGTH, ZERO);
+        }
+        if (conn.isDateHeader() && !response.headers().contains(HttpHeaders.DATE)) {
+            response.headers().set(HttpHeaders.DATE, HttpDateCache.date());
+        }
+        CharSequence serverHeader = conn.serverHeader();
+        if (serverHeader != null && !response.headers().contains(HttpHeaders.SERVER)) {
+            response.headers().set(HttpHeaders.SERVER, serverHeader);
         }
         if (headersEndHandler != null) {
             headersEndHandler.handle(null);
@@ -0,0 +1,182 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@code gzip} or {@code deflate} encoder using a {@link Deflater} borrowed from a {@link DeflaterPool}, it is
+ * returned to the pool once the stream is finished.
+ * <p>
+ * The output is the same as the Netty JDK zlib encoder: every message is flushed with {@link Deflater#SYNC_FLUSH}
+ * and the trailer is written when the encoder is closed.
+ */
+final class PooledZlibEncoder extends MessageToByteEncoder<ByteBuf> {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final DeflaterPool pool;
+    private final boolean gzip;
+    private final CRC32 crc;
+    private Deflater deflater;
+    private boolean headerWritten;
+
+    PooledZlibEncoder(DeflaterPool pool, boolean gzip) {
+        this.pool = pool;
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        this.deflater = pool.acquire(gzip);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception {
+        compress(in, out);
+    }
+
+    private void compress(ByteBuf in, ByteBuf out) {
+        if (deflater == null) {
+            out.writeBytes(in);
+            return;
+        }
+        int len = in.readableBytes();
+        if (len == 0) {
+            return;
+        }
+        byte[] array;
+        int offset;
+        if (in.hasArray()) {
+            array = in.array();
+            offset = in.arrayOffset() + in.readerIndex();
+            in.skipBytes(len);
+        } else {
+            array = new byte[len];
+            offset = 0;
+            in.readBytes(array);
+        }
+        writeHeader(out);
+        if (gzip) {
+            crc.update(array, offset, len);
+        }
+        deflater.setInput(array, offset, len);
+        deflate(out, Deflater.SYNC_FLUSH);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception {
+        // Deflater works on arrays, the bound is the one of the Netty JDK zlib encoder
+        return ctx.alloc().heapBuffer((int) Math.ceil(msg.readableBytes() * 1.001) + 12 + GZIP_HEADER.length);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        if (deflater == null) {
+            ctx.close(promise);
+            return;
+        }
+        ByteBuf footer = ctx.alloc().heapBuffer(64);
+        finish(footer);
+        ctx.writeAndFlush(footer).addListener((ChannelFutureListener) f -> ctx.close(promise));
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        abandon();
+    }
+
+    private void abandon() {
+        if (deflater != null) {
+            // Not finished, the stream is abandoned
+            pool.release(deflater, gzip);
+            deflater = null;
+        }
+    }
+
+    private void finish(ByteBuf out) {
+        writeHeader(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(out, Deflater.NO_FLUSH);
+        }
+        if (gzip) {
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, (int) deflater.getBytesRead());
+        }
+        pool.release(deflater, gzip);
+        deflater = null;
+    }
+
+    private void writeHeader(ByteBuf out) {
+        if (gzip && !headerWritten) {
+            out.writeBytes(GZIP_HEADER);
+            headerWritten = true;
+        }
+    }
+
+    private void deflate(ByteBuf out, int flush) {
+        while (true) {
+            out.ensureWritable(256);
+            int writerIndex = out.writerIndex();
+            int writable = out.writableBytes();
+            int numBytes = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, writable, flush);
+            out.writerIndex(writerIndex + numBytes);
+            if (numBytes < writable) {
+                // The output buffer was large enough, all the pending output has been written
+                return;
+            }
+        }
+    }
+
+    private static void writeIntLE(ByteBuf out, int value) {
+        out.writeByte(value);
+        out.writeByte(value >>> 8);
+        out.writeByte(value >>> 16);
+        out.writeByte(value >>> 24);
+    }
+
+    /**
+     * Compress a buffer in one go with a pooled deflater.
+     *
+     * @param out the buffer the complete {@code gzip} stream is written to
+     * @return {@code out}
+     */
+    static ByteBuf gzip(DeflaterPool pool, ByteBuf in, ByteBuf out) {
+        PooledZlibEncoder encoder = new PooledZlibEncoder(pool, true);
+        try {
+            encoder.compress(in, out);
+            encoder.finish(out);
+        } finally {
+            encoder.abandon();
+        }
+        return out;
+    }
+}
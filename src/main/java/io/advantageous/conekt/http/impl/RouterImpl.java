@@ -0,0 +1,353 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.http.HttpHeaders;
+import io.advantageous.conekt.http.HttpMethod;
+import io.advantageous.conekt.http.HttpServerRequest;
+import io.advantageous.conekt.http.Router;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The {@link Router} implementation.
+ * <p>
+ * Each node of the tree holds a run of static text shared by the routes below it. The static children of a node are
+ * indexed by their first character, so a lookup compares each character of the path at most once per tried branch. A
+ * node also has at most one parameter child and one wildcard child, tried in this order when the static children
+ * don't match. Parameter values are added to the request params while unwinding a successful lookup, so failed
+ * branches leave no trace and static routes never touch the params.
+ */
+public class RouterImpl implements Router {
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final char[] NO_INDICES = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String WILDCARD_NAME = "*";
+
+    private final Node root = new Node("");
+    private Handler<HttpServerRequest> notFoundHandler = request -> request.response().setStatusCode(404).end();
+
+    @Override
+    public Router route(HttpMethod method, String path, Handler<HttpServerRequest> handler) {
+        Objects.requireNonNull(method, "no null method accepted");
+        Objects.requireNonNull(handler, "no null handler accepted");
+        Node node = add(path);
+        if (node.handlers[method.ordinal()] != null) {
+            throw new IllegalArgumentException("A route is already registered for " + method + " " + path);
+        }
+        node.handlers[method.ordinal()] = handler;
+        node.allow = allow(node.handlers);
+        return this;
+    }
+
+    @Override
+    public Router route(String path, Handler<HttpServerRequest> handler) {
+        Objects.requireNonNull(handler, "no null handler accepted");
+        Node node = add(path);
+        if (node.any != null) {
+            throw new IllegalArgumentException("A route is already registered for " + path);
+        }
+        node.any = handler;
+        return this;
+    }
+
+    @Override
+    public Router get(String path, Handler<HttpServerRequest> handler) {
+        return route(HttpMethod.GET, path, handler);
+    }
+
+    @Override
+    public Router post(String path, Handler<HttpServerRequest> handler) {
+        return route(HttpMethod.POST, path, handler);
+    }
+
+    @Override
+    public Router put(String path, Handler<HttpServerRequest> handler) {
+        return route(HttpMethod.PUT, path, handler);
+    }
+
+    @Override
+    public Router delete(String path, Handler<HttpServerRequest> handler) {
+        return route(HttpMethod.DELETE, path, handler);
+    }
+
+    @Override
+    public Router notFoundHandler(Handler<HttpServerRequest> handler) {
+        this.notFoundHandler = Objects.requireNonNull(handler, "no null handler accepted");
+        return this;
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        String path = request.path();
+        Node node = path != null ? find(root, path, 0, request) : null;
+        if (node == null) {
+            notFoundHandler.handle(request);
+            return;
+        }
+        Handler<HttpServerRequest> handler = node.handlers[request.method().ordinal()];
+        if (handler == null) {
+            handler = node.any;
+        }
+        if (handler != null) {
+            handler.handle(request);
+        } else {
+            request.response().putHeader(HttpHeaders.ALLOW, node.allow).setStatusCode(405).end();
+        }
+    }
+
+    /**
+     * Find the node of the route matching the path from {@code pos}, {@code node} having matched the path before.
+     *
+     * @return the matching node or {@code null}
+     */
+    private static Node find(Node node, String path, int pos, HttpServerRequest request) {
+        int len = path.length();
+        if (pos == len && node.isRoute()) {
+            return node;
+        }
+        if (pos < len) {
+            Node child = node.child(path.charAt(pos));
+            if (child != null && path.startsWith(child.label, pos)) {
+                Node found = find(child, path, pos + child.label.length(), request);
+                if (found != null) {
+                    return found;
+                }
+            }
+            Node param = node.param;
+            if (param != null) {
+                int end = path.indexOf('/', pos);
+                if (end == -1) {
+                    end = len;
+                }
+                if (end > pos) {
+                    Node found = find(param, path, end, request);
+                    if (found != null) {
+                        request.params().add(param.label, decode(path.substring(pos, end)));
+                        return found;
+                    }
+                }
+            }
+        }
+        Node wildcard = node.wildcard;
+        if (wildcard != null) {
+            request.params().add(wildcard.label, decode(path.substring(pos)));
+            return wildcard;
+        }
+        return null;
+    }
+
+    private Node add(String path) {
+        Objects.requireNonNull(path, "no null path accepted");
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid route path " + path + ": it must start with /");
+        }
+        Node node = root;
+        int len = path.length();
+        int i = 0;
+        while (i < len) {
+            char c = path.charAt(i);
+            if (c == ':' && path.charAt(i - 1) == '/') {
+                int end = path.indexOf('/', i);
+                if (end == -1) {
+                    end = len;
+                }
+                String name = paramName(path, i + 1, end);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid route path " + path + ": empty parameter name");
+                }
+                if (node.param == null) {
+                    node.param = new Node(name);
+                } else if (!node.param.label.equals(name)) {
+                    throw new IllegalArgumentException("Invalid route path " + path + ": parameter " + name +
+                            " conflicts with parameter " + node.param.label);
+                }
+                node = node.param;
+                i = end;
+            } else if (c == '*' && path.charAt(i - 1) == '/') {
+                if (path.indexOf('/', i) != -1) {
+                    throw new IllegalArgumentException("Invalid route path " + path + ": a wildcard must be the last segment");
+                }
+                String name = paramName(path, i + 1, len);
+                if (name.isEmpty()) {
+                    name = WILDCARD_NAME;
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node(name);
+                } else if (!node.wildcard.label.equals(name)) {
+                    throw new IllegalArgumentException("Invalid route path " + path + ": wildcard " + name +
+                            " conflicts with wildcard " + node.wildcard.label);
+                }
+                node = node.wildcard;
+                i = len;
+            } else {
+                int end = staticEnd(path, i);
+                node = addStatic(node, path.substring(i, end));
+                i = end;
+            }
+        }
+        if (node.handlers == null) {
+            node.handlers = newHandlers();
+        }
+        return node;
+    }
+
+    private static String paramName(String path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c == ':' || c == '*') {
+                throw new IllegalArgumentException("Invalid route path " + path + ": invalid parameter name");
+            }
+        }
+        return path.substring(from, to);
+    }
+
+    /**
+     * @return the end of the static text starting at {@code from}, i.e the start of the next parameter or wildcard
+     */
+    private static int staticEnd(String path, int from) {
+        int len = path.length();
+        for (int i = from; i < len - 1; i++) {
+            if (path.charAt(i) == '/') {
+                char next = path.charAt(i + 1);
+                if (next == ':' || next == '*') {
+                    return i + 1;
+                }
+            }
+        }
+        return len;
+    }
+
+    private static Node addStatic(Node node, String text) {
+        while (true) {
+            int index = node.indexOf(text.charAt(0));
+            if (index == -1) {
+                Node child = new Node(text);
+                node.addChild(child);
+                return child;
+            }
+            Node child = node.children[index];
+            String label = child.label;
+            int max = Math.min(label.length(), text.length());
+            int common = 0;
+            while (common < max && label.charAt(common) == text.charAt(common)) {
+                common++;
+            }
+            if (common < label.length()) {
+                // Split the child, the new node keeps the common prefix
+                Node prefix = new Node(label.substring(0, common));
+                child.label = label.substring(common);
+                prefix.addChild(child);
+                node.children[index] = prefix;
+                child = prefix;
+            }
+            if (common == text.length()) {
+                return child;
+            }
+            text = text.substring(common);
+            node = child;
+        }
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('%') == -1) {
+            return value;
+        }
+        try {
+            // A + in a path is not a space
+            return QueryStringDecoder.decodeComponent(value.replace("+", "%2B"));
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Handler<HttpServerRequest>[] newHandlers() {
+        return new Handler[METHODS.length];
+    }
+
+    private static String allow(Handler<HttpServerRequest>[] handlers) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] != null) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(METHODS[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Node {
+
+        // The static text of the node, or the name of a parameter or wildcard node
+        private String label;
+        private char[] indices = NO_INDICES;
+        private Node[] children = NO_CHILDREN;
+        private Node param;
+        private Node wildcard;
+        // Created when a route ends at this node
+        private Handler<HttpServerRequest>[] handlers;
+        private Handler<HttpServerRequest> any;
+        private String allow = "";
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        boolean isRoute() {
+            return handlers != null;
+        }
+
+        int indexOf(char c) {
+            char[] indices = this.indices;
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Node child(char c) {
+            int index = indexOf(c);
+            return index != -1 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int size = children.length;
+            indices = Arrays.copyOf(indices, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            indices[size] = child.label.charAt(0);
+            children[size] = child;
+        }
+    }
+}
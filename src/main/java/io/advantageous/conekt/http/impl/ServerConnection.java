@@ -56,6 +56,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
@@ -82,6 +83,9 @@ class ServerConnection extends ConnectionBase {
     private final String serverOrigin;
     private final HttpServerImpl server;
     private final HttpServerMetrics metrics;
+    private final boolean zeroCopyInbound;
+    private final int pipeliningBatchSize;
+    private final boolean dateHeader;
     private WebSocketServerHandshaker handshaker;
     private Object requestMetric;
     private Handler<HttpServerRequest> requestHandler;
@@ -104,6 +108,10 @@ class ServerConnection extends ConnectionBase {
         this.server = server;
         this.handshaker = handshaker;
         this.metrics = metrics;
+        this.zeroCopyInbound = server.options().isZeroCopyInbound();
+        this.pipeliningBatchSize = server.options().getPipeliningBatchSize();
+        this.dateHeader = server.options().isDateHeader();
+        setMaxWritesPerFlush(server.options().getMaxWritesPerFlush());
     }
 
     @Override
@@ -124,10 +132,27 @@ class ServerConnection extends ConnectionBase {
     public synchronized void resume() {
         if (paused) {
             paused = false;
+            if (channelPaused && pending.isEmpty()) {
+                // Paused by pauseInbound with nothing queued, processPending would not resume it
+                super.doResume();
+                channelPaused = false;
+            }
             checkNextTick();
         }
     }
 
+    /**
+     * Pause like {@link #pause()} and also stop reading from the socket right away, rather than once the pending
+     * queue is full. {@link #resume()} reads from the socket again once the pending messages are processed.
+     */
+    synchronized void pauseInbound() {
+        pause();
+        if (!channelPaused) {
+            super.doPause();
+            channelPaused = true;
+        }
+    }
+
     synchronized void handleMessage(Object msg) {
         if (paused || (pendingResponse != null && msg instanceof HttpRequest) || !pending.isEmpty()) {
             //We queue requests if paused or a request is in progress to prevent responses being written in the wrong order
@@ -215,8 +240,37 @@ class ServerConnection extends ConnectionBase {
         return server.getSslHelper().isSSL();
     }
 
+    boolean isDateHeader() {
+        return dateHeader;
+    }
+
+    CharSequence serverHeader() {
+        return server.serverHeader();
+    }
+
+    CompressedFileCache compressedFileCache() {
+        return server.compressedFileCache();
+    }
+
+    long maxUploadSize() {
+        return server.options().getMaxUploadSize();
+    }
+
+    int uploadWriteQueueMaxSize() {
+        return server.options().getUploadWriteQueueMaxSize();
+    }
+
+    /**
+     * @return the compressor of the connection, or null when compression is not supported or the connection was
+     * upgraded
+     */
+    HttpChunkContentCompressor compressor() {
+        return channel.pipeline().get(HttpChunkContentCompressor.class);
+    }
+
     NetSocket createNetSocket() {
         NetSocketImpl socket = new NetSocketImpl(vertx, channel, context, server.getSslHelper(), false, metrics, metric);
+        socket.setMaxWritesPerFlush(server.options().getMaxWritesPerFlush());
         Map<Channel, NetSocketImpl> connectionMap = new HashMap<>(1);
         connectionMap.put(channel, socket);
 
@@ -337,6 +391,12 @@ class ServerConnection extends ConnectionBase {
     }
 
     synchronized protected void handleClosed() {
+        if (zeroCopyInbound) {
+            Object msg;
+            while ((msg = pending.poll()) != null) {
+                ReferenceCountUtil.release(msg);
+            }
+        }
         if (ws != null) {
             metrics.disconnected(ws.getMetric());
             ws.setMetric(null);
@@ -381,6 +441,10 @@ class ServerConnection extends ConnectionBase {
         return super.sendFile(file, offset, length);
     }
 
+    protected ChannelFuture sendFile(FileChannel fileChannel, long offset, long length) throws IOException {
+        return super.sendFile(fileChannel, offset, length);
+    }
+
     private void processMessage(Object msg) {
 
         if (msg instanceof HttpRequest) {
@@ -401,9 +465,17 @@ class ServerConnection extends ConnectionBase {
         }
         if (msg instanceof HttpContent) {
             HttpContent chunk = (HttpContent) msg;
-            if (chunk.content().isReadable()) {
-                Buffer buff = Buffer.buffer(chunk.content());
-                handleChunk(buff);
+            try {
+                if (chunk.content().isReadable()) {
+                    Buffer buff = zeroCopyInbound ? Buffer.borrowed(chunk.content()) : Buffer.buffer(chunk.content());
+                    handleChunk(buff);
+                }
+            } finally {
+                // In zero copy mode the chunks read by the decoder hold a pooled buffer, the request copies the data
+                // it keeps
+                if (zeroCopyInbound && !(msg instanceof HttpRequest)) {
+                    chunk.release();
+                }
             }
 
             //TODO chunk trailers
@@ -425,27 +497,45 @@ class ServerConnection extends ConnectionBase {
 
     private void checkNextTick() {
         // Check if there are more pending messages in the queue that can be processed next time around
-        if (!pending.isEmpty() && !sentCheck && !paused && (pendingResponse == null || pending.peek() instanceof HttpContent)) {
+        if (!sentCheck && canProcessPending()) {
             sentCheck = true;
-            vertx.runOnContext(new VoidHandler() {
+            context.runOnContext(new VoidHandler() {
                 public void handle() {
-                    sentCheck = false;
-                    if (!paused) {
-                        Object msg = pending.poll();
-                        if (msg != null) {
-                            processMessage(msg);
-                        }
-                        if (channelPaused && pending.isEmpty()) {
-                            //Resume the actual channel
-                            ServerConnection.super.doResume();
-                            channelPaused = false;
-                        }
-                    }
+                    processPending();
                 }
             });
         }
     }
 
+    private boolean canProcessPending() {
+        return !pending.isEmpty() && !paused && (pendingResponse == null || pending.peek() instanceof HttpContent);
+    }
+
+    private synchronized void processPending() {
+        // The responses written by the batch are flushed once at the end
+        startRead();
+        try {
+            int requests = 0;
+            while (canProcessPending()) {
+                Object msg = pending.peek();
+                if (msg instanceof HttpRequest && requests++ == pipeliningBatchSize) {
+                    break;
+                }
+                pending.poll();
+                processMessage(msg);
+            }
+        } finally {
+            sentCheck = false;
+            endReadAndFlush();
+        }
+        if (channelPaused && pending.isEmpty() && !paused) {
+            //Resume the actual channel
+            super.doResume();
+            channelPaused = false;
+        }
+        checkNextTick();
+    }
+
     private long getBytes(Object obj) {
         if (obj == null) return 0;
 
@@ -200,6 +200,21 @@ public class ServerWebSocketImpl extends WebSocketImplBase implements ServerWebS
         }
     }
 
+    @Override
+    public ServerWebSocket cork() {
+        synchronized (conn) {
+            checkClosed();
+            conn.doCork();
+            return this;
+        }
+    }
+
+    @Override
+    public ServerWebSocket uncork() {
+        conn.doUncork();
+        return this;
+    }
+
     @Override
     public boolean writeQueueFull() {
         synchronized (conn) {
@@ -0,0 +1,480 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.http.impl;
+
+import io.advantageous.conekt.MultiMap;
+import io.advantageous.conekt.http.HttpHeaders;
+import io.advantageous.conekt.http.HttpMethod;
+import io.advantageous.conekt.http.HttpServerRequest;
+import io.advantageous.conekt.http.StaticFileHandler;
+import io.advantageous.conekt.http.StaticFileOptions;
+import io.advantageous.conekt.impl.ConektInternal;
+import io.advantageous.conekt.impl.ContextImpl;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link StaticFileHandler} implementation.
+ * <p>
+ * The cache maps a path to a {@link FileEntry} holding the open file channel. It is shared by the event loops and
+ * guarded by its own lock, held only for the map operations. An entry is reference counted: the cache holds one
+ * reference and every response sending the file holds another one, the channel is closed when the entry has been
+ * evicted and the last response has been sent.
+ */
+public class StaticFileHandlerImpl implements StaticFileHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticFileHandlerImpl.class);
+
+    private static final CharSequence RANGE = HttpHeaders.createOptimized("Range");
+    private static final CharSequence IF_RANGE = HttpHeaders.createOptimized("If-Range");
+    private static final CharSequence VARY = HttpHeaders.createOptimized("Vary");
+    private static final CharSequence BYTES = HttpHeaders.createOptimized("bytes");
+    private static final CharSequence GZIP = HttpHeaders.createOptimized("gzip");
+    private static final CharSequence GET_HEAD = HttpHeaders.createOptimized("GET, HEAD");
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final ConektInternal vertx;
+    private final StaticFileOptions options;
+    private final CharSequence cacheControl;
+    private final Map<String, FileEntry> cache;
+
+    public StaticFileHandlerImpl(ConektInternal vertx, StaticFileOptions options) {
+        this.vertx = vertx;
+        this.options = new StaticFileOptions(options);
+        this.cacheControl = HttpHeaders.createOptimized("public, max-age=" + options.getMaxAgeSeconds());
+        int maxCacheSize = options.getMaxCacheSize();
+        this.cache = new LinkedHashMap<String, FileEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FileEntry> eldest) {
+                if (size() > maxCacheSize) {
+                    eldest.getValue().release();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        HttpServerResponseImpl response = (HttpServerResponseImpl) request.response();
+        HttpMethod method = request.method();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            response.putHeader(HttpHeaders.ALLOW, GET_HEAD).setStatusCode(405).end();
+            return;
+        }
+        String path = normalize(request.path());
+        if (path == null) {
+            response.setStatusCode(404).end();
+            return;
+        }
+        if (path.isEmpty() || path.endsWith("/")) {
+            if (options.getIndexPage() == null) {
+                response.setStatusCode(404).end();
+                return;
+            }
+            path += options.getIndexPage();
+        }
+        FileEntry entry;
+        synchronized (cache) {
+            entry = cache.get(path);
+        }
+        if (entry != null && entry.isFresh(System.currentTimeMillis(), options.getCacheEntryTimeout()) && entry.acquire()) {
+            send(request, response, entry);
+            return;
+        }
+        String filePath = path;
+        FileEntry previous = entry;
+        ContextImpl context = vertx.getOrCreateContext();
+        context.executeBlocking(() -> load(filePath, previous), ar -> {
+            if (ar.succeeded()) {
+                FileEntry loaded = ar.result();
+                if (loaded != previous) {
+                    cache(filePath, loaded);
+                }
+                send(request, response, loaded);
+            } else {
+                log.error("Failed to open file " + filePath, ar.cause());
+                response.setStatusCode(500).end();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        List<FileEntry> entries;
+        synchronized (cache) {
+            entries = new ArrayList<>(cache.values());
+            cache.clear();
+        }
+        for (FileEntry entry : entries) {
+            entry.release();
+        }
+    }
+
+    private void cache(String path, FileEntry entry) {
+        FileEntry replaced;
+        synchronized (cache) {
+            replaced = cache.put(path, entry);
+        }
+        if (replaced != null && replaced != entry) {
+            replaced.release();
+        }
+    }
+
+    /**
+     * Runs on the blocking pool.
+     *
+     * @return the entry of the file with a reference acquired for the response
+     */
+    private FileEntry load(String path, FileEntry previous) {
+        File file = vertx.resolveFile(options.getWebRoot() + '/' + path);
+        BasicFileAttributes attrs = attributes(file);
+        File gzFile = options.isSendPrecompressed() ? new File(file.getPath() + ".gz") : null;
+        BasicFileAttributes gzAttrs = gzFile != null && attrs != null ? attributes(gzFile) : null;
+        long now = System.currentTimeMillis();
+        if (previous != null && previous.isSame(attrs) && (previous.gzip == null ? gzAttrs == null :
+                previous.gzip.isSame(gzAttrs)) && previous.acquire()) {
+            // Unchanged, keep serving the open files
+            previous.loadedAt = now;
+            return previous;
+        }
+        if (attrs == null) {
+            return notFound(now);
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            return notFound(now);
+        }
+        FileEntry gzip = null;
+        if (gzAttrs != null) {
+            try {
+                gzip = new FileEntry(FileChannel.open(gzFile.toPath(), StandardOpenOption.READ), gzAttrs, now, null);
+            } catch (IOException ignore) {
+                // Serve the identity variant
+            }
+        }
+        FileEntry entry = new FileEntry(channel, attrs, now, gzip);
+        entry.contentType = contentType(path);
+        entry.acquire();
+        return entry;
+    }
+
+    private static FileEntry notFound(long now) {
+        FileEntry entry = new FileEntry(null, null, now, null);
+        entry.acquire();
+        return entry;
+    }
+
+    private static BasicFileAttributes attributes(File file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return attrs.isRegularFile() ? attrs : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String contentType(String path) {
+        int li = path.lastIndexOf('.');
+        if (li != -1 && li != path.length() - 1) {
+            return MimeMapping.getMimeTypeForExtension(path.substring(li + 1));
+        }
+        return null;
+    }
+
+    private void send(HttpServerRequest request, HttpServerResponseImpl response, FileEntry entry) {
+        if (entry.channel == null) {
+            entry.release();
+            response.setStatusCode(404).end();
+            return;
+        }
+        MultiMap headers = request.headers();
+        String range = headers.get(RANGE);
+        // A range always applies to the identity representation
+        boolean gzip = range == null && entry.gzip != null && acceptsGzip(headers.get(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? entry.gzipEtag : entry.etag;
+        response.putHeader(HttpHeaders.ETAG, etag);
+        response.putHeader(HttpHeaders.LAST_MODIFIED, entry.lastModifiedHeader);
+        response.putHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (options.isSendPrecompressed()) {
+            // The representation depends on the Accept-Encoding header, even before a .gz sibling appears
+            response.putHeader(VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (notModified(headers, etag, entry.lastModified)) {
+            entry.release();
+            response.setStatusCode(304).end();
+            return;
+        }
+        if (entry.contentType != null) {
+            response.putHeader(HttpHeaders.CONTENT_TYPE, entry.contentType);
+        }
+        response.putHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        if (range != null) {
+            String ifRange = headers.get(IF_RANGE);
+            if (ifRange != null && !ifRange.equals(entry.etag) && !ifRange.equals(entry.lastModifiedHeader)) {
+                // The client copy is outdated, send the whole file
+                range = null;
+            }
+        }
+        FileEntry body = entry;
+        long offset = 0;
+        long length = entry.length;
+        if (range != null) {
+            long[] bounds = parseRange(range, entry.length);
+            if (bounds == UNSATISFIABLE) {
+                entry.release();
+                response.putHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + entry.length);
+                response.setStatusCode(416).end();
+                return;
+            }
+            if (bounds != null) {
+                offset = bounds[0];
+                length = bounds[1] - bounds[0] + 1;
+                response.putHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + '-' + bounds[1] + '/' + entry.length);
+                response.setStatusCode(206);
+            }
+        } else if (gzip) {
+            body = entry.gzip;
+            length = body.length;
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        if (request.method() == HttpMethod.HEAD) {
+            entry.release();
+            response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+            response.end();
+            return;
+        }
+        response.sendFile(body.channel, offset, length, ar -> entry.release());
+    }
+
+    private static boolean notModified(MultiMap headers, String etag, long lastModified) {
+        String ifNoneMatch = headers.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = headers.get(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) {
+            long since = HttpDateCache.parse(ifModifiedSince);
+            return since >= 0 && lastModified <= since;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int semi = coding.indexOf(';');
+            String name = (semi == -1 ? coding : coding.substring(0, semi)).trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return semi == -1 || !coding.substring(semi + 1).replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the first and last byte of a single byte range, {@link #UNSATISFIABLE} when the range cannot be served,
+     * or null when the header is not a single byte range and must be ignored
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            long first;
+            long last;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                first = Math.max(0, size - suffix);
+                last = size - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = dash == spec.length() - 1 ? size - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), size - 1);
+                if (first >= size || last < first) {
+                    return UNSATISFIABLE;
+                }
+            }
+            return new long[]{first, last};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decode the request path and resolve its {@code .} and {@code ..} segments, without touching the disk.
+     *
+     * @return the path relative to the web root, ending with a {@code /} for a directory, or null when it escapes the
+     * web root
+     */
+    static String normalize(String path) {
+        String decoded;
+        try {
+            decoded = QueryStringDecoder.decodeComponent(path.replace("+", "%2B"));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (decoded.indexOf('\0') != -1 || decoded.indexOf('\\') != -1) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : decoded.split("/")) {
+            if (segment.equals("..")) {
+                if (segments.isEmpty()) {
+                    return null;
+                }
+                segments.remove(segments.size() - 1);
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Iterator<String> it = segments.iterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append('/');
+            }
+        }
+        if (!segments.isEmpty() && (decoded.endsWith("/") || decoded.endsWith("/.") || decoded.endsWith("/.."))) {
+            sb.append('/');
+        }
+        return sb.toString();
+    }
+
+    static final class FileEntry {
+
+        // null when the file does not exist
+        final FileChannel channel;
+        final long length;
+        final long lastModified;
+        final String etag;
+        // The ETag of the precompressed representation, which must differ from the identity one
+        final String gzipEtag;
+        final String lastModifiedHeader;
+        final FileEntry gzip;
+        final AtomicInteger refs = new AtomicInteger(1);
+        String contentType;
+        volatile long loadedAt;
+
+        FileEntry(FileChannel channel, BasicFileAttributes attrs, long loadedAt, FileEntry gzip) {
+            this.channel = channel;
+            this.gzip = gzip;
+            this.loadedAt = loadedAt;
+            if (attrs != null) {
+                length = attrs.size();
+                // HTTP dates have a second precision
+                lastModified = attrs.lastModifiedTime().toMillis() / 1000 * 1000;
+                String tag = Long.toHexString(length) + '-' + Long.toHexString(lastModified);
+                etag = '"' + tag + '"';
+                gzipEtag = '"' + tag + "-gz\"";
+                lastModifiedHeader = HttpDateCache.format(lastModified);
+            } else {
+                length = 0;
+                lastModified = 0;
+                etag = null;
+                gzipEtag = null;
+                lastModifiedHeader = null;
+            }
+        }
+
+        boolean isFresh(long now, long timeout) {
+            return now - loadedAt < timeout;
+        }
+
+        boolean isSame(BasicFileAttributes attrs) {
+            if (channel == null) {
+                return attrs == null;
+            }
+            return attrs != null && attrs.size() == length && attrs.lastModifiedTime().toMillis() / 1000 * 1000 == lastModified;
+        }
+
+        boolean acquire() {
+            while (true) {
+                int count = refs.get();
+                if (count == 0) {
+                    // Already closed
+                    return false;
+                }
+                if (refs.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                closeQuietly(channel);
+                if (gzip != null) {
+                    gzip.release();
+                }
+            }
+        }
+
+        private static void closeQuietly(FileChannel channel) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
@@ -38,7 +38,7 @@ public class WebSocketFrameFactoryImpl implements WebSocketFrameFactory {
 
     @Override
     public WebSocketFrame binaryFrame(Buffer data, boolean isFinal) {
-        return new WebSocketFrameImpl(FrameType.BINARY, data.getByteBuf(), isFinal);
+        return WebSocketFrameImpl.outbound(FrameType.BINARY, data, isFinal);
     }
 
     @Override
@@ -48,7 +48,7 @@ public class WebSocketFrameFactoryImpl implements WebSocketFrameFactory {
 
     @Override
     public WebSocketFrame continuationFrame(Buffer data, boolean isFinal) {
-        return new WebSocketFrameImpl(FrameType.CONTINUATION, data.getByteBuf(), isFinal);
+        return WebSocketFrameImpl.outbound(FrameType.CONTINUATION, data, isFinal);
     }
 
 }
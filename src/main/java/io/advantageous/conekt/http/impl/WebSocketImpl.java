@@ -149,6 +149,21 @@ public class WebSocketImpl extends WebSocketImplBase implements WebSocket {
         }
     }
 
+    @Override
+    public WebSocket cork() {
+        synchronized (conn) {
+            checkClosed();
+            conn.doCork();
+            return this;
+        }
+    }
+
+    @Override
+    public WebSocket uncork() {
+        conn.doUncork();
+        return this;
+    }
+
     @Override
     public WebSocket write(Buffer data) {
         writeFrame(WebSocketFrame.binaryFrame(data, true));
@@ -26,7 +26,6 @@
 package io.advantageous.conekt.http.impl;
 
 import io.advantageous.conekt.http.WebSocketFrame;
-import io.netty.buffer.ByteBuf;
 import io.advantageous.conekt.Handler;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.Message;
@@ -142,8 +141,7 @@ public abstract class WebSocketImplBase implements WebSocketBase {
     }
 
     protected void writeBinaryFrameInternal(Buffer data) {
-        ByteBuf buf = data.getByteBuf();
-        WebSocketFrame frame = new WebSocketFrameImpl(FrameType.BINARY, buf);
+        WebSocketFrame frame = WebSocketFrameImpl.outbound(FrameType.BINARY, data, true);
         writeFrame(frame);
     }
 
@@ -100,9 +100,21 @@ public class WebSocketFrameImpl implements WebSocketFrameInternal, ReferenceCoun
      *                                  in UTF-8
      */
     public WebSocketFrameImpl(FrameType type, ByteBuf binaryData, boolean isFinalFrame) {
+        this(type, isFinalFrame, Unpooled.unreleasableBuffer(binaryData));
+    }
+
+    private WebSocketFrameImpl(FrameType type, boolean isFinalFrame, ByteBuf binaryData) {
         this.type = type;
         this.isFinalFrame = isFinalFrame;
-        this.binaryData = Unpooled.unreleasableBuffer(binaryData);
+        this.binaryData = binaryData;
+    }
+
+    /**
+     * Creates a new frame to be written, owning the data returned by {@link Buffer#getByteBufForWrite()}: the data is
+     * released once the frame has been written.
+     */
+    public static WebSocketFrameImpl outbound(FrameType type, Buffer data, boolean isFinalFrame) {
+        return new WebSocketFrameImpl(type, isFinalFrame, data.getByteBufForWrite());
     }
 
     public boolean isText() {
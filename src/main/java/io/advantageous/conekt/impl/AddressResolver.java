@@ -0,0 +1,194 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.impl;
+
+import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.ConektException;
+import io.advantageous.conekt.Future;
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.dns.AddressResolverOptions;
+import io.advantageous.conekt.dns.DnsClientOptions;
+import io.advantageous.conekt.dns.impl.DnsClientImpl;
+import io.advantageous.conekt.dns.impl.ResolvedAddresses;
+import io.advantageous.conekt.dns.impl.netty.DnsEntry;
+import io.netty.util.NetUtil;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves host names without blocking the event loop, the {@link io.advantageous.conekt.net.NetClient} and the
+ * {@link io.advantageous.conekt.http.HttpClient} resolve the host they connect to with it so that
+ * {@link io.netty.bootstrap.Bootstrap#connect} is only ever given resolved addresses.
+ * <p>
+ * Resolutions are kept in a bounded LRU cache, guarded by its own lock.
+ * <p>
+ * This class is thread-safe.
+ */
+public class AddressResolver {
+
+    private final ConektInternal vertx;
+    private final AddressResolverOptions options;
+    private final DnsClientImpl dnsClient;
+    private final Map<String, CachedResolution> cache;
+
+    public AddressResolver(ConektInternal vertx, AddressResolverOptions options) {
+        this.vertx = vertx;
+        this.options = options != null ? new AddressResolverOptions(options) : new AddressResolverOptions();
+        int maxSize = this.options.getCacheMaxSize();
+        this.cache = new LinkedHashMap<String, CachedResolution>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResolution> eldest) {
+                return size() > maxSize;
+            }
+        };
+        List<String> servers = this.options.getServers();
+        if (servers != null && !servers.isEmpty()) {
+            // A single client fails over across the servers
+            dnsClient = new DnsClientImpl(vertx, new DnsClientOptions().setServers(new ArrayList<>(servers)));
+        } else {
+            dnsClient = null;
+        }
+    }
+
+    /**
+     * Resolve {@code hostname} to an {@link InetAddress}, IP address literals are returned without any lookup.
+     *
+     * @param hostname      the host name to resolve
+     * @param resultHandler the handler notified with the address, it may be called synchronously when the address
+     *                      is a literal or is cached
+     */
+    public void resolveHostname(String hostname, Handler<AsyncResult<InetAddress>> resultHandler) {
+        byte[] literal = NetUtil.createByteArrayFromIpAddressString(hostname);
+        if (literal != null) {
+            try {
+                resultHandler.handle(Future.succeededFuture(InetAddress.getByAddress(hostname, literal)));
+            } catch (UnknownHostException e) {
+                resultHandler.handle(Future.failedFuture(e));
+            }
+            return;
+        }
+        CachedResolution cached;
+        synchronized (cache) {
+            cached = cache.get(hostname);
+            if (cached != null && cached.expiresAt <= System.nanoTime()) {
+                cache.remove(hostname);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            resultHandler.handle(cached.result);
+            return;
+        }
+        Handler<AsyncResult<InetAddress>> caching = ar -> {
+            if (ar.succeeded()) {
+                cache(hostname, ar, ttl(options.getJdkCacheTimeToLive()));
+            } else {
+                cache(hostname, ar, options.getCacheNegativeTimeToLive());
+            }
+            resultHandler.handle(ar);
+        };
+        if (dnsClient == null) {
+            resolveWithJdk(hostname, caching);
+        } else {
+            resolveWithDns(hostname, DnsEntry.TYPE_A, resultHandler, caching);
+        }
+    }
+
+    private void resolveWithDns(String hostname, int type, Handler<AsyncResult<InetAddress>> resultHandler,
+                                Handler<AsyncResult<InetAddress>> fallback) {
+        dnsClient.resolveAddresses(hostname, type, ar -> {
+            if (ar.succeeded() && !ar.result().addresses().isEmpty()) {
+                ResolvedAddresses resolved = ar.result();
+                AsyncResult<InetAddress> result = Future.succeededFuture(resolved.addresses().get(0));
+                cache(hostname, result, ttl(resolved.timeToLive()));
+                resultHandler.handle(result);
+            } else if (ar.succeeded() && type == DnsEntry.TYPE_A) {
+                // No IPv4 address, the host may only be reachable over IPv6
+                resolveWithDns(hostname, DnsEntry.TYPE_AAAA, resultHandler, fallback);
+            } else {
+                // Names only known to the hosts file (e.g localhost) are not known by the servers
+                resolveWithJdk(hostname, fallback);
+            }
+        });
+    }
+
+    private void resolveWithJdk(String hostname, Handler<AsyncResult<InetAddress>> resultHandler) {
+        vertx.<InetAddress>executeBlockingInternal(() -> {
+            try {
+                return InetAddress.getByName(hostname);
+            } catch (UnknownHostException e) {
+                throw new ConektException(e);
+            }
+        }, ar -> {
+            if (ar.failed() && ar.cause() instanceof ConektException && ar.cause().getCause() instanceof UnknownHostException) {
+                resultHandler.handle(Future.failedFuture(ar.cause().getCause()));
+            } else {
+                resultHandler.handle(ar);
+            }
+        });
+    }
+
+    private long ttl(long ttlSeconds) {
+        return Math.max(options.getCacheMinTimeToLive(), Math.min(options.getCacheMaxTimeToLive(), ttlSeconds));
+    }
+
+    private void cache(String hostname, AsyncResult<InetAddress> result, long ttlSeconds) {
+        if (ttlSeconds > 0 && options.getCacheMaxSize() > 0) {
+            long now = System.nanoTime();
+            long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+            // Guard against overflow for very long (e.g Integer.MAX_VALUE) TTLs
+            long expiresAt = now + ttlNanos > now ? now + ttlNanos : Long.MAX_VALUE;
+            synchronized (cache) {
+                cache.put(hostname, new CachedResolution(result, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached resolutions
+     */
+    public int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static class CachedResolution {
+        final AsyncResult<InetAddress> result;
+        final long expiresAt;
+
+        CachedResolution(AsyncResult<InetAddress> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -29,9 +29,11 @@ import io.advantageous.conekt.*;
 import io.advantageous.conekt.datagram.DatagramSocket;
 import io.advantageous.conekt.datagram.DatagramSocketOptions;
 import io.advantageous.conekt.datagram.impl.DatagramSocketImpl;
+import io.advantageous.conekt.dns.impl.DnsCache;
 import io.advantageous.conekt.dns.impl.DnsClientImpl;
 import io.advantageous.conekt.eventbus.EventBus;
 import io.advantageous.conekt.eventbus.impl.EventBusImpl;
+import io.advantageous.conekt.file.impl.FileContentCache;
 import io.advantageous.conekt.file.impl.WindowsFileSystem;
 import io.advantageous.conekt.http.HttpClient;
 import io.advantageous.conekt.http.HttpClientOptions;
@@ -39,18 +41,22 @@ import io.advantageous.conekt.http.HttpServer;
 import io.advantageous.conekt.http.impl.HttpServerImpl;
 import io.advantageous.conekt.metrics.impl.DummyConektMetrics;
 import io.advantageous.conekt.net.NetServerOptions;
+import io.advantageous.conekt.net.impl.ConektByteBufAllocator;
 import io.advantageous.conekt.net.impl.NetClientImpl;
 import io.advantageous.conekt.net.impl.NetServerImpl;
 import io.advantageous.conekt.net.impl.ServerID;
+import io.advantageous.conekt.net.impl.transport.Transport;
 import io.advantageous.conekt.spi.IoActorFactory;
 import io.advantageous.conekt.spi.MetricsFactory;
 import io.advantageous.conekt.spi.metrics.Metrics;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.ResourceLeakDetector;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.advantageous.conekt.dns.DnsClient;
+import io.advantageous.conekt.dns.DnsClientOptions;
 import io.advantageous.conekt.file.FileSystem;
 import io.advantageous.conekt.file.impl.FileSystemImpl;
 import io.advantageous.conekt.http.HttpServerOptions;
@@ -64,10 +70,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.net.InetAddress;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -81,16 +87,19 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     private static final int NETTY_IO_RATIO = Integer.getInteger(NETTY_IO_RATIO_PROPERTY_NAME, 50);
 
     static {
-        // Netty resource leak detection has a performance overhead and we do not need it in Vert.x
-        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.DISABLED);
+        // Netty resource leak detection has a performance overhead and we do not need it in Vert.x, unless it is asked
+        // for to track the pooled buffers handed to user code in zero copy mode
+        if (System.getProperty("io.netty.leakDetectionLevel") == null) {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.DISABLED);
+        }
         // Use the JDK deflater/inflater by default
         System.setProperty("io.netty.noJdkZlibDecoder", "false");
     }
 
     private final FileSystem fileSystem = getFileSystem();
     private final ConektMetrics metrics;
-    private final ConcurrentMap<Long, InternalTimerHandler> timeouts = new ConcurrentHashMap<>();
-    private final AtomicLong timeoutCounter = new AtomicLong(0);
+    private final ConcurrentMap<Integer, ContextTimers> timerContexts = new ConcurrentHashMap<>();
+    private final AtomicInteger timerContextCounter = new AtomicInteger();
     private final DeploymentManager deploymentManager;
     private final FileResolver fileResolver;
     private final Map<ServerID, HttpServerImpl> sharedHttpServers = new HashMap<>();
@@ -100,9 +109,15 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     private final OrderedExecutorFactory workerOrderedFact;
     private final OrderedExecutorFactory internalOrderedFact;
     private final ThreadFactory eventLoopThreadFactory;
-    private final NioEventLoopGroup eventLoopGroup;
-    private final NioEventLoopGroup acceptorEventLoopGroup;
+    private final Transport transport;
+    private final EventLoopGroup eventLoopGroup;
+    private final EventLoopGroup acceptorEventLoopGroup;
+    private final Map<EventLoop, TimerWheel> timerWheels;
     private final BlockedThreadChecker checker;
+    private final DnsCache dnsCache;
+    private final AddressResolver addressResolver;
+    private final ConektByteBufAllocator byteBufAllocator;
+    private final FileContentCache fileContentCache;
     private EventBus eventBus;
     private boolean closed;
 
@@ -122,25 +137,60 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
         checker = new BlockedThreadChecker(options.getBlockedThreadCheckInterval(), options.getMaxEventLoopExecuteTime(),
                 options.getMaxWorkerExecuteTime(), options.getWarningExceptionTime());
         eventLoopThreadFactory = new ConektThreadFactory("vert.x-eventloop-thread-", checker, false);
-        eventLoopGroup = new NioEventLoopGroup(options.getEventLoopPoolSize(), eventLoopThreadFactory);
-        eventLoopGroup.setIoRatio(NETTY_IO_RATIO);
+        transport = selectTransport(options);
+        eventLoopGroup = transport.eventLoopGroup(options.getEventLoopPoolSize(), eventLoopThreadFactory, NETTY_IO_RATIO);
+        timerWheels = createTimerWheels(options);
         ThreadFactory acceptorEventLoopThreadFactory = new ConektThreadFactory("vert.x-acceptor-thread-", checker, false);
         // The acceptor event loop thread needs to be from a different pool otherwise can get lags in accepted connections
         // under a lot of load
-        acceptorEventLoopGroup = new NioEventLoopGroup(1, acceptorEventLoopThreadFactory);
-        acceptorEventLoopGroup.setIoRatio(100);
+        acceptorEventLoopGroup = transport.eventLoopGroup(1, acceptorEventLoopThreadFactory, 100);
         workerPool = Executors.newFixedThreadPool(options.getWorkerPoolSize(),
                 new ConektThreadFactory("vert.x-worker-thread-", checker, true));
         internalBlockingPool = Executors.newFixedThreadPool(options.getInternalBlockingPoolSize(),
                 new ConektThreadFactory("vert.x-internal-blocking-", checker, true));
-        workerOrderedFact = new OrderedExecutorFactory(workerPool);
-        internalOrderedFact = new OrderedExecutorFactory(internalBlockingPool);
         this.fileResolver = new FileResolver(this);
         this.deploymentManager = new DeploymentManager(this);
         this.metrics = initialiseMetrics(options);
+        // Without metrics the ordered executors do not maintain their queue depth
+        workerOrderedFact = new OrderedExecutorFactory(workerPool, options.getOrderedTaskBatchSize(),
+                metrics.isEnabled() ? metrics.createOrderedExecutorMetrics("worker") : null);
+        internalOrderedFact = new OrderedExecutorFactory(internalBlockingPool, options.getOrderedTaskBatchSize(),
+                metrics.isEnabled() ? metrics.createOrderedExecutorMetrics("internal-blocking") : null);
+        this.dnsCache = options.getDnsCacheMaxSize() > 0 ?
+                new DnsCache(options.getDnsCacheMaxSize(), metrics.createDnsCacheMetrics(options.getDnsCacheMaxSize())) : null;
+        this.addressResolver = new AddressResolver(this, options.getAddressResolverOptions());
+        this.byteBufAllocator = new ConektByteBufAllocator(options.getBufferPooling(), options.getBufferPoolArenas(),
+                options.getBufferPoolChunkSize());
+        metrics.bufferPoolCreated(byteBufAllocator);
+        this.fileContentCache = options.getFileCacheMaxSize() > 0 ?
+                new FileContentCache(options.getFileCacheMaxSize(), options.getFileCacheMaxFileSize()) : null;
         createAndStartEventBus(options, resultHandler);
     }
 
+    private Map<EventLoop, TimerWheel> createTimerWheels(ConektOptions options) {
+        if (options.getTimerWheelTickDuration() == 0) {
+            return null;
+        }
+        Map<EventLoop, TimerWheel> wheels = new IdentityHashMap<>();
+        for (EventExecutor executor : eventLoopGroup) {
+            EventLoop eventLoop = (EventLoop) executor;
+            wheels.put(eventLoop, new TimerWheel(eventLoop, options.getTimerWheelTickDuration(), options.getTimerWheelSize()));
+        }
+        return wheels;
+    }
+
+    private static Transport selectTransport(ConektOptions options) {
+        if (options.getPreferNativeTransport()) {
+            Transport nativeTransport = Transport.nativeTransport();
+            if (nativeTransport != null && nativeTransport.isAvailable()) {
+                return nativeTransport;
+            }
+            log.warn("Native transport not available, using the JDK transport", nativeTransport != null ?
+                    nativeTransport.unavailabilityCause() : null);
+        }
+        return Transport.JDK;
+    }
+
     public static Context context() {
         Thread current = Thread.currentThread();
         if (current instanceof ConektThread) {
@@ -150,7 +200,7 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     }
 
     private void createAndStartEventBus(ConektOptions options, Handler<AsyncResult<Conekt>> resultHandler) {
-        eventBus = new EventBusImpl(this);
+        eventBus = new EventBusImpl(this, options.getEventBusDeliveryBatchSize());
 
         eventBus.start(ar2 -> {
             if (ar2.succeeded()) {
@@ -300,10 +350,10 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     }
 
     public boolean cancelTimer(long id) {
-        InternalTimerHandler handler = timeouts.remove(id);
-        if (handler != null) {
-            handler.context.removeCloseHook(handler);
-            return handler.cancel();
+        ContextTimers timers = timerContexts.get(ContextTimers.index(id));
+        ContextTimers.Timer timer = timers != null ? timers.remove(id) : null;
+        if (timer != null) {
+            return timer.cancel();
         } else {
             return false;
         }
@@ -319,6 +369,11 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
         return new DnsClientImpl(this, port, host);
     }
 
+    @Override
+    public DnsClient createDnsClient(DnsClientOptions options) {
+        return new DnsClientImpl(this, options);
+    }
+
     private ConektMetrics initialiseMetrics(ConektOptions options) {
         if (options.getMetricsOptions() != null && options.getMetricsOptions().isEnabled()) {
             ServiceLoader<MetricsFactory> factories = ServiceLoader.load(MetricsFactory.class);
@@ -339,10 +394,11 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
         if (delay < 1) {
             throw new IllegalArgumentException("Cannot schedule a timer with delay < 1 ms");
         }
-        long timerId = timeoutCounter.getAndIncrement();
-        InternalTimerHandler task = new InternalTimerHandler(timerId, handler, periodic, delay, context);
-        timeouts.put(timerId, task);
-        context.addCloseHook(task);
+        ContextTimers timers = context.timers(ctx -> new ContextTimers(ctx, timerContextCounter.getAndIncrement(), timerContexts));
+        long timerId = timers.nextId();
+        InternalTimerHandler task = new InternalTimerHandler(timerId, handler, periodic, context, timers);
+        timers.add(timerId, task);
+        task.schedule(delay);
         return timerId;
     }
 
@@ -524,11 +580,41 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     }
 
 
+    @Override
+    public void resolveAddress(String hostname, Handler<AsyncResult<InetAddress>> resultHandler) {
+        addressResolver.resolveHostname(hostname, resultHandler);
+    }
+
+    @Override
+    public DnsCache dnsCache() {
+        return dnsCache;
+    }
+
+    @Override
+    public ByteBufAllocator byteBufAllocator() {
+        return byteBufAllocator;
+    }
+
+    @Override
+    public FileContentCache fileContentCache() {
+        return fileContentCache;
+    }
+
     @Override
     public EventLoopGroup nettyEventLoopGroup() {
         return eventLoopGroup;
     }
 
+    @Override
+    public boolean isNativeTransportEnabled() {
+        return transport.isNative();
+    }
+
+    @Override
+    public Transport transport() {
+        return transport;
+    }
+
 
     @Override
     public Deployment getDeployment(String deploymentID) {
@@ -565,6 +651,12 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
                             if (!future.isSuccess()) {
                                 log.warn("Failure in shutting down event loop group", future.cause());
                             }
+                            if (dnsCache != null) {
+                                dnsCache.close();
+                            }
+                            if (fileContentCache != null) {
+                                fileContentCache.close();
+                            }
                             if (metrics != null) {
                                 metrics.close();
                             }
@@ -584,21 +676,31 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
     }
 
 
-    private class InternalTimerHandler implements Handler<Void>, Closeable {
+    private class InternalTimerHandler implements Handler<Void>, ContextTimers.Timer {
         final Handler<Long> handler;
         final boolean periodic;
         final long timerID;
         final ContextImpl context;
-        final java.util.concurrent.Future<?> future;
+        final ContextTimers timers;
+        volatile java.util.concurrent.Future<?> future;
+        volatile TimerWheel.Timeout timeout;
 
-        InternalTimerHandler(long timerID, Handler<Long> runnable, boolean periodic, long delay, ContextImpl context) {
+        InternalTimerHandler(long timerID, Handler<Long> runnable, boolean periodic, ContextImpl context,
+                             ContextTimers timers) {
             this.context = context;
             this.timerID = timerID;
             this.handler = runnable;
             this.periodic = periodic;
+            this.timers = timers;
+        }
+
+        void schedule(long delay) {
             EventLoop el = context.nettyEventLoop();
             Runnable toRun = () -> context.runOnContext(this);
-            if (periodic) {
+            TimerWheel wheel = timerWheels != null ? timerWheels.get(el) : null;
+            if (wheel != null) {
+                timeout = wheel.schedule(toRun, delay, periodic ? delay : 0);
+            } else if (periodic) {
                 future = el.scheduleAtFixedRate(toRun, delay, delay, TimeUnit.MILLISECONDS);
             } else {
                 future = el.schedule(toRun, delay, TimeUnit.MILLISECONDS);
@@ -606,9 +708,12 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
             metrics.timerCreated(timerID);
         }
 
-        boolean cancel() {
+        public boolean cancel() {
             metrics.timerEnded(timerID, true);
-            return future.cancel(false);
+            if (timeout != null) {
+                return timeout.cancel();
+            }
+            return future != null && future.cancel(false);
         }
 
         public void handle(Void v) {
@@ -623,19 +728,8 @@ public class ConektImpl implements ConektInternal, MetricsProvider {
         }
 
         private void cleanupNonPeriodic() {
-            ConektImpl.this.timeouts.remove(timerID);
+            timers.remove(timerID);
             metrics.timerEnded(timerID, false);
-            ContextImpl context = getContext();
-            if (context != null) {
-                context.removeCloseHook(this);
-            }
-        }
-
-        // Called via Context close hook when IoActor is undeployed
-        public void close(Handler<AsyncResult<Void>> completionHandler) {
-            ConektImpl.this.timeouts.remove(timerID);
-            cancel();
-            completionHandler.handle(io.advantageous.conekt.Future.succeededFuture());
         }
 
     }
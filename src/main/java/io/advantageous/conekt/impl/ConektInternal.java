@@ -28,14 +28,19 @@ package io.advantageous.conekt.impl;
 
 import io.advantageous.conekt.Conekt;
 import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.dns.impl.DnsCache;
+import io.advantageous.conekt.file.impl.FileContentCache;
 import io.advantageous.conekt.http.impl.HttpServerImpl;
 import io.advantageous.conekt.net.impl.NetServerImpl;
 import io.advantageous.conekt.net.impl.ServerID;
+import io.advantageous.conekt.net.impl.transport.Transport;
 import io.advantageous.conekt.spi.metrics.ConektMetrics;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
 import io.advantageous.conekt.AsyncResult;
 
 import java.io.File;
+import java.net.InetAddress;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
@@ -55,6 +60,11 @@ public interface ConektInternal extends Conekt {
 
     EventLoopGroup getAcceptorEventLoopGroup();
 
+    /**
+     * @return the transport creating the event loops and the channels
+     */
+    Transport transport();
+
     ExecutorService getWorkerPool();
 
     Map<ServerID, HttpServerImpl> sharedHttpServers();
@@ -87,5 +97,28 @@ public interface ConektInternal extends Conekt {
 
     <T> void executeBlockingInternal(Action<T> action, Handler<AsyncResult<T>> resultHandler);
 
+    /**
+     * Resolve a hostname to an address without blocking the calling thread.
+     *
+     * @param hostname      the hostname to resolve
+     * @param resultHandler the handler notified with the resolved address
+     */
+    void resolveAddress(String hostname, Handler<AsyncResult<InetAddress>> resultHandler);
+
+    /**
+     * @return the DNS cache shared by the DNS clients, or {@code null} when disabled
+     */
+    DnsCache dnsCache();
+
+    /**
+     * @return the allocator of the channels, configured by {@link io.advantageous.conekt.ConektOptions#setBufferPooling}
+     */
+    ByteBufAllocator byteBufAllocator();
+
+    /**
+     * @return the cache of the content of the files sent by the connections, or {@code null} when disabled
+     */
+    FileContentCache fileContentCache();
+
 
 }
@@ -39,6 +39,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -66,6 +67,7 @@ public abstract class ContextImpl implements ContextInternal {
     private Set<Closeable> closeHooks;
     private volatile boolean closeHooksRun;
     private Map<String, Object> contextData;
+    private volatile ContextTimers timers;
 
     protected ContextImpl(ConektInternal vertx, Executor orderedInternalPoolExec, Executor workerExec, String deploymentID,
                           ClassLoader tccl) {
@@ -135,6 +137,23 @@ public abstract class ContextImpl implements ContextInternal {
         this.deployment = deployment;
     }
 
+    /**
+     * @param factory creates the timers of this context on the first call
+     * @return the timers of this context
+     */
+    ContextTimers timers(Function<ContextImpl, ContextTimers> factory) {
+        ContextTimers result = timers;
+        if (result == null) {
+            synchronized (this) {
+                result = timers;
+                if (result == null) {
+                    timers = result = factory.apply(this);
+                }
+            }
+        }
+        return result;
+    }
+
     public void addCloseHook(Closeable hook) {
         if (closeHooks == null) {
             // Has to be concurrent as can be removed from non context thread
@@ -0,0 +1,113 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.impl;
+
+import io.advantageous.conekt.AsyncResult;
+import io.advantageous.conekt.Closeable;
+import io.advantageous.conekt.Future;
+import io.advantageous.conekt.Handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The timers of a context, keyed by timer id.
+ * <p>
+ * The high 32 bits of a timer id are the index of the context timers, so a timer is found from its id without a
+ * global map of timers. The context timers are only registered in the {@code registry} of the Vert.x instance while
+ * the context has timers, and all of them are cancelled when the context is closed.
+ */
+final class ContextTimers implements Closeable {
+
+    /**
+     * A timer of the context.
+     */
+    interface Timer {
+
+        /**
+         * @return {@code true} if the timer was cancelled before it expired
+         */
+        boolean cancel();
+    }
+
+    private final ContextImpl context;
+    private final int index;
+    private final ConcurrentMap<Integer, ContextTimers> registry;
+    // @protectedby this
+    private final Map<Long, Timer> timers = new HashMap<>();
+    // @protectedby this
+    private int sequence;
+
+    ContextTimers(ContextImpl context, int index, ConcurrentMap<Integer, ContextTimers> registry) {
+        this.context = context;
+        this.index = index & 0x7FFFFFFF;
+        this.registry = registry;
+    }
+
+    /**
+     * @param id the timer id
+     * @return the index of the context timers owning the timer
+     */
+    static int index(long id) {
+        return (int) (id >>> 32);
+    }
+
+    synchronized long nextId() {
+        return ((long) index << 32) | (sequence++ & 0xFFFFFFFFL);
+    }
+
+    synchronized void add(long id, Timer timer) {
+        if (timers.isEmpty()) {
+            registry.put(index, this);
+            context.addCloseHook(this);
+        }
+        timers.put(id, timer);
+    }
+
+    synchronized Timer remove(long id) {
+        Timer timer = timers.remove(id);
+        if (timer != null && timers.isEmpty()) {
+            registry.remove(index, this);
+            context.removeCloseHook(this);
+        }
+        return timer;
+    }
+
+    // Called via Context close hook when IoActor is undeployed
+    @Override
+    public void close(Handler<AsyncResult<Void>> completionHandler) {
+        List<Timer> copy;
+        synchronized (this) {
+            copy = new ArrayList<>(timers.values());
+            timers.clear();
+            registry.remove(index, this);
+        }
+        copy.forEach(Timer::cancel);
+        completionHandler.handle(Future.succeededFuture());
+    }
+}
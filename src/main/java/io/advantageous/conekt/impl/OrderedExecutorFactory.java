@@ -25,11 +25,13 @@
 
 package io.advantageous.conekt.impl;
 
+import io.advantageous.conekt.spi.metrics.OrderedExecutorMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * A factory for producing executors that run all tasks in order, which delegate to a single common executor instance.
@@ -43,6 +45,8 @@ public class OrderedExecutorFactory {
     private static final Logger log = LoggerFactory.getLogger(OrderedExecutorFactory.class);
 
     private final Executor parent;
+    private final int batchSize;
+    private final OrderedExecutorMetrics metrics;
 
     /**
      * Construct a new instance delegating to the given parent executor.
@@ -50,7 +54,24 @@ public class OrderedExecutorFactory {
      * @param parent the parent executor
      */
     public OrderedExecutorFactory(Executor parent) {
+        this(parent, 0, null);
+    }
+
+    /**
+     * Construct a new instance delegating to the given parent executor.
+     *
+     * @param parent    the parent executor
+     * @param batchSize the maximum number of tasks an executor runs before giving the parent thread back, {@code 0}
+     *                  means that the queue is drained until empty
+     * @param metrics   the metrics, or null
+     */
+    public OrderedExecutorFactory(Executor parent, int batchSize, OrderedExecutorMetrics metrics) {
+        if (batchSize < 0) {
+            throw new IllegalArgumentException("batchSize must be >= 0");
+        }
         this.parent = parent;
+        this.batchSize = batchSize == 0 ? Integer.MAX_VALUE : batchSize;
+        this.metrics = metrics;
     }
 
     /**
@@ -59,7 +80,7 @@ public class OrderedExecutorFactory {
      * @return an ordered executor
      */
     public Executor getExecutor() {
-        return new OrderedExecutor(parent);
+        return new OrderedExecutor(parent, batchSize, metrics);
     }
 
     /**
@@ -67,54 +88,141 @@ public class OrderedExecutorFactory {
      * <p>
      * More specifically, any call B to the {@link #execute(Runnable)} method that happens-after another call A to the
      * same method, will result in B's task running after A's.
+     * <p>
+     * Tasks are queued in a lock-free multi-producer single-consumer linked queue: producers swap the tail and link
+     * the previous node, the runner is the only consumer. At most one runner is submitted to the parent at a time,
+     * which is guarded by a CAS on the {@code running} state.
      */
-    private static final class OrderedExecutor implements Executor {
-        // @protectedby tasks
-        private final LinkedList<Runnable> tasks = new LinkedList<>();
+    static final class OrderedExecutor implements Executor {
+
+        private static final AtomicReferenceFieldUpdater<OrderedExecutor, Node> TAIL_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(OrderedExecutor.class, Node.class, "tail");
+        private static final AtomicIntegerFieldUpdater<OrderedExecutor> RUNNING_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(OrderedExecutor.class, "running");
+        private static final AtomicIntegerFieldUpdater<OrderedExecutor> SIZE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(OrderedExecutor.class, "size");
+
         private final Executor parent;
+        private final int batchSize;
+        private final OrderedExecutorMetrics metrics;
         private final Runnable runner;
-        // @protectedby tasks
-        private boolean running;
+        // Only accessed by the runner
+        private Node head;
+        private volatile Node tail;
+        private volatile int running;
+        private volatile int size;
 
         /**
          * Construct a new instance.
          *
-         * @param parent the parent executor
+         * @param parent    the parent executor
+         * @param batchSize the maximum number of tasks run before giving the parent thread back
+         * @param metrics   the metrics, or null
          */
-        public OrderedExecutor(Executor parent) {
+        OrderedExecutor(Executor parent, int batchSize, OrderedExecutorMetrics metrics) {
             this.parent = parent;
-            runner = () -> {
-                for (; ; ) {
-                    final Runnable task;
-                    synchronized (tasks) {
-                        task = tasks.poll();
-                        if (task == null) {
-                            running = false;
+            this.batchSize = batchSize;
+            this.metrics = metrics;
+            this.head = this.tail = new Node(null);
+            this.runner = this::drain;
+        }
+
+        /**
+         * Run a task.
+         *
+         * @param command the task to run.
+         */
+        public void execute(Runnable command) {
+            Node node = new Node(command);
+            TAIL_UPDATER.getAndSet(this, node).next = node;
+            if (metrics != null) {
+                // The depth is only maintained for the metrics, it costs an atomic update per task
+                metrics.taskQueued(SIZE_UPDATER.incrementAndGet(this));
+            }
+            // Read before the CAS so producers do not contend on the state while the runner is active
+            if (running == 0 && RUNNING_UPDATER.compareAndSet(this, 0, 1)) {
+                submit();
+            }
+        }
+
+        /**
+         * @return the number of tasks queued and not yet started, always {@code 0} without metrics
+         */
+        int size() {
+            return size;
+        }
+
+        private void submit() {
+            try {
+                parent.execute(runner);
+            } catch (RuntimeException e) {
+                running = 0;
+                throw e;
+            }
+        }
+
+        private void drain() {
+            int count = 0;
+            try {
+                while (true) {
+                    Runnable task = poll();
+                    if (task == null) {
+                        running = 0;
+                        // A producer may have queued a task after the poll but failed to CAS the running state
+                        if (tail == head || !RUNNING_UPDATER.compareAndSet(this, 0, 1)) {
                             return;
                         }
+                        continue;
                     }
                     try {
                         task.run();
                     } catch (Throwable t) {
                         log.error("Caught unexpected Throwable", t);
                     }
+                    if (++count == batchSize) {
+                        // Give the parent thread back, the other executors sharing the pool get a chance to run
+                        running = 0;
+                        if (tail != head && RUNNING_UPDATER.compareAndSet(this, 0, 1)) {
+                            submit();
+                        }
+                        return;
+                    }
+                }
+            } finally {
+                if (metrics != null && count > 0) {
+                    metrics.tasksExecuted(count);
                 }
-            };
+            }
         }
 
-        /**
-         * Run a task.
-         *
-         * @param command the task to run.
-         */
-        public void execute(Runnable command) {
-            synchronized (tasks) {
-                tasks.add(command);
-                if (!running) {
-                    running = true;
-                    parent.execute(runner);
+        private Runnable poll() {
+            Node next = head.next;
+            if (next == null) {
+                if (tail == head) {
+                    return null;
+                }
+                // A producer swapped the tail but did not link the node yet
+                while ((next = head.next) == null) {
+                    Thread.yield();
                 }
             }
+            Runnable task = next.task;
+            next.task = null;
+            head = next;
+            if (metrics != null) {
+                SIZE_UPDATER.decrementAndGet(this);
+            }
+            return task;
+        }
+    }
+
+    private static final class Node {
+
+        Runnable task;
+        volatile Node next;
+
+        Node(Runnable task) {
+            this.task = task;
         }
     }
 }
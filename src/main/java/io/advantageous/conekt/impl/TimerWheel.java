@@ -0,0 +1,223 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.impl;
+
+import io.netty.channel.EventLoop;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A hashed timing wheel owned by an event loop.
+ * <p>
+ * Timeouts are hashed by their deadline tick into a ring of buckets, a timeout further than one revolution away keeps
+ * the number of remaining rounds. Scheduling and cancelling are O(1) list operations, the wheel only puts a single
+ * task at a time on the scheduled task queue of its event loop, which advances the wheel by one tick while the wheel
+ * is not empty.
+ * <p>
+ * The buckets are only accessed from the event loop, {@link #schedule} and {@link Timeout#cancel} can be called from
+ * any thread and hop to the event loop when needed. A timeout never expires before its deadline, it expires at most
+ * one tick after it.
+ */
+final class TimerWheel {
+
+    private final EventLoop eventLoop;
+    private final long tickNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+    // The next tick to process
+    private long tick;
+    private int size;
+    private ScheduledFuture<?> ticker;
+
+    /**
+     * @param eventLoop the event loop owning the wheel
+     * @param tickDuration the duration of a tick in ms
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     */
+    TimerWheel(EventLoop eventLoop, long tickDuration, int wheelSize) {
+        int length = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.eventLoop = eventLoop;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        this.buckets = new Timeout[wheelSize == 1 ? 1 : length];
+        this.mask = buckets.length - 1;
+    }
+
+    /**
+     * Schedule a task on the wheel.
+     *
+     * @param task   the task, run on the event loop
+     * @param delay  the delay in ms
+     * @param period the period in ms of a periodic task, or {@code 0}
+     * @return the timeout
+     */
+    Timeout schedule(Runnable task, long delay, long period) {
+        Timeout timeout = new Timeout(task, now() + TimeUnit.MILLISECONDS.toNanos(delay),
+                TimeUnit.MILLISECONDS.toNanos(period));
+        if (eventLoop.inEventLoop()) {
+            add(timeout);
+        } else {
+            eventLoop.execute(() -> add(timeout));
+        }
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts on the wheel
+     */
+    int size() {
+        return size;
+    }
+
+    private long now() {
+        return System.nanoTime() - startTime;
+    }
+
+    private void add(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return;
+        }
+        if (ticker == null) {
+            // The wheel was idle, catch up with the current time
+            long now = now();
+            tick = now / tickNanos;
+            ticker = eventLoop.schedule(this::advance, (tick + 1) * tickNanos - now, TimeUnit.NANOSECONDS);
+        }
+        // Round up so a timeout never expires before its deadline
+        long deadlineTick = Math.max((timeout.deadline + tickNanos - 1) / tickNanos, tick);
+        timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+        int index = (int) (deadlineTick & mask);
+        timeout.bucket = index;
+        timeout.next = buckets[index];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[index] = timeout;
+        size++;
+    }
+
+    private void remove(Timeout timeout) {
+        if (timeout.bucket == -1) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    private void advance() {
+        long now = now();
+        long current = now / tickNanos;
+        while (tick <= current && size > 0) {
+            int index = (int) (tick++ & mask);
+            Timeout timeout = buckets[index];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                timeout = next;
+            }
+        }
+        // An empty wheel stops ticking until the next timeout is added
+        if (size > 0) {
+            ticker = eventLoop.schedule(this::advance, tick * tickNanos - now, TimeUnit.NANOSECONDS);
+        } else {
+            ticker = null;
+        }
+    }
+
+    /**
+     * A task scheduled on the wheel.
+     */
+    final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Runnable task;
+        private final long period;
+        private long deadline;
+        volatile int state;
+        // Only accessed from the event loop
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline, long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancel the timeout.
+         *
+         * @return {@code false} if the timeout was already expired or cancelled
+         */
+        boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            if (eventLoop.inEventLoop()) {
+                remove(this);
+            } else {
+                eventLoop.execute(() -> remove(this));
+            }
+            return true;
+        }
+
+        private void expire() {
+            if (period > 0) {
+                if (state != PENDING) {
+                    return;
+                }
+                deadline += period;
+                add(this);
+            } else if (!STATE_UPDATER.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            task.run();
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+}
@@ -85,6 +85,20 @@ public class DummyConektMetrics implements ConektMetrics {
         return new DummyDatagramMetrics();
     }
 
+    @Override
+    public DnsCacheMetrics createDnsCacheMetrics(int maxSize) {
+        return new DummyDnsCacheMetrics();
+    }
+
+    @Override
+    public OrderedExecutorMetrics createOrderedExecutorMetrics(String poolName) {
+        return new DummyOrderedExecutorMetrics();
+    }
+
+    @Override
+    public void bufferPoolCreated(BufferPoolStats stats) {
+    }
+
     @Override
     public void close() {
     }
@@ -315,4 +329,52 @@ public class DummyConektMetrics implements ConektMetrics {
             return false;
         }
     }
+
+    protected class DummyDnsCacheMetrics implements DnsCacheMetrics {
+
+        @Override
+        public void cacheHit(String name) {
+        }
+
+        @Override
+        public void cacheMiss(String name) {
+        }
+
+        @Override
+        public void queryCoalesced(String name) {
+        }
+
+        @Override
+        public void entryEvicted(String name) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    }
+
+    protected class DummyOrderedExecutorMetrics implements OrderedExecutorMetrics {
+
+        @Override
+        public void taskQueued(int queueDepth) {
+        }
+
+        @Override
+        public void tasksExecuted(int count) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    }
 }
@@ -90,6 +90,36 @@ public class NetClientOptions extends ClientOptionsBase {
         return this;
     }
 
+    @Override
+    public NetClientOptions setReusePort(boolean reusePort) {
+        super.setReusePort(reusePort);
+        return this;
+    }
+
+    @Override
+    public NetClientOptions setTcpFastOpen(boolean tcpFastOpen) {
+        super.setTcpFastOpen(tcpFastOpen);
+        return this;
+    }
+
+    @Override
+    public NetClientOptions setTcpQuickAck(boolean tcpQuickAck) {
+        super.setTcpQuickAck(tcpQuickAck);
+        return this;
+    }
+
+    @Override
+    public NetClientOptions setZeroCopyInbound(boolean zeroCopyInbound) {
+        super.setZeroCopyInbound(zeroCopyInbound);
+        return this;
+    }
+
+    @Override
+    public NetClientOptions setMaxWritesPerFlush(int maxWritesPerFlush) {
+        super.setMaxWritesPerFlush(maxWritesPerFlush);
+        return this;
+    }
+
     @Override
     public NetClientOptions setTrafficClass(int trafficClass) {
         super.setTrafficClass(trafficClass);
@@ -102,6 +102,36 @@ public class NetServerOptions extends TCPSSLOptions {
         return this;
     }
 
+    @Override
+    public NetServerOptions setReusePort(boolean reusePort) {
+        super.setReusePort(reusePort);
+        return this;
+    }
+
+    @Override
+    public NetServerOptions setTcpFastOpen(boolean tcpFastOpen) {
+        super.setTcpFastOpen(tcpFastOpen);
+        return this;
+    }
+
+    @Override
+    public NetServerOptions setTcpQuickAck(boolean tcpQuickAck) {
+        super.setTcpQuickAck(tcpQuickAck);
+        return this;
+    }
+
+    @Override
+    public NetServerOptions setZeroCopyInbound(boolean zeroCopyInbound) {
+        super.setZeroCopyInbound(zeroCopyInbound);
+        return this;
+    }
+
+    @Override
+    public NetServerOptions setMaxWritesPerFlush(int maxWritesPerFlush) {
+        super.setMaxWritesPerFlush(maxWritesPerFlush);
+        return this;
+    }
+
     @Override
     public NetServerOptions setTrafficClass(int trafficClass) {
         super.setTrafficClass(trafficClass);
@@ -74,6 +74,22 @@ public interface NetSocket extends ReadStream<Buffer>, WriteStream<Buffer> {
     @Override
     NetSocket drainHandler(Handler<Void> handler);
 
+    /**
+     * Cork the socket: the data written from now on is buffered and only sent when {@link #uncork()} is called, so
+     * many small writes go out together. The buffered data is sent anyway once the write queue is full, so that the
+     * drain handler is called. Closing the socket uncorks it.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    NetSocket cork();
+
+    /**
+     * Uncork the socket, the data written since {@link #cork()} was called is sent.
+     *
+     * @return a reference to this, so the API can be used fluently
+     */
+    NetSocket uncork();
+
     /**
      * When a {@code NetSocket} is created it automatically registers an event handler with the event bus, the ID of that
      * handler is given by {@code writeHandlerID}.
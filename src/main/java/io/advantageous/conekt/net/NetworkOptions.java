@@ -53,10 +53,16 @@ public abstract class NetworkOptions {
      */
     public static final boolean DEFAULT_REUSE_ADDRESS = true;
 
+    /**
+     * The default value of reuse port = false
+     */
+    public static final boolean DEFAULT_REUSE_PORT = false;
+
     private int sendBufferSize;
     private int receiveBufferSize;
     private int trafficClass;
     private boolean reuseAddress;
+    private boolean reusePort;
 
     /**
      * Default constructor
@@ -65,6 +71,7 @@ public abstract class NetworkOptions {
         sendBufferSize = DEFAULT_SEND_BUFFER_SIZE;
         receiveBufferSize = DEFAULT_RECEIVE_BUFFER_SIZE;
         reuseAddress = DEFAULT_REUSE_ADDRESS;
+        reusePort = DEFAULT_REUSE_PORT;
         trafficClass = DEFAULT_TRAFFIC_CLASS;
     }
 
@@ -77,6 +84,7 @@ public abstract class NetworkOptions {
         this.sendBufferSize = other.getSendBufferSize();
         this.receiveBufferSize = other.getReceiveBufferSize();
         this.reuseAddress = other.isReuseAddress();
+        this.reusePort = other.isReusePort();
         this.trafficClass = other.getTrafficClass();
     }
 
@@ -141,6 +149,30 @@ public abstract class NetworkOptions {
         return this;
     }
 
+    /**
+     * @return the value of reuse port
+     */
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    /**
+     * Set the value of reuse port (SO_REUSEPORT), it lets several sockets bind the same address and port.
+     * <p>
+     * A server with this option binds one listening socket per event loop instead of accepting all its connections
+     * on the single acceptor thread, the kernel then spreads the incoming connections across these sockets.
+     * <p>
+     * This option is only supported by the native transport, see
+     * {@link io.advantageous.conekt.ConektOptions#setPreferNativeTransport(boolean)}.
+     *
+     * @param reusePort the value of reuse port
+     * @return a reference to this, so the API can be used fluently
+     */
+    public NetworkOptions setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+
     /**
      * @return the value of traffic class
      */
@@ -169,6 +201,7 @@ public abstract class NetworkOptions {
 
         if (receiveBufferSize != that.receiveBufferSize) return false;
         if (reuseAddress != that.reuseAddress) return false;
+        if (reusePort != that.reusePort) return false;
         if (sendBufferSize != that.sendBufferSize) return false;
         if (trafficClass != that.trafficClass) return false;
 
@@ -181,6 +214,7 @@ public abstract class NetworkOptions {
         result = 31 * result + receiveBufferSize;
         result = 31 * result + trafficClass;
         result = 31 * result + (reuseAddress ? 1 : 0);
+        result = 31 * result + (reusePort ? 1 : 0);
         return result;
     }
 }
@@ -66,6 +66,26 @@ public abstract class TCPSSLOptions extends NetworkOptions {
      */
     public static final int DEFAULT_IDLE_TIMEOUT = 0;
 
+    /**
+     * The default TCP_FASTOPEN value = false
+     */
+    public static final boolean DEFAULT_TCP_FAST_OPEN = false;
+
+    /**
+     * The default TCP_QUICKACK value = false
+     */
+    public static final boolean DEFAULT_TCP_QUICKACK = false;
+
+    /**
+     * The default value of zero copy inbound buffers = false
+     */
+    public static final boolean DEFAULT_ZERO_COPY_INBOUND = false;
+
+    /**
+     * The default maximum number of writes consolidated in a single flush = 1 (every write is flushed)
+     */
+    public static final int DEFAULT_MAX_WRITES_PER_FLUSH = 1;
+
     private boolean tcpNoDelay;
     private boolean tcpKeepAlive;
     private int soLinger;
@@ -77,6 +97,10 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     private Set<String> enabledCipherSuites = new HashSet<>();
     private ArrayList<String> crlPaths;
     private ArrayList<Buffer> crlValues;
+    private boolean tcpFastOpen;
+    private boolean tcpQuickAck;
+    private boolean zeroCopyInbound;
+    private int maxWritesPerFlush;
 
     /**
      * Default constructor
@@ -104,6 +128,10 @@ public abstract class TCPSSLOptions extends NetworkOptions {
         this.enabledCipherSuites = other.getEnabledCipherSuites() == null ? new HashSet<>() : new HashSet<>(other.getEnabledCipherSuites());
         this.crlPaths = new ArrayList<>(other.getCrlPaths());
         this.crlValues = new ArrayList<>(other.getCrlValues());
+        this.tcpFastOpen = other.isTcpFastOpen();
+        this.tcpQuickAck = other.isTcpQuickAck();
+        this.zeroCopyInbound = other.isZeroCopyInbound();
+        this.maxWritesPerFlush = other.getMaxWritesPerFlush();
     }
 
 
@@ -116,6 +144,10 @@ public abstract class TCPSSLOptions extends NetworkOptions {
         ssl = DEFAULT_SSL;
         crlPaths = new ArrayList<>();
         crlValues = new ArrayList<>();
+        tcpFastOpen = DEFAULT_TCP_FAST_OPEN;
+        tcpQuickAck = DEFAULT_TCP_QUICKACK;
+        zeroCopyInbound = DEFAULT_ZERO_COPY_INBOUND;
+        maxWritesPerFlush = DEFAULT_MAX_WRITES_PER_FLUSH;
     }
 
     /**
@@ -154,6 +186,103 @@ public abstract class TCPSSLOptions extends NetworkOptions {
         return this;
     }
 
+    /**
+     * @return whether TCP_FASTOPEN is enabled
+     */
+    public boolean isTcpFastOpen() {
+        return tcpFastOpen;
+    }
+
+    /**
+     * Enable TCP_FASTOPEN, a server then accepts data in the SYN packet of a returning client which saves a round trip.
+     * <p>
+     * This option is only supported by the native transport, see
+     * {@link io.advantageous.conekt.ConektOptions#setPreferNativeTransport(boolean)}.
+     *
+     * @param tcpFastOpen the fast open value
+     * @return a reference to this, so the API can be used fluently
+     */
+    public TCPSSLOptions setTcpFastOpen(boolean tcpFastOpen) {
+        this.tcpFastOpen = tcpFastOpen;
+        return this;
+    }
+
+    /**
+     * @return whether TCP_QUICKACK is enabled
+     */
+    public boolean isTcpQuickAck() {
+        return tcpQuickAck;
+    }
+
+    /**
+     * Enable TCP_QUICKACK, acknowledgments are then sent immediately rather than delayed.
+     * <p>
+     * This option is only supported by the native transport, see
+     * {@link io.advantageous.conekt.ConektOptions#setPreferNativeTransport(boolean)}.
+     *
+     * @param tcpQuickAck the quick ack value
+     * @return a reference to this, so the API can be used fluently
+     */
+    public TCPSSLOptions setTcpQuickAck(boolean tcpQuickAck) {
+        this.tcpQuickAck = tcpQuickAck;
+        return this;
+    }
+
+    /**
+     * @return whether the received data is handed to the handlers without copy
+     */
+    public boolean isZeroCopyInbound() {
+        return zeroCopyInbound;
+    }
+
+    /**
+     * Set whether the received data is handed to the handlers without copy.
+     * <p>
+     * By default the data read by Netty in a pooled direct buffer is copied to a heap buffer before the handlers see
+     * it, so they can keep the buffer. In zero copy mode the {@link Buffer} handed to the data handler of a socket, or
+     * of an HTTP request or response, wraps the pooled buffer read by Netty, and the buffer is released as soon as the
+     * handler returns: a handler keeping the data must {@link Buffer#copy() copy} it, a buffer used after its release
+     * fails with an {@code IllegalReferenceCountException}. Writing the buffer to a socket, an HTTP message, a
+     * WebSocket or a file, e.g. with a {@code Pump}, is safe: the write retains the pooled buffer until it completes.
+     * WebSocket frames are still copied.
+     * <p>
+     * The Netty leak detector, disabled by default, can be enabled with the {@code io.netty.leakDetectionLevel}
+     * system property to track pooled buffers that are never released.
+     *
+     * @param zeroCopyInbound true to hand the received data without copy
+     * @return a reference to this, so the API can be used fluently
+     */
+    public TCPSSLOptions setZeroCopyInbound(boolean zeroCopyInbound) {
+        this.zeroCopyInbound = zeroCopyInbound;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of writes consolidated in a single flush
+     */
+    public int getMaxWritesPerFlush() {
+        return maxWritesPerFlush;
+    }
+
+    /**
+     * Set the maximum number of writes consolidated in a single flush.
+     * <p>
+     * Writes made while the connection handles the data it has read are always flushed once, at the end of the read.
+     * This option applies to the other writes, e.g. the ones made from a timer or an event bus handler: with the
+     * default value each of them is flushed immediately, otherwise they are flushed once this number of writes is
+     * reached or at the end of the current event loop task, whichever comes first.
+     *
+     * @param maxWritesPerFlush the maximum number of writes per flush
+     * @return a reference to this, so the API can be used fluently
+     */
+    public TCPSSLOptions setMaxWritesPerFlush(int maxWritesPerFlush) {
+        if (maxWritesPerFlush < 1) {
+            throw new IllegalArgumentException("maxWritesPerFlush must be >= 1");
+        }
+        this.maxWritesPerFlush = maxWritesPerFlush;
+        return this;
+    }
+
     /**
      * @return is SO_linger enabled
      */
@@ -386,6 +515,10 @@ public abstract class TCPSSLOptions extends NetworkOptions {
         if (ssl != that.ssl) return false;
         if (tcpKeepAlive != that.tcpKeepAlive) return false;
         if (tcpNoDelay != that.tcpNoDelay) return false;
+        if (tcpFastOpen != that.tcpFastOpen) return false;
+        if (tcpQuickAck != that.tcpQuickAck) return false;
+        if (zeroCopyInbound != that.zeroCopyInbound) return false;
+        if (maxWritesPerFlush != that.maxWritesPerFlush) return false;
         if (usePooledBuffers != that.usePooledBuffers) return false;
         if (crlPaths != null ? !crlPaths.equals(that.crlPaths) : that.crlPaths != null) return false;
         if (crlValues != null ? !crlValues.equals(that.crlValues) : that.crlValues != null) return false;
@@ -412,6 +545,10 @@ public abstract class TCPSSLOptions extends NetworkOptions {
         result = 31 * result + (enabledCipherSuites != null ? enabledCipherSuites.hashCode() : 0);
         result = 31 * result + (crlPaths != null ? crlPaths.hashCode() : 0);
         result = 31 * result + (crlValues != null ? crlValues.hashCode() : 0);
+        result = 31 * result + (tcpFastOpen ? 1 : 0);
+        result = 31 * result + (tcpQuickAck ? 1 : 0);
+        result = 31 * result + (zeroCopyInbound ? 1 : 0);
+        result = 31 * result + maxWritesPerFlush;
         return result;
     }
 }
@@ -0,0 +1,289 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.net.impl;
+
+import io.advantageous.conekt.buffer.BufferPooling;
+import io.advantageous.conekt.spi.metrics.BufferPoolStats;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link io.netty.buffer.ByteBufAllocator} of a Vert.x instance, set as the allocator of all its channels.
+ * <p>
+ * Depending on the {@link BufferPooling} heap and/or direct buffers are allocated from the arenas of a
+ * {@link PooledByteBufAllocator} configured with the arena count and chunk size of the options. The allocator
+ * counts the pooled allocations, which together with the arena statistics gives the thread cache hit ratio.
+ * <p>
+ * Netty cannot free the arenas of a {@link PooledByteBufAllocator}, so the pooled allocators are shared by all the
+ * instances with the same configuration instead of being created per instance, like the former static pool. The
+ * arena statistics therefore cover every instance sharing the pool.
+ */
+public final class ConektByteBufAllocator implements ByteBufAllocator, BufferPoolStats {
+
+    private static final int PAGE_SIZE = 8192;
+    private static final ConcurrentMap<String, PooledByteBufAllocator> POOLS = new ConcurrentHashMap<>();
+
+    private final BufferPooling pooling;
+    private final int chunkSize;
+    private final PooledByteBufAllocator pooled;
+    private final ByteBufAllocator heap;
+    private final ByteBufAllocator direct;
+    private final boolean heapPooled;
+    private final boolean directPooled;
+    private final LongAdder allocations = new LongAdder();
+
+    public ConektByteBufAllocator(BufferPooling pooling, int arenas, int chunkSize) {
+        this.pooling = pooling;
+        this.chunkSize = chunkSize;
+        UnpooledByteBufAllocator unpooled = new UnpooledByteBufAllocator(false);
+        switch (pooling) {
+            case POOLED:
+                pooled = pool(arenas, arenas, chunkSize);
+                heap = pooled;
+                direct = pooled;
+                break;
+            case PARTIALLY_POOLED:
+                pooled = pool(0, arenas, chunkSize);
+                heap = unpooled;
+                direct = pooled;
+                break;
+            default:
+                pooled = null;
+                heap = unpooled;
+                direct = unpooled;
+        }
+        heapPooled = heap == pooled;
+        directPooled = direct == pooled;
+    }
+
+    private static PooledByteBufAllocator pool(int heapArenas, int directArenas, int chunkSize) {
+        return POOLS.computeIfAbsent(heapArenas + ":" + directArenas + ":" + chunkSize,
+                key -> new PooledByteBufAllocator(true, heapArenas, directArenas, PAGE_SIZE, maxOrder(chunkSize)));
+    }
+
+    private static int maxOrder(int chunkSize) {
+        return Integer.numberOfTrailingZeros(chunkSize / PAGE_SIZE);
+    }
+
+    private ByteBuf heap(ByteBuf buf) {
+        if (heapPooled) {
+            allocations.increment();
+        }
+        return buf;
+    }
+
+    private ByteBuf direct(ByteBuf buf) {
+        if (directPooled) {
+            allocations.increment();
+        }
+        return buf;
+    }
+
+    @Override
+    public ByteBuf buffer() {
+        return heap(heap.heapBuffer());
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity) {
+        return heap(heap.heapBuffer(initialCapacity));
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity, int maxCapacity) {
+        return heap(heap.heapBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf ioBuffer() {
+        return direct(direct.directBuffer());
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity) {
+        return direct(direct.directBuffer(initialCapacity));
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity, int maxCapacity) {
+        return direct(direct.directBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf heapBuffer() {
+        return heap(heap.heapBuffer());
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity) {
+        return heap(heap.heapBuffer(initialCapacity));
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity, int maxCapacity) {
+        return heap(heap.heapBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf directBuffer() {
+        return direct(direct.directBuffer());
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity) {
+        return direct(direct.directBuffer(initialCapacity));
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+        return direct(direct.directBuffer(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer() {
+        return heap.compositeHeapBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer(int maxNumComponents) {
+        return heap.compositeHeapBuffer(maxNumComponents);
+    }
+
+    @Override
+    public CompositeByteBuf compositeHeapBuffer() {
+        return heap.compositeHeapBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeHeapBuffer(int maxNumComponents) {
+        return heap.compositeHeapBuffer(maxNumComponents);
+    }
+
+    @Override
+    public CompositeByteBuf compositeDirectBuffer() {
+        return direct.compositeDirectBuffer();
+    }
+
+    @Override
+    public CompositeByteBuf compositeDirectBuffer(int maxNumComponents) {
+        return direct.compositeDirectBuffer(maxNumComponents);
+    }
+
+    @Override
+    public boolean isDirectBufferPooled() {
+        return directPooled;
+    }
+
+    @Override
+    public BufferPooling pooling() {
+        return pooling;
+    }
+
+    @Override
+    public int numHeapArenas() {
+        return pooled != null ? pooled.numHeapArenas() : 0;
+    }
+
+    @Override
+    public int numDirectArenas() {
+        return pooled != null ? pooled.numDirectArenas() : 0;
+    }
+
+    @Override
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public int numThreadLocalCaches() {
+        return pooled != null ? pooled.numThreadLocalCaches() : 0;
+    }
+
+    @Override
+    public long numAllocations() {
+        return allocations.sum();
+    }
+
+    @Override
+    public long numArenaAllocations() {
+        if (pooled == null) {
+            return 0;
+        }
+        long count = 0;
+        for (PoolArenaMetric arena : arenas()) {
+            count += arena.numAllocations();
+        }
+        return count;
+    }
+
+    @Override
+    public long numActiveAllocations() {
+        if (pooled == null) {
+            return 0;
+        }
+        long count = 0;
+        for (PoolArenaMetric arena : arenas()) {
+            count += arena.numActiveAllocations();
+        }
+        return count;
+    }
+
+    @Override
+    public long numActiveBytes() {
+        if (pooled == null) {
+            return 0;
+        }
+        long count = 0;
+        for (PoolArenaMetric arena : arenas()) {
+            count += arena.numActiveBytes();
+        }
+        return count;
+    }
+
+    private Iterable<PoolArenaMetric> arenas() {
+        List<PoolArenaMetric> heapArenas = pooled.heapArenas();
+        List<PoolArenaMetric> directArenas = pooled.directArenas();
+        if (heapArenas.isEmpty()) {
+            return directArenas;
+        }
+        if (directArenas.isEmpty()) {
+            return heapArenas;
+        }
+        List<PoolArenaMetric> all = new ArrayList<>(heapArenas);
+        all.addAll(directArenas);
+        return all;
+    }
+}
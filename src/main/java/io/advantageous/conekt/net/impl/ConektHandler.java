@@ -28,6 +28,7 @@ import io.advantageous.conekt.impl.ContextImpl;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -40,14 +41,18 @@ import io.netty.handler.timeout.IdleStateEvent;
  */
 public abstract class ConektHandler<C extends ConnectionBase> extends ChannelDuplexHandler {
 
+    /**
+     * Returns a buffer that is safe to hand to user code, which never releases it. Direct, composite and pooled
+     * buffers are copied to unpooled heap memory and released, whatever the pooling of the channel allocator.
+     */
     protected static ByteBuf safeBuffer(ByteBuf buf, ByteBufAllocator allocator) {
         if (buf == Unpooled.EMPTY_BUFFER) {
             return buf;
         }
-        if (buf.isDirect() || buf instanceof CompositeByteBuf) {
+        if (buf.isDirect() || buf instanceof CompositeByteBuf || buf.alloc() instanceof PooledByteBufAllocator) {
             try {
                 if (buf.isReadable()) {
-                    ByteBuf buffer = allocator.heapBuffer(buf.readableBytes());
+                    ByteBuf buffer = Unpooled.buffer(buf.readableBytes());
                     buffer.writeBytes(buf);
                     return buffer;
                 } else {
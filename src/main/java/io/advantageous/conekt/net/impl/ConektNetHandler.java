@@ -29,6 +29,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.impl.ContextImpl;
 
@@ -40,9 +41,15 @@ import java.util.Map;
 public class ConektNetHandler extends ConektHandler<NetSocketImpl> {
 
     private final Map<Channel, NetSocketImpl> connectionMap;
+    private final boolean zeroCopyInbound;
 
     public ConektNetHandler(Map<Channel, NetSocketImpl> connectionMap) {
+        this(connectionMap, false);
+    }
+
+    public ConektNetHandler(Map<Channel, NetSocketImpl> connectionMap, boolean zeroCopyInbound) {
         this.connectionMap = connectionMap;
+        this.zeroCopyInbound = zeroCopyInbound;
     }
 
     @Override
@@ -60,15 +67,28 @@ public class ConektNetHandler extends ConektHandler<NetSocketImpl> {
     protected void channelRead(NetSocketImpl sock, ContextImpl context, ChannelHandlerContext chctx, Object msg) throws Exception {
         if (sock != null) {
             ByteBuf buf = (ByteBuf) msg;
-            context.executeFromIO(() -> sock.handleDataReceived(Buffer.buffer(buf)));
+            if (zeroCopyInbound) {
+                // The socket copies the data it keeps and the writes retain it, the pooled buffer is released once the
+                // handler returns
+                context.executeFromIO(() -> {
+                    try {
+                        sock.handleDataReceived(Buffer.borrowed(buf));
+                    } finally {
+                        buf.release();
+                    }
+                });
+            } else {
+                context.executeFromIO(() -> sock.handleDataReceived(Buffer.buffer(buf)));
+            }
         } else {
             // just discard
+            ReferenceCountUtil.release(msg);
         }
     }
 
     @Override
     protected Object safeObject(Object msg, ByteBufAllocator allocator) throws Exception {
-        if (msg instanceof ByteBuf) {
+        if (msg instanceof ByteBuf && !zeroCopyInbound) {
             return safeBuffer((ByteBuf) msg, allocator);
         }
         return msg;
@@ -32,11 +32,13 @@ import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.impl.ContextImpl;
 import io.advantageous.conekt.net.NetworkOptions;
 import io.advantageous.conekt.net.SocketAddress;
+import io.advantageous.conekt.net.TCPSSLOptions;
 import io.advantageous.conekt.spi.metrics.NetworkMetrics;
 import io.advantageous.conekt.spi.metrics.TCPMetrics;
 import io.netty.channel.*;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedFile;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,7 @@ import javax.security.cert.X509Certificate;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
 
 /**
  * Abstract base class for TCP connections.
@@ -70,6 +73,10 @@ public abstract class ConnectionBase {
     private boolean needsFlush;
     private Thread ctxThread;
     private boolean needsAsyncFlush;
+    private int maxWritesPerFlush = TCPSSLOptions.DEFAULT_MAX_WRITES_PER_FLUSH;
+    private int unflushedWrites;
+    private boolean flushScheduled;
+    private boolean corked;
 
     protected ConnectionBase(ConektInternal vertx, Channel channel, ContextImpl context, NetworkMetrics metrics) {
         this.vertx = vertx;
@@ -99,8 +106,15 @@ public abstract class ConnectionBase {
 
     protected synchronized final void endReadAndFlush() {
         read = false;
+        if (!corked) {
+            flushQueued();
+        }
+    }
+
+    private void flushQueued() {
         if (needsFlush) {
             needsFlush = false;
+            unflushedWrites = 0;
             if (needsAsyncFlush) {
                 // If the connection has been written to from outside the event loop thread e.g. from a worker thread
                 // Then Netty might end up executing the flush *before* the write as Netty checks for event loop and if not
@@ -117,20 +131,76 @@ public abstract class ConnectionBase {
     public synchronized ChannelFuture queueForWrite(final Object obj) {
         needsFlush = true;
         needsAsyncFlush = Thread.currentThread() != ctxThread;
-        return channel.write(obj);
+        ChannelFuture future = channel.write(obj);
+        if (corked && !channel.isWritable()) {
+            // The write queue is full and the drain handler only fires once the queued data is flushed, so a
+            // backpressure aware writer would wait forever for the uncork
+            flushQueued();
+        }
+        return future;
     }
 
     public synchronized ChannelFuture writeToChannel(Object obj) {
-        if (read) {
+        if (read || corked) {
             return queueForWrite(obj);
         }
         if (channel.isOpen()) {
+            if (maxWritesPerFlush > 1) {
+                return consolidateWrite(obj);
+            }
             return channel.writeAndFlush(obj);
         } else {
+            // The message is owned by the write, like a written one
+            ReferenceCountUtil.release(obj);
             return null;
         }
     }
 
+    private ChannelFuture consolidateWrite(Object obj) {
+        ChannelFuture future = queueForWrite(obj);
+        if (++unflushedWrites >= maxWritesPerFlush) {
+            flushQueued();
+        } else if (!flushScheduled) {
+            // The task runs after the current one on the event loop, so it flushes all the writes made meanwhile
+            flushScheduled = true;
+            channel.eventLoop().execute(this::scheduledFlush);
+        }
+        return future;
+    }
+
+    private synchronized void scheduledFlush() {
+        flushScheduled = false;
+        if (!read && !corked) {
+            flushQueued();
+        }
+    }
+
+    /**
+     * Set the maximum number of writes made outside of a read that are consolidated in a single flush.
+     *
+     * @param maxWritesPerFlush the maximum number of writes per flush
+     */
+    public synchronized void setMaxWritesPerFlush(int maxWritesPerFlush) {
+        this.maxWritesPerFlush = maxWritesPerFlush;
+    }
+
+    /**
+     * Hold the flushes of the connection until {@link #doUncork()} is called, the writes made meanwhile are then
+     * sent together. The queued writes are flushed anyway when they exceed the write queue max size.
+     */
+    public synchronized void doCork() {
+        corked = true;
+    }
+
+    public synchronized void doUncork() {
+        if (corked) {
+            corked = false;
+            if (!read) {
+                flushQueued();
+            }
+        }
+    }
+
     // This is a volatile read inside the Netty channel implementation
     public boolean isNotWritable() {
         return !channel.isWritable();
@@ -141,6 +211,7 @@ public abstract class ConnectionBase {
      */
     public void close() {
         // make sure everything is flushed out on close
+        doUncork();
         endReadAndFlush();
         channel.close();
     }
@@ -175,6 +246,13 @@ public abstract class ConnectionBase {
     }
 
 
+    /**
+     * @return the Netty channel of this connection
+     */
+    public Channel channel() {
+        return channel;
+    }
+
     protected ContextImpl getContext() {
         return context;
     }
@@ -256,6 +334,26 @@ public abstract class ConnectionBase {
         return writeFuture;
     }
 
+    /**
+     * Send a region of a file channel owned by the caller, the channel is not closed once the region has been sent so
+     * it can be shared by concurrent sends.
+     */
+    protected ChannelFuture sendFile(FileChannel fileChannel, long offset, long length) throws IOException {
+        Object msg;
+        if (!supportsFileRegion()) {
+            // Cannot use zero-copy, the chunks are read with positional reads
+            msg = new PositionalChunkedNioFile(fileChannel, offset, length, 8192);
+        } else {
+            msg = new DefaultFileRegion(fileChannel, offset, length) {
+                @Override
+                protected void deallocate() {
+                    // The file channel is owned by the caller
+                }
+            };
+        }
+        return writeToChannel(msg);
+    }
+
     public X509Certificate[] getPeerCertificateChain() throws SSLPeerUnverifiedException {
         if (isSSL()) {
             ChannelHandlerContext sslHandlerContext = channel.pipeline().context("ssl");
@@ -33,7 +33,6 @@ import io.advantageous.conekt.spi.metrics.Metrics;
 import io.advantageous.conekt.spi.metrics.TCPMetrics;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
@@ -151,8 +150,9 @@ public class NetClientImpl implements NetClient, MetricsProvider {
             bootstrap.option(ChannelOption.IP_TOS, options.getTrafficClass());
         }
         bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, options.getConnectTimeout());
-        bootstrap.option(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
+        bootstrap.option(ChannelOption.ALLOCATOR, vertx.byteBufAllocator());
         bootstrap.option(ChannelOption.SO_KEEPALIVE, options.isTcpKeepAlive());
+        vertx.transport().configure(options, bootstrap);
     }
 
     private void connect(int port, String host, Handler<AsyncResult<NetSocket>> connectHandler,
@@ -163,7 +163,7 @@ public class NetClientImpl implements NetClient, MetricsProvider {
         sslHelper.validate(vertx);
         Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(context.nettyEventLoop());
-        bootstrap.channel(NioSocketChannel.class);
+        bootstrap.channelFactory(vertx.transport().channelFactory());
         bootstrap.handler(new ChannelInitializer<Channel>() {
             @Override
             protected void initChannel(Channel ch) throws Exception {
@@ -179,12 +179,31 @@ public class NetClientImpl implements NetClient, MetricsProvider {
                 if (options.getIdleTimeout() > 0) {
                     pipeline.addLast("idle", new IdleStateHandler(0, 0, options.getIdleTimeout()));
                 }
-                pipeline.addLast("handler", new ConektNetHandler(socketMap));
+                pipeline.addLast("handler", new ConektNetHandler(socketMap, options.isZeroCopyInbound()));
             }
         });
 
         applyConnectionOptions(bootstrap);
-        ChannelFuture future = bootstrap.connect(new InetSocketAddress(host, port));
+        // Resolve the host before connecting, otherwise Netty would do a blocking lookup on the event loop
+        vertx.resolveAddress(host, res -> {
+            if (res.succeeded()) {
+                doConnect(bootstrap, new InetSocketAddress(res.result(), port), context, port, host, connectHandler,
+                        remainingAttempts);
+            } else {
+                context.runOnContext(v -> {
+                    if (remainingAttempts > 0 || remainingAttempts == -1) {
+                        retry(port, host, connectHandler, remainingAttempts);
+                    } else {
+                        doFailed(connectHandler, res.cause());
+                    }
+                });
+            }
+        });
+    }
+
+    private void doConnect(Bootstrap bootstrap, InetSocketAddress address, ContextImpl context, int port, String host,
+                           Handler<AsyncResult<NetSocket>> connectHandler, int remainingAttempts) {
+        ChannelFuture future = bootstrap.connect(address);
         future.addListener((ChannelFuture channelFuture) -> {
             Channel ch = channelFuture.channel();
 
@@ -208,14 +227,7 @@ public class NetClientImpl implements NetClient, MetricsProvider {
                 }
             } else {
                 if (remainingAttempts > 0 || remainingAttempts == -1) {
-                    context.executeFromIO(() -> {
-                        log.debug("Failed to create connection. Will retry in " + options.getReconnectInterval() + " milliseconds");
-                        //Set a timer to retry connection
-                        vertx.setTimer(options.getReconnectInterval(), tid ->
-                                connect(port, host, connectHandler, remainingAttempts == -1 ? remainingAttempts : remainingAttempts
-                                        - 1)
-                        );
-                    });
+                    context.executeFromIO(() -> retry(port, host, connectHandler, remainingAttempts));
                 } else {
                     failed(context, ch, channelFuture.cause(), connectHandler);
                 }
@@ -223,10 +235,20 @@ public class NetClientImpl implements NetClient, MetricsProvider {
         });
     }
 
+    private void retry(int port, String host, Handler<AsyncResult<NetSocket>> connectHandler, int remainingAttempts) {
+        log.debug("Failed to create connection. Will retry in " + options.getReconnectInterval() + " milliseconds");
+        //Set a timer to retry connection
+        vertx.setTimer(options.getReconnectInterval(), tid ->
+                connect(port, host, connectHandler, remainingAttempts == -1 ? remainingAttempts : remainingAttempts
+                        - 1)
+        );
+    }
+
     private void connected(ContextImpl context, Channel ch, Handler<AsyncResult<NetSocket>> connectHandler) {
         // Need to set context before constructor is called as writehandler registration needs this
         ContextImpl.setContext(context);
         NetSocketImpl sock = new NetSocketImpl(vertx, ch, context, sslHelper, true, metrics, null);
+        sock.setMaxWritesPerFlush(options.getMaxWritesPerFlush());
         socketMap.put(ch, sock);
         context.executeFromIO(() -> {
             sock.setMetric(metrics.connected(sock.remoteAddress(), sock.remoteName()));
@@ -36,7 +36,6 @@ import io.netty.channel.*;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
@@ -44,13 +43,18 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.net.NetServer;
 import io.advantageous.conekt.net.NetSocketStream;
+import io.advantageous.conekt.net.impl.transport.Transport;
 import io.advantageous.conekt.spi.metrics.MetricsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -158,9 +162,12 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
             if (shared == null || port == 0) { // Wildcard port will imply a new actual server each time
                 serverChannelGroup = new DefaultChannelGroup("conekt-acceptor-channels", GlobalEventExecutor.INSTANCE);
 
+                // The groups are set on the copy used by each bind
                 ServerBootstrap bootstrap = new ServerBootstrap();
-                bootstrap.group(availableWorkers);
-                bootstrap.channel(NioServerSocketChannel.class);
+                int acceptors = vertx.transport().acceptorCount(options, vertx.getEventLoopGroup());
+                // With SO_REUSEPORT every event loop accepts on its own socket
+                List<EventLoop> acceptorLoops = acceptors > 1 ? Transport.eventLoops(vertx.getEventLoopGroup()) : null;
+                bootstrap.channelFactory(vertx.transport().serverChannelFactory());
                 sslHelper.validate(vertx);
 
                 bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -194,7 +201,9 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
 
                 try {
                     InetSocketAddress addr = new InetSocketAddress(InetAddress.getByName(host), port);
-                    bindFuture = bootstrap.bind(addr).addListener(future -> runListeners());
+                    EventLoopGroup acceptorGroup = acceptorLoops != null ? acceptorLoops.get(0) : availableWorkers;
+                    bindFuture = bootstrap.clone().group(acceptorGroup, availableWorkers).bind(addr)
+                            .addListener(future -> runListeners());
                     this.addListener(() -> {
                         if (bindFuture.isSuccess()) {
                             log.trace("Net server listening on " + host + ":" + bindFuture.channel().localAddress());
@@ -203,6 +212,10 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
                             NetServerImpl.this.id = new ServerID(NetServerImpl.this.actualPort, id.host);
                             vertx.sharedNetServers().put(id, NetServerImpl.this);
                             metrics = vertx.metricsSPI().createMetrics(this, new SocketAddressImpl(id.port, id.host), options);
+                            if (acceptorLoops != null) {
+                                bindAcceptors(bootstrap, bindFuture.channel().localAddress(),
+                                        acceptorLoops.subList(1, acceptorLoops.size()));
+                            }
                         } else {
                             vertx.sharedNetServers().remove(id);
                         }
@@ -317,6 +330,13 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
         return actualPort;
     }
 
+    /**
+     * @return the listening channels of this server, one per event loop when each event loop accepts on its own socket
+     */
+    public synchronized List<Channel> listeningChannels() {
+        return serverChannelGroup != null ? new ArrayList<>(serverChannelGroup) : Collections.emptyList();
+    }
+
     @Override
     public boolean isMetricsEnabled() {
         return metrics != null && metrics.isEnabled();
@@ -327,6 +347,27 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
         return metrics;
     }
 
+    /**
+     * Bind a listening socket on each of the other event loops to the address of the first one.
+     */
+    private void bindAcceptors(ServerBootstrap bootstrap, SocketAddress localAddress, List<EventLoop> loops) {
+        synchronized (vertx.sharedNetServers()) {
+            if (vertx.sharedNetServers().get(id) != this) {
+                // Closed in the meantime
+                return;
+            }
+            for (EventLoop loop : loops) {
+                ChannelFuture future = bootstrap.clone().group(loop, availableWorkers).bind(localAddress);
+                serverChannelGroup.add(future.channel());
+                future.addListener(f -> {
+                    if (!f.isSuccess()) {
+                        log.warn("Failed to bind an acceptor on " + localAddress, f.cause());
+                    }
+                });
+            }
+        }
+    }
+
     private void applyConnectionOptions(ServerBootstrap bootstrap) {
         bootstrap.childOption(ChannelOption.TCP_NODELAY, options.isTcpNoDelay());
         if (options.getSendBufferSize() != -1) {
@@ -342,13 +383,14 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
         if (options.getTrafficClass() != -1) {
             bootstrap.childOption(ChannelOption.IP_TOS, options.getTrafficClass());
         }
-        bootstrap.childOption(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, vertx.byteBufAllocator());
 
         bootstrap.childOption(ChannelOption.SO_KEEPALIVE, options.isTcpKeepAlive());
         bootstrap.option(ChannelOption.SO_REUSEADDR, options.isReuseAddress());
         if (options.getAcceptBacklog() != -1) {
             bootstrap.option(ChannelOption.SO_BACKLOG, options.getAcceptBacklog());
         }
+        vertx.transport().configure(options, bootstrap);
     }
 
     private synchronized void addListener(Runnable runner) {
@@ -411,7 +453,7 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
 
     private class ServerHandler extends ConektNetHandler {
         public ServerHandler() {
-            super(socketMap);
+            super(socketMap, options.isZeroCopyInbound());
         }
 
         @Override
@@ -446,6 +488,7 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
             // Need to set context before constructor is called as writehandler registration needs this
             ContextImpl.setContext(handler.context);
             NetSocketImpl sock = new NetSocketImpl(vertx, ch, handler.context, sslHelper, false, metrics, null);
+            sock.setMaxWritesPerFlush(options.getMaxWritesPerFlush());
             socketMap.put(ch, sock);
             handler.context.executeFromIO(() -> {
                 sock.setMetric(metrics.connected(sock.remoteAddress(), sock.remoteName()));
@@ -38,6 +38,7 @@ import io.advantageous.conekt.Future;
 import io.advantageous.conekt.Handler;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.Message;
+import io.advantageous.conekt.file.impl.FileContentCache;
 import io.advantageous.conekt.eventbus.MessageConsumer;
 import io.advantageous.conekt.impl.ContextImpl;
 import io.advantageous.conekt.net.NetSocket;
@@ -106,7 +107,7 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
 
     @Override
     public NetSocket write(Buffer data) {
-        ByteBuf buf = data.getByteBuf();
+        ByteBuf buf = data.getByteBufForWrite();
         write(buf);
         return this;
     }
@@ -161,6 +162,18 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
         return this;
     }
 
+    @Override
+    public NetSocket cork() {
+        doCork();
+        return this;
+    }
+
+    @Override
+    public NetSocket uncork() {
+        doUncork();
+        return this;
+    }
+
     @Override
     public boolean writeQueueFull() {
         return isNotWritable();
@@ -192,9 +205,23 @@ public class NetSocketImpl extends ConnectionBase implements NetSocket {
         }
         RandomAccessFile raf = null;
         try {
-            raf = new RandomAccessFile(f, "r");
-            ChannelFuture future = super.sendFile(raf, Math.min(offset, f.length()), Math.min(length, f.length() - offset));
-            if (resultHandler != null) {
+            long start = Math.min(offset, f.length());
+            long count = Math.min(length, f.length() - offset);
+            FileContentCache cache = vertx.fileContentCache();
+            ByteBuf content = cache != null ? cache.get(f, start, count) : null;
+            ChannelFuture future;
+            if (content != null) {
+                future = writeToChannel(content);
+                if (future == null) {
+                    content.release();
+                }
+            } else {
+                raf = new RandomAccessFile(f, "r");
+                future = super.sendFile(raf, start, count);
+            }
+            if (resultHandler != null && future == null) {
+                vertx.runOnContext(v -> resultHandler.handle(Future.failedFuture(new IllegalStateException("Connection closed"))));
+            } else if (resultHandler != null) {
                 future.addListener(fut -> {
                     final AsyncResult<Void> res;
                     if (future.isSuccess()) {
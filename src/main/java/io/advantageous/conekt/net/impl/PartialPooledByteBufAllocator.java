@@ -51,7 +51,8 @@ public final class PartialPooledByteBufAllocator implements ByteBufAllocator {
     }
 
     /**
-     * Create a new {@link io.netty.channel.ChannelHandlerContext} which wraps the given one anf force the usage of direct buffers.
+     * Create a new {@link io.netty.channel.ChannelHandlerContext} which wraps the given one anf force the usage of direct buffers
+     * allocated by the allocator of its channel.
      */
     public static ChannelHandlerContext forceDirectAllocator(ChannelHandlerContext ctx) {
         return new PooledChannelHandlerContext(ctx);
@@ -155,8 +156,11 @@ public final class PartialPooledByteBufAllocator implements ByteBufAllocator {
     private static final class PooledChannelHandlerContext implements ChannelHandlerContext {
         private final ChannelHandlerContext ctx;
 
+        private final ByteBufAllocator alloc;
+
         PooledChannelHandlerContext(ChannelHandlerContext ctx) {
             this.ctx = ctx;
+            this.alloc = new ForceDirectPoooledByteBufAllocator(ctx.alloc());
         }
 
         @Override
@@ -340,7 +344,7 @@ public final class PartialPooledByteBufAllocator implements ByteBufAllocator {
 
         @Override
         public ByteBufAllocator alloc() {
-            return ForceDirectPoooledByteBufAllocator.INSTANCE;
+            return alloc;
         }
 
         @Override
@@ -375,101 +379,105 @@ public final class PartialPooledByteBufAllocator implements ByteBufAllocator {
     }
 
     private static final class ForceDirectPoooledByteBufAllocator implements ByteBufAllocator {
-        static ByteBufAllocator INSTANCE = new ForceDirectPoooledByteBufAllocator();
+        private final ByteBufAllocator alloc;
+
+        ForceDirectPoooledByteBufAllocator(ByteBufAllocator alloc) {
+            this.alloc = alloc;
+        }
 
         @Override
         public ByteBuf buffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer();
+            return alloc.directBuffer();
         }
 
         @Override
         public ByteBuf buffer(int initialCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity);
+            return alloc.directBuffer(initialCapacity);
         }
 
         @Override
         public ByteBuf buffer(int initialCapacity, int maxCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity, maxCapacity);
+            return alloc.directBuffer(initialCapacity, maxCapacity);
         }
 
         @Override
         public ByteBuf ioBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer();
+            return alloc.directBuffer();
         }
 
         @Override
         public ByteBuf ioBuffer(int initialCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity);
+            return alloc.directBuffer(initialCapacity);
         }
 
         @Override
         public ByteBuf ioBuffer(int initialCapacity, int maxCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity, maxCapacity);
+            return alloc.directBuffer(initialCapacity, maxCapacity);
         }
 
         @Override
         public ByteBuf heapBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.heapBuffer();
+            return alloc.heapBuffer();
         }
 
         @Override
         public ByteBuf heapBuffer(int initialCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.heapBuffer(initialCapacity);
+            return alloc.heapBuffer(initialCapacity);
         }
 
         @Override
         public ByteBuf heapBuffer(int initialCapacity, int maxCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.heapBuffer(initialCapacity, maxCapacity);
+            return alloc.heapBuffer(initialCapacity, maxCapacity);
         }
 
         @Override
         public ByteBuf directBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer();
+            return alloc.directBuffer();
         }
 
         @Override
         public ByteBuf directBuffer(int initialCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity);
+            return alloc.directBuffer(initialCapacity);
         }
 
         @Override
         public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
-            return PartialPooledByteBufAllocator.INSTANCE.directBuffer(initialCapacity, maxCapacity);
+            return alloc.directBuffer(initialCapacity, maxCapacity);
         }
 
         @Override
         public CompositeByteBuf compositeBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeBuffer();
+            return alloc.compositeBuffer();
         }
 
         @Override
         public CompositeByteBuf compositeBuffer(int maxNumComponents) {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeBuffer(maxNumComponents);
+            return alloc.compositeBuffer(maxNumComponents);
         }
 
         @Override
         public CompositeByteBuf compositeHeapBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeHeapBuffer();
+            return alloc.compositeHeapBuffer();
         }
 
         @Override
         public CompositeByteBuf compositeHeapBuffer(int maxNumComponents) {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeHeapBuffer(maxNumComponents);
+            return alloc.compositeHeapBuffer(maxNumComponents);
         }
 
         @Override
         public CompositeByteBuf compositeDirectBuffer() {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeDirectBuffer();
+            return alloc.compositeDirectBuffer();
         }
 
         @Override
         public CompositeByteBuf compositeDirectBuffer(int maxNumComponents) {
-            return PartialPooledByteBufAllocator.INSTANCE.compositeDirectBuffer(maxNumComponents);
+            return alloc.compositeDirectBuffer(maxNumComponents);
         }
 
         @Override
         public boolean isDirectBufferPooled() {
-            return PartialPooledByteBufAllocator.INSTANCE.isDirectBufferPooled();
+            return alloc.isDirectBufferPooled();
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.net.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link ChunkedInput} reading a region of a {@link FileChannel} owned by the caller, chunk by chunk.
+ * <p>
+ * Unlike {@link io.netty.handler.stream.ChunkedNioFile} the chunks are read with positional reads, so the position of
+ * the channel is never used and the channel can be shared by concurrent sends. The channel is not closed either.
+ */
+final class PositionalChunkedNioFile implements ChunkedInput<ByteBuf> {
+
+    private final FileChannel file;
+    private final long endOffset;
+    private final int chunkSize;
+    private long offset;
+
+    PositionalChunkedNioFile(FileChannel file, long offset, long length, int chunkSize) {
+        this.file = file;
+        this.offset = offset;
+        this.endOffset = offset + length;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        return !(offset < endOffset && file.isOpen());
+    }
+
+    @Override
+    public void close() throws Exception {
+        // The channel is owned by the caller
+    }
+
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        long offset = this.offset;
+        if (offset >= endOffset) {
+            return null;
+        }
+        int size = (int) Math.min(chunkSize, endOffset - offset);
+        ByteBuf buffer = ctx.alloc().buffer(size);
+        boolean release = true;
+        try {
+            ByteBuffer nioBuffer = buffer.nioBuffer(buffer.writerIndex(), size);
+            int read = 0;
+            while (read < size) {
+                int n = file.read(nioBuffer, offset + read);
+                if (n < 0) {
+                    throw new EOFException("File truncated before " + endOffset + " bytes");
+                }
+                read += n;
+            }
+            buffer.writerIndex(buffer.writerIndex() + size);
+            this.offset = offset + size;
+            release = false;
+            return buffer;
+        } finally {
+            if (release) {
+                buffer.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.net.impl.transport;
+
+import io.advantageous.conekt.datagram.DatagramSocketOptions;
+import io.advantageous.conekt.net.ClientOptionsBase;
+import io.advantageous.conekt.net.NetServerOptions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ChannelFactory;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The Linux epoll native transport.
+ * <p>
+ * Channels are registered in edge-triggered mode, which reads each socket until it is drained and saves the
+ * re-arming system calls of level-triggered mode.
+ */
+class EpollTransport extends Transport {
+
+    /**
+     * The default length of the queue of pending TCP fast open connections of a server
+     */
+    private static final int TCP_FASTOPEN_QUEUE_LENGTH = 256;
+
+    EpollTransport() {
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return Epoll.isAvailable();
+    }
+
+    @Override
+    public Throwable unavailabilityCause() {
+        return Epoll.unavailabilityCause();
+    }
+
+    @Override
+    public boolean isNative() {
+        return true;
+    }
+
+    @Override
+    public EventLoopGroup eventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio) {
+        EpollEventLoopGroup eventLoopGroup = new EpollEventLoopGroup(nThreads, threadFactory);
+        eventLoopGroup.setIoRatio(ioRatio);
+        return eventLoopGroup;
+    }
+
+    @Override
+    public DatagramChannel datagramChannel() {
+        EpollDatagramChannel channel = new EpollDatagramChannel();
+        channel.config().setEpollMode(EpollMode.EDGE_TRIGGERED);
+        return channel;
+    }
+
+    /**
+     * Native datagram channels are dual stack and do not support multicast, a socket asking for IPv6 or setting a
+     * multicast option uses the JDK transport.
+     */
+    @Override
+    public Transport datagramTransport(InternetProtocolFamily family, DatagramSocketOptions options) {
+        if (family == InternetProtocolFamily.IPv6 || hasMulticastOptions(options)) {
+            return JDK;
+        }
+        return this;
+    }
+
+    private static boolean hasMulticastOptions(DatagramSocketOptions options) {
+        return options.getMulticastTimeToLive() != DatagramSocketOptions.DEFAULT_MULTICAST_TIME_TO_LIVE
+                || options.getMulticastNetworkInterface() != null
+                || options.isLoopbackModeDisabled() != DatagramSocketOptions.DEFAULT_LOOPBACK_MODE_DISABLED;
+    }
+
+    @Override
+    public DatagramChannel datagramChannel(InternetProtocolFamily family) {
+        if (family == InternetProtocolFamily.IPv6) {
+            throw new IllegalStateException("Native datagram channels are not created for IPv6, see datagramTransport");
+        }
+        // A dual stack socket serves IPv4
+        return datagramChannel();
+    }
+
+    @Override
+    public ChannelFactory<? extends Channel> channelFactory() {
+        return EpollSocketChannel::new;
+    }
+
+    @Override
+    public ChannelFactory<? extends ServerChannel> serverChannelFactory() {
+        return EpollServerSocketChannel::new;
+    }
+
+    @Override
+    public int acceptorCount(NetServerOptions options, EventLoopGroup eventLoopGroup) {
+        if (!options.isReusePort()) {
+            return 1;
+        }
+        return eventLoops(eventLoopGroup).size();
+    }
+
+    @Override
+    public void configure(DatagramChannel channel, DatagramSocketOptions options) {
+        if (hasMulticastOptions(options)) {
+            throw new IllegalStateException("Multicast is not supported by native datagram channels, see datagramTransport");
+        }
+        channel.config().setOption(EpollChannelOption.SO_REUSEPORT, options.isReusePort());
+    }
+
+    @Override
+    public void configure(ClientOptionsBase options, Bootstrap bootstrap) {
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+        bootstrap.option(EpollChannelOption.SO_REUSEPORT, options.isReusePort());
+        if (options.isTcpQuickAck()) {
+            bootstrap.option(EpollChannelOption.TCP_QUICKACK, true);
+        }
+    }
+
+    @Override
+    public void configure(NetServerOptions options, ServerBootstrap bootstrap) {
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+        bootstrap.childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+        bootstrap.option(EpollChannelOption.SO_REUSEPORT, options.isReusePort());
+        if (options.isTcpFastOpen()) {
+            bootstrap.option(EpollChannelOption.TCP_FASTOPEN, TCP_FASTOPEN_QUEUE_LENGTH);
+        }
+        if (options.isTcpQuickAck()) {
+            bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, true);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.net.impl.transport;
+
+import io.advantageous.conekt.datagram.DatagramSocketOptions;
+import io.advantageous.conekt.http.impl.VertxNioServerChannelFactory;
+import io.advantageous.conekt.http.impl.VertxNioSocketChannelFactory;
+import io.advantageous.conekt.net.ClientOptionsBase;
+import io.advantageous.conekt.net.NetServerOptions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ChannelFactory;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The transport creates the event loops and the channels used by Vert.x, this default implementation uses the JDK
+ * NIO transport which is available on every platform.
+ * <p>
+ * Options that are only meaningful for a native transport (SO_REUSEPORT, TCP_FASTOPEN, TCP_QUICKACK) are ignored by
+ * this transport, the multicast options of datagram sockets are only supported by this transport.
+ */
+public class Transport {
+
+    /**
+     * The JDK NIO transport.
+     */
+    public static final Transport JDK = new Transport();
+
+    /**
+     * @return the native transport for this platform, or {@code null} when its classes are not on the classpath
+     */
+    public static Transport nativeTransport() {
+        try {
+            return new EpollTransport();
+        } catch (Throwable ignore) {
+            // The native transport is an optional dependency
+            return null;
+        }
+    }
+
+    protected Transport() {
+    }
+
+    /**
+     * @return whether the transport can be used on this platform
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * @return the reason why the transport cannot be used, or {@code null} when it is available
+     */
+    public Throwable unavailabilityCause() {
+        return null;
+    }
+
+    /**
+     * @return whether this is a native transport
+     */
+    public boolean isNative() {
+        return false;
+    }
+
+    /**
+     * Create an event loop group.
+     *
+     * @param nThreads      the number of event loops
+     * @param threadFactory the thread factory
+     * @param ioRatio       the percentage of time spent on I/O
+     * @return the event loop group
+     */
+    public EventLoopGroup eventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio) {
+        NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(nThreads, threadFactory);
+        eventLoopGroup.setIoRatio(ioRatio);
+        return eventLoopGroup;
+    }
+
+    /**
+     * @param family  the internet protocol family of the channel, or null
+     * @param options the datagram socket options
+     * @return the transport creating and configuring the channel of a datagram socket, this transport or the JDK one
+     * when this transport does not support the options
+     */
+    public Transport datagramTransport(InternetProtocolFamily family, DatagramSocketOptions options) {
+        return this;
+    }
+
+    /**
+     * @return a new datagram channel
+     */
+    public DatagramChannel datagramChannel() {
+        return new NioDatagramChannel();
+    }
+
+    /**
+     * @param family the internet protocol family of the channel
+     * @return a new datagram channel
+     */
+    public DatagramChannel datagramChannel(InternetProtocolFamily family) {
+        return new NioDatagramChannel(family);
+    }
+
+    /**
+     * @return the factory of client socket channels
+     */
+    public ChannelFactory<? extends Channel> channelFactory() {
+        return new VertxNioSocketChannelFactory();
+    }
+
+    /**
+     * @return the factory of server socket channels
+     */
+    public ChannelFactory<? extends ServerChannel> serverChannelFactory() {
+        return new VertxNioServerChannelFactory();
+    }
+
+    /**
+     * @param options        the server options
+     * @param eventLoopGroup the event loops of the Vert.x instance
+     * @return the number of listening sockets a server binds, more than one when each event loop accepts on its own
+     * socket
+     */
+    public int acceptorCount(NetServerOptions options, EventLoopGroup eventLoopGroup) {
+        return 1;
+    }
+
+    /**
+     * @param eventLoopGroup the event loop group
+     * @return the event loops of the group, a server binding several listening sockets binds each of them on its own
+     * event loop
+     */
+    public static List<EventLoop> eventLoops(EventLoopGroup eventLoopGroup) {
+        List<EventLoop> loops = new ArrayList<>();
+        for (EventExecutor executor : eventLoopGroup) {
+            loops.add((EventLoop) executor);
+        }
+        return loops;
+    }
+
+    /**
+     * Apply the transport specific options of a datagram socket.
+     *
+     * @param channel the channel
+     * @param options the options
+     */
+    public void configure(DatagramChannel channel, DatagramSocketOptions options) {
+        channel.config().setLoopbackModeDisabled(options.isLoopbackModeDisabled());
+        if (options.getMulticastTimeToLive() != -1) {
+            channel.config().setTimeToLive(options.getMulticastTimeToLive());
+        }
+        if (options.getMulticastNetworkInterface() != null) {
+            try {
+                channel.config().setNetworkInterface(NetworkInterface.getByName(options.getMulticastNetworkInterface()));
+            } catch (SocketException e) {
+                throw new IllegalArgumentException("Could not find network interface with name " + options.getMulticastNetworkInterface());
+            }
+        }
+    }
+
+    /**
+     * Apply the transport specific options of a client.
+     *
+     * @param options   the options
+     * @param bootstrap the client bootstrap
+     */
+    public void configure(ClientOptionsBase options, Bootstrap bootstrap) {
+    }
+
+    /**
+     * Apply the transport specific options of a server.
+     *
+     * @param options   the options
+     * @param bootstrap the server bootstrap
+     */
+    public void configure(NetServerOptions options, ServerBootstrap bootstrap) {
+    }
+}
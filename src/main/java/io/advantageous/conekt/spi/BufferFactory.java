@@ -26,6 +26,7 @@
 package io.advantageous.conekt.spi;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.advantageous.conekt.buffer.Buffer;
 
 /**
@@ -44,4 +45,12 @@ public interface BufferFactory {
     Buffer buffer(byte[] bytes);
 
     Buffer buffer(ByteBuf byteBuffer);
+
+    default Buffer pooledBuffer(int initialSizeHint) {
+        return buffer(initialSizeHint);
+    }
+
+    default Buffer borrowedBuffer(ByteBuf byteBuf) {
+        return buffer(Unpooled.copiedBuffer(byteBuf));
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.spi.metrics;
+
+import io.advantageous.conekt.buffer.BufferPooling;
+
+/**
+ * The statistics of the buffer allocator of a Vert.x instance, provided to the metrics SPI with
+ * {@link ConektMetrics#bufferPoolCreated(BufferPoolStats)} so they can be published as gauges.<p/>
+ * <p>
+ * The methods can be called at any time from any thread, each call reads the current state of the arenas, so
+ * they should be sampled rather than called for every event.
+ */
+public interface BufferPoolStats {
+
+    /**
+     * @return how the buffers are allocated
+     */
+    BufferPooling pooling();
+
+    /**
+     * @return the number of heap arenas, {@code 0} when heap buffers are not pooled
+     */
+    int numHeapArenas();
+
+    /**
+     * @return the number of direct arenas, {@code 0} when direct buffers are not pooled
+     */
+    int numDirectArenas();
+
+    /**
+     * @return the size in bytes of the chunks an arena allocates memory from
+     */
+    int chunkSize();
+
+    /**
+     * @return the number of thread local caches, i.e the number of threads that allocated pooled buffers
+     */
+    int numThreadLocalCaches();
+
+    /**
+     * @return the number of pooled buffers allocated so far
+     */
+    long numAllocations();
+
+    /**
+     * @return the number of pooled buffers allocated so far by an arena, because the thread local cache could not
+     * provide them
+     */
+    long numArenaAllocations();
+
+    /**
+     * @return the number of pooled buffers currently allocated
+     */
+    long numActiveAllocations();
+
+    /**
+     * @return the number of bytes of the pooled buffers currently allocated
+     */
+    long numActiveBytes();
+
+    /**
+     * @return the ratio of the pooled buffers provided by a thread local cache, between {@code 0} and {@code 1}
+     */
+    default double threadCacheHitRatio() {
+        long allocations = numAllocations();
+        if (allocations == 0) {
+            return 0;
+        }
+        return Math.max(0, allocations - numArenaAllocations()) / (double) allocations;
+    }
+}
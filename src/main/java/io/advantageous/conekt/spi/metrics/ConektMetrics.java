@@ -165,6 +165,42 @@ public interface ConektMetrics extends Metrics, Measured {
      */
     DatagramSocketMetrics createMetrics(DatagramSocket socket, DatagramSocketOptions options);
 
+    /**
+     * Provides the DNS cache metrics SPI when the DNS cache of the Vert.x instance is created.<p/>
+     * <p>
+     * No specific thread and context can be expected when this method is called.<p/>
+     * <p>
+     * This method is called only once and only when the cache is enabled with
+     * {@link io.advantageous.conekt.ConektOptions#setDnsCacheMaxSize(int)}.
+     *
+     * @param maxSize the maximum number of entries of the cache
+     * @return the DNS cache metrics SPI
+     */
+    DnsCacheMetrics createDnsCacheMetrics(int maxSize);
+
+    /**
+     * Provides the ordered executor metrics SPI when the worker pool or the internal blocking pool is created.<p/>
+     * <p>
+     * No specific thread and context can be expected when this method is called.<p/>
+     * <p>
+     * This method is called once per pool, the returned metrics are shared by the ordered executors of all the
+     * contexts using the pool.
+     *
+     * @param poolName the name of the pool, {@code worker} or {@code internal-blocking}
+     * @return the ordered executor metrics SPI
+     */
+    OrderedExecutorMetrics createOrderedExecutorMetrics(String poolName);
+
+    /**
+     * Called once when the buffer allocator used by the network layer of the Vert.x instance is created.<p/>
+     * <p>
+     * No specific thread and context can be expected when this method is called. The statistics can be read at
+     * any time afterwards, e.g. to publish the arena usage as gauges.
+     *
+     * @param stats the statistics of the allocator
+     */
+    void bufferPoolCreated(BufferPoolStats stats);
+
     /**
      * Metrics cannot use the event bus in their constructor as the event bus is not yet initialized. When the event
      * bus is initialized, this method is called with the event bus instance as parameter. By default, this method does
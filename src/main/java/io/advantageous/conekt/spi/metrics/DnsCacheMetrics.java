@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.spi.metrics;
+
+/**
+ * The DNS cache metrics SPI that Vert.x will use to call when a {@link io.advantageous.conekt.dns.DnsClient} query
+ * is answered from the per instance DNS cache, sent to a server, or joins an identical query already in flight.<p/>
+ * <p>
+ * No specific thread and context can be expected when these methods are called.
+ */
+public interface DnsCacheMetrics extends Metrics {
+
+    /**
+     * Called when a query is answered from the cache.
+     *
+     * @param name the queried name
+     */
+    void cacheHit(String name);
+
+    /**
+     * Called when a query is not found in the cache, or found expired.
+     *
+     * @param name the queried name
+     */
+    void cacheMiss(String name);
+
+    /**
+     * Called when a query missed the cache but joins an identical query already sent to the server, so no other
+     * query is sent.
+     *
+     * @param name the queried name
+     */
+    void queryCoalesced(String name);
+
+    /**
+     * Called when an entry is evicted because the cache is full.
+     *
+     * @param name the name of the evicted entry
+     */
+    void entryEvicted(String name);
+}
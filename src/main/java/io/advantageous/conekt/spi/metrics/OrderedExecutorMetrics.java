@@ -0,0 +1,50 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.spi.metrics;
+
+/**
+ * The ordered executor metrics SPI that Vert.x will use to call when a task is queued on the ordered executor of a
+ * worker context or of the internal blocking pool, and when a batch of queued tasks has been run.<p/>
+ * <p>
+ * No specific thread and context can be expected when these methods are called.
+ */
+
+public interface OrderedExecutorMetrics extends Metrics {
+
+    /**
+     * Called when a task is queued.
+     *
+     * @param queueDepth the number of tasks of the executor waiting to run, including this one
+     */
+    void taskQueued(int queueDepth);
+
+    /**
+     * Called when the executor gives its pool thread back after running a batch of tasks.
+     *
+     * @param count the number of tasks run by the batch
+     */
+    void tasksExecuted(int count);
+}
@@ -0,0 +1,106 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.benchmarks;
+
+import io.advantageous.conekt.MultiMap;
+import io.advantageous.conekt.http.CaseInsensitiveHeaders;
+import io.advantageous.conekt.http.CompactHeaders;
+
+import java.util.function.Supplier;
+
+/**
+ * Micro benchmark comparing {@link CompactHeaders} with {@link CaseInsensitiveHeaders} on two workloads: the headers
+ * of a browser request are added then a few of them are looked up with a different case, and the same headers are
+ * copied to a new map, as the event bus does when it delivers a message.
+ * <p>
+ * Run it with {@code java -cp <test classpath> io.advantageous.conekt.test.benchmarks.HeadersBenchmark}, it is not
+ * part of the test suite.
+ */
+public class HeadersBenchmark {
+
+    private static final String[] NAMES = {
+            "Host", "User-Agent", "Accept", "Accept-Language", "Accept-Encoding", "Referer", "Cookie", "Connection",
+            "Cache-Control", "Upgrade-Insecure-Requests"
+    };
+
+    private static final String[] VALUES = {
+            "localhost:8080", "Mozilla/5.0 (X11; Linux x86_64)", "text/html,application/xhtml+xml", "en-US,en;q=0.5",
+            "gzip, deflate", "http://localhost:8080/", "session=1234567890", "keep-alive", "max-age=0", "1"
+    };
+
+    private static final String[] LOOKUPS = {"host", "CONTENT-LENGTH", "accept-encoding", "connection", "cookie"};
+
+    private static final int ITERATIONS = 2_000_000;
+
+    public static void main(String[] args) {
+        for (int run = 0; run < 5; run++) {
+            report("CaseInsensitiveHeaders add/get", run(CaseInsensitiveHeaders::new));
+            report("CompactHeaders add/get", run(CompactHeaders::new));
+            report("CaseInsensitiveHeaders copy", copy(CaseInsensitiveHeaders::new));
+            report("CompactHeaders copy", copy(CompactHeaders::new));
+        }
+    }
+
+    private static long run(Supplier<MultiMap> factory) {
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            MultiMap headers = factory.get();
+            for (int j = 0; j < NAMES.length; j++) {
+                headers.add(NAMES[j], VALUES[j]);
+            }
+            for (String lookup : LOOKUPS) {
+                if (headers.get(lookup) != null) {
+                    found++;
+                }
+            }
+        }
+        if (found != ITERATIONS * (LOOKUPS.length - 1)) {
+            throw new AssertionError();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long copy(Supplier<MultiMap> factory) {
+        MultiMap headers = factory.get();
+        for (int j = 0; j < NAMES.length; j++) {
+            headers.add(NAMES[j], VALUES[j]);
+        }
+        long start = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            size += factory.get().addAll(headers).size();
+        }
+        if (size != ITERATIONS * NAMES.length) {
+            throw new AssertionError();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.println(name + ": " + (nanos / ITERATIONS) + " ns per iteration");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.benchmarks;
+
+import io.advantageous.conekt.Conekt;
+import io.advantageous.conekt.eventbus.DeliveryOptions;
+import io.advantageous.conekt.eventbus.EventBus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micro benchmark of event bus request/reply round trips with a reply timeout. Each request waits in the reply
+ * table of the sending context, the timeouts are swept by the table, the second workload measures the timer set and
+ * cancelled per request that this replaces. The third one sends requests that are never replied to, they all time out
+ * and the sweeps expiring them are coalesced on the sweep tick of the table.
+ * <p>
+ * Run it with {@code java -cp <test classpath> io.advantageous.conekt.test.benchmarks.ReplyBenchmark}, it is not
+ * part of the test suite.
+ */
+public class ReplyBenchmark {
+
+    private static final int ITERATIONS = 1_000_000;
+    // The number of requests in flight
+    private static final int WINDOW = 256;
+    // The requests timing out
+    private static final int TIMEOUTS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        Conekt conekt = Conekt.vertx();
+        try {
+            EventBus eventBus = conekt.eventBus();
+            eventBus.consumer("benchmark", msg -> msg.reply(msg.body()));
+            eventBus.consumer("blackhole", msg -> {
+            });
+            for (int run = 0; run < 5; run++) {
+                report("request/reply with timeout", requestReply(conekt, eventBus));
+                report("setTimer/cancelTimer", timers(conekt));
+                report("request timing out", timeouts(conekt, eventBus), TIMEOUTS);
+            }
+        } finally {
+            conekt.close();
+        }
+    }
+
+    private static long requestReply(Conekt conekt, EventBus eventBus) throws Exception {
+        DeliveryOptions options = new DeliveryOptions().setSendTimeout(30_000);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+        long start = System.nanoTime();
+        conekt.runOnContext(v -> {
+            Runnable[] send = new Runnable[1];
+            send[0] = () -> eventBus.send("benchmark", "ping", options, ar -> {
+                if (ar.failed()) {
+                    throw new AssertionError(ar.cause());
+                }
+                if (received.incrementAndGet() == ITERATIONS) {
+                    latch.countDown();
+                } else if (sent.incrementAndGet() <= ITERATIONS) {
+                    send[0].run();
+                }
+            });
+            for (int i = 0; i < WINDOW; i++) {
+                sent.incrementAndGet();
+                send[0].run();
+            }
+        });
+        latch.await();
+        return System.nanoTime() - start;
+    }
+
+    private static long timers(Conekt conekt) throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        conekt.runOnContext(v -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                long id = conekt.setTimer(30_000, tid -> {
+                    throw new AssertionError();
+                });
+                conekt.cancelTimer(id);
+            }
+            latch.countDown();
+        });
+        latch.await();
+        return System.nanoTime() - start;
+    }
+
+    private static long timeouts(Conekt conekt, EventBus eventBus) throws Exception {
+        DeliveryOptions options = new DeliveryOptions().setSendTimeout(100);
+        CountDownLatch latch = new CountDownLatch(TIMEOUTS);
+        long start = System.nanoTime();
+        conekt.runOnContext(v -> {
+            for (int i = 0; i < TIMEOUTS; i++) {
+                eventBus.send("blackhole", "ping", options, ar -> {
+                    if (ar.succeeded()) {
+                        throw new AssertionError();
+                    }
+                    latch.countDown();
+                });
+            }
+        });
+        latch.await();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, long nanos) {
+        report(name, nanos, ITERATIONS);
+    }
+
+    private static void report(String name, long nanos, int iterations) {
+        System.out.println(name + ": " + (nanos / iterations) + " ns per iteration");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.ConektOptions;
+import io.advantageous.conekt.eventbus.Message;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the local event bus tests with the messages delivered to a context in batches.
+ */
+public class BatchedLocalEventBusTest extends LocalEventBusTest {
+
+    private static final int BATCH_SIZE = 16;
+
+    @Override
+    protected ConektOptions getOptions() {
+        return super.getOptions().setEventBusDeliveryBatchSize(BATCH_SIZE);
+    }
+
+    @Test
+    public void testBatchHandlerReceivesBatches() {
+        int numMessages = 100;
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        conekt.runOnContext(v -> {
+            eb.<String>consumer(ADDRESS1).batchHandler((List<Message<String>> messages) -> {
+                batchSizes.add(messages.size());
+                for (Message<String> message : messages) {
+                    received.add(message.body());
+                }
+                if (received.size() == numMessages) {
+                    // The messages were all queued before the first drain, only the budget splits them
+                    for (int i = 0; i < batchSizes.size() - 1; i++) {
+                        assertEquals(BATCH_SIZE, (int) batchSizes.get(i));
+                    }
+                    for (int i = 0; i < numMessages; i++) {
+                        assertEquals("msg" + i, received.get(i));
+                    }
+                    testComplete();
+                }
+            });
+            for (int i = 0; i < numMessages; i++) {
+                eb.send(ADDRESS1, "msg" + i);
+            }
+        });
+        await();
+    }
+
+    @Test
+    public void testBatchInterleavedConsumers() {
+        int numMessages = 50;
+        List<String> received = new ArrayList<>();
+        conekt.runOnContext(v -> {
+            eb.<String>consumer(ADDRESS1).batchHandler((List<Message<String>> messages) -> {
+                for (Message<String> message : messages) {
+                    received.add(message.body());
+                }
+            });
+            eb.<String>consumer(ADDRESS2).handler((Message<String> message) -> {
+                received.add(message.body());
+                if (received.size() == 2 * numMessages) {
+                    // The order of the messages is kept across the consumers of the context
+                    for (int i = 0; i < numMessages; i++) {
+                        assertEquals("a" + i, received.get(2 * i));
+                        assertEquals("b" + i, received.get(2 * i + 1));
+                    }
+                    testComplete();
+                }
+            });
+            for (int i = 0; i < numMessages; i++) {
+                eb.send(ADDRESS1, "a" + i);
+                eb.send(ADDRESS2, "b" + i);
+            }
+        });
+        await();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.Conekt;
+import io.advantageous.conekt.ConektOptions;
+import io.advantageous.conekt.buffer.BufferPooling;
+import io.advantageous.conekt.impl.ConektInternal;
+import io.advantageous.conekt.net.NetClient;
+import io.advantageous.conekt.net.NetClientOptions;
+import io.advantageous.conekt.net.NetServer;
+import io.advantageous.conekt.net.NetServerOptions;
+import io.advantageous.conekt.net.impl.ConektByteBufAllocator;
+import io.advantageous.conekt.spi.metrics.BufferPoolStats;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BufferPoolTest extends AsyncTestBase {
+
+    @Test
+    public void testUnpooled() {
+        ConektByteBufAllocator allocator = new ConektByteBufAllocator(BufferPooling.UNPOOLED, 2, 65536);
+        assertFalse(allocator.isDirectBufferPooled());
+        ByteBuf heap = allocator.heapBuffer(1024);
+        ByteBuf direct = allocator.ioBuffer(1024);
+        assertFalse(heap.isDirect());
+        assertTrue(direct.isDirect());
+        assertEquals(BufferPooling.UNPOOLED, allocator.pooling());
+        assertEquals(0, allocator.numHeapArenas());
+        assertEquals(0, allocator.numDirectArenas());
+        assertEquals(0, allocator.numAllocations());
+        assertEquals(0, allocator.numActiveAllocations());
+        assertEquals(0, allocator.threadCacheHitRatio(), 0);
+        heap.release();
+        direct.release();
+    }
+
+    @Test
+    public void testPartiallyPooled() {
+        ConektByteBufAllocator allocator = new ConektByteBufAllocator(BufferPooling.PARTIALLY_POOLED, 2, 65536);
+        assertTrue(allocator.isDirectBufferPooled());
+        assertEquals(0, allocator.numHeapArenas());
+        assertEquals(2, allocator.numDirectArenas());
+        assertEquals(65536, allocator.chunkSize());
+        ByteBuf heap = allocator.buffer(1024);
+        assertFalse(heap.isDirect());
+        assertEquals(0, allocator.numAllocations());
+        long arenaAllocations = allocator.numArenaAllocations();
+        long activeAllocations = allocator.numActiveAllocations();
+        ByteBuf direct = allocator.directBuffer(1024);
+        assertTrue(direct.isDirect());
+        assertEquals(1, allocator.numAllocations());
+        assertEquals(arenaAllocations + 1, allocator.numArenaAllocations());
+        assertEquals(activeAllocations + 1, allocator.numActiveAllocations());
+        assertTrue(allocator.numActiveBytes() > 0);
+        heap.release();
+        direct.release();
+    }
+
+    @Test
+    public void testPooled() {
+        ConektByteBufAllocator allocator = new ConektByteBufAllocator(BufferPooling.POOLED, 2, 65536);
+        assertEquals(2, allocator.numHeapArenas());
+        assertEquals(2, allocator.numDirectArenas());
+        long activeAllocations = allocator.numActiveAllocations();
+        ByteBuf heap = allocator.heapBuffer(1024);
+        ByteBuf direct = allocator.ioBuffer(1024);
+        assertEquals(2, allocator.numAllocations());
+        assertEquals(activeAllocations + 2, allocator.numActiveAllocations());
+        heap.release();
+        direct.release();
+        // Released buffers are kept by the thread cache and can be handed out again without the arena
+        for (int i = 0; i < 10; i++) {
+            allocator.heapBuffer(1024).release();
+        }
+        assertEquals(12, allocator.numAllocations());
+        double ratio = allocator.threadCacheHitRatio();
+        assertTrue(ratio >= 0 && ratio <= 1);
+    }
+
+    @Test
+    public void testPoolsAreSharedBetweenInstances() {
+        ConektByteBufAllocator allocator1 = new ConektByteBufAllocator(BufferPooling.PARTIALLY_POOLED, 1, 131072);
+        ConektByteBufAllocator allocator2 = new ConektByteBufAllocator(BufferPooling.PARTIALLY_POOLED, 1, 131072);
+        long activeAllocations = allocator2.numActiveAllocations();
+        ByteBuf direct = allocator1.directBuffer(1024);
+        assertEquals(activeAllocations + 1, allocator2.numActiveAllocations());
+        assertEquals(0, allocator2.numAllocations());
+        direct.release();
+    }
+
+    @Test
+    public void testPooledInboundBuffersAreNotLeaked() throws Exception {
+        int rounds = 500;
+        Conekt conekt = Conekt.vertx(new ConektOptions().setBufferPooling(BufferPooling.POOLED).setBufferPoolArenas(1)
+                .setBufferPoolChunkSize(262144));
+        try {
+            BufferPoolStats stats = (BufferPoolStats) ((ConektInternal) conekt).byteBufAllocator();
+            NetServer server = conekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost"));
+            server.connectHandler(socket -> socket.handler(buff -> {
+                assertFalse(buff.getByteBuf().alloc() instanceof PooledByteBufAllocator);
+                socket.write(buff);
+            }));
+            CountDownLatch latch = new CountDownLatch(1);
+            server.listen(onSuccess(s -> latch.countDown()));
+            awaitLatch(latch);
+            long activeAllocations = stats.numActiveAllocations();
+            NetClient client = conekt.createNetClient(new NetClientOptions());
+            client.connect(1234, "localhost", onSuccess(socket -> {
+                AtomicInteger count = new AtomicInteger();
+                socket.handler(buff -> {
+                    assertFalse(buff.getByteBuf().alloc() instanceof PooledByteBufAllocator);
+                    if (count.incrementAndGet() < rounds) {
+                        socket.write(TestUtils.randomBuffer(100));
+                    } else {
+                        // Each round trip reads on both sides: retained copies would keep a pooled buffer per read
+                        assertTrue(stats.numActiveAllocations() - activeAllocations < rounds / 5);
+                        socket.close();
+                        testComplete();
+                    }
+                });
+                socket.write(TestUtils.randomBuffer(100));
+            }));
+            await();
+        } finally {
+            conekt.close();
+        }
+    }
+
+    @Test
+    public void testConektAllocator() {
+        Conekt conekt = Conekt.vertx(new ConektOptions().setBufferPooling(BufferPooling.POOLED).setBufferPoolArenas(3));
+        try {
+            BufferPoolStats stats = (BufferPoolStats) ((ConektInternal) conekt).byteBufAllocator();
+            assertEquals(BufferPooling.POOLED, stats.pooling());
+            assertEquals(3, stats.numHeapArenas());
+            assertEquals(3, stats.numDirectArenas());
+            assertEquals(ConektOptions.DEFAULT_BUFFER_POOL_CHUNK_SIZE, stats.chunkSize());
+        } finally {
+            conekt.close();
+        }
+    }
+}
@@ -30,10 +30,13 @@ import io.advantageous.conekt.buffer.Buffer;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -759,6 +762,27 @@ public class BufferTest {
         assertEquals(copy, copy2);
     }
 
+    @Test
+    public void testPooled() throws Exception {
+        assertFalse(Buffer.buffer().isPooled());
+        assertFalse(Buffer.buffer().release());
+
+        byte[] bytes = TestUtils.randomByteArray(100);
+        Buffer pooled = Buffer.pooled(10);
+        assertTrue(pooled.isPooled());
+        pooled.appendBytes(bytes);
+        assertEquals(Buffer.buffer(bytes), pooled);
+        assertEquals(pooled, Buffer.buffer(bytes));
+
+        Buffer copy = pooled.copy();
+        assertFalse(copy.isPooled());
+        assertEquals(pooled, copy);
+
+        assertTrue(pooled.release());
+        assertFalse(copy.release());
+        assertTrue(TestUtils.byteArraysEqual(bytes, copy.getBytes()));
+    }
+
     @Test
     public void testCreateBuffers() throws Exception {
         Buffer buff = Buffer.buffer(1000);
@@ -803,4 +827,78 @@ public class BufferTest {
         assertEquals(10, sliced.length());
     }
 
+    @Test
+    public void testReadOnlySlice() throws Exception {
+        Buffer buff = TestUtils.randomBuffer(100);
+        Buffer sliced = buff.readOnlySlice(10, 20);
+        assertEquals(10, sliced.length());
+        assertEquals(buff.getBuffer(10, 20), sliced);
+        long rand = TestUtils.randomLong();
+        buff.setLong(10, rand);
+        assertEquals(rand, sliced.getLong(0));
+        try {
+            sliced.setByte(0, (byte) 1);
+            fail();
+        } catch (ReadOnlyBufferException expected) {
+        }
+    }
+
+    @Test
+    public void testAppendBufferNoCopy() throws Exception {
+        Buffer expected = Buffer.buffer();
+        Buffer buff = Buffer.buffer();
+        for (int i = 0; i < 100; i++) {
+            Buffer chunk = TestUtils.randomBuffer(1000);
+            expected.appendBuffer(chunk);
+            buff.appendBufferNoCopy(chunk);
+            assertEquals(1000, chunk.length());
+        }
+        buff.appendBufferNoCopy(Buffer.buffer());
+        assertEquals(expected, buff);
+        assertEquals(expected.length(), buff.length());
+
+        // The buffer keeps growing as usual after the appended buffers
+        buff.appendInt(123).appendString("foo");
+        expected.appendInt(123).appendString("foo");
+        assertEquals(expected, buff);
+        buff.setInt(999, 456);
+        expected.setInt(999, 456);
+        assertEquals(expected, buff);
+        assertEquals(expected, buff.copy());
+        assertTrue(TestUtils.byteArraysEqual(expected.getBytes(), buff.getBytes()));
+    }
+
+    @Test
+    public void testAppendBufferNoCopyAfterCopyingAppend() throws Exception {
+        Buffer expected = Buffer.buffer();
+        Buffer buff = Buffer.buffer();
+        for (int i = 0; i < 50; i++) {
+            Buffer chunk = TestUtils.randomBuffer(100 + i);
+            expected.appendBuffer(chunk);
+            buff.appendBufferNoCopy(chunk);
+            // Copying appends grow the composite past its writer index
+            Buffer copied = TestUtils.randomBuffer(1000);
+            expected.appendBuffer(copied).appendInt(i).appendString("foo");
+            buff.appendBuffer(copied).appendInt(i).appendString("foo");
+            assertEquals(expected.length(), buff.length());
+            assertTrue(TestUtils.byteArraysEqual(expected.getBytes(), buff.getBytes()));
+        }
+        assertEquals(expected, buff);
+        assertEquals(expected, buff.copy());
+    }
+
+    @Test
+    public void testAppendBufferNoCopyShares() throws Exception {
+        Buffer buff = Buffer.buffer("foo");
+        Buffer chunk = Buffer.buffer("bar");
+        buff.appendBufferNoCopy(chunk);
+        assertEquals("foobar", buff.toString());
+        chunk.setString(0, "baz");
+        assertEquals("foobaz", buff.toString());
+
+        Buffer pooled = Buffer.pooled().appendString("juu");
+        buff.appendBufferNoCopy(pooled);
+        pooled.release();
+        assertEquals("foobazjuu", buff.toString());
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.MultiMap;
+import io.advantageous.conekt.http.CaseInsensitiveHeaders;
+import io.advantageous.conekt.http.CompactHeaders;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CompactHeadersTest {
+
+    @Test
+    public void testEmpty() {
+        MultiMap headers = new CompactHeaders();
+        assertTrue(headers.isEmpty());
+        assertEquals(0, headers.size());
+        assertEquals("", headers.toString());
+        assertNull(headers.get("foo"));
+        assertTrue(headers.getAll("foo").isEmpty());
+        assertFalse(headers.contains("foo"));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        MultiMap headers = new CompactHeaders();
+        headers.add("Content-Type", "text/plain");
+        assertEquals("text/plain", headers.get("content-type"));
+        assertEquals("text/plain", headers.get("CONTENT-TYPE"));
+        assertTrue(headers.contains("Content-type"));
+        headers.set("CONTENT-TYPE", "text/html");
+        assertEquals(1, headers.size());
+        assertEquals("text/html", headers.get("Content-Type"));
+        headers.remove("content-TYPE");
+        assertTrue(headers.isEmpty());
+    }
+
+    @Test
+    public void testMultipleValues() {
+        MultiMap headers = new CompactHeaders();
+        headers.add("a", "1");
+        headers.add("b", "2");
+        headers.add("A", "3");
+        headers.add("a", Arrays.<String>asList("4", "5"));
+        assertEquals(2, headers.size());
+        assertEquals("1", headers.get("a"));
+        assertEquals(Arrays.asList("1", "3", "4", "5"), headers.getAll("A"));
+        assertEquals("a: 1\nb: 2\nA: 3\na: 4\na: 5\n", headers.toString());
+        headers.set("a", Arrays.<String>asList("6", "7"));
+        assertEquals(Arrays.asList("6", "7"), headers.getAll("a"));
+        assertEquals("b: 2\na: 6\na: 7\n", headers.toString());
+    }
+
+    @Test
+    public void testGrowAndRemove() {
+        MultiMap headers = new CompactHeaders(1);
+        for (int i = 0; i < 1000; i++) {
+            headers.add("header-" + i, "value-" + i);
+        }
+        assertEquals(1000, headers.size());
+        for (int i = 0; i < 1000; i += 2) {
+            headers.remove("HEADER-" + i);
+        }
+        assertEquals(500, headers.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : "value-" + i, headers.get("Header-" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            headers.set("header-" + i, "other-" + i);
+        }
+        assertEquals(1000, headers.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Collections.singletonList("other-" + i), headers.getAll("header-" + i));
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        MultiMap headers = new CompactHeaders();
+        headers.add("a", "1").add("b", "2").add("a", "3");
+        MultiMap copy = new CompactHeaders().addAll(headers);
+        assertEquals(headers.toString(), copy.toString());
+        copy.add("c", "4");
+        assertFalse(headers.contains("c"));
+        MultiMap other = new CaseInsensitiveHeaders().add("d", "5");
+        copy.setAll(other);
+        assertEquals("d: 5\n", copy.toString());
+    }
+
+    @Test
+    public void testEntries() {
+        MultiMap headers = new CompactHeaders();
+        headers.add("a", "1").add("b", "2").add("a", "3");
+        List<Map.Entry<String, String>> entries = headers.entries();
+        assertEquals(3, entries.size());
+        assertEquals("a: 1", entries.get(0).toString());
+        assertEquals("1", entries.get(0).setValue("4"));
+        assertEquals("4", entries.get(0).getValue());
+        assertEquals(Arrays.asList("4", "3"), headers.getAll("a"));
+        Set<String> names = headers.names();
+        assertEquals(2, names.size());
+        assertTrue(names.contains("A"));
+        assertTrue(names.contains("b"));
+    }
+
+    @Test
+    public void testSameBehaviourAsCaseInsensitiveHeaders() {
+        Random random = new Random(0);
+        String[] names = {"a", "A", "b", "B", "Content-Type", "content-type", "Host", "x-1", "x-2", "x-3", "x-4", "x-5"};
+        MultiMap expected = new CaseInsensitiveHeaders();
+        MultiMap headers = new CompactHeaders(2);
+        for (int i = 0; i < 10000; i++) {
+            String name = names[random.nextInt(names.length)];
+            String value = "v" + random.nextInt(10);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    expected.add(name, value);
+                    headers.add(name, value);
+                    break;
+                case 2:
+                    expected.set(name, value);
+                    headers.set(name, value);
+                    break;
+                default:
+                    expected.remove(name);
+                    headers.remove(name);
+            }
+            assertEquals(expected.toString(), headers.toString());
+            assertEquals(expected.size(), headers.size());
+            for (String n : names) {
+                assertEquals(expected.getAll(n), headers.getAll(n));
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@
 package io.advantageous.conekt.test.core;
 
 import io.advantageous.conekt.ConektOptions;
+import io.advantageous.conekt.buffer.BufferPooling;
+import io.advantageous.conekt.dns.AddressResolverOptions;
 import io.advantageous.conekt.metrics.MetricsOptions;
 import org.junit.Test;
 
@@ -197,6 +199,165 @@ public class ConektOptionsTest extends VertxTestBase {
         }
         assertEquals(options, options.setWarningExceptionTime(1000000000l));
         assertEquals(1000000000l, options.getWarningExceptionTime());
+        assertEquals(new AddressResolverOptions(), options.getAddressResolverOptions());
+        AddressResolverOptions resolverOptions = new AddressResolverOptions().addServer("127.0.0.1:53");
+        assertEquals(options, options.setAddressResolverOptions(resolverOptions));
+        assertSame(resolverOptions, options.getAddressResolverOptions());
+        assertEquals(ConektOptions.DEFAULT_DNS_CACHE_MAX_SIZE, options.getDnsCacheMaxSize());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setDnsCacheMaxSize(rand));
+        assertEquals(rand, options.getDnsCacheMaxSize());
+        try {
+            options.setDnsCacheMaxSize(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_PREFER_NATIVE_TRANSPORT, options.getPreferNativeTransport());
+        assertEquals(options, options.setPreferNativeTransport(true));
+        assertTrue(options.getPreferNativeTransport());
+        assertEquals(ConektOptions.DEFAULT_ORDERED_TASK_BATCH_SIZE, options.getOrderedTaskBatchSize());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setOrderedTaskBatchSize(rand));
+        assertEquals(rand, options.getOrderedTaskBatchSize());
+        try {
+            options.setOrderedTaskBatchSize(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_TIMER_WHEEL_TICK_DURATION, options.getTimerWheelTickDuration());
+        assertEquals(options, options.setTimerWheelTickDuration(10));
+        assertEquals(10, options.getTimerWheelTickDuration());
+        try {
+            options.setTimerWheelTickDuration(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_TIMER_WHEEL_SIZE, options.getTimerWheelSize());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setTimerWheelSize(rand));
+        assertEquals(rand, options.getTimerWheelSize());
+        try {
+            options.setTimerWheelSize(0);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_EVENT_BUS_DELIVERY_BATCH_SIZE, options.getEventBusDeliveryBatchSize());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setEventBusDeliveryBatchSize(rand));
+        assertEquals(rand, options.getEventBusDeliveryBatchSize());
+        try {
+            options.setEventBusDeliveryBatchSize(0);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_BUFFER_POOLING, options.getBufferPooling());
+        assertEquals(options, options.setBufferPooling(BufferPooling.POOLED));
+        assertEquals(BufferPooling.POOLED, options.getBufferPooling());
+        try {
+            options.setBufferPooling(null);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_BUFFER_POOL_ARENAS, options.getBufferPoolArenas());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setBufferPoolArenas(rand));
+        assertEquals(rand, options.getBufferPoolArenas());
+        try {
+            options.setBufferPoolArenas(0);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_BUFFER_POOL_CHUNK_SIZE, options.getBufferPoolChunkSize());
+        assertEquals(options, options.setBufferPoolChunkSize(65536));
+        assertEquals(65536, options.getBufferPoolChunkSize());
+        for (int chunkSize : new int[]{4096, 65535, 268435456}) {
+            try {
+                options.setBufferPoolChunkSize(chunkSize);
+                fail("Should throw exception");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        }
+        assertEquals(ConektOptions.DEFAULT_FILE_CACHE_MAX_SIZE, options.getFileCacheMaxSize());
+        assertEquals(options, options.setFileCacheMaxSize(1024 * 1024));
+        assertEquals(1024 * 1024, options.getFileCacheMaxSize());
+        try {
+            options.setFileCacheMaxSize(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(ConektOptions.DEFAULT_FILE_CACHE_MAX_FILE_SIZE, options.getFileCacheMaxFileSize());
+        assertEquals(options, options.setFileCacheMaxFileSize(4096));
+        assertEquals(4096, options.getFileCacheMaxFileSize());
+        try {
+            options.setFileCacheMaxFileSize(0);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+    }
+
+    @Test
+    public void testAddressResolverOptions() {
+        AddressResolverOptions options = new AddressResolverOptions();
+        assertNull(options.getServers());
+        assertEquals(AddressResolverOptions.DEFAULT_CACHE_MIN_TIME_TO_LIVE, options.getCacheMinTimeToLive());
+        assertEquals(AddressResolverOptions.DEFAULT_CACHE_MAX_TIME_TO_LIVE, options.getCacheMaxTimeToLive());
+        assertEquals(AddressResolverOptions.DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE, options.getCacheNegativeTimeToLive());
+        int rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setCacheMinTimeToLive(rand));
+        assertEquals(rand, options.getCacheMinTimeToLive());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setCacheMaxTimeToLive(rand));
+        assertEquals(rand, options.getCacheMaxTimeToLive());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setCacheNegativeTimeToLive(rand));
+        assertEquals(rand, options.getCacheNegativeTimeToLive());
+        try {
+            options.setCacheMinTimeToLive(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            options.setCacheNegativeTimeToLive(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(AddressResolverOptions.DEFAULT_JDK_CACHE_TIME_TO_LIVE, options.getJdkCacheTimeToLive());
+        assertEquals(options, options.setJdkCacheTimeToLive(60));
+        assertEquals(60, options.getJdkCacheTimeToLive());
+        try {
+            options.setJdkCacheTimeToLive(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(AddressResolverOptions.DEFAULT_CACHE_MAX_SIZE, options.getCacheMaxSize());
+        assertEquals(options, options.setCacheMaxSize(16));
+        assertEquals(16, options.getCacheMaxSize());
+        try {
+            options.setCacheMaxSize(-1);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+        assertEquals(options, options.addServer("10.0.0.1").addServer("10.0.0.2:5353"));
+        AddressResolverOptions copy = new AddressResolverOptions(options);
+        assertEquals(options, copy);
+        assertEquals(2, copy.getServers().size());
+        assertEquals("10.0.0.2:5353", copy.getServers().get(1));
+        assertEquals(60, copy.getJdkCacheTimeToLive());
+        assertEquals(16, copy.getCacheMaxSize());
     }
 
     @Test
@@ -221,6 +382,15 @@ public class ConektOptionsTest extends VertxTestBase {
         int quorumSize = 51214;
         String haGroup = TestUtils.randomAlphaString(100);
         long warningExceptionTime = TestUtils.randomPositiveLong();
+        AddressResolverOptions addressResolverOptions = new AddressResolverOptions()
+                .addServer(TestUtils.randomAlphaString(10)).setCacheMinTimeToLive(TestUtils.randomPositiveInt());
+        int dnsCacheMaxSize = TestUtils.randomPositiveInt();
+        boolean preferNativeTransport = rand.nextBoolean();
+        int orderedTaskBatchSize = TestUtils.randomPositiveInt();
+        long timerWheelTickDuration = TestUtils.randomPositiveLong();
+        int timerWheelSize = TestUtils.randomPositiveInt();
+        int eventBusDeliveryBatchSize = TestUtils.randomPositiveInt();
+        int bufferPoolArenas = TestUtils.randomPositiveInt();
         options.setClusterPort(clusterPort);
         options.setClusterPublicPort(clusterPublicPort);
         options.setEventLoopPoolSize(eventLoopPoolSize);
@@ -239,6 +409,18 @@ public class ConektOptionsTest extends VertxTestBase {
                 new MetricsOptions().
                         setEnabled(metricsEnabled));
         options.setWarningExceptionTime(warningExceptionTime);
+        options.setAddressResolverOptions(addressResolverOptions);
+        options.setDnsCacheMaxSize(dnsCacheMaxSize);
+        options.setPreferNativeTransport(preferNativeTransport);
+        options.setOrderedTaskBatchSize(orderedTaskBatchSize);
+        options.setTimerWheelTickDuration(timerWheelTickDuration);
+        options.setTimerWheelSize(timerWheelSize);
+        options.setEventBusDeliveryBatchSize(eventBusDeliveryBatchSize);
+        options.setBufferPooling(BufferPooling.UNPOOLED);
+        options.setBufferPoolArenas(bufferPoolArenas);
+        options.setBufferPoolChunkSize(1048576);
+        options.setFileCacheMaxSize(2097152);
+        options.setFileCacheMaxFileSize(8192);
         options = new ConektOptions(options);
         assertEquals(clusterPort, options.getClusterPort());
         assertEquals(clusterPublicPort, options.getClusterPublicPort());
@@ -258,6 +440,19 @@ public class ConektOptionsTest extends VertxTestBase {
         assertNotNull(metricsOptions);
         assertEquals(metricsEnabled, metricsOptions.isEnabled());
         assertEquals(warningExceptionTime, options.getWarningExceptionTime());
+        assertEquals(addressResolverOptions, options.getAddressResolverOptions());
+        assertNotSame(addressResolverOptions, options.getAddressResolverOptions());
+        assertEquals(dnsCacheMaxSize, options.getDnsCacheMaxSize());
+        assertEquals(preferNativeTransport, options.getPreferNativeTransport());
+        assertEquals(orderedTaskBatchSize, options.getOrderedTaskBatchSize());
+        assertEquals(timerWheelTickDuration, options.getTimerWheelTickDuration());
+        assertEquals(timerWheelSize, options.getTimerWheelSize());
+        assertEquals(eventBusDeliveryBatchSize, options.getEventBusDeliveryBatchSize());
+        assertEquals(BufferPooling.UNPOOLED, options.getBufferPooling());
+        assertEquals(bufferPoolArenas, options.getBufferPoolArenas());
+        assertEquals(1048576, options.getBufferPoolChunkSize());
+        assertEquals(2097152, options.getFileCacheMaxSize());
+        assertEquals(8192, options.getFileCacheMaxFileSize());
     }
 
 }
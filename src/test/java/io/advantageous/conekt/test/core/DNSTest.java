@@ -26,12 +26,19 @@
 package io.advantageous.conekt.test.core;
 
 import io.advantageous.conekt.AbstractIoActor;
+import io.advantageous.conekt.Conekt;
+import io.advantageous.conekt.ConektOptions;
 import io.advantageous.conekt.DeploymentOptions;
 import io.advantageous.conekt.dns.*;
+import io.advantageous.conekt.impl.AddressResolver;
+import io.advantageous.conekt.impl.ConektInternal;
 import io.advantageous.conekt.test.fakedns.FakeDNSServer;
 import org.junit.Test;
 
+import java.net.DatagramSocket;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -323,7 +330,204 @@ public class DNSTest extends VertxTestBase {
         await();
     }
 
+    @Test
+    public void testResolveAddress() throws Exception {
+        final String ip = "10.0.0.1";
+        ConektInternal resolving = createResolvingConekt(FakeDNSServer.testResolveA(ip));
+        resolving.resolveAddress("conekt.io", ar -> {
+            assertTrue(ar.succeeded());
+            assertEquals(ip, ar.result().getHostAddress());
+            // Cached with the record TTL, so resolving again must not hit the server
+            dnsServer.stop();
+            resolving.resolveAddress("conekt.io", ar2 -> {
+                assertTrue(ar2.succeeded());
+                assertEquals(ip, ar2.result().getHostAddress());
+                testComplete();
+            });
+        });
+        await();
+        resolving.close();
+    }
+
+    @Test
+    public void testResolveAddressLiteral() throws Exception {
+        ConektInternal resolving = createResolvingConekt(FakeDNSServer.testLookupNonExisting());
+        resolving.resolveAddress("10.0.0.2", ar -> {
+            assertTrue(ar.succeeded());
+            assertEquals("10.0.0.2", ar.result().getHostAddress());
+            testComplete();
+        });
+        await();
+        resolving.close();
+        dnsServer.stop();
+    }
+
+    @Test
+    public void testResolveAddressCacheMaxSize() throws Exception {
+        dnsServer = FakeDNSServer.testResolveA("10.0.0.1");
+        dnsServer.start();
+        InetSocketAddress addr = (InetSocketAddress) dnsServer.getTransports()[0].getAcceptor().getLocalAddress();
+        AddressResolver resolver = new AddressResolver((ConektInternal) conekt, new AddressResolverOptions()
+                .addServer(addr.getAddress().getHostAddress() + ":" + addr.getPort())
+                .setCacheMaxSize(2));
+        resolver.resolveHostname("a.conekt.io", ar -> {
+            assertTrue(ar.succeeded());
+            resolver.resolveHostname("b.conekt.io", ar2 -> {
+                assertTrue(ar2.succeeded());
+                resolver.resolveHostname("c.conekt.io", ar3 -> {
+                    assertTrue(ar3.succeeded());
+                    // The least recently used resolution was evicted
+                    assertEquals(2, resolver.cacheSize());
+                    testComplete();
+                });
+            });
+        });
+        await();
+        dnsServer.stop();
+    }
+
+    @Test
+    public void testResolveAddressWithJdkIsCached() throws Exception {
+        AddressResolver resolver = new AddressResolver((ConektInternal) conekt, new AddressResolverOptions());
+        assertTrue(new AddressResolverOptions().getJdkCacheTimeToLive() > 0);
+        resolver.resolveHostname("localhost", ar -> {
+            assertTrue(ar.succeeded());
+            assertEquals(1, resolver.cacheSize());
+            testComplete();
+        });
+        await();
+    }
+
+    @Test
+    public void testCachedAnswer() throws Exception {
+        final String ip = "10.0.0.1";
+        Conekt caching = Conekt.vertx(new ConektOptions().setDnsCacheMaxSize(16));
+        DnsClient dns = prepareDns(caching, FakeDNSServer.testResolveA(ip));
+        dns.resolveA("conekt.io", ar -> {
+            assertTrue(ar.succeeded());
+            assertEquals(Collections.singletonList(ip), ar.result());
+            // Answered from the cache, the server is not queried again
+            dnsServer.stop();
+            dns.resolveA("conekt.io", ar2 -> {
+                assertTrue(ar2.succeeded());
+                assertEquals(Collections.singletonList(ip), ar2.result());
+                testComplete();
+            });
+        });
+        await();
+        caching.close();
+    }
+
+    @Test
+    public void testCoalescedQueries() throws Exception {
+        final String ip = "10.0.0.1";
+        Conekt caching = Conekt.vertx(new ConektOptions().setDnsCacheMaxSize(16));
+        DnsClient dns = prepareDns(caching, FakeDNSServer.testResolveA(ip));
+        int num = 10;
+        waitFor(num);
+        caching.runOnContext(v -> {
+            for (int i = 0; i < num; i++) {
+                dns.resolveA("conekt.io", ar -> {
+                    assertTrue(ar.succeeded());
+                    assertEquals(Collections.singletonList(ip), ar.result());
+                    complete();
+                });
+            }
+        });
+        await();
+        assertEquals(1, ((ConektInternal) caching).dnsCache().size());
+        caching.close();
+        dnsServer.stop();
+    }
+
+    @Test
+    public void testDnsClientOptions() {
+        DnsClientOptions options = new DnsClientOptions();
+        assertEquals(Collections.emptyList(), options.getServers());
+        assertEquals(DnsClientOptions.DEFAULT_QUERY_TIMEOUT, options.getQueryTimeout());
+        assertEquals(DnsClientOptions.DEFAULT_MAX_RETRANSMITS, options.getMaxRetransmits());
+        assertEquals(options, options.addServer("127.0.0.1:53"));
+        assertEquals(Collections.singletonList("127.0.0.1:53"), options.getServers());
+        assertEquals(options, options.setQueryTimeout(100));
+        assertEquals(100, options.getQueryTimeout());
+        assertEquals(options, options.setMaxRetransmits(3));
+        assertEquals(3, options.getMaxRetransmits());
+        TestUtils.assertIllegalArgumentException(() -> options.setQueryTimeout(0));
+        TestUtils.assertIllegalArgumentException(() -> options.setMaxRetransmits(-1));
+        DnsClientOptions copy = new DnsClientOptions(options);
+        assertEquals(options, copy);
+        assertNotSame(options.getServers(), copy.getServers());
+    }
+
+    @Test
+    public void testQueryTimeout() throws Exception {
+        try (DatagramSocket silent = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            DnsClient dns = conekt.createDnsClient(new DnsClientOptions()
+                    .addServer("127.0.0.1:" + silent.getLocalPort())
+                    .setQueryTimeout(100));
+            dns.resolveA("conekt.io", ar -> {
+                assertTrue(ar.failed());
+                testComplete();
+            });
+            await();
+        }
+    }
+
+    @Test
+    public void testFailoverToNextServer() throws Exception {
+        final String ip = "10.0.0.1";
+        dnsServer = FakeDNSServer.testResolveA(ip);
+        dnsServer.start();
+        InetSocketAddress addr = (InetSocketAddress) dnsServer.getTransports()[0].getAcceptor().getLocalAddress();
+        try (DatagramSocket silent = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            DnsClient dns = conekt.createDnsClient(new DnsClientOptions()
+                    .addServer("127.0.0.1:" + silent.getLocalPort())
+                    .addServer(addr.getAddress().getHostAddress() + ":" + addr.getPort())
+                    .setQueryTimeout(100));
+            dns.resolveA("conekt.io", ar -> {
+                assertTrue(ar.succeeded());
+                assertEquals(Collections.singletonList(ip), ar.result());
+                testComplete();
+            });
+            await();
+        }
+        dnsServer.stop();
+    }
+
+    @Test
+    public void testConcurrentQueriesShareChannel() throws Exception {
+        final String ip = "10.0.0.1";
+        DnsClient dns = prepareDns(FakeDNSServer.testResolveA(ip));
+        int num = 50;
+        waitFor(num);
+        for (int i = 0; i < num; i++) {
+            dns.resolveA("conekt.io", ar -> {
+                assertTrue(ar.succeeded());
+                assertEquals(Collections.singletonList(ip), ar.result());
+                complete();
+            });
+        }
+        await();
+        // All the queries were sent from the same socket
+        assertEquals(1, dnsServer.remoteAddresses().size());
+        dns.close();
+        dnsServer.stop();
+    }
+
+    private ConektInternal createResolvingConekt(FakeDNSServer server) throws Exception {
+        dnsServer = server;
+        dnsServer.start();
+        InetSocketAddress addr = (InetSocketAddress) dnsServer.getTransports()[0].getAcceptor().getLocalAddress();
+        AddressResolverOptions resolverOptions = new AddressResolverOptions()
+                .addServer(addr.getAddress().getHostAddress() + ":" + addr.getPort());
+        return (ConektInternal) Conekt.vertx(new ConektOptions().setAddressResolverOptions(resolverOptions));
+    }
+
     private DnsClient prepareDns(FakeDNSServer server) throws Exception {
+        return prepareDns(conekt, server);
+    }
+
+    private DnsClient prepareDns(Conekt conekt, FakeDNSServer server) throws Exception {
         dnsServer = server;
         dnsServer.start();
         InetSocketAddress addr = (InetSocketAddress) dnsServer.getTransports()[0].getAcceptor().getLocalAddress();
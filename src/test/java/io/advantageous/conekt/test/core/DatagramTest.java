@@ -27,6 +27,7 @@ package io.advantageous.conekt.test.core;
 
 import io.advantageous.conekt.AbstractIoActor;
 import io.advantageous.conekt.Conekt;
+import io.advantageous.conekt.ConektOptions;
 import io.advantageous.conekt.DeploymentOptions;
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.datagram.DatagramSocket;
@@ -129,6 +130,28 @@ public class DatagramTest extends VertxTestBase {
         await();
     }
 
+    @Test
+    public void testSendReceivePreferNativeTransport() {
+        // Falls back to the JDK transport where the native transport is not available
+        Conekt nativeConekt = Conekt.vertx(new ConektOptions().setPreferNativeTransport(true));
+        DatagramSocket sender = nativeConekt.createDatagramSocket(new DatagramSocketOptions());
+        // The multicast options are not supported by the native transport, the socket uses the JDK one
+        DatagramSocket receiver = nativeConekt.createDatagramSocket(new DatagramSocketOptions()
+                .setMulticastTimeToLive(2).setLoopbackModeDisabled(false));
+        receiver.exceptionHandler(t -> fail(t.getMessage()));
+        receiver.listen(1234, "127.0.0.1", ar -> {
+            assertTrue(ar.succeeded());
+            Buffer buffer = TestUtils.randomBuffer(128);
+            receiver.handler(packet -> {
+                assertEquals(buffer, packet.data());
+                testComplete();
+            });
+            sender.send(buffer, 1234, "127.0.0.1", ar2 -> assertTrue(ar2.succeeded()));
+        });
+        await();
+        nativeConekt.close();
+    }
+
     @Test
     public void testSendReceiveLargePacket() {
         int packetSize = 10000;
@@ -415,6 +438,10 @@ public class DatagramTest extends VertxTestBase {
         assertEquals(options, options.setReuseAddress(true));
         assertTrue(options.isReuseAddress());
 
+        assertFalse(options.isReusePort());
+        assertEquals(options, options.setReusePort(true));
+        assertTrue(options.isReusePort());
+
         assertEquals(NetworkOptions.DEFAULT_TRAFFIC_CLASS, options.getTrafficClass());
         rand = 23;
         assertEquals(options, options.setTrafficClass(rand));
@@ -0,0 +1,153 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.file.impl.FileContentCache;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FileContentCacheTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void testGet() throws Exception {
+        FileContentCache cache = new FileContentCache(1024, 1024);
+        File file = setupFile("file.txt", "0123456789");
+        ByteBuf slice = cache.get(file, 2, 5);
+        assertEquals("23456", slice.toString(CharsetUtil.UTF_8));
+        assertEquals(10, cache.size());
+        ByteBuf whole = cache.get(file, 0, 10);
+        assertEquals("0123456789", whole.toString(CharsetUtil.UTF_8));
+        assertEquals(10, cache.size());
+        slice.release();
+        whole.release();
+        cache.close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testReadOnly() throws Exception {
+        FileContentCache cache = new FileContentCache(1024, 1024);
+        ByteBuf slice = cache.get(setupFile("file.txt", "0123456789"), 0, 10);
+        try {
+            slice.setByte(0, 'x');
+            fail("Should throw exception");
+        } catch (Exception e) {
+            // OK
+        }
+        slice.release();
+        cache.close();
+    }
+
+    @Test
+    public void testNotCached() throws Exception {
+        FileContentCache cache = new FileContentCache(1024, 16);
+        assertNull(cache.get(setupFile("large.txt", TestUtils.randomAlphaString(17)), 0, 17));
+        assertNull(cache.get(new File(testFolder.getRoot(), "missing.txt"), 0, 1));
+        assertNull(cache.get(testFolder.getRoot(), 0, 1));
+        assertNull(cache.get(setupFile("file.txt", "0123456789"), 5, 10));
+        assertEquals(0, cache.size());
+        cache.close();
+    }
+
+    @Test
+    public void testModified() throws Exception {
+        FileContentCache cache = new FileContentCache(1024, 1024);
+        File file = setupFile("file.txt", "0123456789");
+        ByteBuf first = cache.get(file, 0, 10);
+        Files.write(file.toPath(), "abc".getBytes(CharsetUtil.UTF_8));
+        file.setLastModified(file.lastModified() + 2000);
+        ByteBuf second = cache.get(file, 0, 3);
+        assertEquals("abc", second.toString(CharsetUtil.UTF_8));
+        assertEquals(3, cache.size());
+        // The replaced content stays readable until released
+        assertEquals("0123456789", first.toString(CharsetUtil.UTF_8));
+        first.release();
+        second.release();
+        cache.close();
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        FileContentCache cache = new FileContentCache(20, 20);
+        File file1 = setupFile("file1.txt", "0123456789");
+        File file2 = setupFile("file2.txt", "abcdefghij");
+        File file3 = setupFile("file3.txt", "ABCDEFGHIJ");
+        ByteBuf slice1 = cache.get(file1, 0, 10);
+        cache.get(file2, 0, 10).release();
+        // file1 becomes the most recently used file
+        cache.get(file1, 0, 10).release();
+        cache.get(file3, 0, 10).release();
+        // file2 was evicted
+        assertEquals(20, cache.size());
+        assertEquals(2, slice1.refCnt());
+        cache.get(file2, 0, 10).release();
+        // file1 is evicted now, its content is kept until the slice is released
+        assertEquals(20, cache.size());
+        assertEquals(1, slice1.refCnt());
+        assertEquals("0123456789", slice1.toString(CharsetUtil.UTF_8));
+        slice1.release();
+        cache.close();
+        assertEquals(0, slice1.refCnt());
+    }
+
+    @Test
+    public void testLoadInBackground() throws Exception {
+        FileContentCache cache = new FileContentCache(1024, 1024);
+        File file = setupFile("file.txt", "0123456789");
+        List<Runnable> tasks = new ArrayList<>();
+        // Concurrent misses share a single load
+        assertNull(cache.get(file, tasks::add));
+        assertNull(cache.get(file, tasks::add));
+        assertEquals(1, tasks.size());
+        assertEquals(0, cache.size());
+        tasks.get(0).run();
+        assertEquals(10, cache.size());
+        ByteBuf content = cache.get(file, tasks::add);
+        assertEquals("0123456789", content.toString(CharsetUtil.UTF_8));
+        assertEquals(1, tasks.size());
+        content.release();
+        cache.close();
+    }
+
+    private File setupFile(String fileName, String content) throws Exception {
+        File file = new File(testFolder.getRoot(), fileName);
+        Files.write(file.toPath(), content.getBytes(CharsetUtil.UTF_8));
+        return file;
+    }
+}
@@ -25,10 +25,24 @@
 
 package io.advantageous.conekt.test.core;
 
+import io.advantageous.conekt.Handler;
+import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.http.HttpClientOptions;
+import io.advantageous.conekt.http.HttpClientResponse;
 import io.advantageous.conekt.http.HttpMethod;
 import io.advantageous.conekt.http.HttpServerOptions;
+import io.advantageous.conekt.http.HttpServerRequest;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
 
 /**
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
@@ -36,6 +50,9 @@ import org.junit.Test;
  */
 public class HttpCompressionTest extends HttpTestBase {
 
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
     public void setUp() throws Exception {
         super.setUp();
         client = conekt.createHttpClient(new HttpClientOptions().setTryUseCompression(true));
@@ -57,4 +74,137 @@ public class HttpCompressionTest extends HttpTestBase {
 
         await();
     }
+
+    @Test
+    public void testCompressionMinSize() throws Exception {
+        String small = TestUtils.randomAlphaString(100);
+        String large = TestUtils.randomAlphaString(1000);
+        startServer(new HttpServerOptions().setCompressionMinSize(500), req -> {
+            req.response().end(req.path().equals("/small") ? small : large);
+        });
+        gzipRequest("/small", resp -> {
+            assertNull(resp.headers().get("Content-Encoding"));
+            resp.bodyHandler(body -> {
+                assertEquals(small, body.toString());
+                gzipRequest("/large", resp2 -> {
+                    assertEquals("gzip", resp2.headers().get("Content-Encoding"));
+                    resp2.bodyHandler(body2 -> {
+                        assertEquals(large, gunzip(body2));
+                        testComplete();
+                    });
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testCompressibleContentTypes() throws Exception {
+        String content = TestUtils.randomAlphaString(1000);
+        startServer(new HttpServerOptions().addCompressibleContentType("text/*").addCompressibleContentType("application/json"), req -> {
+            req.response().putHeader("Content-Type", req.path().substring(1).replace('_', '/')).end(content);
+        });
+        gzipRequest("/image_png", resp -> {
+            assertNull(resp.headers().get("Content-Encoding"));
+            gzipRequest("/text_html", resp2 -> {
+                assertEquals("gzip", resp2.headers().get("Content-Encoding"));
+                gzipRequest("/application_json", resp3 -> {
+                    assertEquals("gzip", resp3.headers().get("Content-Encoding"));
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testDeflaterPool() throws Exception {
+        String content = TestUtils.randomAlphaString(10000);
+        startServer(new HttpServerOptions().setDeflaterPoolSize(2), req -> {
+            req.response().setChunked(true);
+            req.response().write(content.substring(0, 5000));
+            req.response().end(content.substring(5000));
+        });
+        int num = 10;
+        CountDownLatch latch = new CountDownLatch(num);
+        for (int i = 0; i < num; i++) {
+            gzipRequest("/", resp -> {
+                assertEquals("gzip", resp.headers().get("Content-Encoding"));
+                resp.bodyHandler(body -> {
+                    assertEquals(content, gunzip(body));
+                    latch.countDown();
+                });
+            });
+        }
+        awaitLatch(latch);
+    }
+
+    @Test
+    public void testCompressedFileCache() throws Exception {
+        String content = TestUtils.randomAlphaString(10000);
+        File file = testFolder.newFile("file.txt");
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+        startServer(new HttpServerOptions().setCompressedFileCacheSize(1024 * 1024), req -> {
+            req.response().sendFile(file.getAbsolutePath());
+        });
+        // The file is compressed on the fly until its compressed content has been cached in the background
+        gzipRequestUntilCached(content, body -> {
+            // Served from the cache
+            gzipRequest("/", resp -> {
+                assertEquals(String.valueOf(body.length()), resp.headers().get("Content-Length"));
+                resp.bodyHandler(body2 -> {
+                    assertEquals(body, body2);
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    private void gzipRequestUntilCached(String content, Handler<Buffer> handler) {
+        gzipRequest("/", resp -> resp.bodyHandler(body -> {
+            assertEquals("gzip", resp.headers().get("Content-Encoding"));
+            assertEquals(content, gunzip(body));
+            if (resp.headers().contains("Content-Length")) {
+                assertEquals(String.valueOf(body.length()), resp.headers().get("Content-Length"));
+                handler.handle(body);
+            } else {
+                conekt.setTimer(10, id -> gzipRequestUntilCached(content, handler));
+            }
+        }));
+    }
+
+    private void startServer(HttpServerOptions options, Handler<HttpServerRequest> handler) throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        server.close(ar -> closed.countDown());
+        awaitLatch(closed);
+        client.close();
+        // A client without compression, so the responses are received as sent
+        client = conekt.createHttpClient(new HttpClientOptions());
+        server = conekt.createHttpServer(options.setPort(DEFAULT_HTTP_PORT).setCompressionSupported(true));
+        CountDownLatch latch = new CountDownLatch(1);
+        server.requestHandler(handler).listen(onSuccess(s -> latch.countDown()));
+        awaitLatch(latch);
+    }
+
+    private void gzipRequest(String uri, Handler<HttpClientResponse> handler) {
+        client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, uri, handler)
+                .putHeader("Accept-Encoding", "gzip")
+                .exceptionHandler(this::fail)
+                .end();
+    }
+
+    private static String gunzip(Buffer buffer) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.getBytes()))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toString("UTF-8");
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
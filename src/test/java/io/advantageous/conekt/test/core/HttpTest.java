@@ -29,13 +29,16 @@ import io.advantageous.conekt.*;
 import io.advantageous.conekt.http.*;
 import io.advantageous.conekt.impl.*;
 import io.advantageous.conekt.net.*;
+import io.netty.channel.Channel;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 //
 import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.Message;
 import io.advantageous.conekt.eventbus.MessageConsumer;
+import io.advantageous.conekt.file.OpenOptions;
 import io.advantageous.conekt.http.impl.HeadersAdaptor;
+import io.advantageous.conekt.http.impl.HttpServerImpl;
 import io.advantageous.conekt.parsetools.RecordParser;
 import io.advantageous.conekt.streams.Pump;
 import org.junit.Assume;
@@ -48,6 +51,8 @@ import java.net.URLEncoder;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
@@ -207,6 +212,12 @@ public class HttpTest extends HttpTestBase {
         assertEquals(options, options.setPipelining(true));
         assertTrue(options.isPipelining());
 
+        assertEquals(HttpClientOptions.DEFAULT_PIPELINING_LIMIT, options.getPipeliningLimit());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setPipeliningLimit(rand));
+        assertEquals(rand, options.getPipeliningLimit());
+        assertIllegalArgumentException(() -> options.setPipeliningLimit(0));
+
         assertEquals(60000, options.getConnectTimeout());
         rand = TestUtils.randomPositiveInt();
         assertEquals(options, options.setConnectTimeout(rand));
@@ -347,6 +358,62 @@ public class HttpTest extends HttpTestBase {
         assertEquals(options, options.setHandle100ContinueAutomatically(true));
         assertTrue(options.isHandle100ContinueAutomatically());
 
+        assertEquals(HttpServerOptions.DEFAULT_PIPELINING_BATCH_SIZE, options.getPipeliningBatchSize());
+        rand = TestUtils.randomPositiveInt();
+        assertEquals(options, options.setPipeliningBatchSize(rand));
+        assertEquals(rand, options.getPipeliningBatchSize());
+        assertIllegalArgumentException(() -> options.setPipeliningBatchSize(0));
+        assertIllegalArgumentException(() -> options.setPipeliningBatchSize(-1));
+
+        assertFalse(options.isDateHeader());
+        assertEquals(options, options.setDateHeader(true));
+        assertTrue(options.isDateHeader());
+
+        assertNull(options.getServerHeader());
+        assertEquals(options, options.setServerHeader("conekt"));
+        assertEquals("conekt", options.getServerHeader());
+
+        assertEquals(HttpServerOptions.DEFAULT_COMPRESSION_LEVEL, options.getCompressionLevel());
+        assertEquals(options, options.setCompressionLevel(1));
+        assertEquals(1, options.getCompressionLevel());
+        assertIllegalArgumentException(() -> options.setCompressionLevel(-1));
+        assertIllegalArgumentException(() -> options.setCompressionLevel(10));
+
+        assertEquals(HttpServerOptions.DEFAULT_COMPRESSION_MIN_SIZE, options.getCompressionMinSize());
+        assertEquals(options, options.setCompressionMinSize(1024));
+        assertEquals(1024, options.getCompressionMinSize());
+        assertIllegalArgumentException(() -> options.setCompressionMinSize(-1));
+
+        assertNull(options.getCompressibleContentTypes());
+        assertEquals(options, options.addCompressibleContentType("text/*"));
+        assertEquals(Collections.singletonList("text/*"), options.getCompressibleContentTypes());
+        assertEquals(options, options.setCompressibleContentTypes(null));
+        assertNull(options.getCompressibleContentTypes());
+
+        assertEquals(HttpServerOptions.DEFAULT_DEFLATER_POOL_SIZE, options.getDeflaterPoolSize());
+        assertEquals(options, options.setDeflaterPoolSize(16));
+        assertEquals(16, options.getDeflaterPoolSize());
+        assertIllegalArgumentException(() -> options.setDeflaterPoolSize(-1));
+
+        assertEquals(HttpServerOptions.DEFAULT_COMPRESSED_FILE_CACHE_SIZE, options.getCompressedFileCacheSize());
+        assertEquals(options, options.setCompressedFileCacheSize(1024 * 1024));
+        assertEquals(1024 * 1024, options.getCompressedFileCacheSize());
+        assertIllegalArgumentException(() -> options.setCompressedFileCacheSize(-1));
+
+        assertEquals(HttpServerOptions.DEFAULT_MAX_UPLOAD_SIZE, options.getMaxUploadSize());
+        assertEquals(options, options.setMaxUploadSize(1024 * 1024));
+        assertEquals(1024 * 1024, options.getMaxUploadSize());
+        assertIllegalArgumentException(() -> options.setMaxUploadSize(-1));
+
+        assertEquals(HttpServerOptions.DEFAULT_UPLOAD_WRITE_QUEUE_MAX_SIZE, options.getUploadWriteQueueMaxSize());
+        assertEquals(options, options.setUploadWriteQueueMaxSize(4096));
+        assertEquals(4096, options.getUploadWriteQueueMaxSize());
+        assertIllegalArgumentException(() -> options.setUploadWriteQueueMaxSize(0));
+
+        assertFalse(options.isRejectHttp2PriorKnowledge());
+        assertEquals(options, options.setRejectHttp2PriorKnowledge(true));
+        assertTrue(options.isRejectHttp2PriorKnowledge());
+
         testComplete();
     }
 
@@ -380,6 +447,7 @@ public class HttpTest extends HttpTestBase {
         int maxPoolSize = TestUtils.randomPositiveInt();
         boolean keepAlive = rand.nextBoolean();
         boolean pipelining = rand.nextBoolean();
+        int pipeliningLimit = TestUtils.randomPositiveInt();
         boolean tryUseCompression = rand.nextBoolean();
         HttpVersion protocolVersion = HttpVersion.HTTP_1_0;
         int maxWaitQueueSize = TestUtils.randomPositiveInt();
@@ -405,6 +473,7 @@ public class HttpTest extends HttpTestBase {
         options.setMaxPoolSize(maxPoolSize);
         options.setKeepAlive(keepAlive);
         options.setPipelining(pipelining);
+        options.setPipeliningLimit(pipeliningLimit);
         options.setTryUseCompression(tryUseCompression);
         options.setProtocolVersion(protocolVersion);
         options.setMaxWaitQueueSize(maxWaitQueueSize);
@@ -435,6 +504,7 @@ public class HttpTest extends HttpTestBase {
         assertEquals(maxPoolSize, copy.getMaxPoolSize());
         assertEquals(keepAlive, copy.isKeepAlive());
         assertEquals(pipelining, copy.isPipelining());
+        assertEquals(pipeliningLimit, copy.getPipeliningLimit());
         assertEquals(tryUseCompression, copy.isTryUseCompression());
         assertEquals(protocolVersion, copy.getProtocolVersion());
         assertEquals(maxWaitQueueSize, copy.getMaxWaitQueueSize());
@@ -471,6 +541,9 @@ public class HttpTest extends HttpTestBase {
         String wsSubProtocol = TestUtils.randomAlphaString(10);
         boolean is100ContinueHandledAutomatically = rand.nextBoolean();
         int maxChunkSize = rand.nextInt(10000);
+        int pipeliningBatchSize = TestUtils.randomPositiveInt();
+        boolean dateHeader = rand.nextBoolean();
+        String serverHeader = TestUtils.randomAlphaString(10);
         options.setSendBufferSize(sendBufferSize);
         options.setReceiveBufferSize(receiverBufferSize);
         options.setReuseAddress(reuseAddress);
@@ -494,6 +567,17 @@ public class HttpTest extends HttpTestBase {
         options.setWebsocketSubProtocols(wsSubProtocol);
         options.setHandle100ContinueAutomatically(is100ContinueHandledAutomatically);
         options.setMaxChunkSize(maxChunkSize);
+        options.setPipeliningBatchSize(pipeliningBatchSize);
+        options.setDateHeader(dateHeader);
+        options.setServerHeader(serverHeader);
+        options.setCompressionLevel(3);
+        options.setCompressionMinSize(256);
+        options.addCompressibleContentType("application/json");
+        options.setDeflaterPoolSize(8);
+        options.setCompressedFileCacheSize(4096);
+        options.setMaxUploadSize(65536);
+        options.setUploadWriteQueueMaxSize(2048);
+        options.setRejectHttp2PriorKnowledge(true);
         HttpServerOptions copy = new HttpServerOptions(options);
         assertEquals(sendBufferSize, copy.getSendBufferSize());
         assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
@@ -523,6 +607,35 @@ public class HttpTest extends HttpTestBase {
         assertEquals(wsSubProtocol, copy.getWebsocketSubProtocols());
         assertEquals(is100ContinueHandledAutomatically, copy.isHandle100ContinueAutomatically());
         assertEquals(maxChunkSize, copy.getMaxChunkSize());
+        assertEquals(pipeliningBatchSize, copy.getPipeliningBatchSize());
+        assertEquals(dateHeader, copy.isDateHeader());
+        assertEquals(serverHeader, copy.getServerHeader());
+        assertEquals(3, copy.getCompressionLevel());
+        assertEquals(256, copy.getCompressionMinSize());
+        assertEquals(options.getCompressibleContentTypes(), copy.getCompressibleContentTypes());
+        assertNotSame(options.getCompressibleContentTypes(), copy.getCompressibleContentTypes());
+        assertEquals(8, copy.getDeflaterPoolSize());
+        assertEquals(4096, copy.getCompressedFileCacheSize());
+        assertEquals(65536, copy.getMaxUploadSize());
+        assertEquals(2048, copy.getUploadWriteQueueMaxSize());
+        assertTrue(copy.isRejectHttp2PriorKnowledge());
+    }
+
+    @Test
+    public void testReusePortAcceptors() throws Exception {
+        int eventLoops = 4;
+        Conekt nativeConekt = Conekt.vertx(new ConektOptions().setPreferNativeTransport(true).setEventLoopPoolSize(eventLoops));
+        HttpServer nativeServer = nativeConekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT)
+                .setHost(DEFAULT_HTTP_HOST).setReusePort(true));
+        CountDownLatch latch = new CountDownLatch(1);
+        nativeServer.requestHandler(req -> req.response().end()).listen(onSuccess(s -> latch.countDown()));
+        awaitLatch(latch);
+        int expectedAcceptors = nativeConekt.isNativeTransportEnabled() ? eventLoops : 1;
+        List<Channel> listening = ((HttpServerImpl) nativeServer).listeningChannels();
+        assertEquals(expectedAcceptors, listening.size());
+        // Each listening socket is bound on its own event loop
+        assertEquals(expectedAcceptors, listening.stream().map(Channel::eventLoop).distinct().count());
+        nativeConekt.close();
     }
 
     @Test
@@ -1323,6 +1436,99 @@ public class HttpTest extends HttpTestBase {
         await();
     }
 
+    @Test
+    public void testDateAndServerHeaders() {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setDateHeader(true).setServerHeader("conekt"));
+        server.requestHandler(req -> req.response().end("foo"));
+        server.listen(onSuccess(s -> {
+            long before = System.currentTimeMillis() / 1000;
+            client.getNow(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+                long after = System.currentTimeMillis() / 1000;
+                assertEquals("conekt", resp.headers().get("Server"));
+                String date = resp.headers().get("Date");
+                assertNotNull(date);
+                long second = ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+                assertTrue(second >= before && second <= after);
+                testComplete();
+            });
+        }));
+        await();
+    }
+
+    @Test
+    public void testDateAndServerHeadersNotOverridden() {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setDateHeader(true).setServerHeader("conekt"));
+        server.requestHandler(req -> req.response()
+                .putHeader("Date", "Sun, 06 Nov 1994 08:49:37 GMT")
+                .putHeader("Server", "other")
+                .end());
+        server.listen(onSuccess(s -> {
+            client.getNow(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+                assertEquals("other", resp.headers().get("Server"));
+                assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", resp.headers().get("Date"));
+                testComplete();
+            });
+        }));
+        await();
+    }
+
+    @Test
+    public void testZeroCopyInboundPumpToFile() {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setZeroCopyInbound(true));
+        Buffer body = TestUtils.randomBuffer(1000000);
+        String path = new File(testDir, "upload.bin").getPath();
+        server.requestHandler(req -> {
+            req.pause();
+            conekt.fileSystem().open(path, new OpenOptions(), onSuccess(file -> {
+                // The file is written on the blocking pool, after the pooled chunks have been released
+                Pump.pump(req, file).start();
+                req.endHandler(v -> file.close(onSuccess(v2 -> {
+                    assertEquals(body, conekt.fileSystem().readFileBlocking(path));
+                    req.response().end();
+                })));
+                req.resume();
+            }));
+        });
+        server.listen(onSuccess(server -> {
+            client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+                assertEquals(200, resp.statusCode());
+                testComplete();
+            }).end(body);
+        }));
+        await();
+    }
+
+    @Test
+    public void testZeroCopyInboundBody() {
+        server.close();
+        client.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setZeroCopyInbound(true));
+        client = conekt.createHttpClient(new HttpClientOptions().setZeroCopyInbound(true));
+        Buffer body = TestUtils.randomBuffer(100000);
+        server.requestHandler(req -> req.bodyHandler(buffer -> {
+            assertEquals(body, buffer);
+            req.response().end(buffer);
+        }));
+
+        server.listen(onSuccess(server -> {
+            client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> {
+                resp.bodyHandler(buffer -> {
+                    assertEquals(body, buffer);
+                    testComplete();
+                });
+            }).end(body);
+        }));
+
+        await();
+    }
+
     @Test
     public void testRequestBodyStringDefaultEncodingAtEnd() {
         testRequestBodyStringAtEnd(null);
@@ -2040,6 +2246,18 @@ public class HttpTest extends HttpTestBase {
 
     @Test
     public void testPipeliningOrder() throws Exception {
+        testPipeliningOrder(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST));
+    }
+
+    @Test
+    public void testPipeliningOrderBatched() throws Exception {
+        testPipeliningOrder(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setPipeliningBatchSize(16));
+    }
+
+    private void testPipeliningOrder(HttpServerOptions serverOptions) throws Exception {
+        server.close();
+        server = conekt.createHttpServer(serverOptions);
         client.close();
         client = conekt.createHttpClient(new HttpClientOptions().setKeepAlive(true).setPipelining(true).setMaxPoolSize(1));
         int requests = 100;
@@ -2089,6 +2307,80 @@ public class HttpTest extends HttpTestBase {
 
     }
 
+    @Test
+    public void testPipeliningReusesConnection() throws Exception {
+        testPipeliningLimit(2, 1);
+    }
+
+    @Test
+    public void testPipeliningLimitReached() throws Exception {
+        testPipeliningLimit(1, 2);
+    }
+
+    private void testPipeliningLimit(int pipeliningLimit, int expectedConnections) throws Exception {
+        client.close();
+        client = conekt.createHttpClient(new HttpClientOptions().setKeepAlive(true).setPipelining(true)
+                .setPipeliningLimit(pipeliningLimit).setMaxPoolSize(5));
+        Set<String> connections = Collections.synchronizedSet(new HashSet<>());
+        server.requestHandler(req -> {
+            connections.add(req.remoteAddress().toString());
+            // The first response is held until the second request has been sent
+            conekt.setTimer(req.headers().contains("first") ? 500 : 1, id -> req.response().end());
+        });
+        CountDownLatch latch = new CountDownLatch(2);
+        server.listen(onSuccess(s -> {
+            client.request(HttpMethod.GET, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> latch.countDown())
+                    .putHeader("first", "true").end();
+            conekt.setTimer(100, id -> {
+                client.getNow(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> latch.countDown());
+            });
+        }));
+        awaitLatch(latch);
+        assertEquals(expectedConnections, connections.size());
+    }
+
+    @Test
+    public void testPipeliningLimitHolds() throws Exception {
+        int pipeliningLimit = 2;
+        int requests = 20;
+        client.close();
+        client = conekt.createHttpClient(new HttpClientOptions().setKeepAlive(true).setPipelining(true)
+                .setPipeliningLimit(pipeliningLimit).setMaxPoolSize(1));
+        AtomicInteger maxInFlight = new AtomicInteger();
+        NetServer server = conekt.createNetServer(new NetServerOptions().setHost(DEFAULT_HTTP_HOST).setPort(DEFAULT_HTTP_PORT));
+        server.connectHandler(socket -> {
+            StringBuilder received = new StringBuilder();
+            AtomicInteger inFlight = new AtomicInteger();
+            socket.handler(buff -> {
+                received.append(buff.toString());
+                int end;
+                while ((end = received.indexOf("\r\n\r\n")) != -1) {
+                    received.delete(0, end + 4);
+                    int count = inFlight.incrementAndGet();
+                    maxInFlight.accumulateAndGet(count, Math::max);
+                }
+                // Hold the responses so the requests pile up on the connection
+                conekt.setTimer(20, id -> {
+                    while (inFlight.get() > 0) {
+                        inFlight.decrementAndGet();
+                        socket.write("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n");
+                    }
+                });
+            });
+        });
+        CountDownLatch latch = new CountDownLatch(requests);
+        server.listen(onSuccess(s -> {
+            for (int i = 0; i < requests; i++) {
+                client.getNow(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, DEFAULT_TEST_URI, resp -> latch.countDown());
+            }
+        }));
+        awaitLatch(latch);
+        assertTrue(maxInFlight.get() <= pipeliningLimit);
+        CountDownLatch closeLatch = new CountDownLatch(1);
+        server.close(onSuccess(v -> closeLatch.countDown()));
+        awaitLatch(closeLatch);
+    }
+
     @Test
     public void testKeepAlive() throws Exception {
         testKeepAlive(true, 5, 10, 5);
@@ -3619,6 +3911,54 @@ public class HttpTest extends HttpTestBase {
         testFormUploadFile(TestUtils.randomAlphaString(20000), true);
     }
 
+    @Test
+    public void testFormUploadFileStreamToDiskBoundedWriteQueue() throws Exception {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setUploadWriteQueueMaxSize(1024));
+        testFormUploadFile(TestUtils.randomAlphaString(500000), true);
+    }
+
+    @Test
+    public void testFormUploadTooLarge() throws Exception {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setMaxUploadSize(10000));
+        AtomicBoolean uploadFailed = new AtomicBoolean();
+        server.requestHandler(req -> {
+            req.setExpectMultipart(true);
+            req.uploadHandler(upload -> {
+                upload.handler(buffer -> {
+                });
+                upload.exceptionHandler(err -> uploadFailed.set(true));
+                upload.endHandler(v -> fail("Upload should not complete"));
+            });
+            req.endHandler(v -> fail("Request should not complete"));
+        });
+        server.listen(onSuccess(s -> {
+            HttpClientRequest req = client.request(HttpMethod.POST, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, "/form", resp -> {
+                assertEquals(413, resp.statusCode());
+                assertTrue(uploadFailed.get());
+                testComplete();
+            });
+            String boundary = "dLV9Wyq26L_-JQxk6ferf-RT153LhOO";
+            Buffer buffer = Buffer.buffer();
+            buffer.appendString("--" + boundary + "\r\n" +
+                    "Content-Disposition: form-data; name=\"file\"; filename=\"tmp-0.txt\"\r\n" +
+                    "Content-Type: image/gif\r\n" +
+                    "\r\n" +
+                    TestUtils.randomAlphaString(50000) + "\r\n" +
+                    "--" + boundary + "--\r\n");
+            req.headers().set("content-length", String.valueOf(buffer.length()));
+            req.headers().set("content-type", "multipart/form-data; boundary=" + boundary);
+            req.exceptionHandler(err -> {
+                // The server may close the connection before the whole body is sent
+            });
+            req.write(buffer).end();
+        }));
+        await();
+    }
+
     private void testFormUploadFile(String contentStr, boolean streamToDisk) throws Exception {
 
         Buffer content = Buffer.buffer(contentStr);
@@ -4191,6 +4531,37 @@ public class HttpTest extends HttpTestBase {
         await();
     }
 
+    @Test
+    public void testHttp2PriorKnowledgeRejected() {
+        server.close();
+        server = conekt.createHttpServer(new HttpServerOptions().setPort(DEFAULT_HTTP_PORT).setHost(DEFAULT_HTTP_HOST)
+                .setRejectHttp2PriorKnowledge(true));
+        server.requestHandler(req -> {
+            fail();
+        });
+        server.listen(onSuccess(s -> {
+            conekt.createNetClient(new NetClientOptions()).connect(DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, onSuccess(socket -> {
+                Buffer received = Buffer.buffer();
+                socket.handler(received::appendBuffer);
+                socket.closeHandler(v -> {
+                    // Empty SETTINGS then GOAWAY with HTTP_1_1_REQUIRED
+                    assertEquals(26, received.length());
+                    assertEquals(0x4, received.getByte(3));
+                    assertEquals(0x7, received.getByte(12));
+                    assertEquals(0xd, received.getInt(22));
+                    testComplete();
+                });
+                // The preface is split to check it is recognized across reads
+                socket.write("PRI * HTTP/2.0\r\n");
+                conekt.setTimer(100, id -> {
+                    socket.write("\r\nSM\r\n\r\n");
+                    socket.write(Buffer.buffer(new byte[]{0, 0, 0, 0x4, 0, 0, 0, 0, 0}));
+                });
+            }));
+        }));
+        await();
+    }
+
     @Test
     public void testTwoServersSameAddressDifferentContext() throws Exception {
         conekt.deployVerticle(SimpleServer.class.getName(), new DeploymentOptions().setInstances(2), onSuccess(id -> {
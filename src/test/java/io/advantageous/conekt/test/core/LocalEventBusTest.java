@@ -26,6 +26,7 @@
 package io.advantageous.conekt.test.core;
 
 import io.advantageous.conekt.*;
+import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.*;
 import io.advantageous.conekt.impl.*;
 //
@@ -36,8 +37,10 @@ import io.advantageous.conekt.streams.ReadStream;
 import io.advantageous.conekt.streams.WriteStream;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -53,13 +56,13 @@ import java.util.function.Consumer;
  */
 public class LocalEventBusTest extends EventBusTestBase {
 
-    private Conekt conekt;
-    private EventBus eb;
+    protected Conekt conekt;
+    protected EventBus eb;
     private boolean running;
 
     public void setUp() throws Exception {
         super.setUp();
-        conekt = Conekt.vertx();
+        conekt = Conekt.vertx(getOptions());
         eb = conekt.eventBus();
         running = true;
     }
@@ -509,6 +512,145 @@ public class LocalEventBusTest extends EventBusTestBase {
         await();
     }
 
+    @Test
+    public void testSendToReplyAddress() {
+        eb.<String>consumer(ADDRESS1).handler((Message<String> msg) -> {
+            assertNotNull(msg.replyAddress());
+            eb.send(msg.replyAddress(), "a reply");
+        });
+        eb.send(ADDRESS1, "a message", (AsyncResult<Message<String>> ar) -> {
+            assertTrue(ar.succeeded());
+            assertEquals("a reply", ar.result().body());
+            testComplete();
+        });
+        await();
+    }
+
+    @Test
+    public void testManyPendingReplies() {
+        int numRequests = 5000;
+        eb.<Integer>consumer(ADDRESS1).handler(msg -> msg.reply(msg.body() + 1));
+        AtomicInteger replies = new AtomicInteger();
+        conekt.runOnContext(v -> {
+            for (int i = 0; i < numRequests; i++) {
+                int val = i;
+                eb.send(ADDRESS1, val, (AsyncResult<Message<Integer>> ar) -> {
+                    assertTrue(ar.succeeded());
+                    assertEquals(val + 1, (int) ar.result().body());
+                    if (replies.incrementAndGet() == numRequests) {
+                        testComplete();
+                    }
+                });
+            }
+        });
+        await();
+    }
+
+    @Test
+    public void testReplyAfterTimeoutIsNotDelivered() {
+        eb.<String>consumer(ADDRESS1).handler((Message<String> msg) -> {
+            conekt.setTimer(200, id -> msg.reply("too late", (AsyncResult<Message<String>> ar) -> {
+                // The reply of the reply fails as nobody waits for the reply anymore
+                assertTrue(ar.failed());
+                assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) ar.cause()).failureType());
+                testComplete();
+            }));
+        });
+        eb.send(ADDRESS1, "a message", new DeliveryOptions().setSendTimeout(50), (AsyncResult<Message<String>> ar) -> {
+            assertTrue(ar.failed());
+            assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar.cause()).failureType());
+        });
+        await();
+    }
+
+    @Test
+    public void testPublishZeroCopy() {
+        Buffer body = TestUtils.randomBuffer(100);
+        Buffer expected = body.copy();
+        DeliveryOptions options = new DeliveryOptions().setZeroCopy(true).addHeader("foo", "bar");
+        int consumers = 3;
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < consumers; i++) {
+            eb.<Buffer>consumer(ADDRESS1).handler((Message<Buffer> msg) -> {
+                // The consumers share a read-only view of the body
+                assertEquals(expected, msg.body());
+                try {
+                    msg.body().setByte(0, (byte) 0);
+                    fail("Should throw exception");
+                } catch (UnsupportedOperationException e) {
+                    // OK
+                }
+                // The headers are shared until a consumer writes them
+                assertEquals("bar", msg.headers().get("foo"));
+                msg.headers().set("foo", "modified");
+                assertEquals("modified", msg.headers().get("foo"));
+                if (count.incrementAndGet() == consumers) {
+                    assertEquals("bar", options.getHeaders().get("foo"));
+                    testComplete();
+                }
+            });
+        }
+        eb.publish(ADDRESS1, body, options);
+        await();
+    }
+
+    @Test
+    public void testPublishHeadersCopiedOnWrite() {
+        int consumers = 3;
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < consumers; i++) {
+            eb.<String>consumer(ADDRESS1).handler((Message<String> msg) -> {
+                // No consumer sees the header added by another one
+                assertEquals(1, msg.headers().size());
+                assertEquals("bar", msg.headers().get("foo"));
+                msg.headers().add("added", "value");
+                assertEquals(2, msg.headers().size());
+                if (count.incrementAndGet() == consumers) {
+                    testComplete();
+                }
+            });
+        }
+        eb.publish(ADDRESS1, "a message", new DeliveryOptions().addHeader("foo", "bar"));
+        await();
+    }
+
+    @Test
+    public void testBatchHandler() {
+        int numMessages = 100;
+        List<String> received = new ArrayList<>();
+        eb.<String>consumer(ADDRESS1).batchHandler((List<Message<String>> messages) -> {
+            assertFalse(messages.isEmpty());
+            for (Message<String> message : messages) {
+                received.add(message.body());
+            }
+            if (received.size() == numMessages) {
+                for (int i = 0; i < numMessages; i++) {
+                    assertEquals("msg" + i, received.get(i));
+                }
+                testComplete();
+            }
+        });
+        for (int i = 0; i < numMessages; i++) {
+            eb.send(ADDRESS1, "msg" + i);
+        }
+        await();
+    }
+
+    @Test
+    public void testBatchHandlerPaused() {
+        MessageConsumer<String> consumer = eb.consumer(ADDRESS1);
+        consumer.batchHandler((List<Message<String>> messages) -> {
+            // Buffered messages are delivered one by one
+            assertEquals(1, messages.size());
+            assertEquals("resumed", messages.get(0).body());
+            testComplete();
+        });
+        consumer.pause();
+        eb.send(ADDRESS1, "resumed");
+        conekt.setTimer(50, id -> consumer.resume());
+        await();
+    }
+
     @Test
     public void testReplyToSendWithNoReplyHandler() {
         eb.<String>consumer(ADDRESS1).handler((Message<String> msg) -> {
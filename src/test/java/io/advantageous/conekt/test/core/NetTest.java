@@ -33,7 +33,12 @@ import io.advantageous.conekt.buffer.Buffer;
 import io.advantageous.conekt.eventbus.Message;
 import io.advantageous.conekt.eventbus.MessageConsumer;
 import io.advantageous.conekt.http.ClientAuth;
+import io.advantageous.conekt.net.impl.NetServerImpl;
+import io.advantageous.conekt.net.impl.NetSocketImpl;
 import io.advantageous.conekt.net.impl.SocketAddressImpl;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
 import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
@@ -110,6 +115,25 @@ public class NetTest extends VertxTestBase {
         assertEquals(options, options.setReuseAddress(false));
         assertFalse(options.isReuseAddress());
 
+        assertFalse(options.isReusePort());
+        assertEquals(options, options.setReusePort(true));
+        assertTrue(options.isReusePort());
+
+        assertFalse(options.isTcpFastOpen());
+        assertEquals(options, options.setTcpFastOpen(true));
+        assertTrue(options.isTcpFastOpen());
+
+        assertFalse(options.isTcpQuickAck());
+        assertEquals(options, options.setTcpQuickAck(true));
+        assertTrue(options.isTcpQuickAck());
+        assertFalse(options.isZeroCopyInbound());
+        assertEquals(options, options.setZeroCopyInbound(true));
+        assertTrue(options.isZeroCopyInbound());
+        assertEquals(TCPSSLOptions.DEFAULT_MAX_WRITES_PER_FLUSH, options.getMaxWritesPerFlush());
+        assertEquals(options, options.setMaxWritesPerFlush(16));
+        assertEquals(16, options.getMaxWritesPerFlush());
+        TestUtils.assertIllegalArgumentException(() -> options.setMaxWritesPerFlush(0));
+
         assertEquals(NetworkOptions.DEFAULT_TRAFFIC_CLASS, options.getTrafficClass());
         rand = 23;
         assertEquals(options, options.setTrafficClass(rand));
@@ -204,6 +228,25 @@ public class NetTest extends VertxTestBase {
         assertEquals(options, options.setReuseAddress(false));
         assertFalse(options.isReuseAddress());
 
+        assertFalse(options.isReusePort());
+        assertEquals(options, options.setReusePort(true));
+        assertTrue(options.isReusePort());
+
+        assertFalse(options.isTcpFastOpen());
+        assertEquals(options, options.setTcpFastOpen(true));
+        assertTrue(options.isTcpFastOpen());
+
+        assertFalse(options.isTcpQuickAck());
+        assertEquals(options, options.setTcpQuickAck(true));
+        assertTrue(options.isTcpQuickAck());
+        assertFalse(options.isZeroCopyInbound());
+        assertEquals(options, options.setZeroCopyInbound(true));
+        assertTrue(options.isZeroCopyInbound());
+        assertEquals(TCPSSLOptions.DEFAULT_MAX_WRITES_PER_FLUSH, options.getMaxWritesPerFlush());
+        assertEquals(options, options.setMaxWritesPerFlush(16));
+        assertEquals(16, options.getMaxWritesPerFlush());
+        TestUtils.assertIllegalArgumentException(() -> options.setMaxWritesPerFlush(0));
+
         assertEquals(NetworkOptions.DEFAULT_TRAFFIC_CLASS, options.getTrafficClass());
         rand = 23;
         assertEquals(options, options.setTrafficClass(rand));
@@ -284,6 +327,11 @@ public class NetTest extends VertxTestBase {
         int receiverBufferSize = TestUtils.randomPortInt();
         Random rand = new Random();
         boolean reuseAddress = rand.nextBoolean();
+        boolean reusePort = rand.nextBoolean();
+        boolean tcpFastOpen = rand.nextBoolean();
+        boolean tcpQuickAck = rand.nextBoolean();
+        boolean zeroCopyInbound = rand.nextBoolean();
+        int maxWritesPerFlush = TestUtils.randomPositiveInt();
         int trafficClass = TestUtils.randomByte() + 128;
         boolean tcpNoDelay = rand.nextBoolean();
         boolean tcpKeepAlive = rand.nextBoolean();
@@ -307,6 +355,11 @@ public class NetTest extends VertxTestBase {
         options.setSendBufferSize(sendBufferSize);
         options.setReceiveBufferSize(receiverBufferSize);
         options.setReuseAddress(reuseAddress);
+        options.setReusePort(reusePort);
+        options.setTcpFastOpen(tcpFastOpen);
+        options.setTcpQuickAck(tcpQuickAck);
+        options.setZeroCopyInbound(zeroCopyInbound);
+        options.setMaxWritesPerFlush(maxWritesPerFlush);
         options.setTrafficClass(trafficClass);
         options.setSsl(ssl);
         options.setTcpNoDelay(tcpNoDelay);
@@ -327,6 +380,11 @@ public class NetTest extends VertxTestBase {
         assertEquals(sendBufferSize, copy.getSendBufferSize());
         assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
         assertEquals(reuseAddress, copy.isReuseAddress());
+        assertEquals(reusePort, copy.isReusePort());
+        assertEquals(tcpFastOpen, copy.isTcpFastOpen());
+        assertEquals(tcpQuickAck, copy.isTcpQuickAck());
+        assertEquals(zeroCopyInbound, copy.isZeroCopyInbound());
+        assertEquals(maxWritesPerFlush, copy.getMaxWritesPerFlush());
         assertEquals(trafficClass, copy.getTrafficClass());
         assertEquals(tcpNoDelay, copy.isTcpNoDelay());
         assertEquals(tcpKeepAlive, copy.isTcpKeepAlive());
@@ -358,6 +416,11 @@ public class NetTest extends VertxTestBase {
         int receiverBufferSize = TestUtils.randomPortInt();
         Random rand = new Random();
         boolean reuseAddress = rand.nextBoolean();
+        boolean reusePort = rand.nextBoolean();
+        boolean tcpFastOpen = rand.nextBoolean();
+        boolean tcpQuickAck = rand.nextBoolean();
+        boolean zeroCopyInbound = rand.nextBoolean();
+        int maxWritesPerFlush = TestUtils.randomPositiveInt();
         int trafficClass = TestUtils.randomByte() + 128;
         boolean tcpNoDelay = rand.nextBoolean();
         boolean tcpKeepAlive = rand.nextBoolean();
@@ -380,6 +443,11 @@ public class NetTest extends VertxTestBase {
         options.setSendBufferSize(sendBufferSize);
         options.setReceiveBufferSize(receiverBufferSize);
         options.setReuseAddress(reuseAddress);
+        options.setReusePort(reusePort);
+        options.setTcpFastOpen(tcpFastOpen);
+        options.setTcpQuickAck(tcpQuickAck);
+        options.setZeroCopyInbound(zeroCopyInbound);
+        options.setMaxWritesPerFlush(maxWritesPerFlush);
         options.setTrafficClass(trafficClass);
         options.setTcpNoDelay(tcpNoDelay);
         options.setTcpKeepAlive(tcpKeepAlive);
@@ -399,6 +467,11 @@ public class NetTest extends VertxTestBase {
         assertEquals(sendBufferSize, copy.getSendBufferSize());
         assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
         assertEquals(reuseAddress, copy.isReuseAddress());
+        assertEquals(reusePort, copy.isReusePort());
+        assertEquals(tcpFastOpen, copy.isTcpFastOpen());
+        assertEquals(tcpQuickAck, copy.isTcpQuickAck());
+        assertEquals(zeroCopyInbound, copy.isZeroCopyInbound());
+        assertEquals(maxWritesPerFlush, copy.getMaxWritesPerFlush());
         assertEquals(trafficClass, copy.getTrafficClass());
         assertEquals(tcpNoDelay, copy.isTcpNoDelay());
         assertEquals(tcpKeepAlive, copy.isTcpKeepAlive());
@@ -453,6 +526,249 @@ public class NetTest extends VertxTestBase {
         testEchoStringWithEncoding("UTF-16");
     }
 
+    @Test
+    public void testEchoPreferNativeTransport() {
+        // Falls back to the JDK transport where the native transport is not available
+        Conekt nativeConekt = Conekt.vertx(new ConektOptions().setPreferNativeTransport(true));
+        Buffer sent = TestUtils.randomBuffer(100);
+        NetServer nativeServer = nativeConekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost")
+                .setTcpQuickAck(true).setTcpFastOpen(true));
+        NetClient nativeClient = nativeConekt.createNetClient(new NetClientOptions().setTcpQuickAck(true));
+        nativeServer.connectHandler(socket -> socket.handler(socket::write)).listen(ar -> {
+            assertTrue(ar.succeeded());
+            nativeClient.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                Buffer received = Buffer.buffer();
+                res.result().handler(buff -> {
+                    received.appendBuffer(buff);
+                    if (received.length() == sent.length()) {
+                        assertEquals(sent, received);
+                        testComplete();
+                    }
+                });
+                res.result().write(sent);
+            });
+        });
+        await();
+        nativeConekt.close();
+    }
+
+    @Test
+    public void testReusePortAcceptors() throws Exception {
+        // One listening socket per event loop with the native transport, a single acceptor otherwise
+        int eventLoops = 4;
+        Conekt nativeConekt = Conekt.vertx(new ConektOptions().setPreferNativeTransport(true).setEventLoopPoolSize(eventLoops));
+        NetServer nativeServer = nativeConekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost")
+                .setReusePort(true));
+        NetClient nativeClient = nativeConekt.createNetClient(new NetClientOptions());
+        int expectedAcceptors = nativeConekt.isNativeTransportEnabled() ? eventLoops : 1;
+        Set<Channel> acceptingChannels = ConcurrentHashMap.newKeySet();
+        CountDownLatch listenLatch = new CountDownLatch(1);
+        nativeServer.connectHandler(socket -> {
+            acceptingChannels.add(((NetSocketImpl) socket).channel().parent());
+            socket.handler(socket::write);
+        }).listen(ar -> {
+            assertTrue(ar.succeeded());
+            listenLatch.countDown();
+        });
+        awaitLatch(listenLatch);
+        List<Channel> listening = ((NetServerImpl) nativeServer).listeningChannels();
+        assertEquals(expectedAcceptors, listening.size());
+        waitUntil(() -> listening.stream().allMatch(Channel::isActive));
+        // Each listening socket is bound on its own event loop
+        assertEquals(expectedAcceptors, listening.stream().map(Channel::eventLoop).distinct().count());
+        int numConnections = 20;
+        waitFor(numConnections);
+        for (int i = 0; i < numConnections; i++) {
+            nativeClient.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                res.result().handler(buff -> {
+                    assertEquals("ping", buff.toString());
+                    res.result().close();
+                    complete();
+                });
+                res.result().write("ping");
+            });
+        }
+        await();
+        assertTrue(listening.containsAll(acceptingChannels));
+        if (expectedAcceptors > 1) {
+            // The kernel spreads the connections across the listening sockets
+            assertTrue(acceptingChannels.size() > 1);
+        }
+        nativeConekt.close();
+    }
+
+    @Test
+    public void testZeroCopyInbound() {
+        server.close();
+        client.close();
+        server = conekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost").setZeroCopyInbound(true));
+        client = conekt.createNetClient(new NetClientOptions().setZeroCopyInbound(true));
+        int numConnections = 10;
+        waitFor(numConnections);
+        // The pooled buffer is released when the handler returns but the write retains it, echoing it is safe
+        server.connectHandler(socket -> socket.handler(socket::write)).listen(ar -> {
+            assertTrue(ar.succeeded());
+            for (int i = 0; i < numConnections; i++) {
+                Buffer sent = TestUtils.randomBuffer(100000);
+                client.connect(1234, "localhost", res -> {
+                    assertTrue(res.succeeded());
+                    Buffer received = Buffer.buffer();
+                    res.result().handler(buff -> {
+                        received.appendBuffer(buff);
+                        if (received.length() == sent.length()) {
+                            assertEquals(sent, received);
+                            complete();
+                        }
+                    });
+                    for (int j = 0; j < sent.length(); j += 1000) {
+                        res.result().write(sent.slice(j, j + 1000));
+                    }
+                });
+            }
+        });
+        await();
+    }
+
+    @Test
+    public void testZeroCopyInboundCorkedEcho() {
+        server.close();
+        server = conekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost").setZeroCopyInbound(true));
+        Buffer sent = TestUtils.randomBuffer(100000);
+        server.connectHandler(socket -> {
+            // The writes are only flushed on uncork, long after the handlers returned
+            socket.cork();
+            AtomicInteger received = new AtomicInteger();
+            socket.handler(buff -> {
+                socket.write(buff);
+                if (received.addAndGet(buff.length()) == sent.length()) {
+                    conekt.setTimer(10, id -> socket.uncork());
+                }
+            });
+        }).listen(ar -> {
+            assertTrue(ar.succeeded());
+            client.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                Buffer received = Buffer.buffer();
+                res.result().handler(buff -> {
+                    received.appendBuffer(buff);
+                    if (received.length() == sent.length()) {
+                        assertEquals(sent, received);
+                        testComplete();
+                    }
+                });
+                res.result().write(sent);
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testMaxWritesPerFlush() {
+        server.close();
+        server = conekt.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost").setMaxWritesPerFlush(16));
+        int chunks = 100;
+        AtomicInteger flushes = new AtomicInteger();
+        server.connectHandler(socket -> conekt.setTimer(10, id -> {
+            countFlushes(socket, flushes);
+            // Writes made outside of a read are consolidated
+            for (int i = 0; i < chunks; i++) {
+                socket.write("chunk-" + i + ",");
+            }
+        })).listen(ar -> {
+            assertTrue(ar.succeeded());
+            client.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                Buffer expected = Buffer.buffer();
+                for (int i = 0; i < chunks; i++) {
+                    expected.appendString("chunk-" + i + ",");
+                }
+                Buffer received = Buffer.buffer();
+                res.result().handler(buff -> {
+                    received.appendBuffer(buff);
+                    if (received.length() == expected.length()) {
+                        assertEquals(expected, received);
+                        assertEquals((chunks + 15) / 16, flushes.get());
+                        testComplete();
+                    }
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testCork() {
+        AtomicBoolean uncorked = new AtomicBoolean();
+        AtomicInteger flushes = new AtomicInteger();
+        server.connectHandler(socket -> {
+            countFlushes(socket, flushes);
+            socket.cork();
+            for (int i = 0; i < 10; i++) {
+                socket.write("foo");
+            }
+            conekt.setTimer(100, id -> {
+                uncorked.set(true);
+                socket.uncork();
+            });
+        }).listen(ar -> {
+            assertTrue(ar.succeeded());
+            client.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                Buffer received = Buffer.buffer();
+                res.result().handler(buff -> {
+                    assertTrue(uncorked.get());
+                    received.appendBuffer(buff);
+                    if (received.length() == 30) {
+                        assertEquals(1, flushes.get());
+                        testComplete();
+                    }
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testCorkWriteQueueFull() {
+        int total = 1024 * 1024;
+        server.connectHandler(socket -> {
+            socket.cork();
+            socket.setWriteQueueMaxSize(8 * 1024);
+            AtomicInteger sent = new AtomicInteger();
+            // The socket is never uncorked, the writer relies on the drain handler only
+            socket.drainHandler(v -> {
+                while (!socket.writeQueueFull() && sent.get() < total) {
+                    socket.write(TestUtils.randomBuffer(1024));
+                    sent.addAndGet(1024);
+                }
+            });
+        }).listen(ar -> {
+            assertTrue(ar.succeeded());
+            client.connect(1234, "localhost", res -> {
+                assertTrue(res.succeeded());
+                AtomicInteger received = new AtomicInteger();
+                res.result().handler(buff -> {
+                    if (received.addAndGet(buff.length()) == total) {
+                        testComplete();
+                    }
+                });
+            });
+        });
+        await();
+    }
+
+    private void countFlushes(NetSocket socket, AtomicInteger flushes) {
+        ((NetSocketImpl) socket).channel().pipeline().addFirst(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void flush(ChannelHandlerContext ctx) throws Exception {
+                flushes.incrementAndGet();
+                super.flush(ctx);
+            }
+        });
+    }
+
     void testEchoStringWithEncoding(String encoding) {
         String sent = TestUtils.randomUnicodeString(100);
         Buffer buffSent = Buffer.buffer(sent, encoding);
@@ -0,0 +1,161 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.impl.OrderedExecutorFactory;
+import io.advantageous.conekt.test.fakemetrics.FakeOrderedExecutorMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class OrderedExecutorTest extends AsyncTestBase {
+
+    private ExecutorService pool;
+
+    @After
+    public void after() throws Exception {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOrderWithConcurrentProducers() throws Exception {
+        pool = Executors.newFixedThreadPool(4);
+        Executor executor = new OrderedExecutorFactory(pool).getExecutor();
+        int numProducers = 4;
+        int numTasks = 10000;
+        int[] last = new int[numProducers];
+        CountDownLatch done = new CountDownLatch(numProducers * numTasks);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < numProducers; i++) {
+            int producer = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 1; j <= numTasks; j++) {
+                    int seq = j;
+                    executor.execute(() -> {
+                        // Tasks never run concurrently and tasks of a producer run in submission order
+                        assertEquals(seq - 1, last[producer]);
+                        last[producer] = seq;
+                        done.countDown();
+                    });
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < numProducers; i++) {
+            assertEquals(numTasks, last[i]);
+        }
+    }
+
+    @Test
+    public void testBatchSizeGivesThreadBack() throws Exception {
+        pool = Executors.newSingleThreadExecutor();
+        OrderedExecutorFactory factory = new OrderedExecutorFactory(pool, 1, null);
+        Executor executor1 = factory.getExecutor();
+        Executor executor2 = factory.getExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        pool.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+        for (int i = 1; i <= 3; i++) {
+            String name = "a" + i;
+            executor1.execute(() -> {
+                order.add(name);
+                done.countDown();
+            });
+        }
+        executor2.execute(() -> {
+            order.add("b1");
+            done.countDown();
+        });
+        blocked.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a1", "b1", "a2", "a3"), order);
+    }
+
+    @Test
+    public void testUnboundedBatchDrainsQueue() throws Exception {
+        pool = Executors.newSingleThreadExecutor();
+        FakeOrderedExecutorMetrics metrics = new FakeOrderedExecutorMetrics("test");
+        Executor executor = new OrderedExecutorFactory(pool, 0, metrics).getExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ignore) {
+            }
+            done.countDown();
+        });
+        for (int i = 0; i < 9; i++) {
+            executor.execute(done::countDown);
+        }
+        // The first task may already have been taken by the runner
+        assertTrue(metrics.getMaxQueueDepth() >= 9);
+        blocked.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        waitUntil(() -> metrics.getExecuted() == 10);
+        assertEquals(10, metrics.getQueued());
+        assertEquals(1, metrics.getBatches());
+    }
+
+    @Test
+    public void testTaskFailureDoesNotStopExecutor() throws Exception {
+        pool = Executors.newSingleThreadExecutor();
+        Executor executor = new OrderedExecutorFactory(pool).getExecutor();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> {
+            throw new RuntimeException("boom");
+        });
+        executor.execute(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInvalidBatchSize() {
+        TestUtils.assertIllegalArgumentException(() -> new OrderedExecutorFactory(Runnable::run, -1, null));
+    }
+}
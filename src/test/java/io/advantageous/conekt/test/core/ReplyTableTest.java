@@ -0,0 +1,202 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.eventbus.ReplyException;
+import io.advantageous.conekt.eventbus.ReplyFailure;
+import io.advantageous.conekt.eventbus.impl.ReplyHandler;
+import io.advantageous.conekt.eventbus.impl.ReplyTable;
+import io.advantageous.conekt.impl.ConektInternal;
+import io.advantageous.conekt.impl.ContextImpl;
+import io.advantageous.conekt.spi.metrics.EventBusMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplyTableTest extends VertxTestBase {
+
+    private ConcurrentMap<Integer, ReplyTable> registry;
+    private ContextImpl context;
+    private ReplyTable table;
+    private EventBusMetrics metrics;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        registry = new ConcurrentHashMap<>();
+        context = ((ConektInternal) conekt).getOrCreateContext();
+        table = new ReplyTable(context, 7, registry);
+        metrics = ((ConektInternal) conekt).metricsSPI().createMetrics(conekt.eventBus());
+    }
+
+    @Test
+    public void testAddRemove() {
+        ReplyHandler<Object> reply1 = new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1);
+        ReplyHandler<Object> reply2 = new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1);
+        assertTrue(reply1.id() != reply2.id());
+        assertEquals(7, ReplyTable.index(reply1.id()));
+        assertEquals(7, ReplyTable.index(reply2.id()));
+        assertEquals(2, table.size());
+        assertSame(table, registry.get(7));
+        assertSame(reply1, table.get(reply1.id()));
+        assertSame(reply2, table.get(reply2.id()));
+        assertTrue(reply1.isPending());
+        assertSame(reply1, table.remove(reply1.id()));
+        assertNull(table.remove(reply1.id()));
+        assertNull(table.get(reply1.id()));
+        assertFalse(reply1.isPending());
+        assertSame(reply2, table.get(reply2.id()));
+        assertSame(reply2, table.remove(reply2.id()));
+        assertEquals(0, table.size());
+        // An empty table is unregistered
+        assertNull(registry.get(7));
+    }
+
+    @Test
+    public void testIdsNotReused() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ReplyHandler<Object> reply = new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1);
+            assertTrue(ids.add(reply.id()));
+            assertSame(reply, table.remove(reply.id()));
+        }
+        ReplyHandler<Object> reply = new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1);
+        // A stale id does not find a later reply
+        for (long id : ids) {
+            assertNull(table.get(id));
+        }
+        assertSame(reply, table.get(reply.id()));
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        List<ReplyHandler<Object>> replies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            replies.add(new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1));
+        }
+        assertEquals(1000, table.size());
+        // Remove every other reply, the remaining ones must still be found
+        for (int i = 0; i < replies.size(); i += 2) {
+            assertSame(replies.get(i), table.remove(replies.get(i).id()));
+        }
+        for (int i = 1; i < replies.size(); i += 2) {
+            assertSame(replies.get(i), table.get(replies.get(i).id()));
+        }
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    public void testFail() {
+        AtomicInteger calls = new AtomicInteger();
+        ReplyHandler<Object> reply = new ReplyHandler<>(metrics, table, "foo", ar -> {
+            assertTrue(ar.failed());
+            assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) ar.cause()).failureType());
+            calls.incrementAndGet();
+        }, 1000);
+        reply.fail(ReplyFailure.NO_HANDLERS, "No handlers");
+        // Only the first completion calls the handler
+        reply.fail(ReplyFailure.NO_HANDLERS, "No handlers");
+        assertEquals(1, calls.get());
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testTimeout() {
+        List<String> timedOut = new CopyOnWriteArrayList<>();
+        context.runOnContext(v -> {
+            ReplyHandler<Object> late = new ReplyHandler<>(metrics, table, "late", ar -> {
+                assertTrue(ar.failed());
+                assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar.cause()).failureType());
+                assertSame(context, conekt.getOrCreateContext());
+                timedOut.add("late");
+                assertEquals(1, table.size());
+            }, 200);
+            // Added later with an earlier deadline, it expires first
+            new ReplyHandler<>(metrics, table, "early", ar -> {
+                assertTrue(ar.failed());
+                assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar.cause()).failureType());
+                timedOut.add("early");
+                assertTrue(late.isPending());
+            }, 50);
+            ReplyHandler<Object> completed = new ReplyHandler<>(metrics, table, "completed", ar -> {
+                assertEquals(ReplyFailure.RECIPIENT_FAILURE, ((ReplyException) ar.cause()).failureType());
+            }, 100);
+            completed.fail(ReplyFailure.RECIPIENT_FAILURE, "Failed");
+            new ReplyHandler<>(metrics, table, "never", ar -> fail(), -1);
+            assertEquals(3, table.size());
+        });
+        waitUntil(() -> timedOut.size() == 2);
+        assertEquals("early", timedOut.get(0));
+        assertEquals("late", timedOut.get(1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testMassTimeout() {
+        int count = 10_000;
+        AtomicInteger timedOut = new AtomicInteger();
+        context.runOnContext(v -> {
+            for (int i = 0; i < count; i++) {
+                long timeout = 50 + i % 200;
+                long start = System.nanoTime();
+                new ReplyHandler<>(metrics, table, "foo", ar -> {
+                    assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar.cause()).failureType());
+                    // The sweeps are coalesced on a tick, a reply never times out early
+                    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(timeout));
+                    if (timedOut.incrementAndGet() == count) {
+                        assertEquals(0, table.size());
+                        assertNull(registry.get(7));
+                        testComplete();
+                    }
+                }, timeout);
+            }
+            assertEquals(count, table.size());
+        });
+        await();
+    }
+
+    @Test
+    public void testClose() {
+        new ReplyHandler<>(metrics, table, "foo", ar -> fail(), 100);
+        new ReplyHandler<>(metrics, table, "foo", ar -> fail(), -1);
+        table.close(ar -> {
+            assertTrue(ar.succeeded());
+            assertEquals(0, table.size());
+            assertNull(registry.get(7));
+            // Closing cancels the sweep, the pending replies never time out
+            conekt.setTimer(300, id -> testComplete());
+        });
+        await();
+    }
+}
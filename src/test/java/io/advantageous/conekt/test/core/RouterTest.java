@@ -0,0 +1,169 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.http.HttpClientOptions;
+import io.advantageous.conekt.http.HttpClientResponse;
+import io.advantageous.conekt.http.HttpMethod;
+import io.advantageous.conekt.http.Router;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static io.advantageous.conekt.test.core.TestUtils.assertIllegalArgumentException;
+import static io.advantageous.conekt.test.core.TestUtils.assertNullPointerException;
+
+public class RouterTest extends HttpTestBase {
+
+    private Router router;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = conekt.createHttpClient(new HttpClientOptions());
+        router = Router.router();
+    }
+
+    @Test
+    public void testInvalidRoutes() {
+        assertNullPointerException(() -> router.get(null, req -> {
+        }));
+        assertNullPointerException(() -> router.get("/", null));
+        assertIllegalArgumentException(() -> router.get("", req -> {
+        }));
+        assertIllegalArgumentException(() -> router.get("foo", req -> {
+        }));
+        assertIllegalArgumentException(() -> router.get("/users/:", req -> {
+        }));
+        assertIllegalArgumentException(() -> router.get("/static/*/foo", req -> {
+        }));
+        router.get("/users/:id", req -> {
+        });
+        assertIllegalArgumentException(() -> router.get("/users/:id", req -> {
+        }));
+        assertIllegalArgumentException(() -> router.get("/users/:name/posts", req -> {
+        }));
+        router.post("/users/:id", req -> {
+        });
+    }
+
+    @Test
+    public void testStaticRoutes() throws Exception {
+        router.get("/", req -> req.response().end("root"));
+        router.get("/users", req -> req.response().end("users"));
+        router.get("/users/new", req -> req.response().end("new"));
+        router.get("/user", req -> req.response().end("user"));
+        router.get("/usage", req -> req.response().end("usage"));
+        listen();
+        expect(HttpMethod.GET, "/", 200, "root", () ->
+                expect(HttpMethod.GET, "/users", 200, "users", () ->
+                        expect(HttpMethod.GET, "/users/new?foo=bar", 200, "new", () ->
+                                expect(HttpMethod.GET, "/user", 200, "user", () ->
+                                        expect(HttpMethod.GET, "/usage", 200, "usage", () ->
+                                                expect(HttpMethod.GET, "/use", 404, "", this::testComplete))))));
+        await();
+    }
+
+    @Test
+    public void testPathParams() throws Exception {
+        router.get("/users/:id", req -> req.response().end("user " + req.getParam("id")));
+        router.get("/users/:id/posts/:post", req ->
+                req.response().end(req.getParam("id") + " " + req.getParam("post") + " " + req.getParam("q")));
+        router.get("/users/new", req -> req.response().end("new"));
+        listen();
+        expect(HttpMethod.GET, "/users/123", 200, "user 123", () ->
+                expect(HttpMethod.GET, "/users/new", 200, "new", () ->
+                        expect(HttpMethod.GET, "/users/newer", 200, "user newer", () ->
+                                expect(HttpMethod.GET, "/users/a%20b/posts/7?q=x", 200, "a b 7 x", () ->
+                                        expect(HttpMethod.GET, "/users/", 404, "", () ->
+                                                expect(HttpMethod.GET, "/users/1/posts", 404, "", this::testComplete))))));
+        await();
+    }
+
+    @Test
+    public void testWildcard() throws Exception {
+        router.get("/static/*path", req -> req.response().end("static " + req.getParam("path")));
+        router.get("/static/index.html", req -> req.response().end("index"));
+        router.get("/files/*", req -> req.response().end("files " + req.getParam("*")));
+        listen();
+        expect(HttpMethod.GET, "/static/css/site.css", 200, "static css/site.css", () ->
+                expect(HttpMethod.GET, "/static/index.html", 200, "index", () ->
+                        expect(HttpMethod.GET, "/static/", 200, "static ", () ->
+                                expect(HttpMethod.GET, "/files/a/b", 200, "files a/b", () ->
+                                        expect(HttpMethod.GET, "/static", 404, "", this::testComplete)))));
+        await();
+    }
+
+    @Test
+    public void testMethodDispatch() throws Exception {
+        router.get("/items", req -> req.response().end("get"));
+        router.post("/items", req -> req.response().end("post"));
+        router.route("/any", req -> req.response().end("any " + req.method()));
+        router.route(HttpMethod.PUT, "/any", req -> req.response().end("put"));
+        listen();
+        expect(HttpMethod.GET, "/items", 200, "get", () ->
+                expect(HttpMethod.POST, "/items", 200, "post", () ->
+                        expect(HttpMethod.DELETE, "/any", 200, "any DELETE", () ->
+                                expect(HttpMethod.PUT, "/any", 200, "put", () ->
+                                        request(HttpMethod.DELETE, "/items", resp -> {
+                                            assertEquals(405, resp.statusCode());
+                                            assertEquals("GET, POST", resp.headers().get("Allow"));
+                                            testComplete();
+                                        })))));
+        await();
+    }
+
+    @Test
+    public void testNotFoundHandler() throws Exception {
+        router.get("/", req -> req.response().end("root"));
+        router.notFoundHandler(req -> req.response().setStatusCode(404).end("missing " + req.path()));
+        listen();
+        expect(HttpMethod.GET, "/foo", 404, "missing /foo", this::testComplete);
+        await();
+    }
+
+    private void listen() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        server.requestHandler(router).listen(onSuccess(s -> latch.countDown()));
+        awaitLatch(latch);
+    }
+
+    private void expect(HttpMethod method, String uri, int status, String body, Runnable next) {
+        request(method, uri, resp -> {
+            assertEquals(status, resp.statusCode());
+            resp.bodyHandler(buff -> {
+                assertEquals(body, buff.toString());
+                next.run();
+            });
+        });
+    }
+
+    private void request(HttpMethod method, String uri, Consumer<HttpClientResponse> respHandler) {
+        client.request(method, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, uri, respHandler::accept)
+                .exceptionHandler(this::fail).end();
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.http.HttpClientOptions;
+import io.advantageous.conekt.http.HttpClientRequest;
+import io.advantageous.conekt.http.HttpClientResponse;
+import io.advantageous.conekt.http.HttpMethod;
+import io.advantageous.conekt.http.StaticFileHandler;
+import io.advantageous.conekt.http.StaticFileOptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static io.advantageous.conekt.test.core.TestUtils.assertIllegalArgumentException;
+import static io.advantageous.conekt.test.core.TestUtils.assertNullPointerException;
+
+public class StaticFileHandlerTest extends HttpTestBase {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private File webRoot;
+    private StaticFileHandler handler;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        webRoot = testFolder.newFolder("webroot");
+        client = conekt.createHttpClient(new HttpClientOptions());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (handler != null) {
+            handler.close();
+        }
+        super.tearDown();
+    }
+
+    @Test
+    public void testOptions() {
+        StaticFileOptions options = new StaticFileOptions();
+        assertEquals(StaticFileOptions.DEFAULT_WEB_ROOT, options.getWebRoot());
+        assertEquals(StaticFileOptions.DEFAULT_INDEX_PAGE, options.getIndexPage());
+        assertEquals(StaticFileOptions.DEFAULT_MAX_CACHE_SIZE, options.getMaxCacheSize());
+        assertEquals(StaticFileOptions.DEFAULT_CACHE_ENTRY_TIMEOUT, options.getCacheEntryTimeout());
+        assertEquals(StaticFileOptions.DEFAULT_MAX_AGE_SECONDS, options.getMaxAgeSeconds());
+        assertEquals(StaticFileOptions.DEFAULT_SEND_PRECOMPRESSED, options.isSendPrecompressed());
+        assertEquals(options, options.setWebRoot("public"));
+        assertEquals("public", options.getWebRoot());
+        assertNullPointerException(() -> options.setWebRoot(null));
+        assertEquals(options, options.setIndexPage(null));
+        assertNull(options.getIndexPage());
+        assertEquals(options, options.setMaxCacheSize(10));
+        assertEquals(10, options.getMaxCacheSize());
+        assertIllegalArgumentException(() -> options.setMaxCacheSize(0));
+        assertEquals(options, options.setCacheEntryTimeout(0));
+        assertEquals(0, options.getCacheEntryTimeout());
+        assertIllegalArgumentException(() -> options.setCacheEntryTimeout(-1));
+        assertEquals(options, options.setMaxAgeSeconds(60));
+        assertEquals(60, options.getMaxAgeSeconds());
+        assertIllegalArgumentException(() -> options.setMaxAgeSeconds(-1));
+        assertEquals(options, options.setSendPrecompressed(true));
+        assertTrue(options.isSendPrecompressed());
+        StaticFileOptions copy = new StaticFileOptions(options);
+        assertEquals(options, copy);
+        assertEquals(options.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testServeFile() throws Exception {
+        String content = TestUtils.randomAlphaString(10000);
+        File file = setupFile("index.html", content);
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/index.html", null, null, resp -> {
+            assertEquals(200, resp.statusCode());
+            assertEquals("text/html", resp.headers().get("Content-Type"));
+            assertEquals(String.valueOf(file.length()), resp.headers().get("Content-Length"));
+            assertEquals("public, max-age=" + StaticFileOptions.DEFAULT_MAX_AGE_SECONDS, resp.headers().get("Cache-Control"));
+            assertEquals("bytes", resp.headers().get("Accept-Ranges"));
+            assertNotNull(resp.headers().get("ETag"));
+            assertNotNull(resp.headers().get("Last-Modified"));
+            resp.bodyHandler(body -> {
+                assertEquals(content, body.toString());
+                // Served again from the cache
+                request(HttpMethod.GET, "/", null, null, resp2 -> {
+                    assertEquals(200, resp2.statusCode());
+                    assertEquals(resp.headers().get("ETag"), resp2.headers().get("ETag"));
+                    resp2.bodyHandler(body2 -> {
+                        assertEquals(content, body2.toString());
+                        testComplete();
+                    });
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testHead() throws Exception {
+        File file = setupFile("file.txt", TestUtils.randomAlphaString(1000));
+        serve(new StaticFileOptions());
+        request(HttpMethod.HEAD, "/file.txt", null, null, resp -> {
+            assertEquals(200, resp.statusCode());
+            assertEquals(String.valueOf(file.length()), resp.headers().get("Content-Length"));
+            resp.bodyHandler(body -> {
+                assertEquals(0, body.length());
+                testComplete();
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testNotModifiedETag() throws Exception {
+        setupFile("file.txt", "hello");
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/file.txt", null, null, resp -> {
+            String etag = resp.headers().get("ETag");
+            request(HttpMethod.GET, "/file.txt", "If-None-Match", "\"other\", " + etag, resp2 -> {
+                assertEquals(304, resp2.statusCode());
+                assertEquals(etag, resp2.headers().get("ETag"));
+                request(HttpMethod.GET, "/file.txt", "If-None-Match", "\"other\"", resp3 -> {
+                    assertEquals(200, resp3.statusCode());
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testNotModifiedSince() throws Exception {
+        setupFile("file.txt", "hello");
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/file.txt", null, null, resp -> {
+            String lastModified = resp.headers().get("Last-Modified");
+            request(HttpMethod.GET, "/file.txt", "If-Modified-Since", lastModified, resp2 -> {
+                assertEquals(304, resp2.statusCode());
+                request(HttpMethod.GET, "/file.txt", "If-Modified-Since", "Thu, 01 Jan 1970 00:00:00 GMT", resp3 -> {
+                    assertEquals(200, resp3.statusCode());
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        setupFile("file.txt", "0123456789");
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/file.txt", "Range", "bytes=2-5", resp -> {
+            assertEquals(206, resp.statusCode());
+            assertEquals("bytes 2-5/10", resp.headers().get("Content-Range"));
+            assertEquals("4", resp.headers().get("Content-Length"));
+            resp.bodyHandler(body -> {
+                assertEquals("2345", body.toString());
+                request(HttpMethod.GET, "/file.txt", "Range", "bytes=-3", resp2 -> {
+                    assertEquals(206, resp2.statusCode());
+                    assertEquals("bytes 7-9/10", resp2.headers().get("Content-Range"));
+                    resp2.bodyHandler(body2 -> {
+                        assertEquals("789", body2.toString());
+                        testComplete();
+                    });
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testRangeNotSatisfiable() throws Exception {
+        setupFile("file.txt", "0123456789");
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/file.txt", "Range", "bytes=10-", resp -> {
+            assertEquals(416, resp.statusCode());
+            assertEquals("bytes */10", resp.headers().get("Content-Range"));
+            testComplete();
+        });
+        await();
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        serve(new StaticFileOptions().setIndexPage(null));
+        request(HttpMethod.GET, "/missing.txt", null, null, resp -> {
+            assertEquals(404, resp.statusCode());
+            request(HttpMethod.GET, "/", null, null, resp2 -> {
+                assertEquals(404, resp2.statusCode());
+                testComplete();
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testNotFoundCached() throws Exception {
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/late.txt", null, null, resp -> {
+            assertEquals(404, resp.statusCode());
+            try {
+                setupFile("late.txt", "hello");
+            } catch (Exception e) {
+                fail(e);
+            }
+            // The missing file is cached like an existing one, it is not looked up again before the entry times out
+            request(HttpMethod.GET, "/late.txt", null, null, resp2 -> {
+                assertEquals(404, resp2.statusCode());
+                request(HttpMethod.GET, "/late.txt", null, null, resp3 -> {
+                    assertEquals(404, resp3.statusCode());
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testPathTraversal() throws Exception {
+        Files.write(new File(webRoot.getParentFile(), "secret.txt").toPath(), "secret".getBytes());
+        serve(new StaticFileOptions());
+        request(HttpMethod.GET, "/../secret.txt", null, null, resp -> {
+            assertEquals(404, resp.statusCode());
+            request(HttpMethod.GET, "/%2e%2e/secret.txt", null, null, resp2 -> {
+                assertEquals(404, resp2.statusCode());
+                testComplete();
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws Exception {
+        setupFile("file.txt", "hello");
+        serve(new StaticFileOptions());
+        request(HttpMethod.POST, "/file.txt", null, null, resp -> {
+            assertEquals(405, resp.statusCode());
+            assertEquals("GET, HEAD", resp.headers().get("Allow"));
+            testComplete();
+        });
+        await();
+    }
+
+    @Test
+    public void testPrecompressed() throws Exception {
+        String content = TestUtils.randomAlphaString(1000);
+        setupFile("file.txt", content);
+        try (GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(new File(webRoot, "file.txt.gz")))) {
+            out.write(content.getBytes("UTF-8"));
+        }
+        long gzLength = new File(webRoot, "file.txt.gz").length();
+        serve(new StaticFileOptions().setSendPrecompressed(true));
+        request(HttpMethod.GET, "/file.txt", "Accept-Encoding", "gzip", resp -> {
+            assertEquals(200, resp.statusCode());
+            assertEquals("gzip", resp.headers().get("Content-Encoding"));
+            assertEquals("Accept-Encoding", resp.headers().get("Vary"));
+            assertEquals(String.valueOf(gzLength), resp.headers().get("Content-Length"));
+            String gzEtag = resp.headers().get("ETag");
+            assertTrue(gzEtag.endsWith("-gz\""));
+            request(HttpMethod.GET, "/file.txt", null, null, resp2 -> {
+                assertNull(resp2.headers().get("Content-Encoding"));
+                assertEquals("Accept-Encoding", resp2.headers().get("Vary"));
+                // Each representation has its own strong validator
+                assertFalse(gzEtag.equals(resp2.headers().get("ETag")));
+                resp2.bodyHandler(body -> {
+                    assertEquals(content, body.toString());
+                    testComplete();
+                });
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testPrecompressedUpdated() throws Exception {
+        String content = TestUtils.randomAlphaString(1000);
+        setupFile("file.txt", content);
+        File gzFile = new File(webRoot, "file.txt.gz");
+        Files.write(gzFile.toPath(), new byte[100]);
+        serve(new StaticFileOptions().setSendPrecompressed(true).setCacheEntryTimeout(0));
+        request(HttpMethod.GET, "/file.txt", "Accept-Encoding", "gzip", resp -> {
+            assertEquals("100", resp.headers().get("Content-Length"));
+            try {
+                // Only the sibling changes, the identity file is untouched
+                Files.write(gzFile.toPath(), new byte[200]);
+            } catch (Exception e) {
+                fail(e);
+            }
+            request(HttpMethod.GET, "/file.txt", "Accept-Encoding", "gzip", resp2 -> {
+                assertEquals("200", resp2.headers().get("Content-Length"));
+                testComplete();
+            });
+        });
+        await();
+    }
+
+    private void serve(StaticFileOptions options) throws Exception {
+        handler = StaticFileHandler.create(conekt, options.setWebRoot(webRoot.getAbsolutePath()));
+        CountDownLatch latch = new CountDownLatch(1);
+        server.requestHandler(handler).listen(onSuccess(s -> latch.countDown()));
+        awaitLatch(latch);
+    }
+
+    private void request(HttpMethod method, String uri, String header, String value, Consumer<HttpClientResponse> respHandler) {
+        HttpClientRequest req = client.request(method, DEFAULT_HTTP_PORT, DEFAULT_HTTP_HOST, uri, respHandler::accept);
+        if (header != null) {
+            req.putHeader(header, value);
+        }
+        req.exceptionHandler(this::fail).end();
+    }
+
+    private File setupFile(String fileName, String content) throws Exception {
+        File file = new File(webRoot, fileName);
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.test.core;
+
+import io.advantageous.conekt.ConektOptions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the timer tests with the timer wheels enabled.
+ */
+public class TimerWheelTest extends TimerTest {
+
+    @Override
+    protected ConektOptions getOptions() {
+        // A small wheel so the tests also cover timers more than one revolution away
+        return super.getOptions().setTimerWheelTickDuration(1).setTimerWheelSize(16);
+    }
+
+    @Test
+    public void testTimerNotBeforeDeadline() {
+        long start = System.nanoTime();
+        conekt.setTimer(100, id -> {
+            assertTrue(System.nanoTime() - start >= 100_000_000L);
+            testComplete();
+        });
+        await();
+    }
+
+    @Test
+    public void testCancelManyTimers() {
+        int numTimers = 10000;
+        AtomicInteger fired = new AtomicInteger();
+        conekt.runOnContext(v -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < numTimers; i++) {
+                ids.add(conekt.setTimer(50 + i % 100, id -> fired.incrementAndGet()));
+            }
+            for (long id : ids) {
+                assertTrue(conekt.cancelTimer(id));
+                assertFalse(conekt.cancelTimer(id));
+            }
+            conekt.setTimer(300, id -> {
+                assertEquals(0, fired.get());
+                testComplete();
+            });
+        });
+        await();
+    }
+
+    @Test
+    public void testCancelTimerFromAnotherThread() throws Exception {
+        long id = conekt.setTimer(100, tid -> fail("Should not fire"));
+        Thread thread = new Thread(() -> assertTrue(conekt.cancelTimer(id)));
+        thread.start();
+        thread.join();
+        assertFalse(conekt.cancelTimer(id));
+        conekt.setTimer(200, tid -> testComplete());
+        await();
+    }
+}
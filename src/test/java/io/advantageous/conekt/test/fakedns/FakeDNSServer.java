@@ -42,8 +42,11 @@ import org.apache.mina.transport.socket.DatagramAcceptor;
 import org.apache.mina.transport.socket.DatagramSessionConfig;
 
 import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author <a href="mailto:nmaurer@redhat.com">Norman Maurer</a>
@@ -54,6 +57,7 @@ public final class FakeDNSServer extends DnsServer {
 
     private final RecordStore store;
     private DatagramAcceptor acceptor;
+    private final Set<SocketAddress> remoteAddresses = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
 
     private FakeDNSServer(RecordStore store) {
@@ -288,6 +292,7 @@ public final class FakeDNSServer extends DnsServer {
         acceptor.setHandler(new DnsProtocolHandler(this, store) {
             @Override
             public void sessionCreated(IoSession session) throws Exception {
+                remoteAddresses.add(session.getRemoteAddress());
                 // USe our own codec to support AAAA testing
                 session.getFilterChain().addFirst("codec",
                         new ProtocolCodecFilter(new TestDnsProtocolUdpCodecFactory()));
@@ -302,6 +307,13 @@ public final class FakeDNSServer extends DnsServer {
     }
 
 
+    /**
+     * @return the addresses the queries were sent from
+     */
+    public Set<SocketAddress> remoteAddresses() {
+        return remoteAddresses;
+    }
+
     @Override
     public void stop() {
         acceptor.dispose();
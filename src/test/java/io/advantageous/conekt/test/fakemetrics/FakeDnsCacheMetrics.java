@@ -0,0 +1,91 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.test.fakemetrics;
+
+import io.advantageous.conekt.spi.metrics.DnsCacheMetrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FakeDnsCacheMetrics implements DnsCacheMetrics {
+
+    private final int maxSize;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger coalesced = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    public FakeDnsCacheMetrics(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public int getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public void cacheHit(String name) {
+        hits.incrementAndGet();
+    }
+
+    @Override
+    public void cacheMiss(String name) {
+        misses.incrementAndGet();
+    }
+
+    @Override
+    public void queryCoalesced(String name) {
+        coalesced.incrementAndGet();
+    }
+
+    @Override
+    public void entryEvicted(String name) {
+        evictions.incrementAndGet();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
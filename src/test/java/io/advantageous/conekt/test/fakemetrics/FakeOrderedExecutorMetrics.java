@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright (c) 2011-2016 The original author or authors
+ *  * This project contains modified work from the Vert.x Project.
+ *  * The Vert.x project Copyright is owned by Red Hat and/or the
+ *  * original authors of the Vert.x project including Tim Fox, Julien Vet,
+ *  * Norman Maurer, and many others.
+ *  * We have left the original author tags on this MODIFIED COPY/FORK.
+ *  *
+ *  * Modified work is Copyright (c) 2015-2016 Rick Hightower and Geoff Chandler.
+ *  * ------------------------------------------------------
+ *  * All rights reserved. This program and the accompanying materials
+ *  * are made available under the terms of the Eclipse Public License v1.0
+ *  * and Apache License v2.0 which accompanies this distribution.
+ *  *
+ *  *     The Eclipse Public License is available at
+ *  *     http://www.eclipse.org/legal/epl-v10.html
+ *  *
+ *  *     The Apache License v2.0 is available at
+ *  *     http://www.opensource.org/licenses/apache2.0.php
+ *  *
+ *  * You may elect to redistribute this code under either of these licenses.
+ *
+ */
+package io.advantageous.conekt.test.fakemetrics;
+
+import io.advantageous.conekt.spi.metrics.OrderedExecutorMetrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FakeOrderedExecutorMetrics implements OrderedExecutorMetrics {
+
+    private final String poolName;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger executed = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public FakeOrderedExecutorMetrics(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getExecuted() {
+        return executed.get();
+    }
+
+    public int getBatches() {
+        return batches.get();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public void taskQueued(int queueDepth) {
+        queued.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+    }
+
+    @Override
+    public void tasksExecuted(int count) {
+        executed.addAndGet(count);
+        batches.incrementAndGet();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
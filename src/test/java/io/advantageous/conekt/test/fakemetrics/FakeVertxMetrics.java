@@ -45,6 +45,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public class FakeVertxMetrics extends FakeMetricsBase implements ConektMetrics {
 
     public static AtomicReference<EventBus> eventBus = new AtomicReference<>();
+    public static AtomicReference<FakeDnsCacheMetrics> dnsCacheMetrics = new AtomicReference<>();
+    public static AtomicReference<BufferPoolStats> bufferPoolStats = new AtomicReference<>();
 
     public FakeVertxMetrics(Conekt conekt) {
         super(conekt);
@@ -139,8 +141,22 @@ public class FakeVertxMetrics extends FakeMetricsBase implements ConektMetrics {
         return new FakeDatagramSocketMetrics(socket);
     }
 
+    public DnsCacheMetrics createDnsCacheMetrics(int maxSize) {
+        FakeDnsCacheMetrics metrics = new FakeDnsCacheMetrics(maxSize);
+        dnsCacheMetrics.set(metrics);
+        return metrics;
+    }
+
+    public OrderedExecutorMetrics createOrderedExecutorMetrics(String poolName) {
+        return new FakeOrderedExecutorMetrics(poolName);
+    }
+
+    public void bufferPoolCreated(BufferPoolStats stats) {
+        bufferPoolStats.set(stats);
+    }
+
     public boolean isEnabled() {
-        throw new UnsupportedOperationException();
+        return true;
     }
 
     @Override